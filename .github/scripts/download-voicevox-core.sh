@@ -0,0 +1,15 @@
+#!/usr/bin/env bash
+# READMEの手順 2-3 を自動化する: ダウンローダーでC APIと必要なファイルを取得し、ライブラリを配置する
+set -euo pipefail
+
+resources="lib/src/main/resources"
+mkdir -p "$resources"
+cd "$resources"
+
+curl -fsSL -o download \
+  "https://github.com/VOICEVOX/voicevox_core/releases/download/${VOICEVOX_CORE_VERSION}/download-linux-x64"
+chmod +x download
+# 音声モデルとONNX Runtimeの利用規約への同意を求められるため、同意を入力する
+yes y | ./download --output voicevox_core
+
+cp voicevox_core/c_api/lib/libvoicevox_core.so voicevox_core/
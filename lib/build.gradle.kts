@@ -17,6 +17,12 @@ repositories {
   mavenCentral()
 }
 
+// JDK 22以降向けのFFMバックエンド（マルチリリースJARの META-INF/versions/22 に格納）
+val java22: SourceSet by sourceSets.creating {
+  java.srcDir("src/main/java22")
+  compileClasspath += sourceSets.main.get().output + sourceSets.main.get().compileClasspath
+}
+
 dependencies {
   implementation(libs.logback)
   implementation(libs.jakarta.annotation)
@@ -37,11 +43,51 @@ dependencies {
   testAnnotationProcessor(libs.lombok)
 }
 
+tasks.named<JavaCompile>(java22.compileJavaTaskName) {
+  javaCompiler.set(javaToolchains.compilerFor {
+    languageVersion.set(JavaLanguageVersion.of(22))
+  })
+  options.release.set(22)
+}
+
+tasks.jar {
+  into("META-INF/versions/22") {
+    from(java22.output)
+  }
+  manifest {
+    attributes("Multi-Release" to "true")
+  }
+}
+
 // force UTF-8 encoding both for source files and for the output
 tasks.withType<JavaCompile> {
   options.encoding = "UTF-8"
 }
 
+// JDK 22でFFMバックエンドを使用してテストスイート全体を実行する（CIのJDK 22ジョブ用）。
+// テストはJARではなくクラスディレクトリから実行されるため、java22の出力をmainより前に置いて同名のクラスを置き換える。
+// JDK 22では既定でFFMバックエンドが選択されるが、ロードに失敗した場合にフォールバックせず失敗するよう明示的に指定する
+val foreignTest by tasks.registering(Test::class) {
+  description = "Runs the test suite with the Foreign Function & Memory binding on JDK 22."
+  group = LifecycleBasePlugin.VERIFICATION_GROUP
+  useJUnitPlatform()
+  testClassesDirs = sourceSets.test.get().output.classesDirs
+  classpath = files(java22.output) + sourceSets.test.get().runtimeClasspath
+  javaLauncher.set(javaToolchains.launcherFor {
+    languageVersion.set(JavaLanguageVersion.of(22))
+  })
+  extensions.configure<org.javamodularity.moduleplugin.extensions.TestModuleOptions> {
+    runOnClasspath = true
+  }
+  systemProperty("voicevox4j.binding", "foreign")
+  jvmArgs(
+    "-Dfile.encoding=UTF-8",
+    "-Djna.encoding=UTF-8",
+    "-Dsun.jnu.encoding=UTF-8",
+    "--enable-native-access=ALL-UNNAMED"
+  )
+}
+
 tasks.test {
   useJUnitPlatform()
   finalizedBy(tasks.jacocoTestReport)
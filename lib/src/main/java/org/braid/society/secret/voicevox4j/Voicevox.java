@@ -1,16 +1,23 @@
 package org.braid.society.secret.voicevox4j;
 
 
+import java.io.IOException;
 import java.nio.file.Path;
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.api.NativeCallMode;
 import org.braid.society.secret.voicevox4j.api.OnnxRuntime;
 import org.braid.society.secret.voicevox4j.api.OpenJTalkDictionary;
 import org.braid.society.secret.voicevox4j.api.Synthesizer;
+import org.braid.society.secret.voicevox4j.api.SynthesizerPool;
 import org.braid.society.secret.voicevox4j.api.UserDict;
+import org.braid.society.secret.voicevox4j.api.VoiceModelCatalog;
 import org.braid.society.secret.voicevox4j.api.VoiceModelFile;
 import org.braid.society.secret.voicevox4j.exception.VoicevoxException;
 import org.braid.society.secret.voicevox4j.internal.Core;
+import org.braid.society.secret.voicevox4j.internal.NativeLane;
 import org.braid.society.secret.voicevox4j.internal.NativeVoicevoxLibrary;
+import org.braid.society.secret.voicevox4j.internal.OffloadingCore;
 import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxInitializeOptions;
 
 /**
@@ -21,6 +28,7 @@ import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxInitializeOp
 public class Voicevox {
 
   private final Core core;
+  private OnnxRuntime onnxRuntime;
 
   /**
    * {@code voicevox_core}ライブラリを、指定したディレクトリ直下を探してロードします。
@@ -31,8 +39,28 @@ public class Voicevox {
    * @param voicevoxCoreLibPath voicevox_coreライブラリが存在するディレクトリのパス。
    */
   public Voicevox(Path voicevoxCoreLibPath) {
-    this.core = NativeVoicevoxLibrary.load(voicevoxCoreLibPath);
-    log.debug("Voicevox core library loaded from: {}", voicevoxCoreLibPath);
+    this(voicevoxCoreLibPath, NativeCallMode.CALLER_THREAD, 0);
+  }
+
+  /**
+   * {@code voicevox_core}ライブラリをロードし、ネイティブ関数の呼び出し方法を指定します。
+   * <p>
+   * {@link NativeCallMode#OFFLOAD_VIRTUAL_THREADS}を指定した場合、このオブジェクトから作成したすべてのAPIオブジェクトで、
+   * 仮想スレッドからの重いネイティブ関数の呼び出しが{@code nativeLaneThreads}個のプラットフォームスレッドで実行されます。
+   * レーンのスレッド数は、同時に推論を行う合成器の数（プールのサイズなど）に合わせてください。
+   *
+   * @param voicevoxCoreLibPath voicevox_coreライブラリが存在するディレクトリのパス。
+   * @param mode ネイティブ関数の呼び出し方法
+   * @param nativeLaneThreads ネイティブレーンのスレッド数。{@link NativeCallMode#CALLER_THREAD}の場合は無視されます
+   * @throws IllegalArgumentException {@link NativeCallMode#OFFLOAD_VIRTUAL_THREADS}で{@code nativeLaneThreads}が1未満の場合
+   */
+  public Voicevox(Path voicevoxCoreLibPath, NativeCallMode mode, int nativeLaneThreads) {
+    Core loaded = NativeVoicevoxLibrary.load(voicevoxCoreLibPath);
+    this.core = switch (mode) {
+      case CALLER_THREAD -> loaded;
+      case OFFLOAD_VIRTUAL_THREADS -> new OffloadingCore(loaded, new NativeLane(nativeLaneThreads));
+    };
+    log.debug("Voicevox core library loaded from: {} (native call mode: {})", voicevoxCoreLibPath, mode);
   }
 
   /**
@@ -46,6 +74,33 @@ public class Voicevox {
     return new VoiceModelFile(vvmPath, core);
   }
 
+  /**
+   * 音声モデルファイルのディレクトリのカタログを開きます。索引ファイルはディレクトリ内の
+   * {@value VoiceModelCatalog#DEFAULT_INDEX_FILE_NAME}に保存されます。
+   * @param directory 音声モデルファイル {@code *.vvm} のあるディレクトリ。
+   * @return カタログ
+   * @throws IOException ディレクトリの一覧の取得、または索引ファイルの書き込みに失敗した場合。
+   * @throws InterruptedException ファイルの読み取りを待つ間に割り込まれた場合。
+   * @see VoiceModelCatalog#open(Path, Path, Core)
+   */
+  public VoiceModelCatalog openVoiceModelCatalog(Path directory) throws IOException, InterruptedException {
+    return openVoiceModelCatalog(directory, directory.resolve(VoiceModelCatalog.DEFAULT_INDEX_FILE_NAME));
+  }
+
+  /**
+   * 音声モデルファイルのディレクトリのカタログを、指定した索引ファイルを使って開きます。
+   * @param directory 音声モデルファイル {@code *.vvm} のあるディレクトリ。
+   * @param indexFile 索引ファイルのパス。
+   * @return カタログ
+   * @throws IOException ディレクトリの一覧の取得、または索引ファイルの書き込みに失敗した場合。
+   * @throws InterruptedException ファイルの読み取りを待つ間に割り込まれた場合。
+   */
+  public VoiceModelCatalog openVoiceModelCatalog(Path directory, Path indexFile)
+      throws IOException, InterruptedException {
+    log.debug("Opening voice model catalog: {}", directory);
+    return VoiceModelCatalog.open(directory, indexFile, core);
+  }
+
   /**
    * OpenJTalk辞書機能を初期化します。
    * この段階では辞書ファイルの読み込みは<b>行われません。</b>
@@ -69,12 +124,8 @@ public class Voicevox {
   public Synthesizer createSynthesizer(OpenJTalkDictionary openJtalkDictionary) throws VoicevoxException {
     log.debug("Creating synthesizer with OpenJTalk dictionary");
 
-    // ONNXランタイムを取得
-    OnnxRuntime onnxRuntime = new OnnxRuntime(core);
-
-
     // Synthesizerを作成
-    return new Synthesizer(onnxRuntime.getNativeOnnxruntime(), openJtalkDictionary, core);
+    return new Synthesizer(getOnnxRuntime().getNativeOnnxruntime(), openJtalkDictionary, core);
   }
 
   public Synthesizer createSynthesizer(OpenJTalkDictionary openJTalkDictionary, Path ortPath) throws VoicevoxException {
@@ -99,11 +150,95 @@ public class Voicevox {
   public Synthesizer createSynthesizer(OpenJTalkDictionary openJtalkDictionary, VoicevoxInitializeOptions options) throws VoicevoxException {
     log.debug("Creating synthesizer with OpenJTalk dictionary and custom options");
 
-    // ONNXランタイムを取得
-    OnnxRuntime onnxRuntime = new OnnxRuntime(core);
-
     // Synthesizerを作成
-    return new Synthesizer(onnxRuntime.getNativeOnnxruntime(), openJtalkDictionary, options, core);
+    return new Synthesizer(getOnnxRuntime().getNativeOnnxruntime(), openJtalkDictionary, options, core);
+  }
+
+  /**
+   * 同じONNXランタイムとOpenJTalk辞書を共有する音声合成器のプールを作成します。
+   * <p>
+   * 各合成器の{@code cpu_num_threads}は、利用可能なプロセッサ数をプールのサイズで割った値（最小1）になります。
+   *
+   * @param openJtalkDictionary 共有するOpenJTalk辞書
+   * @param poolSize プールする合成器の数
+   * @param models 各合成器に読み込む音声モデル
+   * @return 初期化された合成器のプール
+   * @throws VoicevoxException 合成器の作成、または音声モデルの読み込みに失敗した場合
+   */
+  public SynthesizerPool createSynthesizerPool(OpenJTalkDictionary openJtalkDictionary, int poolSize,
+                                               VoiceModelFile... models) throws VoicevoxException {
+    int cpuNumThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / Math.max(1, poolSize));
+    return createSynthesizerPool(openJtalkDictionary, poolSize, cpuNumThreads, models);
+  }
+
+  /**
+   * 同じONNXランタイムとOpenJTalk辞書を共有する音声合成器のプールを作成します（スレッド数指定）。
+   *
+   * @param openJtalkDictionary 共有するOpenJTalk辞書
+   * @param poolSize プールする合成器の数
+   * @param cpuNumThreads 各合成器の推論に使用するCPUスレッド数。0の場合はライブラリが自動で決定します
+   * @param models 各合成器に読み込む音声モデル
+   * @return 初期化された合成器のプール
+   * @throws VoicevoxException 合成器の作成、または音声モデルの読み込みに失敗した場合
+   */
+  public SynthesizerPool createSynthesizerPool(OpenJTalkDictionary openJtalkDictionary, int poolSize,
+                                               int cpuNumThreads, VoiceModelFile... models) throws VoicevoxException {
+    return createSynthesizerPool(openJtalkDictionary, poolSize, makeInitializeOptions(cpuNumThreads), models);
+  }
+
+  /**
+   * 既定値をもとに、推論に使用するCPUスレッド数を指定した初期化オプションを作成します。
+   *
+   * @throws IllegalArgumentException {@code cpuNumThreads}が範囲外の場合
+   */
+  VoicevoxInitializeOptions makeInitializeOptions(int cpuNumThreads) {
+    if (cpuNumThreads < 0 || cpuNumThreads > 0xFFFF) {
+      throw new IllegalArgumentException("cpuNumThreads out of range: " + cpuNumThreads);
+    }
+    VoicevoxInitializeOptions options = core.voicevox_make_default_initialize_options();
+    options.cpu_num_threads = (short) cpuNumThreads;
+    return options;
+  }
+
+  /**
+   * 同じONNXランタイムとOpenJTalk辞書を共有する音声合成器のプールを作成します（初期化オプション指定）。
+   *
+   * @param openJtalkDictionary 共有するOpenJTalk辞書
+   * @param poolSize プールする合成器の数
+   * @param options 各合成器の初期化オプション
+   * @param models 各合成器に読み込む音声モデル
+   * @return 初期化された合成器のプール
+   * @throws VoicevoxException 合成器の作成、または音声モデルの読み込みに失敗した場合
+   */
+  public SynthesizerPool createSynthesizerPool(OpenJTalkDictionary openJtalkDictionary, int poolSize,
+                                               VoicevoxInitializeOptions options, VoiceModelFile... models)
+      throws VoicevoxException {
+    log.debug("Creating synthesizer pool of {} with OpenJTalk dictionary", poolSize);
+    return new SynthesizerPool(getOnnxRuntime().getNativeOnnxruntime(), openJtalkDictionary,
+        List.of(models), poolSize, options, core);
+  }
+
+  /**
+   * 既定のONNXランタイムを、合成器の作成より前にロードします。
+   * <p>
+   * ロードは一度だけ行われ、以降に作成する合成器で共有されます。
+   * 辞書の初期化や音声モデルファイルのオープンと並行して呼び出すことで、起動時間を短縮できます。
+   *
+   * @throws VoicevoxException ONNXランタイムのロードに失敗した場合
+   */
+  public void loadOnnxRuntime() throws VoicevoxException {
+    getOnnxRuntime();
+  }
+
+  /**
+   * 既定のONNXランタイムを取得します。
+   * ネイティブ側のランタイムはプロセス内で一度だけロードされるため、ラッパーも最初に作成したものを使い回します。
+   */
+  private synchronized OnnxRuntime getOnnxRuntime() throws VoicevoxException {
+    if (onnxRuntime == null) {
+      onnxRuntime = new OnnxRuntime(core);
+    }
+    return onnxRuntime;
   }
 
   /**
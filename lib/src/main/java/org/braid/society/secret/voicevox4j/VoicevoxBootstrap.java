@@ -0,0 +1,355 @@
+package org.braid.society.secret.voicevox4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.api.NativeCallMode;
+import org.braid.society.secret.voicevox4j.api.OpenJTalkDictionary;
+import org.braid.society.secret.voicevox4j.api.PreloadProfile;
+import org.braid.society.secret.voicevox4j.api.Synthesizer;
+import org.braid.society.secret.voicevox4j.api.SynthesizerPool;
+import org.braid.society.secret.voicevox4j.api.VoiceModelFile;
+import org.braid.society.secret.voicevox4j.api.VoiceModelResidency;
+import org.braid.society.secret.voicevox4j.exception.VoicevoxException;
+import org.braid.society.secret.voicevox4j.internal.Futures;
+
+/**
+ * ライブラリのロードから音声モデルの読み込みまでを、互いに依存しない手順を並行に実行して起動するクラスです。
+ * <p>
+ * {@code voicevox_core}ライブラリのロードの後、OpenJTalk辞書の初期化、ONNXランタイムのロード、
+ * 各音声モデルファイルのオープンを並行に実行します。辞書とONNXランタイムの準備ができた時点で合成器を並行に作成し、
+ * 即時読み込みの音声モデルが開かれた合成器から順に読み込みます。
+ * どの音声モデルを即時に読み込むかは{@link PreloadProfile}で指定します。
+ * <pre>{@code
+ * try (VoicevoxEngine engine = new VoicevoxBootstrap(libDir, dictDir)
+ *     .setPoolSize(4)
+ *     .setProfile(new PreloadProfile().addEager(vvm0).addLazy(vvm1, vvm2))
+ *     .start()) {
+ *   log.info("Started in {}: {}", engine.getTotalTime(), engine.getPhaseTimings());
+ * }
+ * }</pre>
+ */
+@Slf4j
+public class VoicevoxBootstrap {
+
+  /**
+   * 起動の手順。
+   */
+  public enum Phase {
+    /** {@code voicevox_core}ライブラリのロード。 */
+    LIBRARY,
+    /** OpenJTalk辞書の初期化。 */
+    DICTIONARY,
+    /** ONNXランタイムのロード。 */
+    ONNX_RUNTIME,
+    /** 音声モデルファイルのオープン。 */
+    OPEN_MODELS,
+    /** 合成器の作成。 */
+    CREATE_SYNTHESIZERS,
+    /** 即時読み込みの音声モデルの読み込み。 */
+    LOAD_MODELS,
+    /** 合成器のウォームアップ。 */
+    WARMUP
+  }
+
+  private static final AtomicInteger THREAD_SEQUENCE = new AtomicInteger();
+
+  private final Path voicevoxCoreLibPath;
+  private final Path openJtalkDicDir;
+  private NativeCallMode nativeCallMode = NativeCallMode.CALLER_THREAD;
+  private int nativeLaneThreads;
+  private int poolSize = 1;
+  private Integer cpuNumThreads;
+  private PreloadProfile profile = new PreloadProfile();
+  private List<String> warmupUtterances;
+
+  /**
+   * 起動の設定を作成します。
+   *
+   * @param voicevoxCoreLibPath voicevox_coreライブラリが存在するディレクトリのパス
+   * @param openJtalkDicDir OpenJTalk辞書バイナリが存在するディレクトリのパス
+   */
+  public VoicevoxBootstrap(Path voicevoxCoreLibPath, Path openJtalkDicDir) {
+    this.voicevoxCoreLibPath = Objects.requireNonNull(voicevoxCoreLibPath, "voicevoxCoreLibPath");
+    this.openJtalkDicDir = Objects.requireNonNull(openJtalkDicDir, "openJtalkDicDir");
+  }
+
+  /**
+   * ネイティブ関数の呼び出し方法を設定します。既定値は{@link NativeCallMode#CALLER_THREAD}です。
+   *
+   * @param mode ネイティブ関数の呼び出し方法
+   * @param nativeLaneThreads ネイティブレーンのスレッド数
+   * @return このオブジェクト
+   * @see Voicevox#Voicevox(Path, NativeCallMode, int)
+   */
+  public VoicevoxBootstrap setNativeCallMode(NativeCallMode mode, int nativeLaneThreads) {
+    this.nativeCallMode = Objects.requireNonNull(mode, "mode");
+    this.nativeLaneThreads = nativeLaneThreads;
+    return this;
+  }
+
+  /**
+   * 作成する合成器の数を設定します。既定値は1です。
+   *
+   * @param poolSize 合成器の数
+   * @return このオブジェクト
+   * @throws IllegalArgumentException {@code poolSize}が1未満の場合
+   */
+  public VoicevoxBootstrap setPoolSize(int poolSize) {
+    if (poolSize < 1) {
+      throw new IllegalArgumentException("Pool size must be positive: " + poolSize);
+    }
+    this.poolSize = poolSize;
+    return this;
+  }
+
+  /**
+   * 各合成器の推論に使用するCPUスレッド数を設定します。
+   * 設定しない場合は、利用可能なプロセッサ数を合成器の数で割った値（最小1）になります。
+   *
+   * @param cpuNumThreads CPUスレッド数。0の場合はライブラリが自動で決定します
+   * @return このオブジェクト
+   * @throws IllegalArgumentException {@code cpuNumThreads}が範囲外の場合
+   */
+  public VoicevoxBootstrap setCpuNumThreads(int cpuNumThreads) {
+    if (cpuNumThreads < 0 || cpuNumThreads > 0xFFFF) {
+      throw new IllegalArgumentException("cpuNumThreads out of range: " + cpuNumThreads);
+    }
+    this.cpuNumThreads = cpuNumThreads;
+    return this;
+  }
+
+  /**
+   * 読み込む音声モデルのプロファイルを設定します。
+   *
+   * @param profile プロファイル
+   * @return このオブジェクト
+   */
+  public VoicevoxBootstrap setProfile(PreloadProfile profile) {
+    this.profile = Objects.requireNonNull(profile, "profile");
+    return this;
+  }
+
+  /**
+   * 起動時に、読み込んだ音声モデルのスタイルを指定した発話でウォームアップするように設定します。
+   * 既定ではウォームアップしません。
+   * <p>
+   * ウォームアップは合成器ごとに、音声モデルの読み込みが終わり次第並行に実行されます。
+   *
+   * @param utterances ダミーの発話
+   * @return このオブジェクト
+   * @see Synthesizer#warmup(List)
+   */
+  public VoicevoxBootstrap setWarmup(List<String> utterances) {
+    this.warmupUtterances = List.copyOf(utterances);
+    return this;
+  }
+
+  /**
+   * 起動します。
+   * <p>
+   * いずれかの手順が失敗した場合は、実行中の手順の完了を待ってから作成済みのリソースをすべて解放し、例外を送出します。
+   * ネイティブ関数の呼び出しは中断できないため、割り込まれた場合も同様に実行中の手順の完了を待ちます。
+   *
+   * @return 起動したエンジン
+   * @throws VoicevoxException いずれかの手順でネイティブライブラリの関数呼び出しが失敗した場合
+   * @throws InterruptedException 起動中に割り込まれた場合
+   */
+  public VoicevoxEngine start() throws VoicevoxException, InterruptedException {
+    List<Path> eagerPaths = profile.getEagerModels();
+    List<Path> lazyPaths = profile.getLazyModels();
+    int threads = Math.max(2, Math.max(poolSize, eagerPaths.size() + lazyPaths.size()));
+    int cpuThreads = cpuNumThreads != null ? cpuNumThreads
+        : Math.max(1, Runtime.getRuntime().availableProcessors() / poolSize);
+    Timings timings = new Timings();
+    List<AutoCloseable> created = Collections.synchronizedList(new ArrayList<>());
+    List<CompletableFuture<?>> steps = new ArrayList<>();
+    ExecutorService executor = Executors.newFixedThreadPool(threads, VoicevoxBootstrap::newThread);
+    long start = System.nanoTime();
+    try {
+      CompletableFuture<Voicevox> library = CompletableFuture.supplyAsync(() -> timings.run(Phase.LIBRARY,
+          () -> new Voicevox(voicevoxCoreLibPath, nativeCallMode, nativeLaneThreads)), executor);
+      steps.add(library);
+
+      // ライブラリ以外の手順はすべてライブラリの関数を呼び出すため、ロードの完了後に並行して開始する
+      CompletableFuture<OpenJTalkDictionary> dictionary = library.thenApplyAsync(voicevox -> timings.run(
+          Phase.DICTIONARY, () -> track(created, voicevox.initOpenJTalkDictionary(openJtalkDicDir))), executor);
+      CompletableFuture<Voicevox> runtime = library.thenApplyAsync(voicevox -> timings.run(Phase.ONNX_RUNTIME, () -> {
+        voicevox.loadOnnxRuntime();
+        return voicevox;
+      }), executor);
+      List<CompletableFuture<VoiceModelFile>> eagerModels = openAll(library, eagerPaths, timings, created, executor);
+      List<CompletableFuture<VoiceModelFile>> lazyModels = openAll(library, lazyPaths, timings, created, executor);
+      steps.add(dictionary);
+      steps.add(runtime);
+      steps.addAll(eagerModels);
+      steps.addAll(lazyModels);
+
+      CompletableFuture<Void> eagerOpened = CompletableFuture.allOf(eagerModels.toArray(CompletableFuture[]::new));
+      List<CompletableFuture<Synthesizer>> synthesizers = new ArrayList<>(poolSize);
+      for (int i = 0; i < poolSize; i++) {
+        CompletableFuture<Synthesizer> synthesizer = runtime.thenCombineAsync(dictionary, (voicevox, dict) ->
+            timings.run(Phase.CREATE_SYNTHESIZERS, () -> track(created,
+                voicevox.createSynthesizer(dict, voicevox.makeInitializeOptions(cpuThreads)))), executor);
+        steps.add(synthesizer);
+        if (!eagerPaths.isEmpty()) {
+          // 合成器ごとに、作成と音声モデルのオープンが終わり次第読み込みを始める
+          synthesizer = synthesizer.thenCombineAsync(eagerOpened, (member, ignored) ->
+              timings.run(Phase.LOAD_MODELS, () -> {
+                for (CompletableFuture<VoiceModelFile> model : eagerModels) {
+                  member.loadVoiceModel(model.join());
+                }
+                return member;
+              }), executor);
+          steps.add(synthesizer);
+        }
+        if (warmupUtterances != null) {
+          synthesizer = synthesizer.thenApplyAsync(member -> timings.run(Phase.WARMUP, () -> {
+            member.warmup(warmupUtterances);
+            return member;
+          }), executor);
+          steps.add(synthesizer);
+        }
+        synthesizers.add(synthesizer);
+      }
+
+      Futures.await(CompletableFuture.allOf(steps.toArray(CompletableFuture[]::new)));
+      Duration total = Duration.ofNanos(System.nanoTime() - start);
+
+      List<Synthesizer> members = new ArrayList<>(poolSize);
+      synthesizers.forEach(synthesizer -> members.add(synthesizer.join()));
+      SynthesizerPool pool = new SynthesizerPool(members);
+      VoiceModelResidency residency = null;
+      if (!lazyPaths.isEmpty()) {
+        residency = new VoiceModelResidency(pool, profile.getMemoryBudget(), profile.getMaxResidentModels());
+        for (int i = 0; i < lazyPaths.size(); i++) {
+          residency.register(lazyModels.get(i).join(), sizeOf(lazyPaths.get(i)));
+        }
+      }
+      Map<Phase, Duration> phaseTimings = timings.toMap();
+      log.debug("Voicevox engine started in {} ms: {}", total.toMillis(), phaseTimings);
+      return new VoicevoxEngine(library.join(), dictionary.join(), pool, residency,
+          join(eagerModels), join(lazyModels), phaseTimings, total);
+    } catch (VoicevoxException | InterruptedException | RuntimeException | Error e) {
+      CompletableFuture.allOf(steps.toArray(CompletableFuture[]::new)).handle((ignored, failure) -> null).join();
+      closeAll(created, e);
+      throw e;
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static List<CompletableFuture<VoiceModelFile>> openAll(CompletableFuture<Voicevox> library, List<Path> paths,
+      Timings timings, List<AutoCloseable> created, ExecutorService executor) {
+    List<CompletableFuture<VoiceModelFile>> models = new ArrayList<>(paths.size());
+    for (Path path : paths) {
+      models.add(library.thenApplyAsync(voicevox -> timings.run(Phase.OPEN_MODELS,
+          () -> track(created, voicevox.useVoiceModelFile(path))), executor));
+    }
+    return models;
+  }
+
+  private static <T extends AutoCloseable> T track(List<AutoCloseable> created, T resource) {
+    created.add(resource);
+    return resource;
+  }
+
+  private static <T> List<T> join(List<CompletableFuture<T>> futures) {
+    List<T> values = new ArrayList<>(futures.size());
+    futures.forEach(future -> values.add(future.join()));
+    return values;
+  }
+
+  private static long sizeOf(Path path) {
+    try {
+      return Files.size(path);
+    } catch (IOException e) {
+      log.warn("Could not determine the size of voice model file: {}", path, e);
+      return 0;
+    }
+  }
+
+
+  /**
+   * 作成済みのリソースを作成の逆順に解放します。
+   */
+  private static void closeAll(List<AutoCloseable> created, Throwable failure) {
+    List<AutoCloseable> resources;
+    synchronized (created) {
+      resources = new ArrayList<>(created);
+    }
+    Collections.reverse(resources);
+    for (AutoCloseable resource : resources) {
+      try {
+        resource.close();
+      } catch (Exception e) {
+        failure.addSuppressed(e);
+      }
+    }
+  }
+
+  private static Thread newThread(Runnable runnable) {
+    Thread thread = new Thread(runnable, "voicevox4j-bootstrap-" + THREAD_SEQUENCE.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  }
+
+  /**
+   * 起動の1つの手順で実行する処理。
+   */
+  @FunctionalInterface
+  private interface Step<T> {
+
+    T run() throws VoicevoxException, InterruptedException;
+  }
+
+  /**
+   * 手順ごとに、最初の処理の開始から最後の処理の終了までの時間を記録します。
+   */
+  private static final class Timings {
+
+    private final Map<Phase, long[]> spans = new EnumMap<>(Phase.class);
+
+    <T> T run(Phase phase, Step<T> step) {
+      long begin = System.nanoTime();
+      try {
+        return step.run();
+      } catch (VoicevoxException e) {
+        throw new CompletionException(e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new CompletionException(e);
+      } finally {
+        long end = System.nanoTime();
+        synchronized (this) {
+          long[] span = spans.get(phase);
+          if (span == null) {
+            spans.put(phase, new long[] {begin, end});
+          } else {
+            span[0] = Math.min(span[0], begin);
+            span[1] = Math.max(span[1], end);
+          }
+        }
+      }
+    }
+
+    synchronized Map<Phase, Duration> toMap() {
+      Map<Phase, Duration> durations = new EnumMap<>(Phase.class);
+      spans.forEach((phase, span) -> durations.put(phase, Duration.ofNanos(span[1] - span[0])));
+      return Collections.unmodifiableMap(durations);
+    }
+  }
+}
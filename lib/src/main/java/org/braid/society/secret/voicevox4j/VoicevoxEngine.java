@@ -0,0 +1,149 @@
+package org.braid.society.secret.voicevox4j;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.VoicevoxBootstrap.Phase;
+import org.braid.society.secret.voicevox4j.api.OpenJTalkDictionary;
+import org.braid.society.secret.voicevox4j.api.SynthesizerPool;
+import org.braid.society.secret.voicevox4j.api.VoiceModelFile;
+import org.braid.society.secret.voicevox4j.api.VoiceModelResidency;
+
+/**
+ * {@link VoicevoxBootstrap}で起動した、合成器のプールと音声モデル一式を保持するクラスです。
+ * <p>
+ * プール、音声モデルファイル、OpenJTalk辞書はこのオブジェクトが所有し、{@link #close()}でまとめて解放されます。
+ */
+@Slf4j
+public class VoicevoxEngine implements Closeable, AutoCloseable {
+
+  private final Voicevox voicevox;
+  private final OpenJTalkDictionary dictionary;
+  private final SynthesizerPool pool;
+  private final VoiceModelResidency residency;
+  private final List<VoiceModelFile> eagerModels;
+  private final List<VoiceModelFile> lazyModels;
+  private final Map<Phase, Duration> phaseTimings;
+  private final Duration totalTime;
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+
+  VoicevoxEngine(Voicevox voicevox, OpenJTalkDictionary dictionary, SynthesizerPool pool, VoiceModelResidency residency,
+      List<VoiceModelFile> eagerModels, List<VoiceModelFile> lazyModels, Map<Phase, Duration> phaseTimings,
+      Duration totalTime) {
+    this.voicevox = voicevox;
+    this.dictionary = dictionary;
+    this.pool = pool;
+    this.residency = residency;
+    this.eagerModels = List.copyOf(eagerModels);
+    this.lazyModels = List.copyOf(lazyModels);
+    this.phaseTimings = phaseTimings;
+    this.totalTime = totalTime;
+  }
+
+  public Voicevox getVoicevox() {
+    return voicevox;
+  }
+
+  public OpenJTalkDictionary getDictionary() {
+    return dictionary;
+  }
+
+  /**
+   * 合成器のプールを取得します。即時読み込みの音声モデルはすべての合成器に読み込まれています。
+   *
+   * @return 合成器のプール
+   */
+  public SynthesizerPool getPool() {
+    return pool;
+  }
+
+  /**
+   * 遅延読み込みの音声モデルを管理するオブジェクトを取得します。
+   *
+   * @return 遅延読み込みの音声モデルを管理するオブジェクト。プロファイルに遅延読み込みの音声モデルがない場合はnull
+   */
+  public VoiceModelResidency getResidency() {
+    return residency;
+  }
+
+  /**
+   * 即時に読み込んだ音声モデルを、プロファイルに指定した順に取得します。
+   *
+   * @return 変更不可能な音声モデルファイルのリスト
+   */
+  public List<VoiceModelFile> getEagerModels() {
+    return eagerModels;
+  }
+
+  /**
+   * 遅延読み込みの音声モデルを、プロファイルに指定した順に取得します。
+   *
+   * @return 変更不可能な音声モデルファイルのリスト
+   */
+  public List<VoiceModelFile> getLazyModels() {
+    return lazyModels;
+  }
+
+  /**
+   * 起動の手順ごとの所要時間を取得します。
+   * <p>
+   * 複数の処理からなる手順は、最初の処理の開始から最後の処理の終了までの時間です。
+   * 手順は並行に実行されるため、合計は{@link #getTotalTime()}より長くなることがあります。
+   * 実行されなかった手順は含まれません。
+   *
+   * @return 変更不可能な手順ごとの所要時間
+   */
+  public Map<Phase, Duration> getPhaseTimings() {
+    return phaseTimings;
+  }
+
+  /**
+   * 起動の開始から、すべての手順が完了するまでの時間を取得します。
+   *
+   * @return 起動の所要時間
+   */
+  public Duration getTotalTime() {
+    return totalTime;
+  }
+
+  /**
+   * プールしているすべての合成器のウォームアップが完了しているかどうかを確認します。
+   * <p>
+   * 遅延読み込みの音声モデルが使用時に読み込まれると、{@link SynthesizerPool#warmup(List)}を再度呼び出すまでfalseになります。
+   * 即時読み込みの音声モデルがない場合は、音声モデルが読み込まれてウォームアップされるまでfalseです。
+   *
+   * @return ウォームアップが完了している場合はtrue
+   * @see VoicevoxBootstrap#setWarmup(List)
+   * @see SynthesizerPool#isReady()
+   */
+  public boolean isReady() {
+    return pool.isReady();
+  }
+
+  /**
+   * このオブジェクトがクローズされているかどうかを確認します。
+   *
+   * @return クローズされている場合はtrue
+   */
+  public boolean isClosed() {
+    return closed.get();
+  }
+
+  /**
+   * プール、音声モデルファイル、OpenJTalk辞書を解放します。
+   * このメソッドは複数回呼び出しても安全です。
+   */
+  @Override
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      pool.close();
+      eagerModels.forEach(VoiceModelFile::close);
+      lazyModels.forEach(VoiceModelFile::close);
+      dictionary.close();
+      log.debug("Voicevox engine closed");
+    }
+  }
+}
@@ -0,0 +1,218 @@
+package org.braid.society.secret.voicevox4j.api;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.braid.society.secret.voicevox4j.internal.Utf8JsonReader;
+import org.braid.society.secret.voicevox4j.internal.Utf8JsonWriter;
+
+/**
+ * アクセント句ごとの情報を表す不変のクラス。
+ * <p>
+ * VOICEVOX COREのJSONにおける{@code AccentPhrase}に対応します。
+ *
+ * @see AudioQuery
+ */
+public final class AccentPhrase {
+
+  private static final int ESTIMATED_BYTES_PER_MORA = 128;
+
+  private final List<Mora> moras;
+  private final int accent;
+  private final Mora pauseMora;
+  private final boolean interrogative;
+
+  /**
+   * アクセント句を作成します。
+   *
+   * @param moras モーラのリスト
+   * @param accent アクセント箇所（1始まりのモーラ位置）
+   * @param pauseMora 後ろに無音を付けるためのモーラ。付けない場合はnull
+   * @param interrogative 疑問系かどうか
+   */
+  public AccentPhrase(List<Mora> moras, int accent, Mora pauseMora, boolean interrogative) {
+    this.moras = List.copyOf(moras);
+    this.accent = accent;
+    this.pauseMora = pauseMora;
+    this.interrogative = interrogative;
+  }
+
+  /**
+   * モーラのリストを取得します。
+   *
+   * @return 変更不可能なモーラのリスト
+   */
+  public List<Mora> getMoras() {
+    return moras;
+  }
+
+  public int getAccent() {
+    return accent;
+  }
+
+  /**
+   * 後ろに無音を付けるためのモーラを取得します。
+   *
+   * @return 無音のモーラ。付けない場合はnull
+   */
+  public Mora getPauseMora() {
+    return pauseMora;
+  }
+
+  public boolean isInterrogative() {
+    return interrogative;
+  }
+
+  public AccentPhrase withMoras(List<Mora> moras) {
+    return new AccentPhrase(moras, accent, pauseMora, interrogative);
+  }
+
+  public AccentPhrase withAccent(int accent) {
+    return new AccentPhrase(moras, accent, pauseMora, interrogative);
+  }
+
+  public AccentPhrase withPauseMora(Mora pauseMora) {
+    return new AccentPhrase(moras, accent, pauseMora, interrogative);
+  }
+
+  public AccentPhrase withInterrogative(boolean interrogative) {
+    return new AccentPhrase(moras, accent, pauseMora, interrogative);
+  }
+
+  /**
+   * アクセント句の配列のJSONを解析します。
+   *
+   * @param json アクセント句の配列のJSON
+   * @return 変更不可能なアクセント句のリスト
+   * @throws IllegalArgumentException JSONの形式が正しくない場合
+   */
+  public static List<AccentPhrase> listFromJson(String json) {
+    Utf8JsonReader reader = Utf8JsonReader.of(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+    List<AccentPhrase> phrases = readList(reader);
+    reader.endDocument();
+    return phrases;
+  }
+
+  /**
+   * アクセント句のリストをコンパクトなJSONに変換します。
+   *
+   * @param phrases アクセント句のリスト
+   * @return アクセント句の配列のJSON
+   */
+  public static String listToJson(List<AccentPhrase> phrases) {
+    Utf8JsonWriter writer = new Utf8JsonWriter(estimateSize(phrases));
+    writeList(writer, phrases);
+    return writer.toString();
+  }
+
+  /**
+   * ネイティブメモリ上のアクセント句の配列のJSONを、{@link String}にデコードせずに解析します。
+   */
+  static List<AccentPhrase> listFromNative(ByteBuffer json) {
+    Utf8JsonReader reader = Utf8JsonReader.of(json);
+    List<AccentPhrase> phrases = readList(reader);
+    reader.endDocument();
+    return phrases;
+  }
+
+  static Utf8JsonWriter listToWriter(List<AccentPhrase> phrases) {
+    Utf8JsonWriter writer = new Utf8JsonWriter(estimateSize(phrases));
+    writeList(writer, phrases);
+    return writer;
+  }
+
+  static List<AccentPhrase> readList(Utf8JsonReader reader) {
+    List<AccentPhrase> phrases = new ArrayList<>();
+    reader.beginArray();
+    while (reader.hasNext()) {
+      phrases.add(read(reader));
+    }
+    reader.endArray();
+    return List.copyOf(phrases);
+  }
+
+  static void writeList(Utf8JsonWriter writer, List<AccentPhrase> phrases) {
+    writer.beginArray();
+    for (AccentPhrase phrase : phrases) {
+      phrase.write(writer);
+    }
+    writer.endArray();
+  }
+
+  static int estimateSize(List<AccentPhrase> phrases) {
+    int moras = 0;
+    for (AccentPhrase phrase : phrases) {
+      moras += phrase.moras.size() + 1;
+    }
+    return moras * ESTIMATED_BYTES_PER_MORA;
+  }
+
+  static AccentPhrase read(Utf8JsonReader reader) {
+    List<Mora> moras = new ArrayList<>();
+    int accent = 0;
+    Mora pauseMora = null;
+    boolean interrogative = false;
+    reader.beginObject();
+    while (reader.hasNext()) {
+      String name = reader.nextName();
+      if (reader.nextNullIf()) {
+        continue;
+      }
+      switch (name) {
+        case "moras" -> {
+          reader.beginArray();
+          while (reader.hasNext()) {
+            moras.add(Mora.read(reader));
+          }
+          reader.endArray();
+        }
+        case "accent" -> accent = reader.nextInt();
+        case "pause_mora" -> pauseMora = Mora.read(reader);
+        case "is_interrogative" -> interrogative = reader.nextBoolean();
+        default -> reader.skipValue();
+      }
+    }
+    reader.endObject();
+    return new AccentPhrase(moras, accent, pauseMora, interrogative);
+  }
+
+  void write(Utf8JsonWriter writer) {
+    writer.beginObject().name("moras").beginArray();
+    for (Mora mora : moras) {
+      mora.write(writer);
+    }
+    writer.endArray().name("accent").value(accent).name("pause_mora");
+    if (pauseMora == null) {
+      writer.nullValue();
+    } else {
+      pauseMora.write(writer);
+    }
+    writer.name("is_interrogative").value(interrogative).endObject();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof AccentPhrase other)) {
+      return false;
+    }
+    return accent == other.accent && interrogative == other.interrogative && moras.equals(other.moras)
+        && Objects.equals(pauseMora, other.pauseMora);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(moras, accent, pauseMora, interrogative);
+  }
+
+  @Override
+  public String toString() {
+    Utf8JsonWriter writer = new Utf8JsonWriter((moras.size() + 1) * ESTIMATED_BYTES_PER_MORA);
+    write(writer);
+    return writer.toString();
+  }
+}
@@ -0,0 +1,239 @@
+package org.braid.society.secret.voicevox4j.api;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 処理の所要時間を計測しながら、同時に実行できる処理の数を自動で調整するリミッターです。
+ * <p>
+ * {@link SynthesizerPool#setConcurrencyLimiter(AdaptiveConcurrencyLimiter)}で設定すると、
+ * プールから同時に借りられる合成器の数がこのリミッターの上限に制限され、借りてから返却するまでの時間が計測されます。
+ * 所要時間は合成する文の長さによって大きく変わるため、その間にネイティブライブラリが出力したWAVデータ1KiBあたりの時間に
+ * 換算してから比較します。WAVデータを出力しなかった貸し出し（{@link WavCache}のヒットやAudioQueryの作成のみなど）は
+ * 処理量を見積もれないため計測しません。
+ * 適切な同時実行数は{@code cpu_num_threads}、CPUのコア数、同じマシンで動く他の処理の負荷によって変わるため、
+ * プールのサイズを大きめにしておき、実際の同時実行数はこのリミッターに任せることができます。
+ * <p>
+ * 上限は勾配法で調整されます。直近の1KiBあたりの所要時間の移動平均（短期）と、長い期間の移動平均（基準）を比較し、
+ * 短期の所要時間が基準の1.5倍以内であれば上限を少しずつ広げ、それを超えて遅くなった場合は比率に応じて狭めます。
+ * 上限の半分以上の処理が実行中でない場合は、上限を広げても効果を測れないため広げません。
+ * <p>
+ * このクラスはスレッドセーフです。1つのリミッターを複数のプールで共有すると、それらの合計の同時実行数を制限します。
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+  /**
+   * 上限を狭め始める、基準に対する短期の所要時間の比率。
+   */
+  private static final double TOLERANCE = 1.5;
+  private static final int SHORT_WINDOW = 10;
+  private static final int LONG_WINDOW = 600;
+  private static final double SMOOTHING = 0.2;
+  private static final double MIN_GRADIENT = 0.5;
+  private static final double BYTES_PER_UNIT = 1024;
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition permitAvailable = lock.newCondition();
+
+  private double limit;
+  private int inFlight;
+  private double shortLatencyNanos;
+  private double longLatencyNanos;
+  private long samples;
+
+  /**
+   * 上限1から始まり、CPUのコア数まで広がるリミッターを作成します。
+   */
+  public AdaptiveConcurrencyLimiter() {
+    this(1, 1, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * 上限の初期値と範囲を指定してリミッターを作成します。
+   *
+   * @param initialLimit 上限の初期値
+   * @param minLimit 上限の最小値
+   * @param maxLimit 上限の最大値
+   * @throws IllegalArgumentException {@code 1 <= minLimit <= initialLimit <= maxLimit}を満たさない場合
+   */
+  public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+    if (minLimit < 1 || initialLimit < minLimit || maxLimit < initialLimit) {
+      throw new IllegalArgumentException(
+          "Limits must satisfy 1 <= min <= initial <= max: " + minLimit + ", " + initialLimit + ", " + maxLimit);
+    }
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.limit = initialLimit;
+  }
+
+  /**
+   * 実行の許可を取得します。実行中の処理の数が上限に達している場合は、指定した時間まで待機します。
+   *
+   * @param timeout 待機する最大時間
+   * @param unit {@code timeout}の単位
+   * @return 許可を取得できた場合はtrue
+   * @throws InterruptedException 待機中に割り込まれた場合
+   */
+  boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+    long remaining = unit.toNanos(timeout);
+    lock.lockInterruptibly();
+    try {
+      while (inFlight >= (int) limit) {
+        if (remaining <= 0) {
+          return false;
+        }
+        remaining = permitAvailable.awaitNanos(remaining);
+      }
+      inFlight++;
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * 処理の完了を記録し、許可を返却します。
+   *
+   * @param latencyNanos 許可を取得してから処理が完了するまでの時間（ナノ秒）
+   * @param synthesizedBytes その間にネイティブライブラリが出力したWAVデータのバイト数。0の場合は所要時間を記録しません
+   */
+  void release(long latencyNanos, long synthesizedBytes) {
+    lock.lock();
+    try {
+      inFlight--;
+      if (synthesizedBytes > 0) {
+        update(Math.max(latencyNanos * BYTES_PER_UNIT / synthesizedBytes, 1));
+      }
+      permitAvailable.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * 処理を実行せずに許可を返却します。所要時間は記録しません。
+   */
+  void abandon() {
+    lock.lock();
+    try {
+      inFlight--;
+      permitAvailable.signal();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void update(double latency) {
+    if (samples++ == 0) {
+      shortLatencyNanos = latency;
+      longLatencyNanos = latency;
+      return;
+    }
+    shortLatencyNanos += (latency - shortLatencyNanos) * 2 / (SHORT_WINDOW + 1);
+    longLatencyNanos += (latency - longLatencyNanos) * 2 / (LONG_WINDOW + 1);
+    if (longLatencyNanos > shortLatencyNanos * 2) {
+      // 負荷が下がった後は、古い基準に引きずられないよう早めに追従する
+      longLatencyNanos *= 0.95;
+    }
+
+    double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, TOLERANCE * longLatencyNanos / shortLatencyNanos));
+    double target = limit * gradient;
+    if (gradient == 1.0 && inFlight + 1 >= limit / 2) {
+      target += Math.sqrt(limit);
+    }
+    double next = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+    if ((int) next != (int) limit) {
+      log.debug("Concurrency limit changed: {} -> {} (latency per KiB: short={}us, baseline={}us)",
+          (int) limit, (int) next, (long) shortLatencyNanos / 1000, (long) longLatencyNanos / 1000);
+    }
+    limit = next;
+  }
+
+  /**
+   * 現在の同時実行数の上限を取得します。
+   *
+   * @return 上限
+   */
+  public int getLimit() {
+    lock.lock();
+    try {
+      return (int) limit;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * 実行中の処理の数を取得します。
+   *
+   * @return 実行中の処理の数
+   */
+  public int getInFlight() {
+    lock.lock();
+    try {
+      return inFlight;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * 直近の処理の、WAVデータ1KiBあたりの所要時間の移動平均を取得します。
+   *
+   * @return 短期の1KiBあたりの所要時間。まだ計測していない場合は{@link Duration#ZERO}
+   */
+  public Duration getShortLatency() {
+    lock.lock();
+    try {
+      return Duration.ofNanos((long) shortLatencyNanos);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * 上限を調整する基準とする、WAVデータ1KiBあたりの所要時間の長い期間の移動平均を取得します。
+   *
+   * @return 基準の1KiBあたりの所要時間。まだ計測していない場合は{@link Duration#ZERO}
+   */
+  public Duration getBaselineLatency() {
+    lock.lock();
+    try {
+      return Duration.ofNanos((long) longLatencyNanos);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * これまでに所要時間を計測した処理の数を取得します。
+   *
+   * @return 計測した処理の数
+   */
+  public long getSampleCount() {
+    lock.lock();
+    try {
+      return samples;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public String toString() {
+    lock.lock();
+    try {
+      return "AdaptiveConcurrencyLimiter{limit=" + (int) limit + ", inFlight=" + inFlight
+          + ", shortLatency=" + Duration.ofNanos((long) shortLatencyNanos)
+          + ", baselineLatency=" + Duration.ofNanos((long) longLatencyNanos) + "}";
+    } finally {
+      lock.unlock();
+    }
+  }
+}
@@ -0,0 +1,395 @@
+package org.braid.society.secret.voicevox4j.api;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxSynthesisOptions;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxTtsOptions;
+
+/**
+ * {@link Synthesizer}の処理を非同期に実行し、結果を{@link CompletableFuture}で返すクラス。
+ * <p>
+ * 各処理は指定した{@link Executor}上で、{@link SynthesizerPool}から借りた合成器を使って実行されます。
+ * 処理はエグゼキュータのキューで順番を待ち、ネイティブ関数の呼び出しが始まる前に
+ * 返された{@link CompletableFuture}がキャンセルされた場合、その処理は実行されません。
+ * ネイティブ関数の呼び出しが始まった後のキャンセルは、呼び出しを中断しません。
+ * その場合、キャンセルされた{@link CompletableFuture}には結果が渡らないため、
+ * {@link WavBuffer}のような{@link AutoCloseable}の結果は実行したスレッドでクローズされます。
+ * <p>
+ * エグゼキュータを指定しない場合、プールのサイズと同じ数のデーモンスレッドを持つエグゼキュータを作成し、
+ * {@link #close()}でシャットダウンします。指定したエグゼキュータはこのクラスの所有物ではないため、シャットダウンされません。
+ * どちらの場合も、{@link #close()}の時点でまだ実行が始まっていない処理はキャンセルされ、後から実行されてもネイティブ関数を呼び出しません。
+ */
+@Slf4j
+public class AsyncSynthesizer implements Closeable, AutoCloseable {
+
+  private static final AtomicInteger THREAD_SEQUENCE = new AtomicInteger();
+
+  private final SynthesizerPool pool;
+  private final Executor executor;
+  private final ExecutorService ownedExecutor;
+  private final SynthesizerPool ownedPool;
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+  // 投入されたが、まだ実行が始まっていない処理。クローズ時にキャンセルする
+  private final Set<Task<?>> queued = ConcurrentHashMap.newKeySet();
+
+  /**
+   * 合成器のプールを使用する非同期合成器を作成します。
+   * プールのサイズと同じ数のスレッドを持つエグゼキュータが作成されます。
+   *
+   * @param pool 使用する合成器のプール
+   */
+  public AsyncSynthesizer(SynthesizerPool pool) {
+    this.pool = Objects.requireNonNull(pool, "pool");
+    this.ownedExecutor = Executors.newFixedThreadPool(pool.size(), AsyncSynthesizer::newThread);
+    this.executor = ownedExecutor;
+    this.ownedPool = null;
+  }
+
+  /**
+   * 合成器のプールとエグゼキュータを指定して非同期合成器を作成します。
+   *
+   * @param pool 使用する合成器のプール
+   * @param executor 処理を実行するエグゼキュータ
+   */
+  public AsyncSynthesizer(SynthesizerPool pool, Executor executor) {
+    this(pool, executor, false);
+  }
+
+  /**
+   * 単一の合成器を使用する非同期合成器を作成します。
+   * <p>
+   * 合成器の所有権は内部のプールに移り、{@link #close()}でクローズされます。
+   *
+   * @param synthesizer 使用する合成器
+   * @param executor 処理を実行するエグゼキュータ
+   */
+  public AsyncSynthesizer(Synthesizer synthesizer, Executor executor) {
+    this(new SynthesizerPool(List.of(synthesizer)), executor, true);
+  }
+
+  private AsyncSynthesizer(SynthesizerPool pool, Executor executor, boolean ownsPool) {
+    this.pool = Objects.requireNonNull(pool, "pool");
+    this.executor = Objects.requireNonNull(executor, "executor");
+    this.ownedExecutor = null;
+    this.ownedPool = ownsPool ? pool : null;
+  }
+
+  /**
+   * 借りた合成器で任意の処理を非同期に実行します。
+   *
+   * @param function 実行する処理
+   * @param <T> 処理結果の型
+   * @return 処理結果を返すフューチャー。処理が失敗した場合は例外で完了します
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public <T> CompletableFuture<T> submit(SynthesizerFunction<T> function) {
+    Objects.requireNonNull(function, "function");
+    ensureNotClosed();
+    Task<T> task = new Task<>(pool, function, closed, queued);
+    queued.add(task);
+    if (closed.get()) {
+      // 登録中にクローズされた場合は、close()がキャンセルしていなくてもここでキャンセルする
+      queued.remove(task);
+      task.future.cancel(false);
+      return task.future;
+    }
+    try {
+      executor.execute(task);
+    } catch (RejectedExecutionException e) {
+      queued.remove(task);
+      task.future.completeExceptionally(e);
+    }
+    return task.future;
+  }
+
+  /**
+   * テキストから音声を非同期に合成します。
+   *
+   * @param text 合成するテキスト
+   * @param styleId スタイルID
+   * @return WAVデータを返すフューチャー
+   * @see Synthesizer#tts(String, int)
+   */
+  public CompletableFuture<byte[]> ttsAsync(String text, int styleId) {
+    return submit(synthesizer -> synthesizer.tts(text, styleId));
+  }
+
+  /**
+   * テキストから音声を非同期に合成します（オプション指定）。
+   *
+   * @param text 合成するテキスト
+   * @param styleId スタイルID
+   * @param options TTSオプション
+   * @return WAVデータを返すフューチャー
+   * @see Synthesizer#tts(String, int, VoicevoxTtsOptions)
+   */
+  public CompletableFuture<byte[]> ttsAsync(String text, int styleId, VoicevoxTtsOptions options) {
+    return submit(synthesizer -> synthesizer.tts(text, styleId, options));
+  }
+
+  /**
+   * テキストを文ごとに合成し、合成できたものから順に{@link AudioChunk}として出力するパブリッシャーを返します。
+   * <p>
+   * 最初の文は最初の読点などの無音の位置でさらに分割されるため、テキスト全体の合成を待たずに、
+   * 最初のチャンクを短い時間で受け取ることができます。合成は購読者が{@link Flow.Subscription#request(long)}で
+   * 要求した数の範囲でのみ先行して行われ、同時に合成するチャンクの数はプールのサイズまでです。
+   * 購読するたびに最初から合成します。発話できる文がない場合は、チャンクを出力せずに完了します。
+   *
+   * @param text 合成するテキスト
+   * @param styleId スタイルID
+   * @return 音声のチャンクを順に出力するパブリッシャー
+   */
+  public Flow.Publisher<AudioChunk> ttsStream(String text, int styleId) {
+    return new TtsPublisher(this, pool.size(), text, styleId, null);
+  }
+
+  /**
+   * テキストを文ごとに合成し、合成できたものから順に{@link AudioChunk}として出力するパブリッシャーを返します（オプション指定）。
+   *
+   * @param text 合成するテキスト
+   * @param styleId スタイルID
+   * @param options TTSオプション
+   * @return 音声のチャンクを順に出力するパブリッシャー
+   * @see #ttsStream(String, int)
+   */
+  public Flow.Publisher<AudioChunk> ttsStream(String text, int styleId, VoicevoxTtsOptions options) {
+    return new TtsPublisher(this, pool.size(), text, styleId, Objects.requireNonNull(options, "options"));
+  }
+
+  /**
+   * 少しずつ届くテキストを、区切りが確定した部分から順に合成するセッションを開始します。
+   * <p>
+   * 読点の位置では{@link TtsSession#DEFAULT_CLAUSE_LENGTH}文字以上たまった場合に区切ります。
+   * 使い終わったセッションは必ず{@link TtsSession#close()}でクローズしてください。
+   *
+   * @param styleId スタイルID
+   * @return 新しいセッション
+   * @see TtsSession
+   */
+  public TtsSession openTtsSession(int styleId) {
+    return new TtsSession(this, pool.size(), styleId, null, TtsSession.DEFAULT_CLAUSE_LENGTH);
+  }
+
+  /**
+   * 少しずつ届くテキストを、区切りが確定した部分から順に合成するセッションを開始します（オプション指定）。
+   *
+   * @param styleId スタイルID
+   * @param options TTSオプション
+   * @param clauseLength 読点の位置で区切る節の最小文字数（0の場合は文の区切りでのみ区切る）
+   * @return 新しいセッション
+   * @throws IllegalArgumentException {@code clauseLength}が負の場合
+   * @see #openTtsSession(int)
+   */
+  public TtsSession openTtsSession(int styleId, VoicevoxTtsOptions options, int clauseLength) {
+    return new TtsSession(this, pool.size(), styleId, Objects.requireNonNull(options, "options"), clauseLength);
+  }
+
+  /**
+   * AquesTalk風記法から音声を非同期に合成します。
+   *
+   * @param kana AquesTalk風記法のテキスト
+   * @param styleId スタイルID
+   * @return WAVデータを返すフューチャー
+   * @see Synthesizer#ttsFromKana(String, int)
+   */
+  public CompletableFuture<byte[]> ttsFromKanaAsync(String kana, int styleId) {
+    return submit(synthesizer -> synthesizer.ttsFromKana(kana, styleId));
+  }
+
+  /**
+   * AquesTalk風記法から音声を非同期に合成します（オプション指定）。
+   *
+   * @param kana AquesTalk風記法のテキスト
+   * @param styleId スタイルID
+   * @param options TTSオプション
+   * @return WAVデータを返すフューチャー
+   * @see Synthesizer#ttsFromKana(String, int, VoicevoxTtsOptions)
+   */
+  public CompletableFuture<byte[]> ttsFromKanaAsync(String kana, int styleId, VoicevoxTtsOptions options) {
+    return submit(synthesizer -> synthesizer.ttsFromKana(kana, styleId, options));
+  }
+
+  /**
+   * テキストからAudioQueryを非同期に作成します。
+   *
+   * @param text テキスト
+   * @param styleId スタイルID
+   * @return AudioQueryのJSON文字列を返すフューチャー
+   * @see Synthesizer#createAudioQuery(String, int)
+   */
+  public CompletableFuture<String> createAudioQueryAsync(String text, int styleId) {
+    return submit(synthesizer -> synthesizer.createAudioQuery(text, styleId));
+  }
+
+  /**
+   * AquesTalk風記法からAudioQueryを非同期に作成します。
+   *
+   * @param kana AquesTalk風記法のテキスト
+   * @param styleId スタイルID
+   * @return AudioQueryのJSON文字列を返すフューチャー
+   * @see Synthesizer#createAudioQueryFromKana(String, int)
+   */
+  public CompletableFuture<String> createAudioQueryFromKanaAsync(String kana, int styleId) {
+    return submit(synthesizer -> synthesizer.createAudioQueryFromKana(kana, styleId));
+  }
+
+  /**
+   * AudioQueryから音声を非同期に合成します。
+   *
+   * @param audioQueryJson AudioQueryのJSON文字列
+   * @param styleId スタイルID
+   * @return WAVデータを返すフューチャー
+   * @see Synthesizer#synthesis(String, int)
+   */
+  public CompletableFuture<byte[]> synthesisAsync(String audioQueryJson, int styleId) {
+    return submit(synthesizer -> synthesizer.synthesis(audioQueryJson, styleId));
+  }
+
+  /**
+   * AudioQueryから音声を非同期に合成します（オプション指定）。
+   *
+   * @param audioQueryJson AudioQueryのJSON文字列
+   * @param styleId スタイルID
+   * @param options 合成オプション
+   * @return WAVデータを返すフューチャー
+   * @see Synthesizer#synthesis(String, int, VoicevoxSynthesisOptions)
+   */
+  public CompletableFuture<byte[]> synthesisAsync(String audioQueryJson, int styleId, VoicevoxSynthesisOptions options) {
+    return submit(synthesizer -> synthesizer.synthesis(audioQueryJson, styleId, options));
+  }
+
+  /**
+   * このオブジェクトがクローズされているかどうかを確認します。
+   *
+   * @return クローズされている場合はtrue
+   */
+  public boolean isClosed() {
+    return closed.get();
+  }
+
+  private void ensureNotClosed() {
+    if (closed.get()) {
+      throw new IllegalStateException("AsyncSynthesizer is already closed");
+    }
+  }
+
+  private static Thread newThread(Runnable runnable) {
+    Thread thread = new Thread(runnable, "voicevox4j-async-" + THREAD_SEQUENCE.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  }
+
+  /**
+   * エグゼキュータ上で実行される1件の処理。
+   * シャットダウン時にキューから取り出された処理のフューチャーをキャンセルできるよう、名前付きのクラスとして定義しています。
+   */
+  private static final class Task<T> implements Runnable {
+
+    private final SynthesizerPool pool;
+    private final SynthesizerFunction<T> function;
+    private final AtomicBoolean closed;
+    private final Set<Task<?>> queued;
+    private final CompletableFuture<T> future = new CompletableFuture<>();
+
+    private Task(SynthesizerPool pool, SynthesizerFunction<T> function, AtomicBoolean closed, Set<Task<?>> queued) {
+      this.pool = pool;
+      this.function = function;
+      this.closed = closed;
+      this.queued = queued;
+    }
+
+    @Override
+    public void run() {
+      queued.remove(this);
+      if (closed.get()) {
+        // 実行を待つ間に非同期合成器がクローズされた
+        future.cancel(false);
+        return;
+      }
+      if (future.isDone()) {
+        // 実行を待つ間にキャンセルされた
+        return;
+      }
+      Synthesizer synthesizer;
+      try {
+        synthesizer = pool.borrow();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        future.completeExceptionally(e);
+        return;
+      } catch (RuntimeException e) {
+        future.completeExceptionally(e);
+        return;
+      }
+      try {
+        // 合成器を待つ間にキャンセルまたはクローズされた場合もネイティブ関数を呼び出さない
+        if (closed.get()) {
+          future.cancel(false);
+        } else if (!future.isDone()) {
+          T result = function.apply(synthesizer);
+          if (!future.complete(result)) {
+            // 合成中にキャンセルされ、結果を受け取る者がいない
+            closeQuietly(result);
+          }
+        }
+      } catch (Throwable t) {
+        future.completeExceptionally(t);
+      } finally {
+        pool.release(synthesizer);
+      }
+    }
+
+    private static void closeQuietly(Object result) {
+      if (result instanceof AutoCloseable closeable) {
+        try {
+          closeable.close();
+        } catch (Exception e) {
+          log.warn("Failed to close a result of a cancelled task", e);
+        }
+      }
+    }
+  }
+
+  /**
+   * 非同期合成器をクローズします。
+   * <p>
+   * まだ実行が始まっていない処理はキャンセルされ、内部で作成したエグゼキュータはシャットダウンされます。
+   * 指定したエグゼキュータのキューに残っている処理も、実行された時点でネイティブ関数を呼び出さずに終了します。
+   * 実行中の処理は中断されません。
+   * 合成器のプールはこのメソッドではクローズされません。ただし、{@link Synthesizer}を直接渡して作成した場合は、
+   * 内部のプールと合成器もクローズされます。
+   * このメソッドは複数回呼び出しても安全です。
+   */
+  @Override
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      for (Task<?> task : queued) {
+        queued.remove(task);
+        task.future.cancel(false);
+      }
+      if (ownedExecutor != null) {
+        for (Runnable pending : ownedExecutor.shutdownNow()) {
+          if (pending instanceof Task<?> task) {
+            task.future.cancel(false);
+          }
+        }
+      }
+      if (ownedPool != null) {
+        ownedPool.close();
+      }
+      log.debug("AsyncSynthesizer closed");
+    }
+  }
+}
@@ -0,0 +1,58 @@
+package org.braid.society.secret.voicevox4j.api;
+
+/**
+ * ストリーミング合成で順に出力される、音声の断片を表すクラス。
+ * <p>
+ * 各チャンクはそれ単体で再生できる完全なWAVデータを持ちます。
+ * チャンクを{@link #getIndex()}の順に再生すると、テキスト全体の音声になります。
+ *
+ * @see AsyncSynthesizer#ttsStream(String, int)
+ */
+public final class AudioChunk {
+
+  private final int index;
+  private final String text;
+  private final byte[] wav;
+
+  AudioChunk(int index, String text, byte[] wav) {
+    this.index = index;
+    this.text = text;
+    this.wav = wav;
+  }
+
+  /**
+   * このチャンクの順番を取得します。
+   *
+   * @return 0から始まるチャンクの順番
+   */
+  public int getIndex() {
+    return index;
+  }
+
+  /**
+   * このチャンクの元になったテキストを取得します。
+   * <p>
+   * 文をアクセント句の単位でさらに分割したチャンクの場合は、モーラの読み（カタカナ）を返します。
+   *
+   * @return このチャンクのテキスト
+   */
+  public String getText() {
+    return text;
+  }
+
+  /**
+   * このチャンクの音声データを取得します。
+   * <p>
+   * 返される配列はこのチャンク専用のもので、コピーされません。
+   *
+   * @return 音声データ（WAVファイル形式）
+   */
+  public byte[] getWav() {
+    return wav;
+  }
+
+  @Override
+  public String toString() {
+    return "AudioChunk{index=" + index + ", text=" + text + ", bytes=" + wav.length + "}";
+  }
+}
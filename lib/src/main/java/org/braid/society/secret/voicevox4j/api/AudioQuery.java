@@ -0,0 +1,315 @@
+package org.braid.society.secret.voicevox4j.api;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import org.braid.society.secret.voicevox4j.internal.Utf8JsonReader;
+import org.braid.society.secret.voicevox4j.internal.Utf8JsonWriter;
+
+/**
+ * 音声合成用のクエリ（AudioQuery）を表す不変のクラス。
+ * <p>
+ * VOICEVOX COREのJSONにおける{@code AudioQuery}に対応します。
+ * {@link Synthesizer#createAudioQueryTyped(String, int)}で作成し、{@code with*}メソッドで変更したクエリを
+ * {@link Synthesizer#synthesis(AudioQuery, int)}にそのまま渡すことができます。
+ * <p>
+ * {@link Synthesizer}とのやり取りでは、ネイティブメモリ上のUTF-8のJSONを直接解析・生成するため、
+ * JSON全体をJavaの{@link String}としてデコード・エンコードすることはありません。
+ * JSONライブラリと連携する場合は{@link #fromJson(String)}と{@link #toJson()}を使用してください。
+ */
+public final class AudioQuery {
+
+  private final List<AccentPhrase> accentPhrases;
+  private final double speedScale;
+  private final double pitchScale;
+  private final double intonationScale;
+  private final double volumeScale;
+  private final double prePhonemeLength;
+  private final double postPhonemeLength;
+  private final Double pauseLength;
+  private final double pauseLengthScale;
+  private final int outputSamplingRate;
+  private final boolean outputStereo;
+  private final String kana;
+
+  /**
+   * クエリを作成します。
+   *
+   * @param accentPhrases アクセント句のリスト
+   * @param speedScale 全体の話速
+   * @param pitchScale 全体の音高
+   * @param intonationScale 全体の抑揚
+   * @param volumeScale 全体の音量
+   * @param prePhonemeLength 音声の前の無音時間（秒）
+   * @param postPhonemeLength 音声の後の無音時間（秒）
+   * @param pauseLength 句読点などの無音時間（秒）。nullの場合は無視されます
+   * @param pauseLengthScale 読点などの無音時間の倍率
+   * @param outputSamplingRate 音声データの出力サンプリングレート
+   * @param outputStereo 音声データをステレオ出力するかどうか
+   * @param kana AquesTalk風記法によるテキスト。ない場合はnull
+   */
+  public AudioQuery(List<AccentPhrase> accentPhrases, double speedScale, double pitchScale, double intonationScale,
+                    double volumeScale, double prePhonemeLength, double postPhonemeLength, Double pauseLength,
+                    double pauseLengthScale, int outputSamplingRate, boolean outputStereo, String kana) {
+    this.accentPhrases = List.copyOf(accentPhrases);
+    this.speedScale = speedScale;
+    this.pitchScale = pitchScale;
+    this.intonationScale = intonationScale;
+    this.volumeScale = volumeScale;
+    this.prePhonemeLength = prePhonemeLength;
+    this.postPhonemeLength = postPhonemeLength;
+    this.pauseLength = pauseLength;
+    this.pauseLengthScale = pauseLengthScale;
+    this.outputSamplingRate = outputSamplingRate;
+    this.outputStereo = outputStereo;
+    this.kana = kana;
+  }
+
+  /**
+   * アクセント句のリストを取得します。
+   *
+   * @return 変更不可能なアクセント句のリスト
+   */
+  public List<AccentPhrase> getAccentPhrases() {
+    return accentPhrases;
+  }
+
+  public double getSpeedScale() {
+    return speedScale;
+  }
+
+  public double getPitchScale() {
+    return pitchScale;
+  }
+
+  public double getIntonationScale() {
+    return intonationScale;
+  }
+
+  public double getVolumeScale() {
+    return volumeScale;
+  }
+
+  public double getPrePhonemeLength() {
+    return prePhonemeLength;
+  }
+
+  public double getPostPhonemeLength() {
+    return postPhonemeLength;
+  }
+
+  /**
+   * 句読点などの無音時間を取得します。
+   *
+   * @return 無音時間（秒）。指定されていない場合はnull
+   */
+  public Double getPauseLength() {
+    return pauseLength;
+  }
+
+  public double getPauseLengthScale() {
+    return pauseLengthScale;
+  }
+
+  public int getOutputSamplingRate() {
+    return outputSamplingRate;
+  }
+
+  public boolean isOutputStereo() {
+    return outputStereo;
+  }
+
+  /**
+   * AquesTalk風記法によるテキストを取得します。
+   *
+   * @return テキスト。ない場合はnull
+   */
+  public String getKana() {
+    return kana;
+  }
+
+  public AudioQuery withAccentPhrases(List<AccentPhrase> accentPhrases) {
+    return new AudioQuery(accentPhrases, speedScale, pitchScale, intonationScale, volumeScale, prePhonemeLength,
+        postPhonemeLength, pauseLength, pauseLengthScale, outputSamplingRate, outputStereo, kana);
+  }
+
+  public AudioQuery withSpeedScale(double speedScale) {
+    return new AudioQuery(accentPhrases, speedScale, pitchScale, intonationScale, volumeScale, prePhonemeLength,
+        postPhonemeLength, pauseLength, pauseLengthScale, outputSamplingRate, outputStereo, kana);
+  }
+
+  public AudioQuery withPitchScale(double pitchScale) {
+    return new AudioQuery(accentPhrases, speedScale, pitchScale, intonationScale, volumeScale, prePhonemeLength,
+        postPhonemeLength, pauseLength, pauseLengthScale, outputSamplingRate, outputStereo, kana);
+  }
+
+  public AudioQuery withIntonationScale(double intonationScale) {
+    return new AudioQuery(accentPhrases, speedScale, pitchScale, intonationScale, volumeScale, prePhonemeLength,
+        postPhonemeLength, pauseLength, pauseLengthScale, outputSamplingRate, outputStereo, kana);
+  }
+
+  public AudioQuery withVolumeScale(double volumeScale) {
+    return new AudioQuery(accentPhrases, speedScale, pitchScale, intonationScale, volumeScale, prePhonemeLength,
+        postPhonemeLength, pauseLength, pauseLengthScale, outputSamplingRate, outputStereo, kana);
+  }
+
+  public AudioQuery withPrePhonemeLength(double prePhonemeLength) {
+    return new AudioQuery(accentPhrases, speedScale, pitchScale, intonationScale, volumeScale, prePhonemeLength,
+        postPhonemeLength, pauseLength, pauseLengthScale, outputSamplingRate, outputStereo, kana);
+  }
+
+  public AudioQuery withPostPhonemeLength(double postPhonemeLength) {
+    return new AudioQuery(accentPhrases, speedScale, pitchScale, intonationScale, volumeScale, prePhonemeLength,
+        postPhonemeLength, pauseLength, pauseLengthScale, outputSamplingRate, outputStereo, kana);
+  }
+
+  public AudioQuery withPauseLength(Double pauseLength) {
+    return new AudioQuery(accentPhrases, speedScale, pitchScale, intonationScale, volumeScale, prePhonemeLength,
+        postPhonemeLength, pauseLength, pauseLengthScale, outputSamplingRate, outputStereo, kana);
+  }
+
+  public AudioQuery withPauseLengthScale(double pauseLengthScale) {
+    return new AudioQuery(accentPhrases, speedScale, pitchScale, intonationScale, volumeScale, prePhonemeLength,
+        postPhonemeLength, pauseLength, pauseLengthScale, outputSamplingRate, outputStereo, kana);
+  }
+
+  public AudioQuery withOutputSamplingRate(int outputSamplingRate) {
+    return new AudioQuery(accentPhrases, speedScale, pitchScale, intonationScale, volumeScale, prePhonemeLength,
+        postPhonemeLength, pauseLength, pauseLengthScale, outputSamplingRate, outputStereo, kana);
+  }
+
+  public AudioQuery withOutputStereo(boolean outputStereo) {
+    return new AudioQuery(accentPhrases, speedScale, pitchScale, intonationScale, volumeScale, prePhonemeLength,
+        postPhonemeLength, pauseLength, pauseLengthScale, outputSamplingRate, outputStereo, kana);
+  }
+
+  /**
+   * JSON文字列からクエリを作成します。
+   *
+   * @param json AudioQueryのJSON
+   * @return クエリ
+   * @throws IllegalArgumentException JSONの形式が正しくない場合
+   */
+  public static AudioQuery fromJson(String json) {
+    Utf8JsonReader reader = Utf8JsonReader.of(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+    AudioQuery query = read(reader);
+    reader.endDocument();
+    return query;
+  }
+
+  /**
+   * クエリを空白を含まないコンパクトなJSONに変換します。
+   *
+   * @return AudioQueryのJSON
+   */
+  public String toJson() {
+    return toWriter().toString();
+  }
+
+  /**
+   * ネイティブメモリ上のAudioQueryのJSONを、{@link String}にデコードせずに解析します。
+   */
+  static AudioQuery fromNative(ByteBuffer json) {
+    Utf8JsonReader reader = Utf8JsonReader.of(json);
+    AudioQuery query = read(reader);
+    reader.endDocument();
+    return query;
+  }
+
+  Utf8JsonWriter toWriter() {
+    Utf8JsonWriter writer = new Utf8JsonWriter(AccentPhrase.estimateSize(accentPhrases) + 512);
+    write(writer);
+    return writer;
+  }
+
+  private static AudioQuery read(Utf8JsonReader reader) {
+    List<AccentPhrase> accentPhrases = List.of();
+    double speedScale = 1.0;
+    double pitchScale = 0.0;
+    double intonationScale = 1.0;
+    double volumeScale = 1.0;
+    double prePhonemeLength = 0.1;
+    double postPhonemeLength = 0.1;
+    Double pauseLength = null;
+    double pauseLengthScale = 1.0;
+    int outputSamplingRate = 24000;
+    boolean outputStereo = false;
+    String kana = null;
+    reader.beginObject();
+    while (reader.hasNext()) {
+      String name = reader.nextName();
+      if (reader.nextNullIf()) {
+        continue;
+      }
+      switch (name) {
+        case "accent_phrases" -> accentPhrases = AccentPhrase.readList(reader);
+        case "speedScale" -> speedScale = reader.nextDouble();
+        case "pitchScale" -> pitchScale = reader.nextDouble();
+        case "intonationScale" -> intonationScale = reader.nextDouble();
+        case "volumeScale" -> volumeScale = reader.nextDouble();
+        case "prePhonemeLength" -> prePhonemeLength = reader.nextDouble();
+        case "postPhonemeLength" -> postPhonemeLength = reader.nextDouble();
+        case "pauseLength" -> pauseLength = reader.nextDouble();
+        case "pauseLengthScale" -> pauseLengthScale = reader.nextDouble();
+        case "outputSamplingRate" -> outputSamplingRate = reader.nextInt();
+        case "outputStereo" -> outputStereo = reader.nextBoolean();
+        case "kana" -> kana = reader.nextString();
+        default -> reader.skipValue();
+      }
+    }
+    reader.endObject();
+    return new AudioQuery(accentPhrases, speedScale, pitchScale, intonationScale, volumeScale, prePhonemeLength,
+        postPhonemeLength, pauseLength, pauseLengthScale, outputSamplingRate, outputStereo, kana);
+  }
+
+  private void write(Utf8JsonWriter writer) {
+    writer.beginObject().name("accent_phrases");
+    AccentPhrase.writeList(writer, accentPhrases);
+    writer.name("speedScale").value(speedScale)
+        .name("pitchScale").value(pitchScale)
+        .name("intonationScale").value(intonationScale)
+        .name("volumeScale").value(volumeScale)
+        .name("prePhonemeLength").value(prePhonemeLength)
+        .name("postPhonemeLength").value(postPhonemeLength)
+        .name("pauseLength").value(pauseLength)
+        .name("pauseLengthScale").value(pauseLengthScale)
+        .name("outputSamplingRate").value(outputSamplingRate)
+        .name("outputStereo").value(outputStereo)
+        .name("kana").value(kana)
+        .endObject();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof AudioQuery other)) {
+      return false;
+    }
+    return Double.compare(speedScale, other.speedScale) == 0
+        && Double.compare(pitchScale, other.pitchScale) == 0
+        && Double.compare(intonationScale, other.intonationScale) == 0
+        && Double.compare(volumeScale, other.volumeScale) == 0
+        && Double.compare(prePhonemeLength, other.prePhonemeLength) == 0
+        && Double.compare(postPhonemeLength, other.postPhonemeLength) == 0
+        && Double.compare(pauseLengthScale, other.pauseLengthScale) == 0
+        && outputSamplingRate == other.outputSamplingRate
+        && outputStereo == other.outputStereo
+        && accentPhrases.equals(other.accentPhrases)
+        && Objects.equals(pauseLength, other.pauseLength)
+        && Objects.equals(kana, other.kana);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(accentPhrases, speedScale, pitchScale, intonationScale, volumeScale, prePhonemeLength,
+        postPhonemeLength, pauseLength, pauseLengthScale, outputSamplingRate, outputStereo, kana);
+  }
+
+  @Override
+  public String toString() {
+    return toJson();
+  }
+}
@@ -0,0 +1,157 @@
+package org.braid.society.secret.voicevox4j.api;
+
+import java.text.Normalizer;
+import java.util.Objects;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.internal.TinyLfuCache;
+
+/**
+ * {@link Synthesizer#createAudioQuery(String, int)}の結果を保持するキャッシュ。
+ * <p>
+ * キーは正規化したテキスト、スタイルID、およびOpenJTalk辞書に設定されたユーザー辞書のバージョンです。
+ * テキストはNFKC正規化（全角・半角の統一を含む）したうえで、連続する空白を1つの半角スペースにまとめ、前後の空白を取り除きます。
+ * キャッシュを有効にした合成器は、この正規化したテキストでAudioQueryを作成します。
+ * <p>
+ * 容量はバイト数で制限され、W-TinyLFU方式で受け入れと追い出しを行います。
+ * OpenJTalk辞書が使用している{@link UserDict}が変更された場合や、{@link OpenJTalkDictionary#useUserDict(UserDict)}で別の辞書が設定された場合、
+ * および合成器から音声モデルがアンロードされた場合、既存のエントリは自動的に無効になります。
+ * <p>
+ * 同じOpenJTalk辞書と音声モデルを使用する複数の合成器（{@link SynthesizerPool}など）で共有できます。
+ * このクラスはスレッドセーフです。
+ *
+ * @see Synthesizer#setAudioQueryCache(AudioQueryCache)
+ */
+@Slf4j
+public final class AudioQueryCache {
+
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+  private static final long EXPECTED_ENTRY_BYTES = 4 * 1024;
+  private static final long ENTRY_OVERHEAD_BYTES = 96;
+
+  private final TinyLfuCache<Key, String> cache;
+  private volatile long dictionaryStamp;
+
+  /**
+   * 指定したバイト数を上限とするキャッシュを作成します。
+   *
+   * @param maxBytes キャッシュするAudioQueryの合計バイト数の上限（Javaヒープ上の推定値）
+   * @throws IllegalArgumentException {@code maxBytes}が1未満の場合
+   */
+  public AudioQueryCache(long maxBytes) {
+    this.cache = new TinyLfuCache<>(maxBytes, EXPECTED_ENTRY_BYTES,
+        (key, json) -> ENTRY_OVERHEAD_BYTES + 2L * (key.text.length() + json.length()));
+  }
+
+  /**
+   * キャッシュのキーとして使用する形にテキストを正規化します。
+   *
+   * @param text 正規化するテキスト
+   * @return 正規化したテキスト
+   */
+  public static String normalize(String text) {
+    String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC);
+    return WHITESPACE.matcher(normalized).replaceAll(" ").strip();
+  }
+
+  String get(String normalizedText, int styleId, long dictionaryStamp) {
+    if (this.dictionaryStamp != dictionaryStamp) {
+      // 辞書が変わった時点で古いエントリは到達不能になるため、メモリを解放しておく
+      synchronized (this) {
+        if (this.dictionaryStamp != dictionaryStamp) {
+          log.debug("User dictionary changed; invalidating AudioQuery cache");
+          cache.invalidateAll();
+          this.dictionaryStamp = dictionaryStamp;
+        }
+      }
+    }
+    return cache.get(new Key(normalizedText, styleId, dictionaryStamp));
+  }
+
+  void put(String normalizedText, int styleId, long dictionaryStamp, String audioQueryJson) {
+    cache.put(new Key(normalizedText, styleId, dictionaryStamp), audioQueryJson);
+  }
+
+  /**
+   * すべてのエントリを無効にします。
+   */
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  /**
+   * キャッシュにヒットした回数を取得します。
+   *
+   * @return ヒット数
+   */
+  public long getHitCount() {
+    return cache.hitCount();
+  }
+
+  /**
+   * キャッシュにヒットしなかった回数を取得します。
+   *
+   * @return ミス数
+   */
+  public long getMissCount() {
+    return cache.missCount();
+  }
+
+  /**
+   * 容量を超えたために追い出された、または受け入れられなかったエントリの数を取得します。
+   *
+   * @return 追い出されたエントリの数
+   */
+  public long getEvictionCount() {
+    return cache.evictionCount();
+  }
+
+  /**
+   * キャッシュしているエントリの数を取得します。
+   *
+   * @return エントリ数
+   */
+  public int size() {
+    return cache.size();
+  }
+
+  /**
+   * キャッシュしているエントリの推定バイト数を取得します。
+   *
+   * @return 推定バイト数
+   */
+  public long getWeightedSize() {
+    return cache.weightedSize();
+  }
+
+  private static final class Key {
+
+    private final String text;
+    private final int styleId;
+    private final long dictionaryStamp;
+    private final int hash;
+
+    private Key(String text, int styleId, long dictionaryStamp) {
+      this.text = text;
+      this.styleId = styleId;
+      this.dictionaryStamp = dictionaryStamp;
+      this.hash = Objects.hash(text, styleId, dictionaryStamp);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key other)) {
+        return false;
+      }
+      return styleId == other.styleId && dictionaryStamp == other.dictionaryStamp && text.equals(other.text);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
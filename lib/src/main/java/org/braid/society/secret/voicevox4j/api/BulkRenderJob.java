@@ -0,0 +1,507 @@
+package org.braid.society.secret.voicevox4j.api;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.exception.VoicevoxException;
+import org.braid.society.secret.voicevox4j.internal.Futures;
+import org.braid.society.secret.voicevox4j.internal.MappedUtteranceReader;
+import org.braid.society.secret.voicevox4j.internal.SentenceSplitter;
+import org.braid.society.secret.voicevox4j.internal.StoredZipWriter;
+
+/**
+ * 大量のテキストをまとめて音声に変換する、再開可能なジョブ。
+ * <p>
+ * 入力のUTF-8テキストファイルをメモリマップで読み込みながら発話単位に分割し、
+ * {@link SynthesizerPool}の合成器へ並列に振り分けて音声を合成します。
+ * 合成結果は入力の順番どおりに、連番のWAVファイル（{@code 000001.wav}など）または1つのZIPアーカイブとして出力されます。
+ * <p>
+ * 実行中は出力済みの発話数（ZIPアーカイブの場合は最後の完全なエントリの終わりの位置も）をチェックポイントファイルに記録します。
+ * 異常終了や{@link #stop()}による停止の後に同じ設定で{@link #run()}を呼び出すと、
+ * 最初からではなく、記録された位置から処理を再開します。ZIPアーカイブは既存のエントリを複製せず、記録された位置から追記されます。
+ * 完了はすべての出力を閉じた後に記録されるため、出力を閉じる前に異常終了した場合も完了とはみなされず、次回の実行で出力が完成します。
+ * 入力ファイルやスタイルIDなどの設定がチェックポイントと一致しない場合は再開せずに例外を送出するため、
+ * 最初からやり直す場合はチェックポイントファイルを削除してください。
+ * <p>
+ * 実行中は一定間隔で、進捗とスループット（発話/秒）が{@link #setProgressListener(Consumer)}で指定したリスナーに通知されます。
+ */
+@Slf4j
+public class BulkRenderJob {
+
+  /**
+   * 合成結果の出力形式を表す列挙型です。
+   */
+  public enum OutputFormat {
+
+    /**
+     * 出力先ディレクトリに、発話ごとの連番のWAVファイルを出力します。
+     */
+    NUMBERED_WAV,
+
+    /**
+     * 発話ごとのWAVファイルを無圧縮で格納した、1つのZIPアーカイブを出力します。
+     */
+    ZIP
+  }
+
+  private static final String CHECKPOINT_FILE_NAME = "voicevox4j.checkpoint";
+  private static final String CHECKPOINT_SUFFIX = ".checkpoint";
+  private static final long CHECKPOINT_INTERVAL_NANOS = Duration.ofSeconds(1).toNanos();
+  private static final int MIN_FILE_NAME_DIGITS = 6;
+
+  private final SynthesizerPool pool;
+  private final Path input;
+  private final Path output;
+  private final int styleId;
+  private final OutputFormat format;
+  private final AtomicBoolean running = new AtomicBoolean(false);
+  private final AtomicBoolean stopRequested = new AtomicBoolean(false);
+
+  private Path checkpointPath;
+  private int maxUtteranceLength = SentenceSplitter.DEFAULT_MAX_LENGTH;
+  private Duration progressInterval = Duration.ofSeconds(1);
+  private Consumer<BulkRenderProgress> progressListener = progress -> log.info("Bulk render: {}", progress);
+
+  /**
+   * ジョブを作成します。
+   * <p>
+   * チェックポイントファイルは、{@link OutputFormat#NUMBERED_WAV}の場合は出力先ディレクトリ内の{@code voicevox4j.checkpoint}、
+   * {@link OutputFormat#ZIP}の場合はアーカイブと同じディレクトリの{@code <アーカイブ名>.checkpoint}になります。
+   *
+   * @param pool 合成に使用する合成器のプール
+   * @param input 入力のUTF-8テキストファイル
+   * @param output 出力先。{@link OutputFormat#NUMBERED_WAV}の場合はディレクトリ、{@link OutputFormat#ZIP}の場合はアーカイブファイル
+   * @param styleId スタイルID
+   * @param format 出力形式
+   */
+  public BulkRenderJob(SynthesizerPool pool, Path input, Path output, int styleId, OutputFormat format) {
+    this.pool = Objects.requireNonNull(pool, "pool");
+    this.input = Objects.requireNonNull(input, "input");
+    this.output = Objects.requireNonNull(output, "output");
+    this.styleId = styleId;
+    this.format = Objects.requireNonNull(format, "format");
+    this.checkpointPath = format == OutputFormat.NUMBERED_WAV
+        ? output.resolve(CHECKPOINT_FILE_NAME)
+        : output.resolveSibling(output.getFileName() + CHECKPOINT_SUFFIX);
+  }
+
+  /**
+   * チェックポイントファイルのパスを変更します。
+   *
+   * @param checkpointPath チェックポイントファイルのパス
+   * @return このジョブ
+   */
+  public BulkRenderJob setCheckpointPath(Path checkpointPath) {
+    this.checkpointPath = Objects.requireNonNull(checkpointPath, "checkpointPath");
+    return this;
+  }
+
+  /**
+   * 1つの発話の最大文字数を変更します。既定値は200文字です。
+   * <p>
+   * 発話の区切り方が変わるため、途中まで実行したジョブの再開時に変更することはできません。
+   *
+   * @param maxUtteranceLength 1つの発話の最大文字数
+   * @return このジョブ
+   */
+  public BulkRenderJob setMaxUtteranceLength(int maxUtteranceLength) {
+    if (maxUtteranceLength < 2) {
+      throw new IllegalArgumentException("maxUtteranceLength must be at least 2: " + maxUtteranceLength);
+    }
+    this.maxUtteranceLength = maxUtteranceLength;
+    return this;
+  }
+
+  /**
+   * 進捗を通知する間隔を変更します。既定値は1秒です。
+   *
+   * @param progressInterval 進捗を通知する間隔
+   * @return このジョブ
+   */
+  public BulkRenderJob setProgressInterval(Duration progressInterval) {
+    this.progressInterval = Objects.requireNonNull(progressInterval, "progressInterval");
+    return this;
+  }
+
+  /**
+   * 進捗を受け取るリスナーを変更します。既定ではINFOレベルでログに出力されます。
+   * <p>
+   * リスナーは{@link #run()}を呼び出したスレッドで呼び出されます。
+   *
+   * @param progressListener 進捗を受け取るリスナー
+   * @return このジョブ
+   */
+  public BulkRenderJob setProgressListener(Consumer<BulkRenderProgress> progressListener) {
+    this.progressListener = Objects.requireNonNull(progressListener, "progressListener");
+    return this;
+  }
+
+  /**
+   * 実行中のジョブに停止を要求します。
+   * <p>
+   * 新しい発話の合成は開始されなくなり、合成中の発話を出力してチェックポイントを記録した後に{@link #run()}が戻ります。
+   */
+  public void stop() {
+    stopRequested.set(true);
+  }
+
+  /**
+   * ジョブを実行します。チェックポイントが存在する場合は、その位置から再開します。
+   * <p>
+   * このメソッドはすべての発話を出力するか、{@link #stop()}で停止されるまで戻りません。
+   *
+   * @return 終了時点の進捗
+   * @throws IOException 入力の読み込み、出力の書き込み、またはチェックポイントの記録に失敗した場合
+   * @throws VoicevoxException 音声合成に失敗した場合。それまでに出力した位置はチェックポイントに記録されます
+   * @throws InterruptedException 合成結果の待機中に割り込まれた場合
+   * @throws IllegalStateException ジョブが既に実行中の場合、またはチェックポイントがこのジョブの設定と一致しない場合
+   */
+  public BulkRenderProgress run() throws IOException, VoicevoxException, InterruptedException {
+    if (!running.compareAndSet(false, true)) {
+      throw new IllegalStateException("BulkRenderJob is already running");
+    }
+    try {
+      stopRequested.set(false);
+      return execute();
+    } finally {
+      running.set(false);
+    }
+  }
+
+  private BulkRenderProgress execute() throws IOException, VoicevoxException, InterruptedException {
+    long start = System.nanoTime();
+    long total = MappedUtteranceReader.count(input, maxUtteranceLength);
+    Properties expected = fingerprint(total);
+    Checkpoint checkpoint = readCheckpoint(expected);
+    if (checkpoint.finished && checkpoint.completed >= total && Files.exists(output)) {
+      log.debug("Bulk render already completed according to checkpoint: {}", checkpointPath);
+      return report(total, total, total, start, true);
+    }
+    log.debug("Bulk render of {} utterances from {} (resuming at {})", total, input, checkpoint.completed);
+
+    int fileNameDigits = Math.max(MIN_FILE_NAME_DIGITS, Long.toString(total).length());
+    long resumedFrom;
+    long completed;
+    long position;
+    try (Sink sink = format == OutputFormat.NUMBERED_WAV
+            ? new NumberedWavSink(output, fileNameDigits)
+            : new ZipSink(output, fileNameDigits);
+        MappedUtteranceReader reader = new MappedUtteranceReader(input, maxUtteranceLength);
+        AsyncSynthesizer async = new AsyncSynthesizer(pool)) {
+
+      resumedFrom = sink.open(checkpoint.completed, checkpoint.offset);
+      reader.skip(resumedFrom);
+
+      ArrayDeque<CompletableFuture<WavBuffer>> inFlight = new ArrayDeque<>();
+      int window = pool.size() * 2;
+      completed = resumedFrom;
+      long lastCheckpoint = System.nanoTime();
+      long lastReport = lastCheckpoint;
+      boolean exhausted = false;
+      try {
+        while (true) {
+          while (!exhausted && !stopRequested.get() && inFlight.size() < window) {
+            String utterance = reader.next();
+            if (utterance == null) {
+              exhausted = true;
+            } else {
+              inFlight.add(async.submit(synthesizer -> synthesizer.ttsToBuffer(utterance, styleId)));
+            }
+          }
+          CompletableFuture<WavBuffer> head = inFlight.poll();
+          if (head == null) {
+            break;
+          }
+          try (WavBuffer wav = Futures.await(head)) {
+            sink.write(completed, wav);
+          }
+          completed++;
+
+          long now = System.nanoTime();
+          if (now - lastCheckpoint >= CHECKPOINT_INTERVAL_NANOS) {
+            sink.flush();
+            writeCheckpoint(expected, completed, sink.position(), false);
+            lastCheckpoint = now;
+          }
+          if (now - lastReport >= progressInterval.toNanos()) {
+            report(completed, total, resumedFrom, start, false);
+            lastReport = now;
+          }
+        }
+      } finally {
+        discard(inFlight);
+        sink.flush();
+        writeCheckpoint(expected, completed, sink.position(), false);
+      }
+      position = sink.position();
+      // 完了を記録する前に出力を完成させる。完成前に異常終了した場合は、次回の実行で再開して出力を完成させる
+      sink.finish();
+    }
+    if (completed >= total) {
+      writeCheckpoint(expected, completed, position, true);
+    } else if (stopRequested.get()) {
+      log.debug("Bulk render stopped at {}/{}", completed, total);
+    }
+    return report(completed, total, resumedFrom, start, true);
+  }
+
+  private BulkRenderProgress report(long completed, long total, long resumedFrom, long start, boolean finished) {
+    BulkRenderProgress progress = new BulkRenderProgress(completed, total, resumedFrom,
+        Duration.ofNanos(System.nanoTime() - start), finished);
+    progressListener.accept(progress);
+    return progress;
+  }
+
+  /**
+   * 出力されなかった合成結果を破棄します。
+   * 合成中のものはキャンセルされ、合成が終わった時点で{@link AsyncSynthesizer}によって解放されます。
+   */
+  private static void discard(ArrayDeque<CompletableFuture<WavBuffer>> inFlight) {
+    CompletableFuture<WavBuffer> future;
+    while ((future = inFlight.poll()) != null) {
+      Futures.discard(future);
+    }
+  }
+
+  private Properties fingerprint(long total) throws IOException {
+    Properties properties = new Properties();
+    properties.setProperty("input.size", Long.toString(Files.size(input)));
+    properties.setProperty("input.lastModified", Long.toString(Files.getLastModifiedTime(input).toMillis()));
+    properties.setProperty("styleId", Integer.toString(styleId));
+    properties.setProperty("format", format.name());
+    properties.setProperty("maxUtteranceLength", Integer.toString(maxUtteranceLength));
+    properties.setProperty("total", Long.toString(total));
+    return properties;
+  }
+
+  private Checkpoint readCheckpoint(Properties expected) throws IOException {
+    if (!Files.exists(checkpointPath)) {
+      return new Checkpoint(0, -1, false);
+    }
+    Properties actual = new Properties();
+    try (InputStream in = Files.newInputStream(checkpointPath)) {
+      actual.load(in);
+    }
+    for (String key : expected.stringPropertyNames()) {
+      if (!expected.getProperty(key).equals(actual.getProperty(key))) {
+        throw new IllegalStateException("Checkpoint " + checkpointPath + " does not match this job (" + key
+            + "); delete it to start over");
+      }
+    }
+    try {
+      return new Checkpoint(Long.parseLong(actual.getProperty("completed", "0")),
+          Long.parseLong(actual.getProperty("offset", "-1")),
+          Boolean.parseBoolean(actual.getProperty("finished")));
+    } catch (NumberFormatException e) {
+      throw new IllegalStateException("Corrupted checkpoint: " + checkpointPath, e);
+    }
+  }
+
+  private void writeCheckpoint(Properties expected, long completed, long offset, boolean finished) throws IOException {
+    Properties properties = new Properties();
+    properties.putAll(expected);
+    properties.setProperty("completed", Long.toString(completed));
+    properties.setProperty("offset", Long.toString(offset));
+    properties.setProperty("finished", Boolean.toString(finished));
+
+    Path parent = checkpointPath.toAbsolutePath().getParent();
+    Files.createDirectories(parent);
+    Path temp = Files.createTempFile(parent, checkpointPath.getFileName().toString(), ".tmp");
+    try (OutputStream out = Files.newOutputStream(temp)) {
+      properties.store(out, "voicevox4j bulk render checkpoint");
+    }
+    try {
+      Files.move(temp, checkpointPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(temp, checkpointPath, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  private static String fileName(long index, int digits) {
+    return String.format("%0" + digits + "d.wav", index + 1);
+  }
+
+  /**
+   * チェックポイントに記録された内容。
+   */
+  private static final class Checkpoint {
+
+    private final long completed;
+    private final long offset;
+    private final boolean finished;
+
+    private Checkpoint(long completed, long offset, boolean finished) {
+      this.completed = completed;
+      this.offset = offset;
+      this.finished = finished;
+    }
+  }
+
+  /**
+   * 合成結果の出力先。
+   */
+  private interface Sink extends Closeable {
+
+    /**
+     * 出力を開始します。
+     *
+     * @param checkpointed チェックポイントに記録されていた出力済みの発話数
+     * @param offset チェックポイントに記録されていた{@link #position()}。記録されていない場合は負の値
+     * @return 実際に再開する位置
+     */
+    long open(long checkpointed, long offset) throws IOException;
+
+    void write(long index, WavBuffer wav) throws IOException;
+
+    void flush() throws IOException;
+
+    /**
+     * 最後に出力した発話の終わりの位置を取得します。再開時に{@link #open(long, long)}へ渡されます。
+     */
+    long position();
+
+    /**
+     * 出力を完成させます。この後の{@link #close()}は何もしません。
+     */
+    void finish() throws IOException;
+  }
+
+  private static final class NumberedWavSink implements Sink {
+
+    private final Path directory;
+    private final int digits;
+
+    private NumberedWavSink(Path directory, int digits) {
+      this.directory = directory;
+      this.digits = digits;
+    }
+
+    @Override
+    public long open(long checkpointed, long offset) throws IOException {
+      Files.createDirectories(directory);
+      return checkpointed;
+    }
+
+    @Override
+    public void write(long index, WavBuffer wav) throws IOException {
+      try (FileChannel channel = FileChannel.open(directory.resolve(fileName(index, digits)),
+          StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+        wav.writeTo(channel);
+      }
+    }
+
+    @Override
+    public void flush() {
+      // ファイルごとに書き込みが完了しているため、何もしない
+    }
+
+    @Override
+    public long position() {
+      return 0;
+    }
+
+    @Override
+    public void finish() {
+      // ファイルごとに書き込みが完了しているため、何もしない
+    }
+
+    @Override
+    public void close() {
+      // 開いたままのリソースはない
+    }
+  }
+
+  /**
+   * ZIPアーカイブへの出力。
+   * <p>
+   * 異常終了したアーカイブには中央ディレクトリが書き込まれていないため、
+   * 再開時は{@link StoredZipWriter#resume(Path, long, long, java.util.function.LongFunction)}でチェックポイントに記録された位置までの
+   * ローカルヘッダーを読んでエントリの一覧を復元し、それ以降を切り詰めて追記します。既存のエントリのデータは複製されません。
+   */
+  private static final class ZipSink implements Sink {
+
+    private static final String LEGACY_PARTIAL_SUFFIX = ".partial";
+
+    private final Path archive;
+    private final int digits;
+    private StoredZipWriter zip;
+
+    private ZipSink(Path archive, int digits) {
+      this.archive = archive;
+      this.digits = digits;
+    }
+
+    @Override
+    public long open(long checkpointed, long offset) throws IOException {
+      Path parent = archive.toAbsolutePath().getParent();
+      Files.createDirectories(parent);
+      deleteLegacyPartials(parent);
+      if (checkpointed == 0 || !Files.exists(archive)) {
+        zip = StoredZipWriter.create(archive);
+        return 0;
+      }
+      zip = StoredZipWriter.resume(archive, checkpointed, offset, index -> fileName(index, digits));
+      long recovered = zip.getEntryCount();
+      if (recovered < checkpointed) {
+        log.warn("Archive {} is truncated; resuming after {} entries", archive, recovered);
+      }
+      return recovered;
+    }
+
+    /**
+     * 以前のバージョンが再開時に作成していた一時ファイルが残っていれば削除します。
+     */
+    private void deleteLegacyPartials(Path parent) throws IOException {
+      String glob = archive.getFileName() + "*" + LEGACY_PARTIAL_SUFFIX;
+      try (DirectoryStream<Path> partials = Files.newDirectoryStream(parent, glob)) {
+        for (Path partial : partials) {
+          log.debug("Deleting leftover partial archive: {}", partial);
+          Files.deleteIfExists(partial);
+        }
+      }
+    }
+
+    @Override
+    public void write(long index, WavBuffer wav) throws IOException {
+      zip.write(fileName(index, digits), wav.asByteBuffer());
+    }
+
+    @Override
+    public void flush() {
+      // ファイルへ直接書き込んでいるため、何もしない
+    }
+
+    @Override
+    public long position() {
+      return zip == null ? -1 : zip.position();
+    }
+
+    @Override
+    public void finish() throws IOException {
+      close();
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (zip != null) {
+        zip.close();
+      }
+    }
+  }
+}
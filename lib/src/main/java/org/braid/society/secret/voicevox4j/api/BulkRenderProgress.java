@@ -0,0 +1,94 @@
+package org.braid.society.secret.voicevox4j.api;
+
+import java.time.Duration;
+
+/**
+ * {@link BulkRenderJob}の進捗を表す不変のクラス。
+ */
+public final class BulkRenderProgress {
+
+  private final long completed;
+  private final long total;
+  private final long resumedFrom;
+  private final Duration elapsed;
+  private final boolean finished;
+
+  BulkRenderProgress(long completed, long total, long resumedFrom, Duration elapsed, boolean finished) {
+    this.completed = completed;
+    this.total = total;
+    this.resumedFrom = resumedFrom;
+    this.elapsed = elapsed;
+    this.finished = finished;
+  }
+
+  /**
+   * 出力済みの発話数を取得します。再開前に出力された発話も含みます。
+   *
+   * @return 出力済みの発話数
+   */
+  public long getCompleted() {
+    return completed;
+  }
+
+  /**
+   * 入力に含まれる発話の総数を取得します。
+   *
+   * @return 発話の総数
+   */
+  public long getTotal() {
+    return total;
+  }
+
+  /**
+   * チェックポイントから再開した場合の、再開時点の出力済み発話数を取得します。
+   *
+   * @return 再開時点の出力済み発話数。最初から実行した場合は0
+   */
+  public long getResumedFrom() {
+    return resumedFrom;
+  }
+
+  /**
+   * 今回の実行を開始してからの経過時間を取得します。
+   *
+   * @return 経過時間
+   */
+  public Duration getElapsed() {
+    return elapsed;
+  }
+
+  /**
+   * ジョブの実行が終了したかどうかを確認します。
+   * すべての発話を出力した場合のほか、{@link BulkRenderJob#stop()}で停止した場合もtrueになります。
+   *
+   * @return 実行が終了した場合はtrue
+   */
+  public boolean isFinished() {
+    return finished;
+  }
+
+  /**
+   * 進捗の割合を取得します。
+   *
+   * @return 0.0から1.0までの進捗率。発話が1つもない場合は1.0
+   */
+  public double getFraction() {
+    return total == 0 ? 1.0 : (double) completed / total;
+  }
+
+  /**
+   * 今回の実行でのスループットを取得します。
+   *
+   * @return 1秒あたりに出力した発話数
+   */
+  public double getUtterancesPerSecond() {
+    long nanos = elapsed.toNanos();
+    return nanos == 0 ? 0.0 : (completed - resumedFrom) * 1_000_000_000.0 / nanos;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%d/%d utterances (%.1f%%), %.2f utterances/s, elapsed %s",
+        completed, total, getFraction() * 100, getUtterancesPerSecond(), elapsed);
+  }
+}
@@ -0,0 +1,288 @@
+package org.braid.society.secret.voicevox4j.api;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.exception.VoicevoxException;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxSynthesisOptions;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxTtsOptions;
+
+/**
+ * 追加された文を{@link AsyncSynthesizer}で合成し、{@link AudioChunk}として順番どおりに1人の購読者へ出力する購読。
+ * <p>
+ * 合成は購読者の要求数の範囲でのみ先行して行われ、同時に合成する数は{@code window}までに制限されます。
+ * 文は任意のスレッドからいつでも追加でき（追加した順番に出力されます）、{@link #seal()}を呼び出した後、すべての文を出力した時点で完了します。
+ * <p>
+ * 購読者へのシグナルは{@link #drain()}の中からのみ送られ、{@code wip}によって同時に1つのスレッドだけが実行します。
+ * {@code wip}で保護されたフィールドは{@link #drain()}の中からのみアクセスされます。
+ */
+@Slf4j
+final class ChunkPipeline implements Flow.Subscription {
+
+  private final AsyncSynthesizer async;
+  private final int window;
+  private final int styleId;
+  private final VoicevoxTtsOptions options;
+  private final Flow.Subscriber<? super AudioChunk> subscriber;
+  private final ConcurrentLinkedQueue<Supplier<CompletableFuture<Piece>>> added = new ConcurrentLinkedQueue<>();
+  private final AtomicLong requested = new AtomicLong();
+  private final AtomicInteger wip = new AtomicInteger();
+  private volatile boolean sealed;
+  private volatile boolean cancelled;
+  private volatile IllegalArgumentException requestError;
+
+  // 以下はdrain()の中からのみアクセスする
+  private final ArrayDeque<CompletableFuture<Piece>> inFlight = new ArrayDeque<>();
+  private final ArrayDeque<CompletableFuture<?>> started = new ArrayDeque<>();
+  private int emitted;
+  private boolean terminated;
+
+  ChunkPipeline(AsyncSynthesizer async, int window, int styleId, VoicevoxTtsOptions options,
+                Flow.Subscriber<? super AudioChunk> subscriber) {
+    this.async = async;
+    this.window = window;
+    this.styleId = styleId;
+    this.options = options;
+    this.subscriber = subscriber;
+  }
+
+  /**
+   * 合成する文を追加します。
+   * <p>
+   * {@code splitAtFirstPause}がtrueの場合は、文のAudioQueryを作成した上で、最初の無音（読点など）までのアクセント句と
+   * 残りのアクセント句に分けて合成します。文全体の抑揚を保ったまま、最初のチャンクをより早く出力できます。
+   *
+   * @param sentence 合成する文
+   * @param splitAtFirstPause 最初の無音の位置で分割する場合はtrue
+   */
+  void add(String sentence, boolean splitAtFirstPause) {
+    if (!splitAtFirstPause) {
+      Supplier<CompletableFuture<Piece>> unit = () -> async.submit(synthesizer -> new Piece(sentence, options == null
+          ? synthesizer.tts(sentence, styleId)
+          : synthesizer.tts(sentence, styleId, options)));
+      synchronized (added) {
+        added.add(unit);
+      }
+    } else {
+      // 2つの単位は必ずこの順番でdrain()から開始されるため、AudioQueryは最初の単位で1回だけ作成される
+      AtomicReference<CompletableFuture<AudioQuery>> query = new AtomicReference<>();
+      Supplier<CompletableFuture<Piece>> head = () -> {
+        CompletableFuture<AudioQuery> created =
+            async.submit(synthesizer -> synthesizer.createAudioQueryTyped(sentence, styleId));
+        query.set(created);
+        started.add(created);
+        return created.thenCompose(q -> synthesizePart(sentence, q, true));
+      };
+      Supplier<CompletableFuture<Piece>> tail = () -> query.get().thenCompose(q -> synthesizePart(sentence, q, false));
+      // 2つの単位の間に他のスレッドが追加した文が入らないようにする
+      synchronized (added) {
+        added.add(head);
+        added.add(tail);
+      }
+    }
+    drain();
+  }
+
+  /**
+   * これ以上文を追加しないことを通知します。すべての文を出力した時点で購読者に完了が通知されます。
+   */
+  void seal() {
+    sealed = true;
+    drain();
+  }
+
+  boolean isCancelled() {
+    return cancelled;
+  }
+
+  @Override
+  public void request(long n) {
+    if (n <= 0) {
+      requestError = new IllegalArgumentException("Request must be positive: " + n);
+      cancelled = true;
+    } else {
+      requested.getAndAccumulate(n, (current, more) -> current + more < 0 ? Long.MAX_VALUE : current + more);
+    }
+    drain();
+  }
+
+  @Override
+  public void cancel() {
+    cancelled = true;
+    drain();
+  }
+
+  private CompletableFuture<Piece> synthesizePart(String sentence, AudioQuery query, boolean head) {
+    List<AccentPhrase> phrases = query.getAccentPhrases();
+    int cut = headSize(phrases);
+    if (cut == phrases.size()) {
+      return head
+          ? async.submit(synthesizer -> new Piece(sentence, synthesize(synthesizer, query)))
+          : CompletableFuture.completedFuture(null);
+    }
+    List<AccentPhrase> part = head ? phrases.subList(0, cut) : phrases.subList(cut, phrases.size());
+    // 分割点の無音はアクセント句の無音モーラが担うため、分割点側の前後の無音を除く
+    AudioQuery partQuery = head
+        ? query.withAccentPhrases(part).withPostPhonemeLength(0)
+        : query.withAccentPhrases(part).withPrePhonemeLength(0);
+    return async.submit(synthesizer -> new Piece(reading(part), synthesize(synthesizer, partQuery)));
+  }
+
+  private byte[] synthesize(Synthesizer synthesizer, AudioQuery query) throws VoicevoxException {
+    if (options == null) {
+      return synthesizer.synthesis(query, styleId);
+    }
+    VoicevoxSynthesisOptions synthesisOptions = new VoicevoxSynthesisOptions();
+    synthesisOptions.setEnableInterrogativeUpspeak(options.isEnableInterrogativeUpspeak());
+    return synthesizer.synthesis(query, styleId, synthesisOptions);
+  }
+
+  /**
+   * 最初の無音までのアクセント句の数を返します。無音がない場合、または最後の句にしかない場合は全体の数を返します。
+   */
+  private static int headSize(List<AccentPhrase> phrases) {
+    for (int i = 0; i < phrases.size() - 1; i++) {
+      if (phrases.get(i).getPauseMora() != null) {
+        return i + 1;
+      }
+    }
+    return phrases.size();
+  }
+
+  private static String reading(List<AccentPhrase> phrases) {
+    StringBuilder reading = new StringBuilder();
+    for (AccentPhrase phrase : phrases) {
+      phrase.getMoras().forEach(mora -> reading.append(mora.getText()));
+      if (phrase.getPauseMora() != null) {
+        reading.append(phrase.getPauseMora().getText());
+      }
+    }
+    return reading.toString();
+  }
+
+  private void drain() {
+    if (wip.getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    while (true) {
+      if (terminated) {
+        return;
+      }
+      if (cancelled) {
+        cleanUp();
+        terminated = true;
+        if (requestError != null) {
+          subscriber.onError(requestError);
+        }
+        return;
+      }
+      boolean progress = true;
+      while (progress && !terminated && !cancelled) {
+        progress = startAhead() | emitReady();
+      }
+      if (!terminated && !cancelled && sealed && added.isEmpty() && inFlight.isEmpty()) {
+        terminated = true;
+        subscriber.onComplete();
+        return;
+      }
+      missed = wip.addAndGet(-missed);
+      if (missed == 0) {
+        return;
+      }
+    }
+  }
+
+  private boolean startAhead() {
+    // 完了したAudioQueryは取り消す必要がないため、長時間のセッションで溜まり続けないように取り除く
+    started.removeIf(CompletableFuture::isDone);
+    boolean startedAny = false;
+    long demand = requested.get() - emitted;
+    Supplier<CompletableFuture<Piece>> unit;
+    while (inFlight.size() < window && inFlight.size() < demand && (unit = added.poll()) != null) {
+      CompletableFuture<Piece> future;
+      try {
+        future = unit.get();
+      } catch (RuntimeException e) {
+        fail(e);
+        return false;
+      }
+      inFlight.add(future);
+      future.whenComplete((piece, error) -> drain());
+      startedAny = true;
+    }
+    return startedAny;
+  }
+
+  private boolean emitReady() {
+    boolean emittedAny = false;
+    CompletableFuture<Piece> head;
+    while ((head = inFlight.peek()) != null && head.isDone()) {
+      Piece piece;
+      try {
+        piece = head.join();
+      } catch (CompletionException | CancellationException e) {
+        fail(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+        return false;
+      }
+      if (piece != null && emitted >= requested.get()) {
+        break;
+      }
+      inFlight.poll();
+      emittedAny = true;
+      if (piece == null) {
+        continue;
+      }
+      try {
+        subscriber.onNext(new AudioChunk(emitted++, piece.text, piece.wav));
+      } catch (RuntimeException e) {
+        log.warn("Subscriber threw from onNext; cancelling the stream", e);
+        cancelled = true;
+        cleanUp();
+        terminated = true;
+        return false;
+      }
+    }
+    return emittedAny;
+  }
+
+  private void fail(Throwable error) {
+    cleanUp();
+    terminated = true;
+    subscriber.onError(error);
+  }
+
+  private void cleanUp() {
+    CompletableFuture<?> future;
+    while ((future = inFlight.poll()) != null) {
+      future.cancel(false);
+    }
+    while ((future = started.poll()) != null) {
+      future.cancel(false);
+    }
+    added.clear();
+  }
+
+  /**
+   * 合成された1つの断片。最初の無音で分割しなかった文の2つ目の断片はnullになります。
+   */
+  private static final class Piece {
+
+    private final String text;
+    private final byte[] wav;
+
+    private Piece(String text, byte[] wav) {
+      this.text = text;
+      this.wav = wav;
+    }
+  }
+}
@@ -0,0 +1,313 @@
+package org.braid.society.secret.voicevox4j.api;
+
+import java.io.Closeable;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.exception.VoicevoxException;
+import org.braid.society.secret.voicevox4j.internal.Futures;
+import org.braid.society.secret.voicevox4j.internal.SingleFlight;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxSynthesisOptions;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxTtsOptions;
+
+/**
+ * 同じ内容の合成要求が同時に届いた場合に、ネイティブ関数の呼び出しを1回にまとめるクラス。
+ * <p>
+ * テキスト（またはオーディオクエリ）、スタイルID、オプションがすべて等しい要求の合成が実行中の間は、
+ * 新しい要求は合成を開始せずに実行中の合成の結果を待ちます。すべての要求は同じWAVデータ、または同じ例外を受け取ります。
+ * WAVデータは要求ごとに別の配列として返されるため、受け取った配列を変更しても他の要求には影響しません。
+ * 合成が完了した時点でまとめる対象から外れるため、結果はキャッシュされません。結果を再利用する場合は{@link WavCache}を使用してください。
+ * <p>
+ * 1つの要求をキャンセル（同期メソッドでは待機中のスレッドへの割り込み）しても、同じ合成を待つ他の要求には影響しません。
+ * 同じ合成を待つすべての要求がキャンセルされた場合は、ネイティブ関数の呼び出しが始まる前であれば合成も取りやめます。
+ * <p>
+ * 各合成は{@link AsyncSynthesizer}と同様に、{@link SynthesizerPool}から借りた合成器で実行されます。
+ */
+@Slf4j
+public class CoalescingSynthesizer implements Closeable, AutoCloseable {
+
+  private final AsyncSynthesizer async;
+  private final SingleFlight<Key, byte[]> flights = new SingleFlight<>(byte[]::clone);
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+
+  /**
+   * 合成器のプールを使用する合成器を作成します。
+   * プールのサイズと同じ数のスレッドを持つエグゼキュータが作成され、{@link #close()}でシャットダウンされます。
+   *
+   * @param pool 使用する合成器のプール
+   */
+  public CoalescingSynthesizer(SynthesizerPool pool) {
+    this.async = new AsyncSynthesizer(Objects.requireNonNull(pool, "pool"));
+  }
+
+  /**
+   * 合成器のプールとエグゼキュータを指定して合成器を作成します。
+   *
+   * @param pool 使用する合成器のプール
+   * @param executor 合成を実行するエグゼキュータ
+   */
+  public CoalescingSynthesizer(SynthesizerPool pool, Executor executor) {
+    this.async = new AsyncSynthesizer(Objects.requireNonNull(pool, "pool"), executor);
+  }
+
+  /**
+   * テキストから音声を非同期に合成します（デフォルトオプション）。
+   *
+   * @param text 合成するテキスト
+   * @param styleId スタイルID
+   * @return この要求専用の、WAVデータを返すフューチャー
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   * @see Synthesizer#tts(String, int)
+   */
+  public CompletableFuture<byte[]> ttsAsync(String text, int styleId) {
+    Key key = new Key(WavCache.Kind.TTS, text, styleId, null);
+    return submit(key, () -> async.ttsAsync(text, styleId));
+  }
+
+  /**
+   * テキストから音声を非同期に合成します（オプション指定）。
+   *
+   * @param text 合成するテキスト
+   * @param styleId スタイルID
+   * @param options TTSオプション
+   * @return この要求専用の、WAVデータを返すフューチャー
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   * @see Synthesizer#tts(String, int, VoicevoxTtsOptions)
+   */
+  public CompletableFuture<byte[]> ttsAsync(String text, int styleId, VoicevoxTtsOptions options) {
+    Key key = new Key(WavCache.Kind.TTS, text, styleId, options.isEnableInterrogativeUpspeak());
+    return submit(key, () -> async.ttsAsync(text, styleId, options));
+  }
+
+  /**
+   * AquesTalk風記法から音声を非同期に合成します（デフォルトオプション）。
+   *
+   * @param kana AquesTalk風記法のテキスト
+   * @param styleId スタイルID
+   * @return この要求専用の、WAVデータを返すフューチャー
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   * @see Synthesizer#ttsFromKana(String, int)
+   */
+  public CompletableFuture<byte[]> ttsFromKanaAsync(String kana, int styleId) {
+    Key key = new Key(WavCache.Kind.TTS_FROM_KANA, kana, styleId, null);
+    return submit(key, () -> async.ttsFromKanaAsync(kana, styleId));
+  }
+
+  /**
+   * AquesTalk風記法から音声を非同期に合成します（オプション指定）。
+   *
+   * @param kana AquesTalk風記法のテキスト
+   * @param styleId スタイルID
+   * @param options TTSオプション
+   * @return この要求専用の、WAVデータを返すフューチャー
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   * @see Synthesizer#ttsFromKana(String, int, VoicevoxTtsOptions)
+   */
+  public CompletableFuture<byte[]> ttsFromKanaAsync(String kana, int styleId, VoicevoxTtsOptions options) {
+    Key key = new Key(WavCache.Kind.TTS_FROM_KANA, kana, styleId, options.isEnableInterrogativeUpspeak());
+    return submit(key, () -> async.ttsFromKanaAsync(kana, styleId, options));
+  }
+
+  /**
+   * AudioQueryから音声を非同期に合成します（デフォルトオプション）。
+   *
+   * @param audioQueryJson AudioQueryのJSON文字列
+   * @param styleId スタイルID
+   * @return この要求専用の、WAVデータを返すフューチャー
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   * @see Synthesizer#synthesis(String, int)
+   */
+  public CompletableFuture<byte[]> synthesisAsync(String audioQueryJson, int styleId) {
+    Key key = new Key(WavCache.Kind.SYNTHESIS, audioQueryJson, styleId, null);
+    return submit(key, () -> async.synthesisAsync(audioQueryJson, styleId));
+  }
+
+  /**
+   * AudioQueryから音声を非同期に合成します（オプション指定）。
+   *
+   * @param audioQueryJson AudioQueryのJSON文字列
+   * @param styleId スタイルID
+   * @param options 合成オプション
+   * @return この要求専用の、WAVデータを返すフューチャー
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   * @see Synthesizer#synthesis(String, int, VoicevoxSynthesisOptions)
+   */
+  public CompletableFuture<byte[]> synthesisAsync(String audioQueryJson, int styleId, VoicevoxSynthesisOptions options) {
+    Key key = new Key(WavCache.Kind.SYNTHESIS, audioQueryJson, styleId, options.isEnableInterrogativeUpspeak());
+    return submit(key, () -> async.synthesisAsync(audioQueryJson, styleId, options));
+  }
+
+  /**
+   * テキストから音声を合成し、完了を待ちます（デフォルトオプション）。
+   *
+   * @param text 合成するテキスト
+   * @param styleId スタイルID
+   * @return 音声データ（WAVファイル形式）
+   * @throws VoicevoxException 音声合成に失敗した場合
+   * @throws InterruptedException 合成結果の待機中に割り込まれた場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public byte[] tts(String text, int styleId) throws VoicevoxException, InterruptedException {
+    return await(ttsAsync(text, styleId));
+  }
+
+  /**
+   * テキストから音声を合成し、完了を待ちます（オプション指定）。
+   *
+   * @param text 合成するテキスト
+   * @param styleId スタイルID
+   * @param options TTSオプション
+   * @return 音声データ（WAVファイル形式）
+   * @throws VoicevoxException 音声合成に失敗した場合
+   * @throws InterruptedException 合成結果の待機中に割り込まれた場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public byte[] tts(String text, int styleId, VoicevoxTtsOptions options) throws VoicevoxException, InterruptedException {
+    return await(ttsAsync(text, styleId, options));
+  }
+
+  /**
+   * AquesTalk風記法から音声を合成し、完了を待ちます（デフォルトオプション）。
+   *
+   * @param kana AquesTalk風記法のテキスト
+   * @param styleId スタイルID
+   * @return 音声データ（WAVファイル形式）
+   * @throws VoicevoxException 音声合成に失敗した場合
+   * @throws InterruptedException 合成結果の待機中に割り込まれた場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public byte[] ttsFromKana(String kana, int styleId) throws VoicevoxException, InterruptedException {
+    return await(ttsFromKanaAsync(kana, styleId));
+  }
+
+  /**
+   * AudioQueryから音声を合成し、完了を待ちます（デフォルトオプション）。
+   *
+   * @param audioQueryJson AudioQueryのJSON文字列
+   * @param styleId スタイルID
+   * @return 音声データ（WAVファイル形式）
+   * @throws VoicevoxException 音声合成に失敗した場合
+   * @throws InterruptedException 合成結果の待機中に割り込まれた場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public byte[] synthesis(String audioQueryJson, int styleId) throws VoicevoxException, InterruptedException {
+    return await(synthesisAsync(audioQueryJson, styleId));
+  }
+
+  /**
+   * これまでに受け付けた要求の数を取得します。
+   *
+   * @return 要求の数
+   */
+  public long requestCount() {
+    return requests.sum();
+  }
+
+  /**
+   * 実行中の合成にまとめられ、ネイティブ関数を呼び出さずに済んだ要求の数を取得します。
+   *
+   * @return まとめられた要求の数
+   */
+  public long coalescedCount() {
+    return coalesced.sum();
+  }
+
+  private CompletableFuture<byte[]> submit(Key key, Supplier<CompletableFuture<byte[]>> starter) {
+    ensureNotClosed();
+    requests.increment();
+    boolean[] started = new boolean[1];
+    CompletableFuture<byte[]> future = flights.submit(key, () -> {
+      started[0] = true;
+      return starter.get();
+    });
+    if (!started[0]) {
+      coalesced.increment();
+    }
+    return future;
+  }
+
+  private static byte[] await(CompletableFuture<byte[]> future) throws VoicevoxException, InterruptedException {
+    try {
+      return Futures.await(future);
+    } catch (InterruptedException e) {
+      // この要求だけを取り下げる。同じ合成を待つ他の要求はそのまま結果を受け取る
+      future.cancel(false);
+      throw e;
+    }
+  }
+
+
+  /**
+   * このオブジェクトがクローズされているかどうかを確認します。
+   *
+   * @return クローズされている場合はtrue
+   */
+  public boolean isClosed() {
+    return closed.get();
+  }
+
+  private void ensureNotClosed() {
+    if (closed.get()) {
+      throw new IllegalStateException("CoalescingSynthesizer is already closed");
+    }
+  }
+
+  /**
+   * 合成器をクローズします。
+   * <p>
+   * 内部で作成したエグゼキュータはシャットダウンされ、実行を待っている合成はキャンセルされます。
+   * 合成器のプールはこのメソッドではクローズされません。
+   * このメソッドは複数回呼び出しても安全です。
+   */
+  @Override
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      async.close();
+      log.debug("CoalescingSynthesizer closed (requests: {}, coalesced: {})", requests.sum(), coalesced.sum());
+    }
+  }
+
+  /**
+   * まとめる対象を識別するキー。
+   * オプションを指定しない要求は、既定のオプションを指定した要求とは別のキーとして扱います。
+   */
+  private static final class Key {
+
+    private final WavCache.Kind kind;
+    private final String input;
+    private final int styleId;
+    private final Boolean interrogativeUpspeak;
+    private final int hash;
+
+    private Key(WavCache.Kind kind, String input, int styleId, Boolean interrogativeUpspeak) {
+      this.kind = kind;
+      this.input = Objects.requireNonNull(input, "input");
+      this.styleId = styleId;
+      this.interrogativeUpspeak = interrogativeUpspeak;
+      this.hash = Objects.hash(kind, input, styleId, interrogativeUpspeak);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key other)) {
+        return false;
+      }
+      return kind == other.kind && styleId == other.styleId
+          && Objects.equals(interrogativeUpspeak, other.interrogativeUpspeak) && input.equals(other.input);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
@@ -0,0 +1,198 @@
+package org.braid.society.secret.voicevox4j.api;
+
+import java.io.Closeable;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.exception.VoicevoxException;
+import org.braid.society.secret.voicevox4j.internal.Futures;
+import org.braid.society.secret.voicevox4j.internal.SentenceSplitter;
+import org.braid.society.secret.voicevox4j.internal.WavStitcher;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxTtsOptions;
+
+/**
+ * 長いテキストを文ごとに分割して並列に合成し、1つのWAVデータとして返すクラス。
+ * <p>
+ * テキストは句点・感嘆符・疑問符（{@code 。！？}など）と改行の位置で文に分割され、
+ * 各文は{@link SynthesizerPool}から借りた合成器で同時に合成されます。
+ * 合成結果は元の順番どおりに、{@link #setSentencePause(Duration)}で指定した無音を挟んで1つのWAVデータに連結されます。
+ * <p>
+ * {@link Synthesizer#tts(String, int)}は1回の呼び出しでテキスト全体を順に処理するため、
+ * テキストが長くなるほど待ち時間が延びますが、このクラスでは待ち時間がおおむね最も長い文の合成時間と
+ * プールのサイズで決まります。文の境界で音声が区切られるため、
+ * 文をまたぐ抑揚は{@link Synthesizer#tts(String, int)}の結果と異なる場合があります。
+ */
+@Slf4j
+public class LongTextSynthesizer implements Closeable, AutoCloseable {
+
+  private final SynthesizerPool pool;
+  private final AsyncSynthesizer async;
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+  private volatile int maxUtteranceLength = SentenceSplitter.DEFAULT_MAX_LENGTH;
+  private volatile Duration sentencePause = Duration.ZERO;
+
+  /**
+   * 合成器のプールを使用する長文合成器を作成します。
+   * プールのサイズと同じ数のスレッドを持つエグゼキュータが作成され、{@link #close()}でシャットダウンされます。
+   *
+   * @param pool 使用する合成器のプール
+   */
+  public LongTextSynthesizer(SynthesizerPool pool) {
+    this.pool = Objects.requireNonNull(pool, "pool");
+    this.async = new AsyncSynthesizer(pool);
+  }
+
+  /**
+   * 合成器のプールとエグゼキュータを指定して長文合成器を作成します。
+   *
+   * @param pool 使用する合成器のプール
+   * @param executor 各文の合成を実行するエグゼキュータ
+   */
+  public LongTextSynthesizer(SynthesizerPool pool, Executor executor) {
+    this.pool = Objects.requireNonNull(pool, "pool");
+    this.async = new AsyncSynthesizer(pool, executor);
+  }
+
+  /**
+   * 1つの文の最大文字数を変更します。既定値は200文字です。
+   * <p>
+   * 区切りのないまま最大文字数に達した文は、読点や空白の位置で分割されます。
+   *
+   * @param maxUtteranceLength 1つの文の最大文字数
+   * @return この長文合成器
+   * @throws IllegalArgumentException {@code maxUtteranceLength}が2未満の場合
+   */
+  public LongTextSynthesizer setMaxUtteranceLength(int maxUtteranceLength) {
+    if (maxUtteranceLength < 2) {
+      throw new IllegalArgumentException("maxUtteranceLength must be at least 2: " + maxUtteranceLength);
+    }
+    this.maxUtteranceLength = maxUtteranceLength;
+    return this;
+  }
+
+  /**
+   * 文と文の間に挟む無音の長さを変更します。既定値は0で、各文の前後の無音のみで区切られます。
+   *
+   * @param sentencePause 文と文の間に挟む無音の長さ
+   * @return この長文合成器
+   * @throws IllegalArgumentException {@code sentencePause}が負の場合
+   */
+  public LongTextSynthesizer setSentencePause(Duration sentencePause) {
+    if (sentencePause.isNegative()) {
+      throw new IllegalArgumentException("sentencePause must not be negative: " + sentencePause);
+    }
+    this.sentencePause = sentencePause;
+    return this;
+  }
+
+  /**
+   * テキストを文ごとに並列に合成し、1つのWAVデータとして返します（デフォルトオプション）。
+   *
+   * @param text 合成するテキスト
+   * @param styleId スタイルID
+   * @return 音声データ（WAVファイル形式）
+   * @throws VoicevoxException いずれかの文の音声合成に失敗した場合
+   * @throws InterruptedException 合成結果の待機中に割り込まれた場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public byte[] tts(String text, int styleId) throws VoicevoxException, InterruptedException {
+    return render(text, sentence -> synthesizer -> synthesizer.ttsToBuffer(sentence, styleId));
+  }
+
+  /**
+   * テキストを文ごとに並列に合成し、1つのWAVデータとして返します（オプション指定）。
+   *
+   * @param text 合成するテキスト
+   * @param styleId スタイルID
+   * @param options TTSオプション
+   * @return 音声データ（WAVファイル形式）
+   * @throws VoicevoxException いずれかの文の音声合成に失敗した場合
+   * @throws InterruptedException 合成結果の待機中に割り込まれた場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public byte[] tts(String text, int styleId, VoicevoxTtsOptions options) throws VoicevoxException, InterruptedException {
+    return render(text, sentence -> synthesizer -> synthesizer.ttsToBuffer(sentence, styleId, options));
+  }
+
+  private byte[] render(String text, SentenceTask task) throws VoicevoxException, InterruptedException {
+    ensureNotClosed();
+    List<String> sentences = SentenceSplitter.split(text, maxUtteranceLength);
+    if (sentences.size() <= 1) {
+      // 分割の必要がない場合、または発話できる文がない場合は、そのまま合成してネイティブのエラーを伝える
+      String sentence = sentences.isEmpty() ? text : sentences.get(0);
+      return pool.withSynthesizer(synthesizer -> {
+        try (WavBuffer wav = task.create(sentence).apply(synthesizer)) {
+          return wav.toByteArray();
+        }
+      });
+    }
+
+    List<CompletableFuture<WavBuffer>> futures = new ArrayList<>(sentences.size());
+    for (String sentence : sentences) {
+      futures.add(async.submit(task.create(sentence)));
+    }
+    List<WavBuffer> wavs = new ArrayList<>(sentences.size());
+    try {
+      for (CompletableFuture<WavBuffer> future : futures) {
+        wavs.add(Futures.await(future));
+      }
+      List<ByteBuffer> buffers = new ArrayList<>(wavs.size());
+      for (WavBuffer wav : wavs) {
+        buffers.add(wav.asByteBuffer());
+      }
+      byte[] result = WavStitcher.stitch(buffers, sentencePause);
+      log.debug("Synthesized {} sentences into {} bytes", sentences.size(), result.length);
+      return result;
+    } finally {
+      wavs.forEach(WavBuffer::close);
+      // 失敗した場合、待っていない合成結果を解放する。合成中のものはAsyncSynthesizerが解放する
+      for (int i = wavs.size(); i < futures.size(); i++) {
+        Futures.discard(futures.get(i));
+      }
+    }
+  }
+
+  /**
+   * このオブジェクトがクローズされているかどうかを確認します。
+   *
+   * @return クローズされている場合はtrue
+   */
+  public boolean isClosed() {
+    return closed.get();
+  }
+
+  private void ensureNotClosed() {
+    if (closed.get()) {
+      throw new IllegalStateException("LongTextSynthesizer is already closed");
+    }
+  }
+
+  /**
+   * 長文合成器をクローズします。
+   * <p>
+   * 内部で作成したエグゼキュータはシャットダウンされます。合成器のプールはこのメソッドではクローズされません。
+   * このメソッドは複数回呼び出しても安全です。
+   */
+  @Override
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      async.close();
+      log.debug("LongTextSynthesizer closed");
+    }
+  }
+
+  /**
+   * 1つの文を合成する処理を作成する関数。
+   */
+  @FunctionalInterface
+  private interface SentenceTask {
+
+    SynthesizerFunction<WavBuffer> create(String sentence);
+  }
+}
@@ -0,0 +1,171 @@
+package org.braid.society.secret.voicevox4j.api;
+
+import java.util.Objects;
+import org.braid.society.secret.voicevox4j.internal.Utf8JsonReader;
+import org.braid.society.secret.voicevox4j.internal.Utf8JsonWriter;
+
+/**
+ * モーラ（子音＋母音）ごとの情報を表す不変のクラス。
+ * <p>
+ * VOICEVOX COREのJSONにおける{@code Mora}に対応します。
+ *
+ * @see AccentPhrase
+ */
+public final class Mora {
+
+  private final String text;
+  private final String consonant;
+  private final Double consonantLength;
+  private final String vowel;
+  private final double vowelLength;
+  private final double pitch;
+
+  /**
+   * モーラを作成します。
+   *
+   * @param text 文字
+   * @param consonant 子音の音素。子音がない場合はnull
+   * @param consonantLength 子音の音長（秒）。子音がない場合はnull
+   * @param vowel 母音の音素
+   * @param vowelLength 母音の音長（秒）
+   * @param pitch 音高
+   */
+  public Mora(String text, String consonant, Double consonantLength, String vowel, double vowelLength, double pitch) {
+    this.text = Objects.requireNonNull(text, "text");
+    this.consonant = consonant;
+    this.consonantLength = consonantLength;
+    this.vowel = Objects.requireNonNull(vowel, "vowel");
+    this.vowelLength = vowelLength;
+    this.pitch = pitch;
+  }
+
+  public String getText() {
+    return text;
+  }
+
+  /**
+   * 子音の音素を取得します。
+   *
+   * @return 子音の音素。子音がない場合はnull
+   */
+  public String getConsonant() {
+    return consonant;
+  }
+
+  /**
+   * 子音の音長を取得します。
+   *
+   * @return 子音の音長（秒）。子音がない場合はnull
+   */
+  public Double getConsonantLength() {
+    return consonantLength;
+  }
+
+  public String getVowel() {
+    return vowel;
+  }
+
+  public double getVowelLength() {
+    return vowelLength;
+  }
+
+  public double getPitch() {
+    return pitch;
+  }
+
+  /**
+   * 子音の音長を変更したモーラを返します。
+   *
+   * @param consonantLength 子音の音長（秒）。子音がない場合はnull
+   * @return 新しいモーラ
+   */
+  public Mora withConsonantLength(Double consonantLength) {
+    return new Mora(text, consonant, consonantLength, vowel, vowelLength, pitch);
+  }
+
+  /**
+   * 母音の音長を変更したモーラを返します。
+   *
+   * @param vowelLength 母音の音長（秒）
+   * @return 新しいモーラ
+   */
+  public Mora withVowelLength(double vowelLength) {
+    return new Mora(text, consonant, consonantLength, vowel, vowelLength, pitch);
+  }
+
+  /**
+   * 音高を変更したモーラを返します。
+   *
+   * @param pitch 音高
+   * @return 新しいモーラ
+   */
+  public Mora withPitch(double pitch) {
+    return new Mora(text, consonant, consonantLength, vowel, vowelLength, pitch);
+  }
+
+  static Mora read(Utf8JsonReader reader) {
+    String text = null;
+    String consonant = null;
+    Double consonantLength = null;
+    String vowel = null;
+    double vowelLength = 0;
+    double pitch = 0;
+    reader.beginObject();
+    while (reader.hasNext()) {
+      String name = reader.nextName();
+      if (reader.nextNullIf()) {
+        continue;
+      }
+      switch (name) {
+        case "text" -> text = reader.nextString();
+        case "consonant" -> consonant = reader.nextString();
+        case "consonant_length" -> consonantLength = reader.nextDouble();
+        case "vowel" -> vowel = reader.nextString();
+        case "vowel_length" -> vowelLength = reader.nextDouble();
+        case "pitch" -> pitch = reader.nextDouble();
+        default -> reader.skipValue();
+      }
+    }
+    reader.endObject();
+    if (text == null || vowel == null) {
+      throw new IllegalArgumentException("Mora requires text and vowel");
+    }
+    return new Mora(text, consonant, consonantLength, vowel, vowelLength, pitch);
+  }
+
+  void write(Utf8JsonWriter writer) {
+    writer.beginObject()
+        .name("text").value(text)
+        .name("consonant").value(consonant)
+        .name("consonant_length").value(consonantLength)
+        .name("vowel").value(vowel)
+        .name("vowel_length").value(vowelLength)
+        .name("pitch").value(pitch)
+        .endObject();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Mora other)) {
+      return false;
+    }
+    return Double.compare(vowelLength, other.vowelLength) == 0 && Double.compare(pitch, other.pitch) == 0
+        && text.equals(other.text) && Objects.equals(consonant, other.consonant)
+        && Objects.equals(consonantLength, other.consonantLength) && vowel.equals(other.vowel);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(text, consonant, consonantLength, vowel, vowelLength, pitch);
+  }
+
+  @Override
+  public String toString() {
+    Utf8JsonWriter writer = new Utf8JsonWriter(128);
+    write(writer);
+    return writer.toString();
+  }
+}
@@ -0,0 +1,24 @@
+package org.braid.society.secret.voicevox4j.api;
+
+/**
+ * ネイティブ関数をどのスレッドで呼び出すかを表す列挙型です。
+ *
+ * @see org.braid.society.secret.voicevox4j.Voicevox#Voicevox(java.nio.file.Path, NativeCallMode, int)
+ */
+public enum NativeCallMode {
+
+  /**
+   * すべてのネイティブ関数を呼び出し元のスレッドで実行します。従来の動作です。
+   */
+  CALLER_THREAD,
+
+  /**
+   * 仮想スレッドから呼び出された推論やファイル読み込みなどの重いネイティブ関数を、
+   * 少数のプラットフォームスレッドからなる「ネイティブレーン」で実行します。
+   * <p>
+   * 呼び出し元の仮想スレッドは完了までパークするため、キャリアスレッドを固定（pin）しません。
+   * 大量の仮想スレッドが少数の{@link Synthesizer}を共有する構成で使用してください。
+   * プラットフォームスレッドからの呼び出しは、{@link #CALLER_THREAD}と同様にそのまま実行されます。
+   */
+  OFFLOAD_VIRTUAL_THREADS
+}
@@ -0,0 +1,207 @@
+package org.braid.society.secret.voicevox4j.api;
+
+import com.sun.jna.Memory;
+import com.sun.jna.Pointer;
+import java.io.Closeable;
+import java.lang.ref.Cleaner;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.braid.society.secret.voicevox4j.internal.Core;
+
+/**
+ * NUL終端のUTF-8文字列をネイティブメモリ上に保持するハンドルです。
+ * <p>
+ * 繰り返し使用するテキストや、{@code create*AsNative}メソッドが返すJSONをこのハンドルのまま
+ * {@link Synthesizer}や{@link OpenJTalkDictionary}に渡すと、呼び出しのたびに行われる{@link String}とUTF-8の相互変換を省略できます。
+ * 例えば{@link Synthesizer#createAudioQueryAsNative(NativeText, int)}の結果を{@link Synthesizer#synthesis(NativeText, int)}に渡すと、
+ * オーディオクエリはJavaの文字列を経由しません。
+ * <p>
+ * メモリは{@link #close()}で解放されます。ネイティブライブラリが作成したJSONは{@code voicevox_json_free}で解放されます。
+ * このハンドルを渡したネイティブ関数の呼び出しや{@link #toByteArray()}の実行中にクローズされた場合、
+ * 解放はそれらが終わるまで遅延されます。
+ * クローズされずに到達不能になった場合は、{@link Cleaner}によって解放されます。
+ * 内容は作成後に変更されないため、クローズするまでは複数のスレッドから同時に使用できます。
+ */
+public final class NativeText implements Closeable, AutoCloseable {
+
+  private static final Cleaner CLEANER = Cleaner.create();
+
+  private final Pointer pointer;
+  private final long size;
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+  // このオブジェクト自身の1つと、実行中の使用の数。0になった時点でネイティブメモリを解放する
+  private final AtomicInteger references = new AtomicInteger(1);
+  private final Cleaner.Cleanable cleanable;
+
+  private NativeText(Pointer pointer, long size, Runnable release) {
+    this.pointer = pointer;
+    this.size = size;
+    this.cleanable = CLEANER.register(this, release);
+  }
+
+  /**
+   * 文字列をUTF-8でエンコードし、ネイティブメモリにコピーしたハンドルを作成します。
+   *
+   * @param text 文字列
+   * @return 作成したハンドル
+   */
+  public static NativeText of(String text) {
+    Objects.requireNonNull(text, "text");
+    return ofUtf8(text.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * UTF-8のバイト列をネイティブメモリにコピーしたハンドルを作成します。
+   * <p>
+   * バイト列はNUL終端を含めずに指定します。
+   *
+   * @param utf8 UTF-8のバイト列
+   * @return 作成したハンドル
+   */
+  public static NativeText ofUtf8(byte[] utf8) {
+    Objects.requireNonNull(utf8, "utf8");
+    Memory memory = new Memory(utf8.length + 1L);
+    memory.write(0, utf8, 0, utf8.length);
+    memory.setByte(utf8.length, (byte) 0);
+    return new NativeText(memory, utf8.length, new FreeMemory(memory));
+  }
+
+  /**
+   * ネイティブライブラリが出力したJSONをラップします。
+   *
+   * @param core Coreインターフェース
+   * @param json {@code voicevox_*}が出力したJSONのアドレス
+   * @return 作成したハンドル
+   */
+  static NativeText fromJson(Core core, long json) {
+    return new NativeText(new Pointer(json), core.getStringBuffer(json).remaining(), new FreeJson(core, json));
+  }
+
+  /**
+   * 文字列のUTF-8でのバイト長（NUL終端を含まない）を取得します。
+   *
+   * @return バイト長
+   */
+  public long size() {
+    return size;
+  }
+
+  /**
+   * 内容をUTF-8のバイト列としてJavaヒープにコピーします。
+   *
+   * @return NUL終端を含まないバイト列
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public byte[] toByteArray() {
+    acquire();
+    try {
+      return pointer.getByteArray(0, Math.toIntExact(size));
+    } finally {
+      release();
+    }
+  }
+
+  /**
+   * 内容をJavaの文字列にデコードします。
+   *
+   * @return 文字列
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  @Override
+  public String toString() {
+    return new String(toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * ネイティブ関数に渡すポインタを、ネイティブメモリが解放されないように参照を取得して返します。
+   * <p>
+   * 呼び出し側は、ポインタを使い終わった後に必ず{@link #release()}を呼び出す必要があります。
+   *
+   * @return NUL終端のUTF-8文字列へのポインタ
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  Pointer acquire() {
+    int current;
+    do {
+      current = references.get();
+      if (current == 0) {
+        throw new IllegalStateException("NativeText is already closed");
+      }
+    } while (!references.compareAndSet(current, current + 1));
+    if (closed.get()) {
+      release();
+      throw new IllegalStateException("NativeText is already closed");
+    }
+    return pointer;
+  }
+
+  /**
+   * {@link #acquire()}で取得した参照を解放します。
+   */
+  void release() {
+    if (references.decrementAndGet() == 0) {
+      cleanable.clean();
+    }
+  }
+
+  /**
+   * このオブジェクトがクローズされているかどうかを確認します。
+   *
+   * @return クローズされている場合はtrue
+   */
+  public boolean isClosed() {
+    return closed.get();
+  }
+
+  /**
+   * ネイティブメモリを解放します。
+   * 実行中の使用がある場合、解放はそれらが終わった時点で行われます。
+   * このメソッドは複数回呼び出しても安全です。
+   */
+  @Override
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      release();
+    }
+  }
+
+  /**
+   * Java側で確保したメモリを解放するクリーニングアクション。
+   * {@link NativeText}自身を参照しないよう、静的なクラスとして定義しています。
+   */
+  private static final class FreeMemory implements Runnable {
+
+    private final Memory memory;
+
+    private FreeMemory(Memory memory) {
+      this.memory = memory;
+    }
+
+    @Override
+    public void run() {
+      memory.close();
+    }
+  }
+
+  /**
+   * ネイティブライブラリが確保したJSONを解放するクリーニングアクション。
+   * {@link NativeText}自身を参照しないよう、静的なクラスとして定義しています。
+   */
+  private static final class FreeJson implements Runnable {
+
+    private final Core core;
+    private final long json;
+
+    private FreeJson(Core core, long json) {
+      this.core = core;
+      this.json = json;
+    }
+
+    @Override
+    public void run() {
+      core.voicevox_json_free(json);
+    }
+  }
+}
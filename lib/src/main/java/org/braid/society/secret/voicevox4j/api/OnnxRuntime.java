@@ -18,41 +18,29 @@ public class OnnxRuntime {
 
   public OnnxRuntime(Core core, Path ortPath) throws VoicevoxException {
     this.core = core;
-    String originalEncoding = System.getProperty("jna.encoding");
-    System.setProperty("jna.encoding", "UTF-8");
-    try {
-      VoicevoxLoadOnnxruntimeOptions options;
-      if (ortPath == null) {
-        // use default options to load ONNX Runtime
-        log.debug("Using default ONNX Runtime options.");
-        options = core.voicevox_make_default_load_onnxruntime_options();
-      } else {
-        // use specified ONNX Runtime path with enhanced UTF-8 handling
-        String pathString = ortPath.toAbsolutePath().normalize().toString();
-        log.debug("Using specified ONNX Runtime path: {}", pathString);
-
-        options = new VoicevoxLoadOnnxruntimeOptions();
-
-        options.filename = pathString;
-        log.debug("Successfully set UTF-8 path: {}", pathString);
-      }
-
-      PointerByReference onnxruntimeRef = new PointerByReference();
+    VoicevoxLoadOnnxruntimeOptions options;
+    if (ortPath == null) {
+      // use default options to load ONNX Runtime
+      log.debug("Using default ONNX Runtime options.");
+      options = core.voicevox_make_default_load_onnxruntime_options();
+    } else {
+      // the options structure encodes its filename as UTF-8 regardless of jna.encoding
+      String pathString = ortPath.toAbsolutePath().normalize().toString();
+      log.debug("Using specified ONNX Runtime path: {}", pathString);
+
+      options = new VoicevoxLoadOnnxruntimeOptions();
+      options.filename = pathString;
+    }
 
-      int result = core.voicevox_onnxruntime_load_once(options, onnxruntimeRef);
-      if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
-        String errorMessage = core.voicevox_error_result_to_message(result);
-        throw new VoicevoxException("Failed to load ONNX Runtime: " + errorMessage, result);
-      }
+    PointerByReference onnxruntimeRef = new PointerByReference();
 
-      this.nativeOnnxruntime = new VoicevoxOnnxruntime(Pointer.nativeValue(onnxruntimeRef.getValue()));
-    } finally {
-      if(originalEncoding != null) {
-        System.setProperty("jna.encoding", originalEncoding);
-      } else {
-        System.clearProperty("jna.encoding");
-      }
+    int result = core.voicevox_onnxruntime_load_once(options, onnxruntimeRef);
+    if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
+      String errorMessage = core.voicevox_error_result_to_message(result);
+      throw new VoicevoxException("Failed to load ONNX Runtime: " + errorMessage, result);
     }
+
+    this.nativeOnnxruntime = new VoicevoxOnnxruntime(Pointer.nativeValue(onnxruntimeRef.getValue()));
   }
 
   public OnnxRuntime(Core core) throws VoicevoxException {
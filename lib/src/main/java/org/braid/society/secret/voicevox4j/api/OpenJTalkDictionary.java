@@ -7,6 +7,7 @@ import java.nio.file.Path;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.braid.society.secret.voicevox4j.exception.VoicevoxException;
 import org.braid.society.secret.voicevox4j.internal.Core;
+import org.braid.society.secret.voicevox4j.internal.NativeOutParams;
 import org.braid.society.secret.voicevox4j.internal.structs.OpenJtalkRc;
 import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxResultCode;
 import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxUserDict;
@@ -19,6 +20,7 @@ public class OpenJTalkDictionary implements Closeable, AutoCloseable {
 
   private final OpenJtalkRc nativeOpenJtalk;
   private final AtomicBoolean closed = new AtomicBoolean(false);
+  private volatile UserDictState userDictState = new UserDictState(null, 0);
   private final Core core;
 
   /**
@@ -49,21 +51,70 @@ public class OpenJTalkDictionary implements Closeable, AutoCloseable {
    * @throws IllegalStateException このオブジェクトが既にクローズされている場合
    */
   public void useUserDict(VoicevoxUserDict userDict) throws VoicevoxException {
+    applyUserDict(userDict, null);
+  }
+
+  /**
+   * ユーザー辞書を使用するように設定します。
+   * <p>
+   * この形式で設定した場合、以降のユーザー辞書の変更は{@link AudioQueryCache}と{@link WavCache}の無効化に反映されます。
+   *
+   * @param userDict 使用するユーザー辞書
+   * @throws VoicevoxException ユーザー辞書の設定に失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public void useUserDict(UserDict userDict) throws VoicevoxException {
+    applyUserDict(userDict.getNativeUserDict(), userDict);
+  }
+
+  private void applyUserDict(VoicevoxUserDict nativeUserDict, UserDict userDict) throws VoicevoxException {
     ensureNotClosed();
-    int result = core.voicevox_open_jtalk_rc_use_user_dict(nativeOpenJtalk, userDict);
+    int result = core.voicevox_open_jtalk_rc_use_user_dict(nativeOpenJtalk, nativeUserDict);
 
     if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
       String errorMessage = core.voicevox_error_result_to_message(result);
       throw new VoicevoxException("Failed to use user dictionary: " + errorMessage, result);
     }
+    synchronized (this) {
+      userDictState = new UserDictState(userDict, userDictState.generation + 1);
+    }
   }
 
-  public void useUserDict(UserDict userDict) throws VoicevoxException {
-    useUserDict(userDict.getNativeUserDict());
+  /**
+   * ユーザー辞書の状態を表す値を取得します。
+   * <p>
+   * ユーザー辞書が設定し直されるか、設定されている{@link UserDict}の内容が変更されると、異なる値になります。
+   * 上位32ビットは設定した回数、下位32ビットは設定されている{@link UserDict}のバージョンです。
+   *
+   * @return ユーザー辞書の状態を表す値
+   */
+  long getUserDictStamp() {
+    UserDictState state = userDictState;
+    long version = state.userDict == null ? 0 : state.userDict.getVersion();
+    return (state.generation << 32) | (version & 0xFFFFFFFFL);
+  }
+
+  /**
+   * 設定されているユーザー辞書と、設定した回数の組です。
+   * 2つの値を一度に読み書きできるよう、不変のオブジェクトとして保持します。
+   */
+  private static final class UserDictState {
+
+    private final UserDict userDict;
+    private final long generation;
+
+    private UserDictState(UserDict userDict, long generation) {
+      this.userDict = userDict;
+      this.generation = generation;
+    }
   }
 
   /**
    * テキストを解析してアクセント句のJSONを作成します。
+   * <p>
+   * このメソッドはスレッドセーフで、複数のスレッドから同時に呼び出すことができます。
+   * テキストはUTF-8のネイティブ文字列として渡され、Java側ではロックやシステムプロパティなどのグローバルな状態を使用しません。
+   * 同じ辞書に対する解析の排他はVOICEVOX CORE側で行われます。
    *
    * @param text 解析するテキスト
    * @return アクセント句のJSON文字列
@@ -72,35 +123,49 @@ public class OpenJTalkDictionary implements Closeable, AutoCloseable {
    */
   public String analyze(String text) throws VoicevoxException {
     ensureNotClosed();
+    PointerByReference outputAccentPhrasesJson = NativeOutParams.acquire().getPointer();
+    int result = core.voicevox_open_jtalk_rc_analyze(nativeOpenJtalk, text, outputAccentPhrasesJson);
 
-    // JNAでUTF-8エンコーディングを強制
-    String originalEncoding = System.getProperty("jna.encoding");
-    System.setProperty("jna.encoding", "UTF-8");
+    if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
+      throw new VoicevoxException("Failed to analyze text", result, core::voicevox_error_result_to_message);
+    }
 
+    Pointer jsonPointer = outputAccentPhrasesJson.getValue();
     try {
-      PointerByReference outputAccentPhrasesJson = new PointerByReference();
-      int result = core.voicevox_open_jtalk_rc_analyze(nativeOpenJtalk, text, outputAccentPhrasesJson);
-
-      if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
-        String errorMessage = core.voicevox_error_result_to_message(result);
-        throw new VoicevoxException("Failed to analyze text: " + errorMessage, result);
-      }
+      return jsonPointer.getString(0, "UTF-8");
+    } finally {
+      // JSONメモリは即座に解放
+      core.voicevox_json_free(jsonPointer);
+    }
+  }
 
-      Pointer jsonPointer = outputAccentPhrasesJson.getValue();
-      try {
-        return jsonPointer.getString(0, "UTF-8");
-      } finally {
-        // JSONメモリは即座に解放
-        core.voicevox_json_free(jsonPointer);
-      }
+  /**
+   * ネイティブメモリ上のテキストを解析し、アクセント句のJSONをネイティブメモリ上のまま返します。
+   * <p>
+   * テキストと結果のJSONはJavaの文字列を経由しません。返されたハンドルは使用後にクローズしてください。
+   *
+   * @param text 解析するテキスト
+   * @return アクセント句のJSON
+   * @throws VoicevoxException テキストの解析に失敗した場合
+   * @throws IllegalStateException このオブジェクト、または{@code text}が既にクローズされている場合
+   * @see #analyze(String)
+   */
+  public NativeText analyzeAsNative(NativeText text) throws VoicevoxException {
+    ensureNotClosed();
+    NativeOutParams out = NativeOutParams.acquire();
+    int result;
+    Pointer pointer = text.acquire();
+    try {
+      result = out.capture(core.voicevox_open_jtalk_rc_analyze(nativeOpenJtalk, pointer, out.getPointer()));
     } finally {
-      // 元のエンコーディング設定を復元
-      if (originalEncoding != null) {
-        System.setProperty("jna.encoding", originalEncoding);
-      } else {
-        System.clearProperty("jna.encoding");
-      }
+      text.release();
     }
+
+    if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
+      throw new VoicevoxException("Failed to analyze text", result, core::voicevox_error_result_to_message);
+    }
+
+    return NativeText.fromJson(core, out.getAddress());
   }
 
   /**
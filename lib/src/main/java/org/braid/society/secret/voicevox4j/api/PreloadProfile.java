@@ -0,0 +1,162 @@
+package org.braid.society.secret.voicevox4j.api;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.braid.society.secret.voicevox4j.internal.Utf8JsonReader;
+
+/**
+ * 起動時に読み込む音声モデルを宣言するプロファイルです。
+ * <p>
+ * 即時（eager）に指定した音声モデルは、起動時にすべての合成器に読み込まれ、アンロードされません。
+ * 遅延（lazy）に指定した音声モデルは、起動時にはファイルを開くだけで、
+ * スタイルが初めて使われた時点で{@link VoiceModelResidency}によって読み込まれます。
+ * <p>
+ * プロファイルはJSONで記述することもできます。
+ * <pre>{@code
+ * {"eager": ["0.vvm"], "lazy": ["1.vvm", "2.vvm"], "memoryBudget": 1073741824, "maxResidentModels": 2}
+ * }</pre>
+ *
+ * @see org.braid.society.secret.voicevox4j.VoicevoxBootstrap
+ */
+public final class PreloadProfile {
+
+  private final List<Path> eagerModels = new ArrayList<>();
+  private final List<Path> lazyModels = new ArrayList<>();
+  private long memoryBudget = Long.MAX_VALUE;
+  private int maxResidentModels = Integer.MAX_VALUE;
+
+  /**
+   * 音声モデルを含まない空のプロファイルを作成します。
+   */
+  public PreloadProfile() {
+  }
+
+  /**
+   * 起動時に読み込む音声モデルを追加します。
+   *
+   * @param models 音声モデルファイルのパス
+   * @return このオブジェクト
+   */
+  public PreloadProfile addEager(Path... models) {
+    for (Path model : models) {
+      eagerModels.add(Objects.requireNonNull(model, "model"));
+    }
+    return this;
+  }
+
+  /**
+   * スタイルが使われた時点で読み込む音声モデルを追加します。
+   *
+   * @param models 音声モデルファイルのパス
+   * @return このオブジェクト
+   */
+  public PreloadProfile addLazy(Path... models) {
+    for (Path model : models) {
+      lazyModels.add(Objects.requireNonNull(model, "model"));
+    }
+    return this;
+  }
+
+  /**
+   * 遅延読み込みする音声モデルを同時に読み込む合計サイズの上限を設定します。既定値は無制限です。
+   *
+   * @param memoryBudget 合計サイズの上限（バイト）
+   * @return このオブジェクト
+   * @throws IllegalArgumentException {@code memoryBudget}が負の場合
+   * @see VoiceModelResidency#VoiceModelResidency(SynthesizerPool, long, int)
+   */
+  public PreloadProfile setMemoryBudget(long memoryBudget) {
+    if (memoryBudget < 0) {
+      throw new IllegalArgumentException("Memory budget must not be negative: " + memoryBudget);
+    }
+    this.memoryBudget = memoryBudget;
+    return this;
+  }
+
+  /**
+   * 遅延読み込みする音声モデルを同時に読み込む数の上限を設定します。既定値は無制限です。
+   *
+   * @param maxResidentModels 音声モデルの数の上限
+   * @return このオブジェクト
+   * @throws IllegalArgumentException {@code maxResidentModels}が1未満の場合
+   */
+  public PreloadProfile setMaxResidentModels(int maxResidentModels) {
+    if (maxResidentModels < 1) {
+      throw new IllegalArgumentException("Max resident models must be positive: " + maxResidentModels);
+    }
+    this.maxResidentModels = maxResidentModels;
+    return this;
+  }
+
+  /**
+   * 起動時に読み込む音声モデルを取得します。
+   *
+   * @return 変更不可能なパスのリスト
+   */
+  public List<Path> getEagerModels() {
+    return List.copyOf(eagerModels);
+  }
+
+  /**
+   * スタイルが使われた時点で読み込む音声モデルを取得します。
+   *
+   * @return 変更不可能なパスのリスト
+   */
+  public List<Path> getLazyModels() {
+    return List.copyOf(lazyModels);
+  }
+
+  public long getMemoryBudget() {
+    return memoryBudget;
+  }
+
+  public int getMaxResidentModels() {
+    return maxResidentModels;
+  }
+
+  /**
+   * JSONで記述したプロファイルを解析します。
+   * <p>
+   * 音声モデルのパスが相対パスの場合は、{@code baseDirectory}からの相対パスとして解決します。
+   *
+   * @param json プロファイルのJSON
+   * @param baseDirectory 相対パスの基準となるディレクトリ
+   * @return プロファイル
+   * @throws IllegalArgumentException JSONの形式が正しくない場合
+   */
+  public static PreloadProfile fromJson(String json, Path baseDirectory) {
+    PreloadProfile profile = new PreloadProfile();
+    Utf8JsonReader reader = Utf8JsonReader.of(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+    reader.beginObject();
+    while (reader.hasNext()) {
+      String name = reader.nextName();
+      if (reader.nextNullIf()) {
+        continue;
+      }
+      switch (name) {
+        case "eager" -> profile.eagerModels.addAll(readPaths(reader, baseDirectory));
+        case "lazy" -> profile.lazyModels.addAll(readPaths(reader, baseDirectory));
+        case "memoryBudget" -> profile.setMemoryBudget(reader.nextLong());
+        case "maxResidentModels" -> profile.setMaxResidentModels(reader.nextInt());
+        default -> reader.skipValue();
+      }
+    }
+    reader.endObject();
+    reader.endDocument();
+    return profile;
+  }
+
+  private static List<Path> readPaths(Utf8JsonReader reader, Path baseDirectory) {
+    List<Path> paths = new ArrayList<>();
+    reader.beginArray();
+    while (reader.hasNext()) {
+      paths.add(baseDirectory.resolve(reader.nextString()));
+    }
+    reader.endArray();
+    return paths;
+  }
+}
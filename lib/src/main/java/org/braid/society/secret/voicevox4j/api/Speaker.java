@@ -0,0 +1,163 @@
+package org.braid.society.secret.voicevox4j.api;
+
+import com.sun.jna.Pointer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import org.braid.society.secret.voicevox4j.internal.Utf8JsonReader;
+
+/**
+ * 話者（キャラクター）とそのスタイルを表す不変のクラス。
+ * <p>
+ * VOICEVOX COREのメタデータJSONにおける{@code CharacterMeta}に対応します。
+ * {@link VoiceModelFile#getSpeakers()}や{@link StyleIndex}から取得できます。
+ *
+ * @see Style
+ */
+public final class Speaker {
+
+  private final String name;
+  private final String speakerUuid;
+  private final String version;
+  private final List<Style> styles;
+  private final Integer order;
+
+  /**
+   * 話者を作成します。
+   *
+   * @param name 話者名
+   * @param speakerUuid 話者のUUID
+   * @param version 話者のバージョン
+   * @param styles スタイルのリスト
+   * @param order 表示順。指定されていない場合はnull
+   */
+  public Speaker(String name, String speakerUuid, String version, List<Style> styles, Integer order) {
+    this.name = Objects.requireNonNull(name, "name");
+    this.speakerUuid = Objects.requireNonNull(speakerUuid, "speakerUuid");
+    this.version = Objects.requireNonNull(version, "version");
+    this.styles = List.copyOf(styles);
+    this.order = order;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getSpeakerUuid() {
+    return speakerUuid;
+  }
+
+  public String getVersion() {
+    return version;
+  }
+
+  /**
+   * スタイルのリストを取得します。
+   *
+   * @return 変更不可能なスタイルのリスト
+   */
+  public List<Style> getStyles() {
+    return styles;
+  }
+
+  /**
+   * 表示順を取得します。
+   *
+   * @return 表示順。指定されていない場合はnull
+   */
+  public Integer getOrder() {
+    return order;
+  }
+
+  /**
+   * メタデータJSON（話者の配列）を解析します。
+   *
+   * @param json メタデータJSON
+   * @return 変更不可能な話者のリスト
+   * @throws IllegalArgumentException JSONの形式が正しくない場合
+   */
+  public static List<Speaker> listFromJson(String json) {
+    Utf8JsonReader reader = Utf8JsonReader.of(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)));
+    List<Speaker> speakers = readList(reader);
+    reader.endDocument();
+    return speakers;
+  }
+
+  /**
+   * ネイティブメモリ上のメタデータJSONを、{@link String}にデコードせずに解析します。
+   */
+  static List<Speaker> listFromNative(Pointer json) {
+    Utf8JsonReader reader = Utf8JsonReader.of(json);
+    List<Speaker> speakers = readList(reader);
+    reader.endDocument();
+    return speakers;
+  }
+
+  private static List<Speaker> readList(Utf8JsonReader reader) {
+    List<Speaker> speakers = new ArrayList<>();
+    reader.beginArray();
+    while (reader.hasNext()) {
+      speakers.add(read(reader));
+    }
+    reader.endArray();
+    return List.copyOf(speakers);
+  }
+
+  private static Speaker read(Utf8JsonReader reader) {
+    String name = null;
+    String speakerUuid = null;
+    String version = "";
+    List<Style> styles = new ArrayList<>();
+    Integer order = null;
+    reader.beginObject();
+    while (reader.hasNext()) {
+      String field = reader.nextName();
+      if (reader.nextNullIf()) {
+        continue;
+      }
+      switch (field) {
+        case "name" -> name = reader.nextString();
+        case "speaker_uuid" -> speakerUuid = reader.nextString();
+        case "version" -> version = reader.nextString();
+        case "styles" -> {
+          reader.beginArray();
+          while (reader.hasNext()) {
+            styles.add(Style.read(reader));
+          }
+          reader.endArray();
+        }
+        case "order" -> order = reader.nextInt();
+        default -> reader.skipValue();
+      }
+    }
+    reader.endObject();
+    if (name == null || speakerUuid == null) {
+      throw new IllegalArgumentException("Speaker requires name and speaker_uuid");
+    }
+    return new Speaker(name, speakerUuid, version, styles, order);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Speaker other)) {
+      return false;
+    }
+    return name.equals(other.name) && speakerUuid.equals(other.speakerUuid) && version.equals(other.version)
+        && styles.equals(other.styles) && Objects.equals(order, other.order);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(name, speakerUuid, version, styles, order);
+  }
+
+  @Override
+  public String toString() {
+    return "Speaker{name=" + name + ", speakerUuid=" + speakerUuid + ", styles=" + styles + "}";
+  }
+}
@@ -0,0 +1,107 @@
+package org.braid.society.secret.voicevox4j.api;
+
+import java.util.Objects;
+import org.braid.society.secret.voicevox4j.internal.Utf8JsonReader;
+
+/**
+ * 話者のスタイルを表す不変のクラス。
+ * <p>
+ * VOICEVOX COREのメタデータJSONにおける{@code StyleMeta}に対応します。
+ *
+ * @see Speaker
+ */
+public final class Style {
+
+  private final int id;
+  private final String name;
+  private final String type;
+  private final Integer order;
+
+  /**
+   * スタイルを作成します。
+   *
+   * @param id スタイルID
+   * @param name スタイル名
+   * @param type スタイルの種類（{@code talk}など）
+   * @param order 話者の中での表示順。指定されていない場合はnull
+   */
+  public Style(int id, String name, String type, Integer order) {
+    this.id = id;
+    this.name = Objects.requireNonNull(name, "name");
+    this.type = Objects.requireNonNull(type, "type");
+    this.order = order;
+  }
+
+  public int getId() {
+    return id;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * スタイルの種類を取得します。
+   *
+   * @return スタイルの種類（{@code talk}、{@code singing_teacher}など）
+   */
+  public String getType() {
+    return type;
+  }
+
+  /**
+   * 話者の中での表示順を取得します。
+   *
+   * @return 表示順。指定されていない場合はnull
+   */
+  public Integer getOrder() {
+    return order;
+  }
+
+  static Style read(Utf8JsonReader reader) {
+    Integer id = null;
+    String name = null;
+    String type = "talk";
+    Integer order = null;
+    reader.beginObject();
+    while (reader.hasNext()) {
+      String field = reader.nextName();
+      if (reader.nextNullIf()) {
+        continue;
+      }
+      switch (field) {
+        case "id" -> id = reader.nextInt();
+        case "name" -> name = reader.nextString();
+        case "type" -> type = reader.nextString();
+        case "order" -> order = reader.nextInt();
+        default -> reader.skipValue();
+      }
+    }
+    reader.endObject();
+    if (id == null || name == null) {
+      throw new IllegalArgumentException("Style requires id and name");
+    }
+    return new Style(id, name, type, order);
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof Style other)) {
+      return false;
+    }
+    return id == other.id && name.equals(other.name) && type.equals(other.type) && Objects.equals(order, other.order);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(id, name, type, order);
+  }
+
+  @Override
+  public String toString() {
+    return "Style{id=" + id + ", name=" + name + ", type=" + type + "}";
+  }
+}
@@ -0,0 +1,201 @@
+package org.braid.society.secret.voicevox4j.api;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * スタイルID、音声モデル、話者の対応をJava側に保持する索引です。
+ * <p>
+ * 音声モデルのメタデータから一度だけ作成し、音声モデルの読み込みとアンロードに合わせて更新します。
+ * 検索はネイティブ関数を呼び出さず、JSONの解析も行わずに、ハッシュ表の参照だけで行います。
+ * <p>
+ * このクラスはスレッドセーフです。更新のたびに新しい不変のスナップショットに置き換えるため、
+ * 検索はロックを取得せず、更新中の中途半端な状態を見ることもありません。
+ *
+ * @see Synthesizer#getStyleIndex()
+ */
+public final class StyleIndex {
+
+  private static final HexFormat HEX = HexFormat.of();
+
+  private volatile Snapshot snapshot = new Snapshot(new LinkedHashMap<>());
+
+  /**
+   * 空の索引を作成します。
+   */
+  public StyleIndex() {
+  }
+
+  /**
+   * 音声モデルの話者を索引に追加します。
+   * <p>
+   * 同じ音声モデルが既に追加されている場合は置き換えます。
+   * 複数の音声モデルに同じスタイルIDがある場合は、後から追加した音声モデルが優先されます。
+   *
+   * @param modelId 音声モデルのID
+   * @param speakers 音声モデルに含まれる話者
+   */
+  public synchronized void add(byte[] modelId, List<Speaker> speakers) {
+    Map<String, ModelEntry> models = new LinkedHashMap<>(snapshot.models);
+    String key = HEX.formatHex(modelId);
+    models.remove(key);
+    models.put(key, new ModelEntry(modelId.clone(), List.copyOf(speakers)));
+    snapshot = new Snapshot(models);
+  }
+
+  /**
+   * 音声モデルの話者を索引から取り除きます。
+   *
+   * @param modelId 音声モデルのID
+   * @return 音声モデルが索引に含まれていた場合はtrue
+   */
+  public synchronized boolean remove(byte[] modelId) {
+    Map<String, ModelEntry> models = new LinkedHashMap<>(snapshot.models);
+    if (models.remove(HEX.formatHex(modelId)) == null) {
+      return false;
+    }
+    snapshot = new Snapshot(models);
+    return true;
+  }
+
+  /**
+   * スタイルが索引に含まれているかどうかを確認します。
+   *
+   * @param styleId スタイルID
+   * @return 含まれている場合はtrue
+   */
+  public boolean contains(int styleId) {
+    return snapshot.styles.containsKey(styleId);
+  }
+
+  /**
+   * スタイルを含む音声モデルのIDを取得します。
+   *
+   * @param styleId スタイルID
+   * @return 16バイトのモデルIDのコピー。スタイルが索引に含まれていない場合はnull
+   */
+  public byte[] getModelId(int styleId) {
+    byte[] modelId = modelIdOf(styleId);
+    return modelId == null ? null : modelId.clone();
+  }
+
+  /**
+   * スタイルを含む音声モデルのIDを、コピーせずに取得します。呼び出し側は配列を変更してはいけません。
+   */
+  byte[] modelIdOf(int styleId) {
+    StyleEntry entry = snapshot.styles.get(styleId);
+    return entry == null ? null : entry.modelId;
+  }
+
+  /**
+   * スタイルを持つ話者を取得します。
+   *
+   * @param styleId スタイルID
+   * @return 話者。スタイルが索引に含まれていない場合はnull
+   */
+  public Speaker getSpeaker(int styleId) {
+    StyleEntry entry = snapshot.styles.get(styleId);
+    return entry == null ? null : entry.speaker;
+  }
+
+  /**
+   * スタイルを取得します。
+   *
+   * @param styleId スタイルID
+   * @return スタイル。索引に含まれていない場合はnull
+   */
+  public Style getStyle(int styleId) {
+    StyleEntry entry = snapshot.styles.get(styleId);
+    return entry == null ? null : entry.style;
+  }
+
+  /**
+   * 話者名に対応するスタイルIDを取得します。
+   * <p>
+   * 同じ名前の話者が複数の音声モデルに含まれている場合は、すべての音声モデルのスタイルを返します。
+   *
+   * @param speakerName 話者名
+   * @return 変更不可能なスタイルIDのリスト。該当する話者がいない場合は空のリスト
+   */
+  public List<Integer> getStyleIds(String speakerName) {
+    return snapshot.styleIdsByName.getOrDefault(speakerName, List.of());
+  }
+
+  /**
+   * 索引に含まれるすべての話者を、音声モデルを追加した順に取得します。
+   *
+   * @return 変更不可能な話者のリスト
+   */
+  public List<Speaker> getSpeakers() {
+    return snapshot.speakers;
+  }
+
+  /**
+   * 索引に含まれるスタイルの数を取得します。
+   *
+   * @return スタイルの数
+   */
+  public int size() {
+    return snapshot.styles.size();
+  }
+
+  /**
+   * 索引のある時点の内容。作成後は変更されません。
+   */
+  private static final class Snapshot {
+
+    private final Map<String, ModelEntry> models;
+    private final Map<Integer, StyleEntry> styles = new HashMap<>();
+    private final Map<String, List<Integer>> styleIdsByName;
+    private final List<Speaker> speakers;
+
+    private Snapshot(Map<String, ModelEntry> models) {
+      this.models = models;
+      Map<String, List<Integer>> byName = new HashMap<>();
+      List<Speaker> allSpeakers = new ArrayList<>();
+      for (ModelEntry model : models.values()) {
+        for (Speaker speaker : model.speakers) {
+          allSpeakers.add(speaker);
+          List<Integer> ids = byName.computeIfAbsent(speaker.getName(), name -> new ArrayList<>());
+          for (Style style : speaker.getStyles()) {
+            styles.put(style.getId(), new StyleEntry(model.modelId, speaker, style));
+            ids.add(style.getId());
+          }
+        }
+      }
+      byName.replaceAll((name, ids) -> List.copyOf(ids));
+      this.styleIdsByName = Collections.unmodifiableMap(byName);
+      this.speakers = List.copyOf(allSpeakers);
+    }
+  }
+
+  private static final class ModelEntry {
+
+    private final byte[] modelId;
+    private final List<Speaker> speakers;
+
+    private ModelEntry(byte[] modelId, List<Speaker> speakers) {
+      this.modelId = modelId;
+      this.speakers = speakers;
+    }
+  }
+
+  private static final class StyleEntry {
+
+    private final byte[] modelId;
+    private final Speaker speaker;
+    private final Style style;
+
+    private StyleEntry(byte[] modelId, Speaker speaker, Style style) {
+      this.modelId = Objects.requireNonNull(modelId);
+      this.speaker = speaker;
+      this.style = style;
+    }
+  }
+}
@@ -0,0 +1,345 @@
+package org.braid.society.secret.voicevox4j.api;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 優先度と期限に基づいて、{@link SynthesizerPool}の合成器に処理を割り当てるスケジューラです。
+ * <p>
+ * 処理は{@link Priority}ごとのレーンに入り、合成器が空くたびに最も優先度の高いレーンから取り出されます。
+ * 同じレーンの中では、テキストの長さから見積もった処理量の小さいものから順に取り出されます（処理量が等しい場合は到着順）。
+ * そのため、大量の{@link Priority#BACKGROUND}の処理でプールが埋まっている間も、{@link Priority#INTERACTIVE}の処理は
+ * 次に空いた合成器で実行されます。優先度の低いレーンは、高いレーンが空になるまで待たされます。
+ * <p>
+ * 期限を指定した処理は、合成器に割り当てられた時点で期限を過ぎているか、これまでの処理時間から見積もった所要時間では
+ * 期限に間に合わない場合、ネイティブ関数を呼び出さずに{@link TimeoutException}で完了します。
+ * 返された{@link CompletableFuture}をキャンセルすると、処理はキューから取り除かれます。
+ * ネイティブ関数の呼び出しが始まった後のキャンセルは、呼び出しを中断しません。
+ * <p>
+ * スケジューラはプールのサイズと同じ数のデーモンスレッドで処理を実行します。
+ * プールを他の用途と共有することもできますが、すべての処理をこのスケジューラ経由にした場合に優先度が最も正確に反映されます。
+ * プールはこのクラスの所有物ではないため、{@link #close()}ではクローズされません。
+ */
+@Slf4j
+public class SynthesisScheduler implements Closeable, AutoCloseable {
+
+  /**
+   * 処理の優先度を表す列挙型です。宣言順に優先されます。
+   */
+  public enum Priority {
+
+    /**
+     * ユーザーが結果を待っている対話的な処理。
+     */
+    INTERACTIVE,
+
+    /**
+     * 通常の処理。
+     */
+    NORMAL,
+
+    /**
+     * 事前の合成など、結果を急がない処理。
+     */
+    BACKGROUND
+  }
+
+  private static final AtomicInteger THREAD_SEQUENCE = new AtomicInteger();
+
+  /**
+   * 処理量1あたりの所要時間の移動平均で、新しい観測値に与える重み。
+   */
+  private static final double ESTIMATE_WEIGHT = 0.2;
+  private static final long MAX_TIMEOUT_NANOS = Long.MAX_VALUE / 4;
+
+  private final SynthesizerPool pool;
+  private final PriorityBlockingQueue<Task<?>> queue = new PriorityBlockingQueue<>();
+  private final List<Thread> workers;
+  private final AtomicLong sequence = new AtomicLong();
+  private final LongAdder expired = new LongAdder();
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+  private volatile double nanosPerCost;
+
+  /**
+   * 合成器のプールを使用するスケジューラを作成し、処理を実行するスレッドを開始します。
+   *
+   * @param pool 使用する合成器のプール
+   */
+  public SynthesisScheduler(SynthesizerPool pool) {
+    this.pool = Objects.requireNonNull(pool, "pool");
+    List<Thread> threads = new ArrayList<>(pool.size());
+    for (int i = 0; i < pool.size(); i++) {
+      Thread thread = new Thread(this::runWorker, "voicevox4j-scheduler-" + THREAD_SEQUENCE.incrementAndGet());
+      thread.setDaemon(true);
+      threads.add(thread);
+    }
+    this.workers = List.copyOf(threads);
+    workers.forEach(Thread::start);
+  }
+
+  /**
+   * 借りた合成器で任意の処理を実行するよう予約します（期限なし）。
+   *
+   * @param priority 優先度
+   * @param cost 同じレーン内での順番を決める処理量の見積もり（テキストの文字数など）
+   * @param function 実行する処理
+   * @param <T> 処理結果の型
+   * @return 処理結果を返すフューチャー
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public <T> CompletableFuture<T> submit(Priority priority, int cost, SynthesizerFunction<T> function) {
+    return enqueue(priority, cost, false, 0, function);
+  }
+
+  /**
+   * 借りた合成器で任意の処理を実行するよう予約します（期限付き）。
+   *
+   * @param priority 優先度
+   * @param cost 同じレーン内での順番を決める処理量の見積もり（テキストの文字数など）
+   * @param timeout この呼び出しから処理が完了するまでの期限
+   * @param function 実行する処理
+   * @param <T> 処理結果の型
+   * @return 処理結果を返すフューチャー。期限に間に合わない場合は{@link TimeoutException}で完了します
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public <T> CompletableFuture<T> submit(Priority priority, int cost, Duration timeout, SynthesizerFunction<T> function) {
+    return enqueue(priority, cost, true, deadlineOf(timeout), function);
+  }
+
+  /**
+   * テキストから音声を合成するよう予約します（期限なし）。
+   *
+   * @param text 合成するテキスト
+   * @param styleId スタイルID
+   * @param priority 優先度
+   * @return WAVデータを返すフューチャー
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   * @see Synthesizer#tts(String, int)
+   */
+  public CompletableFuture<byte[]> ttsAsync(String text, int styleId, Priority priority) {
+    return submit(priority, text.length(), synthesizer -> synthesizer.tts(text, styleId));
+  }
+
+  /**
+   * テキストから音声を合成するよう予約します（期限付き）。
+   *
+   * @param text 合成するテキスト
+   * @param styleId スタイルID
+   * @param priority 優先度
+   * @param timeout この呼び出しから合成が完了するまでの期限
+   * @return WAVデータを返すフューチャー。期限に間に合わない場合は{@link TimeoutException}で完了します
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   * @see Synthesizer#tts(String, int)
+   */
+  public CompletableFuture<byte[]> ttsAsync(String text, int styleId, Priority priority, Duration timeout) {
+    return submit(priority, text.length(), timeout, synthesizer -> synthesizer.tts(text, styleId));
+  }
+
+  /**
+   * AquesTalk風記法から音声を合成するよう予約します（期限なし）。
+   *
+   * @param kana AquesTalk風記法のテキスト
+   * @param styleId スタイルID
+   * @param priority 優先度
+   * @return WAVデータを返すフューチャー
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   * @see Synthesizer#ttsFromKana(String, int)
+   */
+  public CompletableFuture<byte[]> ttsFromKanaAsync(String kana, int styleId, Priority priority) {
+    return submit(priority, kana.length(), synthesizer -> synthesizer.ttsFromKana(kana, styleId));
+  }
+
+  /**
+   * AquesTalk風記法から音声を合成するよう予約します（期限付き）。
+   *
+   * @param kana AquesTalk風記法のテキスト
+   * @param styleId スタイルID
+   * @param priority 優先度
+   * @param timeout この呼び出しから合成が完了するまでの期限
+   * @return WAVデータを返すフューチャー。期限に間に合わない場合は{@link TimeoutException}で完了します
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   * @see Synthesizer#ttsFromKana(String, int)
+   */
+  public CompletableFuture<byte[]> ttsFromKanaAsync(String kana, int styleId, Priority priority, Duration timeout) {
+    return submit(priority, kana.length(), timeout, synthesizer -> synthesizer.ttsFromKana(kana, styleId));
+  }
+
+  /**
+   * キューで実行を待っている処理の数を取得します。
+   *
+   * @return 待機中の処理の数
+   */
+  public int queued() {
+    return queue.size();
+  }
+
+  /**
+   * 期限に間に合わないため、ネイティブ関数を呼び出さずに完了した処理の数を取得します。
+   *
+   * @return 期限切れで破棄した処理の数
+   */
+  public long expiredCount() {
+    return expired.sum();
+  }
+
+  private <T> CompletableFuture<T> enqueue(Priority priority, int cost, boolean timed, long deadline,
+                                            SynthesizerFunction<T> function) {
+    Objects.requireNonNull(priority, "priority");
+    Objects.requireNonNull(function, "function");
+    ensureNotClosed();
+    Task<T> task = new Task<>(priority, Math.max(cost, 1), timed, deadline, sequence.getAndIncrement(), function);
+    // キャンセルされた処理は取り出されるのを待たずにキューから取り除く
+    task.future.whenComplete((result, error) -> queue.remove(task));
+    queue.add(task);
+    if (closed.get() && queue.remove(task)) {
+      task.future.cancel(false);
+    }
+    return task.future;
+  }
+
+  private static long deadlineOf(Duration timeout) {
+    long nanos = TimeUnit.NANOSECONDS.convert(Objects.requireNonNull(timeout, "timeout"));
+    // nanoTimeの差で比較できる範囲に収める
+    return System.nanoTime() + Math.min(Math.max(nanos, 0), MAX_TIMEOUT_NANOS);
+  }
+
+  private void runWorker() {
+    try {
+      while (!closed.get()) {
+        Task<?> task = queue.take();
+        Synthesizer synthesizer;
+        try {
+          synthesizer = pool.borrow();
+        } catch (InterruptedException | RuntimeException e) {
+          task.future.completeExceptionally(e);
+          throw e;
+        }
+        try {
+          // 合成器を待つ間に、より優先される処理が届いていれば入れ替える
+          Task<?> better;
+          while ((better = queue.peek()) != null && better.compareTo(task) < 0) {
+            if (queue.remove(better)) {
+              queue.add(task);
+              task = better;
+            }
+          }
+          run(task, synthesizer);
+        } finally {
+          pool.release(synthesizer);
+        }
+      }
+    } catch (InterruptedException e) {
+      // クローズによる割り込み
+    } catch (RuntimeException e) {
+      if (!closed.get()) {
+        log.warn("SynthesisScheduler worker stopped", e);
+      }
+    }
+  }
+
+  private <T> void run(Task<T> task, Synthesizer synthesizer) {
+    if (task.future.isDone()) {
+      // 実行を待つ間にキャンセルされた
+      return;
+    }
+    long start = System.nanoTime();
+    if (task.timed && task.deadline - start < (long) (nanosPerCost * task.cost)) {
+      expired.increment();
+      task.future.completeExceptionally(new TimeoutException("Synthesis cannot finish before its deadline"));
+      return;
+    }
+    try {
+      task.future.complete(task.function.apply(synthesizer));
+    } catch (Throwable t) {
+      task.future.completeExceptionally(t);
+      return;
+    }
+    double observed = (double) (System.nanoTime() - start) / task.cost;
+    double current = nanosPerCost;
+    nanosPerCost = current == 0 ? observed : current + ESTIMATE_WEIGHT * (observed - current);
+  }
+
+  /**
+   * このオブジェクトがクローズされているかどうかを確認します。
+   *
+   * @return クローズされている場合はtrue
+   */
+  public boolean isClosed() {
+    return closed.get();
+  }
+
+  private void ensureNotClosed() {
+    if (closed.get()) {
+      throw new IllegalStateException("SynthesisScheduler is already closed");
+    }
+  }
+
+  /**
+   * キューで実行を待つ1件の処理。
+   * 優先度、処理量の見積もり、到着順の順に比較されます。
+   */
+  private static final class Task<T> implements Comparable<Task<?>> {
+
+    private final Priority priority;
+    private final int cost;
+    private final boolean timed;
+    private final long deadline;
+    private final long sequence;
+    private final SynthesizerFunction<T> function;
+    private final CompletableFuture<T> future = new CompletableFuture<>();
+
+    private Task(Priority priority, int cost, boolean timed, long deadline, long sequence,
+                 SynthesizerFunction<T> function) {
+      this.priority = priority;
+      this.cost = cost;
+      this.timed = timed;
+      this.deadline = deadline;
+      this.sequence = sequence;
+      this.function = function;
+    }
+
+    @Override
+    public int compareTo(Task<?> other) {
+      int result = priority.compareTo(other.priority);
+      if (result != 0) {
+        return result;
+      }
+      result = Integer.compare(cost, other.cost);
+      if (result != 0) {
+        return result;
+      }
+      return Long.compare(sequence, other.sequence);
+    }
+  }
+
+  /**
+   * スケジューラをクローズします。
+   * <p>
+   * 処理を実行するスレッドを停止し、キューに残っている処理はキャンセルされます。
+   * 実行中の処理は完了するまで続行されます。合成器のプールはこのメソッドではクローズされません。
+   * このメソッドは複数回呼び出しても安全です。
+   */
+  @Override
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      workers.forEach(Thread::interrupt);
+      Task<?> task;
+      while ((task = queue.poll()) != null) {
+        task.future.cancel(false);
+      }
+      log.debug("SynthesisScheduler closed (expired: {})", expired.sum());
+    }
+  }
+}
@@ -1,13 +1,30 @@
 package org.braid.society.secret.voicevox4j.api;
 
+import com.sun.jna.Memory;
 import com.sun.jna.Pointer;
-import com.sun.jna.ptr.IntByReference;
 import com.sun.jna.ptr.PointerByReference;
 import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
 import lombok.extern.slf4j.Slf4j;
 import org.braid.society.secret.voicevox4j.exception.VoicevoxException;
 import org.braid.society.secret.voicevox4j.internal.Core;
+import org.braid.society.secret.voicevox4j.internal.Futures;
+import org.braid.society.secret.voicevox4j.internal.NativeOutParams;
 import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxInitializeOptions;
 import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxOnnxruntime;
 import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxResultCode;
@@ -23,9 +40,25 @@ import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxTtsOptions;
 @Slf4j
 public class Synthesizer implements Closeable, AutoCloseable {
 
+  /**
+   * {@link #warmup()}で使用する既定の発話。推論の入力長が異なる短文と長文を含みます。
+   */
+  public static final List<String> DEFAULT_WARMUP_UTTERANCES =
+      List.of("こんにちは。", "音声合成の準備をしています。しばらくお待ちください。");
+
   private final VoicevoxSynthesizer nativeSynthesizer;
   private final AtomicBoolean closed = new AtomicBoolean(false);
   private final Core core;
+  private final OpenJTalkDictionary openJtalk;
+  private final VoicevoxTtsOptions defaultTtsOptions;
+  private final VoicevoxSynthesisOptions defaultSynthesisOptions;
+  private volatile AudioQueryCache audioQueryCache;
+  private volatile WavCache wavCache;
+  private volatile String coreVersion;
+  private final StyleIndex styleIndex = new StyleIndex();
+  private final Set<Integer> warmStyles = ConcurrentHashMap.newKeySet();
+  // ネイティブライブラリが出力したWAVデータの合計。同時実行数のリミッターが処理量の見積もりに使用する
+  private final LongAdder synthesizedBytes = new LongAdder();
 
   /**
    * 音声合成器を初期化します。
@@ -51,13 +84,16 @@ public class Synthesizer implements Closeable, AutoCloseable {
   public Synthesizer(VoicevoxOnnxruntime onnxruntime, OpenJTalkDictionary openJtalk,
                      VoicevoxInitializeOptions options, Core core) throws VoicevoxException {
     this.core = core;
+    this.openJtalk = openJtalk;
+    // 既定のオプションは呼び出しのたびに取得せず、この合成器で共有する（変更はしない）
+    this.defaultTtsOptions = core.voicevox_make_default_tts_options();
+    this.defaultSynthesisOptions = core.voicevox_make_default_synthesis_options();
     PointerByReference outSynthesizer = new PointerByReference();
     int result = core.voicevox_synthesizer_new(onnxruntime, openJtalk.getNativeOpenJtalk(),
                                               options, outSynthesizer);
 
     if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
-      String errorMessage = core.voicevox_error_result_to_message(result);
-      throw new VoicevoxException("Failed to initialize synthesizer: " + errorMessage, result);
+      throw new VoicevoxException("Failed to initialize synthesizer", result, core::voicevox_error_result_to_message);
     }
 
     this.nativeSynthesizer = new VoicevoxSynthesizer(Pointer.nativeValue(outSynthesizer.getValue()));
@@ -76,9 +112,9 @@ public class Synthesizer implements Closeable, AutoCloseable {
     int result = core.voicevox_synthesizer_load_voice_model(nativeSynthesizer, model.getNativeModel());
 
     if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
-      String errorMessage = core.voicevox_error_result_to_message(result);
-      throw new VoicevoxException("Failed to load voice model: " + errorMessage, result);
+      throw new VoicevoxException("Failed to load voice model", result, core::voicevox_error_result_to_message);
     }
+    styleIndex.add(model.getModelId(), model.getSpeakers());
     log.debug("Voice model loaded successfully");
   }
 
@@ -94,8 +130,20 @@ public class Synthesizer implements Closeable, AutoCloseable {
     int result = core.voicevox_synthesizer_unload_voice_model(nativeSynthesizer, modelId);
 
     if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
-      String errorMessage = core.voicevox_error_result_to_message(result);
-      throw new VoicevoxException("Failed to unload voice model: " + errorMessage, result);
+      throw new VoicevoxException("Failed to unload voice model", result, core::voicevox_error_result_to_message);
+    }
+    // 再度読み込んだ場合はセッションが作り直されるため、ウォームアップ済みの扱いを取り消す
+    for (Speaker speaker : styleIndex.getSpeakers()) {
+      for (Style style : speaker.getStyles()) {
+        if (Arrays.equals(styleIndex.modelIdOf(style.getId()), modelId)) {
+          warmStyles.remove(style.getId());
+        }
+      }
+    }
+    styleIndex.remove(modelId);
+    AudioQueryCache cache = audioQueryCache;
+    if (cache != null) {
+      cache.invalidateAll();
     }
     log.debug("Voice model unloaded successfully");
   }
@@ -112,6 +160,175 @@ public class Synthesizer implements Closeable, AutoCloseable {
     return core.voicevox_synthesizer_is_loaded_voice_model(nativeSynthesizer, modelId);
   }
 
+  /**
+   * この合成器に読み込まれている音声モデルのスタイルの索引を取得します。
+   * <p>
+   * 索引は{@link #loadVoiceModel(VoiceModelFile)}と{@link #unloadVoiceModel(byte[])}で更新されます。
+   * スタイルIDから音声モデルや話者を調べる場合は、{@link #getMetasJson()}を解析するよりもこちらを使用してください。
+   *
+   * @return スタイルの索引
+   */
+  public StyleIndex getStyleIndex() {
+    return styleIndex;
+  }
+
+  /**
+   * 既定の発話で、読み込まれているすべてのスタイルをウォームアップします。
+   *
+   * @throws VoicevoxException ダミーの読み上げに失敗した場合
+   * @throws InterruptedException ウォームアップを待つ間に割り込まれた場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   * @see #warmup(List)
+   */
+  public void warmup() throws VoicevoxException, InterruptedException {
+    warmup(DEFAULT_WARMUP_UTTERANCES);
+  }
+
+  /**
+   * 読み込まれているすべてのスタイルで、指定した発話をダミーで読み上げます。
+   * <p>
+   * ONNXランタイムはメモリアリーナの確保やグラフの最適化を最初の推論時に行うため、
+   * スタイルごとの最初の読み上げは通常より大幅に遅くなります。トラフィックを受け付ける前にこのメソッドを呼び出すことで、
+   * その遅延を起動時に済ませておけます。推論を確実に行うため、{@link WavCache}は使用しません。
+   * <p>
+   * すべてのスタイルを呼び出し元のスレッドで順番に実行します。
+   * 複数の音声モデルを並行にウォームアップする場合は{@link #warmup(List, Executor)}を使用してください。
+   * <p>
+   * ウォームアップ済みのスタイルと、読み上げに対応していないスタイル（{@code talk}以外）は省略します。
+   * 後から音声モデルを読み込んだ場合は、再度呼び出すと新しいスタイルだけをウォームアップします。
+   *
+   * @param utterances ダミーの発話
+   * @throws VoicevoxException ダミーの読み上げに失敗した場合
+   * @throws InterruptedException ウォームアップを待つ間に割り込まれた場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public void warmup(List<String> utterances) throws VoicevoxException, InterruptedException {
+    warmupStyles(utterances, null);
+  }
+
+  /**
+   * 読み込まれているすべてのスタイルで、指定した発話をダミーで読み上げます。音声モデルごとの処理は指定したエグゼキューターで並行に実行します。
+   * <p>
+   * 同じ音声モデルの推論はネイティブライブラリの内部で直列化されるため、音声モデルごとに1つのタスクを投入し、
+   * 同じ音声モデルのスタイルはそのタスクの中で順番に実行します。このメソッドはスレッドを作成しないため、
+   * 同時に実行される数はエグゼキューターによって決まります。いずれかのタスクが失敗すると、残りのタスクはキャンセルされます。
+   * <p>
+   * 省略するスタイルなどの動作は{@link #warmup(List)}と同じです。
+   *
+   * @param utterances ダミーの発話
+   * @param executor 音声モデルごとのタスクを実行するエグゼキューター
+   * @throws VoicevoxException ダミーの読み上げに失敗した場合
+   * @throws InterruptedException ウォームアップを待つ間に割り込まれた場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public void warmup(List<String> utterances, Executor executor) throws VoicevoxException, InterruptedException {
+    Objects.requireNonNull(executor, "executor");
+    warmupStyles(utterances, executor);
+  }
+
+  private void warmupStyles(List<String> utterances, Executor executor) throws VoicevoxException, InterruptedException {
+    ensureNotClosed();
+    Objects.requireNonNull(utterances, "utterances");
+    long start = System.nanoTime();
+    // 音声モデルごとに、まだウォームアップしていないスタイルをまとめる
+    Map<String, List<Integer>> pending = new LinkedHashMap<>();
+    for (Speaker speaker : styleIndex.getSpeakers()) {
+      for (Style style : speaker.getStyles()) {
+        int styleId = style.getId();
+        byte[] modelId = styleIndex.modelIdOf(styleId);
+        if (!"talk".equals(style.getType()) || warmStyles.contains(styleId) || modelId == null) {
+          continue;
+        }
+        pending.computeIfAbsent(Arrays.toString(modelId), key -> new ArrayList<>()).add(styleId);
+      }
+    }
+    int warmed = pending.values().stream().mapToInt(List::size).sum();
+    if (executor == null || pending.size() <= 1) {
+      for (List<Integer> styleIds : pending.values()) {
+        if (Thread.interrupted()) {
+          throw new InterruptedException("Warmup was interrupted");
+        }
+        warmup(styleIds, utterances);
+      }
+    } else {
+      List<FutureTask<Void>> tasks = new ArrayList<>(pending.size());
+      try {
+        for (List<Integer> styleIds : pending.values()) {
+          FutureTask<Void> task = new FutureTask<>(() -> {
+            warmup(styleIds, utterances);
+            return null;
+          });
+          tasks.add(task);
+          executor.execute(task);
+        }
+        for (FutureTask<Void> task : tasks) {
+          Futures.await(task);
+        }
+      } finally {
+        // 失敗や割り込みで待機をやめた場合は、まだ始まっていないタスクを実行させない
+        for (FutureTask<Void> task : tasks) {
+          task.cancel(false);
+        }
+      }
+    }
+    log.debug("Synthesizer warmed up {} styles of {} models in {} ms", warmed, pending.size(),
+        (System.nanoTime() - start) / 1_000_000);
+  }
+
+  private void warmup(List<Integer> styleIds, List<String> utterances) throws VoicevoxException {
+    for (int styleId : styleIds) {
+      for (String utterance : utterances) {
+        // 推論を実行することが目的のため、結果は使用しない
+        ttsToBuffer(utterance, styleId, defaultTtsOptions).close();
+      }
+      warmStyles.add(styleId);
+    }
+  }
+
+  /**
+   * この合成器でネイティブライブラリが出力したWAVデータの合計バイト数を取得します。
+   * {@link WavCache}から読み取った結果は含みません。
+   */
+  long getSynthesizedBytes() {
+    return synthesizedBytes.sum();
+  }
+
+  /**
+   * スタイルがウォームアップ済みかどうかを確認します。
+   *
+   * @param styleId スタイルID
+   * @return ウォームアップ済みの場合はtrue
+   */
+  public boolean isWarm(int styleId) {
+    return warmStyles.contains(styleId);
+  }
+
+  /**
+   * ウォームアップが完了し、トラフィックを受け付ける準備ができているかどうかを確認します。
+   * <p>
+   * 読み込まれている読み上げ用（{@code talk}）のスタイルがすべてウォームアップ済みかどうかを、呼び出しのたびに確認します。
+   * そのため、{@link VoiceModelResidency}による使用時の読み込みなどで音声モデルを読み込むとfalseに戻り、
+   * 再度{@link #warmup(List)}を呼び出すとtrueになります。
+   * 読み上げ用のスタイルが1つも読み込まれていない場合は、読み上げを受け付けられないためfalseを返します。
+   *
+   * @return 読み上げ用のスタイルが1つ以上読み込まれていて、そのすべてがウォームアップ済みの場合はtrue
+   */
+  public boolean isReady() {
+    boolean talkable = false;
+    for (Speaker speaker : styleIndex.getSpeakers()) {
+      for (Style style : speaker.getStyles()) {
+        if (!"talk".equals(style.getType())) {
+          continue;
+        }
+        if (!warmStyles.contains(style.getId())) {
+          return false;
+        }
+        talkable = true;
+      }
+    }
+    return talkable;
+  }
+
   /**
    * GPUモードが有効かどうかを確認します。
    *
@@ -150,20 +367,19 @@ public class Synthesizer implements Closeable, AutoCloseable {
    */
   public String createAudioQueryFromKana(String kana, int styleId) throws VoicevoxException {
     ensureNotClosed();
-    PointerByReference outputAudioQueryJson = new PointerByReference();
+    NativeOutParams out = NativeOutParams.acquire();
     int result = core.voicevox_synthesizer_create_audio_query_from_kana(
-        nativeSynthesizer, kana, styleId, outputAudioQueryJson);
+        nativeSynthesizer, kana, styleId, out);
 
     if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
-      String errorMessage = core.voicevox_error_result_to_message(result);
-      throw new VoicevoxException("Failed to create audio query from kana: " + errorMessage, result);
+      throw new VoicevoxException("Failed to create audio query from kana", result, core::voicevox_error_result_to_message);
     }
 
-    Pointer jsonPointer = outputAudioQueryJson.getValue();
+    long json = out.getAddress();
     try {
-      return jsonPointer.getString(0, "UTF-8");
+      return core.getString(json);
     } finally {
-      core.voicevox_json_free(jsonPointer);
+      core.voicevox_json_free(json);
     }
   }
 
@@ -178,20 +394,56 @@ public class Synthesizer implements Closeable, AutoCloseable {
    */
   public String createAudioQuery(String text, int styleId) throws VoicevoxException {
     ensureNotClosed();
-    PointerByReference outputAudioQueryJson = new PointerByReference();
+    AudioQueryCache cache = audioQueryCache;
+    if (cache == null) {
+      return createAudioQueryNative(text, styleId);
+    }
+    String normalized = AudioQueryCache.normalize(text);
+    long stamp = openJtalk.getUserDictStamp();
+    String cached = cache.get(normalized, styleId, stamp);
+    if (cached != null) {
+      return cached;
+    }
+    String audioQuery = createAudioQueryNative(normalized, styleId);
+    cache.put(normalized, styleId, stamp, audioQuery);
+    return audioQuery;
+  }
+
+  /**
+   * AudioQueryのキャッシュを設定します。
+   * <p>
+   * キャッシュを設定すると、{@link #createAudioQuery(String, int)}は{@link AudioQueryCache#normalize(String)}で
+   * 正規化したテキストを使用し、同じテキストとスタイルIDの組み合わせに対してはキャッシュした結果を返します。
+   *
+   * @param cache 使用するキャッシュ。nullを指定するとキャッシュを使用しません
+   */
+  public void setAudioQueryCache(AudioQueryCache cache) {
+    this.audioQueryCache = cache;
+  }
+
+  /**
+   * 設定されているAudioQueryのキャッシュを取得します。
+   *
+   * @return キャッシュ。設定されていない場合はnull
+   */
+  public AudioQueryCache getAudioQueryCache() {
+    return audioQueryCache;
+  }
+
+  private String createAudioQueryNative(String text, int styleId) throws VoicevoxException {
+    NativeOutParams out = NativeOutParams.acquire();
     int result = core.voicevox_synthesizer_create_audio_query(
-        nativeSynthesizer, text, styleId, outputAudioQueryJson);
+        nativeSynthesizer, text, styleId, out);
 
     if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
-      String errorMessage = core.voicevox_error_result_to_message(result);
-      throw new VoicevoxException("Failed to create audio query: " + errorMessage, result);
+      throw new VoicevoxException("Failed to create audio query", result, core::voicevox_error_result_to_message);
     }
 
-    Pointer jsonPointer = outputAudioQueryJson.getValue();
+    long json = out.getAddress();
     try {
-      return jsonPointer.getString(0, "UTF-8");
+      return core.getString(json);
     } finally {
-      core.voicevox_json_free(jsonPointer);
+      core.voicevox_json_free(json);
     }
   }
 
@@ -206,20 +458,19 @@ public class Synthesizer implements Closeable, AutoCloseable {
    */
   public String createAccentPhrasesFromKana(String kana, int styleId) throws VoicevoxException {
     ensureNotClosed();
-    PointerByReference outputAccentPhrasesJson = new PointerByReference();
+    NativeOutParams out = NativeOutParams.acquire();
     int result = core.voicevox_synthesizer_create_accent_phrases_from_kana(
-        nativeSynthesizer, kana, styleId, outputAccentPhrasesJson);
+        nativeSynthesizer, kana, styleId, out);
 
     if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
-      String errorMessage = core.voicevox_error_result_to_message(result);
-      throw new VoicevoxException("Failed to create accent phrases from kana: " + errorMessage, result);
+      throw new VoicevoxException("Failed to create accent phrases from kana", result, core::voicevox_error_result_to_message);
     }
 
-    Pointer jsonPointer = outputAccentPhrasesJson.getValue();
+    long json = out.getAddress();
     try {
-      return jsonPointer.getString(0, "UTF-8");
+      return core.getString(json);
     } finally {
-      core.voicevox_json_free(jsonPointer);
+      core.voicevox_json_free(json);
     }
   }
 
@@ -234,20 +485,19 @@ public class Synthesizer implements Closeable, AutoCloseable {
    */
   public String createAccentPhrases(String text, int styleId) throws VoicevoxException {
     ensureNotClosed();
-    PointerByReference outputAccentPhrasesJson = new PointerByReference();
+    NativeOutParams out = NativeOutParams.acquire();
     int result = core.voicevox_synthesizer_create_accent_phrases(
-        nativeSynthesizer, text, styleId, outputAccentPhrasesJson);
+        nativeSynthesizer, text, styleId, out);
 
     if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
-      String errorMessage = core.voicevox_error_result_to_message(result);
-      throw new VoicevoxException("Failed to create accent phrases: " + errorMessage, result);
+      throw new VoicevoxException("Failed to create accent phrases", result, core::voicevox_error_result_to_message);
     }
 
-    Pointer jsonPointer = outputAccentPhrasesJson.getValue();
+    long json = out.getAddress();
     try {
-      return jsonPointer.getString(0, "UTF-8");
+      return core.getString(json);
     } finally {
-      core.voicevox_json_free(jsonPointer);
+      core.voicevox_json_free(json);
     }
   }
 
@@ -262,20 +512,19 @@ public class Synthesizer implements Closeable, AutoCloseable {
    */
   public String replaceMoraData(String accentPhrasesJson, int styleId) throws VoicevoxException {
     ensureNotClosed();
-    PointerByReference outputAccentPhrasesJson = new PointerByReference();
+    NativeOutParams out = NativeOutParams.acquire();
     int result = core.voicevox_synthesizer_replace_mora_data(
-        nativeSynthesizer, accentPhrasesJson, styleId, outputAccentPhrasesJson);
+        nativeSynthesizer, accentPhrasesJson, styleId, out);
 
     if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
-      String errorMessage = core.voicevox_error_result_to_message(result);
-      throw new VoicevoxException("Failed to replace mora data: " + errorMessage, result);
+      throw new VoicevoxException("Failed to replace mora data", result, core::voicevox_error_result_to_message);
     }
 
-    Pointer jsonPointer = outputAccentPhrasesJson.getValue();
+    long json = out.getAddress();
     try {
-      return jsonPointer.getString(0, "UTF-8");
+      return core.getString(json);
     } finally {
-      core.voicevox_json_free(jsonPointer);
+      core.voicevox_json_free(json);
     }
   }
 
@@ -290,20 +539,19 @@ public class Synthesizer implements Closeable, AutoCloseable {
    */
   public String replacePhonemeLength(String accentPhrasesJson, int styleId) throws VoicevoxException {
     ensureNotClosed();
-    PointerByReference outputAccentPhrasesJson = new PointerByReference();
+    NativeOutParams out = NativeOutParams.acquire();
     int result = core.voicevox_synthesizer_replace_phoneme_length(
-        nativeSynthesizer, accentPhrasesJson, styleId, outputAccentPhrasesJson);
+        nativeSynthesizer, accentPhrasesJson, styleId, out);
 
     if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
-      String errorMessage = core.voicevox_error_result_to_message(result);
-      throw new VoicevoxException("Failed to replace phoneme length: " + errorMessage, result);
+      throw new VoicevoxException("Failed to replace phoneme length", result, core::voicevox_error_result_to_message);
     }
 
-    Pointer jsonPointer = outputAccentPhrasesJson.getValue();
+    long json = out.getAddress();
     try {
-      return jsonPointer.getString(0, "UTF-8");
+      return core.getString(json);
     } finally {
-      core.voicevox_json_free(jsonPointer);
+      core.voicevox_json_free(json);
     }
   }
 
@@ -318,20 +566,231 @@ public class Synthesizer implements Closeable, AutoCloseable {
    */
   public String replaceMoraPitch(String accentPhrasesJson, int styleId) throws VoicevoxException {
     ensureNotClosed();
-    PointerByReference outputAccentPhrasesJson = new PointerByReference();
+    NativeOutParams out = NativeOutParams.acquire();
     int result = core.voicevox_synthesizer_replace_mora_pitch(
-        nativeSynthesizer, accentPhrasesJson, styleId, outputAccentPhrasesJson);
+        nativeSynthesizer, accentPhrasesJson, styleId, out);
+
+    if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
+      throw new VoicevoxException("Failed to replace mora pitch", result, core::voicevox_error_result_to_message);
+    }
+
+    long json = out.getAddress();
+    try {
+      return core.getString(json);
+    } finally {
+      core.voicevox_json_free(json);
+    }
+  }
+
+  /**
+   * カナからオーディオクエリを作成し、{@link AudioQuery}として返します。
+   * <p>
+   * ネイティブメモリ上のJSONを{@link String}にデコードせずに直接解析します。
+   *
+   * @param kana カナ文字列
+   * @param styleId スタイルID
+   * @return オーディオクエリ
+   * @throws VoicevoxException オーディオクエリの作成に失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public AudioQuery createAudioQueryFromKanaTyped(String kana, int styleId) throws VoicevoxException {
+    ensureNotClosed();
+    NativeOutParams out = NativeOutParams.acquire();
+    int result = core.voicevox_synthesizer_create_audio_query_from_kana(
+        nativeSynthesizer, kana, styleId, out);
+
+    if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
+      throw new VoicevoxException("Failed to create audio query from kana", result, core::voicevox_error_result_to_message);
+    }
+
+    long json = out.getAddress();
+    try {
+      return AudioQuery.fromNative(core.getStringBuffer(json));
+    } finally {
+      core.voicevox_json_free(json);
+    }
+  }
+
+  /**
+   * テキストからオーディオクエリを作成し、{@link AudioQuery}として返します。
+   * <p>
+   * ネイティブメモリ上のJSONを{@link String}にデコードせずに直接解析します。
+   * {@link AudioQueryCache}が設定されている場合は、{@link #createAudioQuery(String, int)}の結果を解析します。
+   *
+   * @param text テキスト
+   * @param styleId スタイルID
+   * @return オーディオクエリ
+   * @throws VoicevoxException オーディオクエリの作成に失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public AudioQuery createAudioQueryTyped(String text, int styleId) throws VoicevoxException {
+    ensureNotClosed();
+    if (audioQueryCache != null) {
+      return AudioQuery.fromJson(createAudioQuery(text, styleId));
+    }
+    NativeOutParams out = NativeOutParams.acquire();
+    int result = core.voicevox_synthesizer_create_audio_query(
+        nativeSynthesizer, text, styleId, out);
+
+    if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
+      throw new VoicevoxException("Failed to create audio query", result, core::voicevox_error_result_to_message);
+    }
+
+    long json = out.getAddress();
+    try {
+      return AudioQuery.fromNative(core.getStringBuffer(json));
+    } finally {
+      core.voicevox_json_free(json);
+    }
+  }
+
+  /**
+   * カナからアクセント句を作成し、{@link AccentPhrase}のリストとして返します。
+   *
+   * @param kana カナ文字列
+   * @param styleId スタイルID
+   * @return 変更不可能なアクセント句のリスト
+   * @throws VoicevoxException アクセント句の作成に失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public List<AccentPhrase> createAccentPhrasesFromKanaTyped(String kana, int styleId) throws VoicevoxException {
+    ensureNotClosed();
+    NativeOutParams out = NativeOutParams.acquire();
+    int result = core.voicevox_synthesizer_create_accent_phrases_from_kana(
+        nativeSynthesizer, kana, styleId, out);
+
+    if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
+      throw new VoicevoxException("Failed to create accent phrases from kana", result, core::voicevox_error_result_to_message);
+    }
+
+    long json = out.getAddress();
+    try {
+      return AccentPhrase.listFromNative(core.getStringBuffer(json));
+    } finally {
+      core.voicevox_json_free(json);
+    }
+  }
+
+  /**
+   * テキストからアクセント句を作成し、{@link AccentPhrase}のリストとして返します。
+   *
+   * @param text テキスト
+   * @param styleId スタイルID
+   * @return 変更不可能なアクセント句のリスト
+   * @throws VoicevoxException アクセント句の作成に失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public List<AccentPhrase> createAccentPhrasesTyped(String text, int styleId) throws VoicevoxException {
+    ensureNotClosed();
+    NativeOutParams out = NativeOutParams.acquire();
+    int result = core.voicevox_synthesizer_create_accent_phrases(
+        nativeSynthesizer, text, styleId, out);
+
+    if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
+      throw new VoicevoxException("Failed to create accent phrases", result, core::voicevox_error_result_to_message);
+    }
+
+    long json = out.getAddress();
+    try {
+      return AccentPhrase.listFromNative(core.getStringBuffer(json));
+    } finally {
+      core.voicevox_json_free(json);
+    }
+  }
+
+  /**
+   * モーラデータを置換します。
+   * <p>
+   * アクセント句はUTF-8のJSONとしてネイティブメモリに直接書き出して渡します。
+   *
+   * @param accentPhrases アクセント句のリスト
+   * @param styleId スタイルID
+   * @return 置換後の変更不可能なアクセント句のリスト
+   * @throws VoicevoxException モーラデータの置換に失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public List<AccentPhrase> replaceMoraData(List<AccentPhrase> accentPhrases, int styleId) throws VoicevoxException {
+    ensureNotClosed();
+    NativeOutParams out = NativeOutParams.acquire();
+    int result;
+    try (Memory accentPhrasesJson = AccentPhrase.listToWriter(accentPhrases).toNativeMemory()) {
+      result = core.voicevox_synthesizer_replace_mora_data(
+          nativeSynthesizer, accentPhrasesJson, styleId, out);
+    }
+
+    if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
+      throw new VoicevoxException("Failed to replace mora data", result, core::voicevox_error_result_to_message);
+    }
+
+    long json = out.getAddress();
+    try {
+      return AccentPhrase.listFromNative(core.getStringBuffer(json));
+    } finally {
+      core.voicevox_json_free(json);
+    }
+  }
+
+  /**
+   * 音素長を置換します。
+   * <p>
+   * アクセント句はUTF-8のJSONとしてネイティブメモリに直接書き出して渡します。
+   *
+   * @param accentPhrases アクセント句のリスト
+   * @param styleId スタイルID
+   * @return 置換後の変更不可能なアクセント句のリスト
+   * @throws VoicevoxException 音素長の置換に失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public List<AccentPhrase> replacePhonemeLength(List<AccentPhrase> accentPhrases, int styleId) throws VoicevoxException {
+    ensureNotClosed();
+    NativeOutParams out = NativeOutParams.acquire();
+    int result;
+    try (Memory accentPhrasesJson = AccentPhrase.listToWriter(accentPhrases).toNativeMemory()) {
+      result = core.voicevox_synthesizer_replace_phoneme_length(
+          nativeSynthesizer, accentPhrasesJson, styleId, out);
+    }
+
+    if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
+      throw new VoicevoxException("Failed to replace phoneme length", result, core::voicevox_error_result_to_message);
+    }
+
+    long json = out.getAddress();
+    try {
+      return AccentPhrase.listFromNative(core.getStringBuffer(json));
+    } finally {
+      core.voicevox_json_free(json);
+    }
+  }
+
+  /**
+   * モーラピッチを置換します。
+   * <p>
+   * アクセント句はUTF-8のJSONとしてネイティブメモリに直接書き出して渡します。
+   *
+   * @param accentPhrases アクセント句のリスト
+   * @param styleId スタイルID
+   * @return 置換後の変更不可能なアクセント句のリスト
+   * @throws VoicevoxException モーラピッチの置換に失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public List<AccentPhrase> replaceMoraPitch(List<AccentPhrase> accentPhrases, int styleId) throws VoicevoxException {
+    ensureNotClosed();
+    NativeOutParams out = NativeOutParams.acquire();
+    int result;
+    try (Memory accentPhrasesJson = AccentPhrase.listToWriter(accentPhrases).toNativeMemory()) {
+      result = core.voicevox_synthesizer_replace_mora_pitch(
+          nativeSynthesizer, accentPhrasesJson, styleId, out);
+    }
 
     if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
-      String errorMessage = core.voicevox_error_result_to_message(result);
-      throw new VoicevoxException("Failed to replace mora pitch: " + errorMessage, result);
+      throw new VoicevoxException("Failed to replace mora pitch", result, core::voicevox_error_result_to_message);
     }
 
-    Pointer jsonPointer = outputAccentPhrasesJson.getValue();
+    long json = out.getAddress();
     try {
-      return jsonPointer.getString(0, "UTF-8");
+      return AccentPhrase.listFromNative(core.getStringBuffer(json));
     } finally {
-      core.voicevox_json_free(jsonPointer);
+      core.voicevox_json_free(json);
     }
   }
 
@@ -345,7 +804,7 @@ public class Synthesizer implements Closeable, AutoCloseable {
    * @throws IllegalStateException このオブジェクトが既にクローズされている場合
    */
   public byte[] synthesis(String audioQueryJson, int styleId) throws VoicevoxException {
-    return synthesis(audioQueryJson, styleId, core.voicevox_make_default_synthesis_options());
+    return synthesis(audioQueryJson, styleId, defaultSynthesisOptions);
   }
 
   /**
@@ -360,24 +819,73 @@ public class Synthesizer implements Closeable, AutoCloseable {
    */
   public byte[] synthesis(String audioQueryJson, int styleId, VoicevoxSynthesisOptions options) throws VoicevoxException {
     ensureNotClosed();
-    IntByReference outputWavLength = new IntByReference();
-    PointerByReference outputWav = new PointerByReference();
+    WavCache cache = wavCache;
+    WavCache.Key key = wavCacheKey(cache, WavCache.Kind.SYNTHESIS, audioQueryJson, styleId, options.isEnableInterrogativeUpspeak());
+    if (key != null) {
+      byte[] cached = cache.read(key);
+      if (cached != null) {
+        return cached;
+      }
+      try (WavBuffer wav = synthesisToBuffer(audioQueryJson, styleId, options)) {
+        cache.put(key, wav.asByteBuffer());
+        return wav.toByteArray();
+      }
+    }
+    NativeOutParams out = NativeOutParams.acquire();
 
     int result = core.voicevox_synthesizer_synthesis(
-        nativeSynthesizer, audioQueryJson, styleId, options, outputWavLength, outputWav);
+        nativeSynthesizer, audioQueryJson, styleId, options, out);
 
     if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
-      String errorMessage = core.voicevox_error_result_to_message(result);
-      throw new VoicevoxException("Failed to synthesize audio: " + errorMessage, result);
+      throw new VoicevoxException("Failed to synthesize audio", result, core::voicevox_error_result_to_message);
     }
 
-    Pointer wavPointer = outputWav.getValue();
-    int length = outputWavLength.getValue();
+    long wav = out.getAddress();
+    int length = Math.toIntExact(out.getSize());
+    synthesizedBytes.add(length);
 
     try {
-      return wavPointer.getByteArray(0, length);
+      byte[] bytes = new byte[length];
+      core.getByteBuffer(wav, length).get(bytes);
+      return bytes;
     } finally {
-      core.voicevox_wav_free(wavPointer);
+      core.voicevox_wav_free(wav);
+    }
+  }
+
+  /**
+   * {@link AudioQuery}から音声を合成します（デフォルトオプション）。
+   *
+   * @param audioQuery オーディオクエリ
+   * @param styleId スタイルID
+   * @return 音声データ（WAVファイル形式）
+   * @throws VoicevoxException 音声合成に失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public byte[] synthesis(AudioQuery audioQuery, int styleId) throws VoicevoxException {
+    return synthesis(audioQuery, styleId, defaultSynthesisOptions);
+  }
+
+  /**
+   * {@link AudioQuery}から音声を合成します（オプション指定）。
+   * <p>
+   * オーディオクエリはUTF-8のJSONとしてネイティブメモリに直接書き出して渡します。
+   * {@link WavCache}が設定されている場合は、{@link #synthesis(String, int, VoicevoxSynthesisOptions)}と同じキャッシュを使用します。
+   *
+   * @param audioQuery オーディオクエリ
+   * @param styleId スタイルID
+   * @param options 合成オプション
+   * @return 音声データ（WAVファイル形式）
+   * @throws VoicevoxException 音声合成に失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public byte[] synthesis(AudioQuery audioQuery, int styleId, VoicevoxSynthesisOptions options) throws VoicevoxException {
+    ensureNotClosed();
+    if (wavCache != null) {
+      return synthesis(audioQuery.toJson(), styleId, options);
+    }
+    try (WavBuffer wav = synthesisToBuffer(audioQuery, styleId, options)) {
+      return wav.toByteArray();
     }
   }
 
@@ -391,7 +899,7 @@ public class Synthesizer implements Closeable, AutoCloseable {
    * @throws IllegalStateException このオブジェクトが既にクローズされている場合
    */
   public byte[] ttsFromKana(String kana, int styleId) throws VoicevoxException {
-    return ttsFromKana(kana, styleId, core.voicevox_make_default_tts_options());
+    return ttsFromKana(kana, styleId, defaultTtsOptions);
   }
 
   /**
@@ -406,24 +914,37 @@ public class Synthesizer implements Closeable, AutoCloseable {
    */
   public byte[] ttsFromKana(String kana, int styleId, VoicevoxTtsOptions options) throws VoicevoxException {
     ensureNotClosed();
-    IntByReference outputWavLength = new IntByReference();
-    PointerByReference outputWav = new PointerByReference();
+    WavCache cache = wavCache;
+    WavCache.Key key = wavCacheKey(cache, WavCache.Kind.TTS_FROM_KANA, kana, styleId, options.isEnableInterrogativeUpspeak());
+    if (key != null) {
+      byte[] cached = cache.read(key);
+      if (cached != null) {
+        return cached;
+      }
+      try (WavBuffer wav = ttsFromKanaToBuffer(kana, styleId, options)) {
+        cache.put(key, wav.asByteBuffer());
+        return wav.toByteArray();
+      }
+    }
+    NativeOutParams out = NativeOutParams.acquire();
 
     int result = core.voicevox_synthesizer_tts_from_kana(
-        nativeSynthesizer, kana, styleId, options, outputWavLength, outputWav);
+        nativeSynthesizer, kana, styleId, options, out);
 
     if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
-      String errorMessage = core.voicevox_error_result_to_message(result);
-      throw new VoicevoxException("Failed to perform TTS from kana: " + errorMessage, result);
+      throw new VoicevoxException("Failed to perform TTS from kana", result, core::voicevox_error_result_to_message);
     }
 
-    Pointer wavPointer = outputWav.getValue();
-    int length = outputWavLength.getValue();
+    long wav = out.getAddress();
+    int length = Math.toIntExact(out.getSize());
+    synthesizedBytes.add(length);
 
     try {
-      return wavPointer.getByteArray(0, length);
+      byte[] bytes = new byte[length];
+      core.getByteBuffer(wav, length).get(bytes);
+      return bytes;
     } finally {
-      core.voicevox_wav_free(wavPointer);
+      core.voicevox_wav_free(wav);
     }
   }
 
@@ -437,7 +958,7 @@ public class Synthesizer implements Closeable, AutoCloseable {
    * @throws IllegalStateException このオブジェクトが既にクローズされている場合
    */
   public byte[] tts(String text, int styleId) throws VoicevoxException {
-    return tts(text, styleId, core.voicevox_make_default_tts_options());
+    return tts(text, styleId, defaultTtsOptions);
   }
 
   /**
@@ -452,25 +973,844 @@ public class Synthesizer implements Closeable, AutoCloseable {
    */
   public byte[] tts(String text, int styleId, VoicevoxTtsOptions options) throws VoicevoxException {
     ensureNotClosed();
-    IntByReference outputWavLength = new IntByReference();
-    PointerByReference outputWav = new PointerByReference();
+    WavCache cache = wavCache;
+    WavCache.Key key = wavCacheKey(cache, WavCache.Kind.TTS, text, styleId, options.isEnableInterrogativeUpspeak());
+    if (key != null) {
+      byte[] cached = cache.read(key);
+      if (cached != null) {
+        return cached;
+      }
+      try (WavBuffer wav = ttsToBuffer(text, styleId, options)) {
+        cache.put(key, wav.asByteBuffer());
+        return wav.toByteArray();
+      }
+    }
+    NativeOutParams out = NativeOutParams.acquire();
 
     int result = core.voicevox_synthesizer_tts(
-        nativeSynthesizer, text, styleId, options, outputWavLength, outputWav);
+        nativeSynthesizer, text, styleId, options, out);
 
     if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
-      String errorMessage = core.voicevox_error_result_to_message(result);
-      throw new VoicevoxException("Failed to perform TTS: " + errorMessage, result);
+      throw new VoicevoxException("Failed to perform TTS", result, core::voicevox_error_result_to_message);
     }
 
-    Pointer wavPointer = outputWav.getValue();
-    int length = outputWavLength.getValue();
+    long wav = out.getAddress();
+    int length = Math.toIntExact(out.getSize());
+    synthesizedBytes.add(length);
 
     try {
-      return wavPointer.getByteArray(0, length);
+      byte[] bytes = new byte[length];
+      core.getByteBuffer(wav, length).get(bytes);
+      return bytes;
     } finally {
-      core.voicevox_wav_free(wavPointer);
+      core.voicevox_wav_free(wav);
+    }
+  }
+
+  /**
+   * 音声を合成し、ネイティブメモリ上のWAVデータをコピーせずに返します（デフォルトオプション）。
+   *
+   * @param audioQueryJson オーディオクエリJSON
+   * @param styleId スタイルID
+   * @return 音声データ（WAVファイル形式）を参照する{@link WavBuffer}。使用後はクローズしてください。
+   * @throws VoicevoxException 音声合成に失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   * @see #synthesis(String, int)
+   */
+  public WavBuffer synthesisToBuffer(String audioQueryJson, int styleId) throws VoicevoxException {
+    return synthesisToBuffer(audioQueryJson, styleId, defaultSynthesisOptions);
+  }
+
+  /**
+   * 音声を合成し、ネイティブメモリ上のWAVデータをコピーせずに返します（オプション指定）。
+   *
+   * @param audioQueryJson オーディオクエリJSON
+   * @param styleId スタイルID
+   * @param options 合成オプション
+   * @return 音声データ（WAVファイル形式）を参照する{@link WavBuffer}。使用後はクローズしてください。
+   * @throws VoicevoxException 音声合成に失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   * @see #synthesis(String, int, VoicevoxSynthesisOptions)
+   */
+  public WavBuffer synthesisToBuffer(String audioQueryJson, int styleId, VoicevoxSynthesisOptions options) throws VoicevoxException {
+    ensureNotClosed();
+    NativeOutParams out = NativeOutParams.acquire();
+
+    int result = core.voicevox_synthesizer_synthesis(
+        nativeSynthesizer, audioQueryJson, styleId, options, out);
+
+    if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
+      throw new VoicevoxException("Failed to synthesize audio", result, core::voicevox_error_result_to_message);
+    }
+
+    int length = Math.toIntExact(out.getSize());
+    synthesizedBytes.add(length);
+    return new WavBuffer(core, out.getAddress(), length);
+  }
+
+  /**
+   * {@link AudioQuery}から音声を合成し、ネイティブメモリ上のWAVデータをコピーせずに返します（デフォルトオプション）。
+   *
+   * @param audioQuery オーディオクエリ
+   * @param styleId スタイルID
+   * @return 音声データ（WAVファイル形式）を参照する{@link WavBuffer}。使用後はクローズしてください。
+   * @throws VoicevoxException 音声合成に失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   * @see #synthesis(AudioQuery, int)
+   */
+  public WavBuffer synthesisToBuffer(AudioQuery audioQuery, int styleId) throws VoicevoxException {
+    return synthesisToBuffer(audioQuery, styleId, defaultSynthesisOptions);
+  }
+
+  /**
+   * {@link AudioQuery}から音声を合成し、ネイティブメモリ上のWAVデータをコピーせずに返します（オプション指定）。
+   *
+   * @param audioQuery オーディオクエリ
+   * @param styleId スタイルID
+   * @param options 合成オプション
+   * @return 音声データ（WAVファイル形式）を参照する{@link WavBuffer}。使用後はクローズしてください。
+   * @throws VoicevoxException 音声合成に失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   * @see #synthesis(AudioQuery, int, VoicevoxSynthesisOptions)
+   */
+  public WavBuffer synthesisToBuffer(AudioQuery audioQuery, int styleId, VoicevoxSynthesisOptions options) throws VoicevoxException {
+    ensureNotClosed();
+    NativeOutParams out = NativeOutParams.acquire();
+
+    int result;
+    try (Memory audioQueryJson = audioQuery.toWriter().toNativeMemory()) {
+      result = core.voicevox_synthesizer_synthesis(
+          nativeSynthesizer, audioQueryJson, styleId, options, out);
+    }
+
+    if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
+      throw new VoicevoxException("Failed to synthesize audio", result, core::voicevox_error_result_to_message);
+    }
+
+    int length = Math.toIntExact(out.getSize());
+    synthesizedBytes.add(length);
+    return new WavBuffer(core, out.getAddress(), length);
+  }
+
+  /**
+   * カナからテキスト読み上げを行い、ネイティブメモリ上のWAVデータをコピーせずに返します（デフォルトオプション）。
+   *
+   * @param kana カナ文字列
+   * @param styleId スタイルID
+   * @return 音声データ（WAVファイル形式）を参照する{@link WavBuffer}。使用後はクローズしてください。
+   * @throws VoicevoxException テキスト読み上げに失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   * @see #ttsFromKana(String, int)
+   */
+  public WavBuffer ttsFromKanaToBuffer(String kana, int styleId) throws VoicevoxException {
+    return ttsFromKanaToBuffer(kana, styleId, defaultTtsOptions);
+  }
+
+  /**
+   * カナからテキスト読み上げを行い、ネイティブメモリ上のWAVデータをコピーせずに返します（オプション指定）。
+   *
+   * @param kana カナ文字列
+   * @param styleId スタイルID
+   * @param options TTSオプション
+   * @return 音声データ（WAVファイル形式）を参照する{@link WavBuffer}。使用後はクローズしてください。
+   * @throws VoicevoxException テキスト読み上げに失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   * @see #ttsFromKana(String, int, VoicevoxTtsOptions)
+   */
+  public WavBuffer ttsFromKanaToBuffer(String kana, int styleId, VoicevoxTtsOptions options) throws VoicevoxException {
+    ensureNotClosed();
+    NativeOutParams out = NativeOutParams.acquire();
+
+    int result = core.voicevox_synthesizer_tts_from_kana(
+        nativeSynthesizer, kana, styleId, options, out);
+
+    if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
+      throw new VoicevoxException("Failed to perform TTS from kana", result, core::voicevox_error_result_to_message);
+    }
+
+    int length = Math.toIntExact(out.getSize());
+    synthesizedBytes.add(length);
+    return new WavBuffer(core, out.getAddress(), length);
+  }
+
+  /**
+   * テキストからテキスト読み上げを行い、ネイティブメモリ上のWAVデータをコピーせずに返します（デフォルトオプション）。
+   *
+   * @param text テキスト
+   * @param styleId スタイルID
+   * @return 音声データ（WAVファイル形式）を参照する{@link WavBuffer}。使用後はクローズしてください。
+   * @throws VoicevoxException テキスト読み上げに失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   * @see #tts(String, int)
+   */
+  public WavBuffer ttsToBuffer(String text, int styleId) throws VoicevoxException {
+    return ttsToBuffer(text, styleId, defaultTtsOptions);
+  }
+
+  /**
+   * テキストからテキスト読み上げを行い、ネイティブメモリ上のWAVデータをコピーせずに返します（オプション指定）。
+   *
+   * @param text テキスト
+   * @param styleId スタイルID
+   * @param options TTSオプション
+   * @return 音声データ（WAVファイル形式）を参照する{@link WavBuffer}。使用後はクローズしてください。
+   * @throws VoicevoxException テキスト読み上げに失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   * @see #tts(String, int, VoicevoxTtsOptions)
+   */
+  public WavBuffer ttsToBuffer(String text, int styleId, VoicevoxTtsOptions options) throws VoicevoxException {
+    ensureNotClosed();
+    NativeOutParams out = NativeOutParams.acquire();
+
+    int result = core.voicevox_synthesizer_tts(
+        nativeSynthesizer, text, styleId, options, out);
+
+    if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
+      throw new VoicevoxException("Failed to perform TTS", result, core::voicevox_error_result_to_message);
+    }
+
+    int length = Math.toIntExact(out.getSize());
+    synthesizedBytes.add(length);
+    return new WavBuffer(core, out.getAddress(), length);
+  }
+
+  /**
+   * ネイティブメモリ上のテキストからオーディオクエリを作成し、ネイティブメモリ上のまま返します。
+   * <p>
+   * 入力と結果はJavaの文字列を経由しません。{@link AudioQueryCache}は使用しません。返されたハンドルは使用後にクローズしてください。
+   *
+   * @param text テキスト
+   * @param styleId スタイルID
+   * @return オーディオクエリのJSON
+   * @throws VoicevoxException オーディオクエリの作成に失敗した場合
+   * @throws IllegalStateException このオブジェクト、または{@code text}が既にクローズされている場合
+   * @see #createAudioQuery(String, int)
+   */
+  public NativeText createAudioQueryAsNative(NativeText text, int styleId) throws VoicevoxException {
+    ensureNotClosed();
+    NativeOutParams out = NativeOutParams.acquire();
+    int result;
+    Pointer pointer = text.acquire();
+    try {
+      result = core.voicevox_synthesizer_create_audio_query(nativeSynthesizer, pointer, styleId, out);
+    } finally {
+      text.release();
+    }
+
+    if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
+      throw new VoicevoxException("Failed to create audio query", result, core::voicevox_error_result_to_message);
+    }
+
+    return NativeText.fromJson(core, out.getAddress());
+  }
+
+  /**
+   * ネイティブメモリ上のカナからオーディオクエリを作成し、ネイティブメモリ上のまま返します。
+   * <p>
+   * 入力と結果はJavaの文字列を経由しません。{@link AudioQueryCache}は使用しません。返されたハンドルは使用後にクローズしてください。
+   *
+   * @param kana カナ文字列
+   * @param styleId スタイルID
+   * @return オーディオクエリのJSON
+   * @throws VoicevoxException オーディオクエリの作成に失敗した場合
+   * @throws IllegalStateException このオブジェクト、または{@code kana}が既にクローズされている場合
+   * @see #createAudioQueryFromKana(String, int)
+   */
+  public NativeText createAudioQueryFromKanaAsNative(NativeText kana, int styleId) throws VoicevoxException {
+    ensureNotClosed();
+    NativeOutParams out = NativeOutParams.acquire();
+    int result;
+    Pointer pointer = kana.acquire();
+    try {
+      result = core.voicevox_synthesizer_create_audio_query_from_kana(nativeSynthesizer, pointer, styleId, out);
+    } finally {
+      kana.release();
+    }
+
+    if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
+      throw new VoicevoxException("Failed to create audio query from kana", result, core::voicevox_error_result_to_message);
+    }
+
+    return NativeText.fromJson(core, out.getAddress());
+  }
+
+  /**
+   * ネイティブメモリ上のテキストからアクセント句を作成し、ネイティブメモリ上のまま返します。
+   * <p>
+   * 入力と結果はJavaの文字列を経由しません。{@link AudioQueryCache}は使用しません。返されたハンドルは使用後にクローズしてください。
+   *
+   * @param text テキスト
+   * @param styleId スタイルID
+   * @return アクセント句のJSON
+   * @throws VoicevoxException アクセント句の作成に失敗した場合
+   * @throws IllegalStateException このオブジェクト、または{@code text}が既にクローズされている場合
+   * @see #createAccentPhrases(String, int)
+   */
+  public NativeText createAccentPhrasesAsNative(NativeText text, int styleId) throws VoicevoxException {
+    ensureNotClosed();
+    NativeOutParams out = NativeOutParams.acquire();
+    int result;
+    Pointer pointer = text.acquire();
+    try {
+      result = core.voicevox_synthesizer_create_accent_phrases(nativeSynthesizer, pointer, styleId, out);
+    } finally {
+      text.release();
+    }
+
+    if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
+      throw new VoicevoxException("Failed to create accent phrases", result, core::voicevox_error_result_to_message);
+    }
+
+    return NativeText.fromJson(core, out.getAddress());
+  }
+
+  /**
+   * ネイティブメモリ上のカナからアクセント句を作成し、ネイティブメモリ上のまま返します。
+   * <p>
+   * 入力と結果はJavaの文字列を経由しません。{@link AudioQueryCache}は使用しません。返されたハンドルは使用後にクローズしてください。
+   *
+   * @param kana カナ文字列
+   * @param styleId スタイルID
+   * @return アクセント句のJSON
+   * @throws VoicevoxException アクセント句の作成に失敗した場合
+   * @throws IllegalStateException このオブジェクト、または{@code kana}が既にクローズされている場合
+   * @see #createAccentPhrasesFromKana(String, int)
+   */
+  public NativeText createAccentPhrasesFromKanaAsNative(NativeText kana, int styleId) throws VoicevoxException {
+    ensureNotClosed();
+    NativeOutParams out = NativeOutParams.acquire();
+    int result;
+    Pointer pointer = kana.acquire();
+    try {
+      result = core.voicevox_synthesizer_create_accent_phrases_from_kana(nativeSynthesizer, pointer, styleId, out);
+    } finally {
+      kana.release();
+    }
+
+    if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
+      throw new VoicevoxException("Failed to create accent phrases from kana", result, core::voicevox_error_result_to_message);
+    }
+
+    return NativeText.fromJson(core, out.getAddress());
+  }
+
+  /**
+   * ネイティブメモリ上のオーディオクエリJSONから音声を合成します（デフォルトオプション）。
+   * <p>
+   * 入力はJavaの文字列を経由せずにそのまま渡されます。{@link WavCache}は使用しません。
+   *
+   * @param audioQueryJson オーディオクエリJSON
+   * @param styleId スタイルID
+   * @return 音声データ（WAVファイル形式）
+   * @throws VoicevoxException 音声合成に失敗した場合
+   * @throws IllegalStateException このオブジェクト、または{@code audioQueryJson}が既にクローズされている場合
+   * @see #synthesis(String, int)
+   */
+  public byte[] synthesis(NativeText audioQueryJson, int styleId) throws VoicevoxException {
+    return synthesis(audioQueryJson, styleId, defaultSynthesisOptions);
+  }
+
+  /**
+   * ネイティブメモリ上のオーディオクエリJSONから音声を合成します（オプション指定）。
+   * <p>
+   * 入力はJavaの文字列を経由せずにそのまま渡されます。{@link WavCache}は使用しません。
+   *
+   * @param audioQueryJson オーディオクエリJSON
+   * @param styleId スタイルID
+   * @param options 合成オプション
+   * @return 音声データ（WAVファイル形式）
+   * @throws VoicevoxException 音声合成に失敗した場合
+   * @throws IllegalStateException このオブジェクト、または{@code audioQueryJson}が既にクローズされている場合
+   */
+  public byte[] synthesis(NativeText audioQueryJson, int styleId, VoicevoxSynthesisOptions options) throws VoicevoxException {
+    try (WavBuffer wav = synthesisToBuffer(audioQueryJson, styleId, options)) {
+      return wav.toByteArray();
+    }
+  }
+
+  /**
+   * ネイティブメモリ上のオーディオクエリJSONから音声を合成し、ネイティブメモリ上のWAVデータをコピーせずに返します（デフォルトオプション）。
+   *
+   * @param audioQueryJson オーディオクエリJSON
+   * @param styleId スタイルID
+   * @return 音声データ（WAVファイル形式）を参照する{@link WavBuffer}。使用後はクローズしてください。
+   * @throws VoicevoxException 音声合成に失敗した場合
+   * @throws IllegalStateException このオブジェクト、または{@code audioQueryJson}が既にクローズされている場合
+   */
+  public WavBuffer synthesisToBuffer(NativeText audioQueryJson, int styleId) throws VoicevoxException {
+    return synthesisToBuffer(audioQueryJson, styleId, defaultSynthesisOptions);
+  }
+
+  /**
+   * ネイティブメモリ上のオーディオクエリJSONから音声を合成し、ネイティブメモリ上のWAVデータをコピーせずに返します（オプション指定）。
+   *
+   * @param audioQueryJson オーディオクエリJSON
+   * @param styleId スタイルID
+   * @param options 合成オプション
+   * @return 音声データ（WAVファイル形式）を参照する{@link WavBuffer}。使用後はクローズしてください。
+   * @throws VoicevoxException 音声合成に失敗した場合
+   * @throws IllegalStateException このオブジェクト、または{@code audioQueryJson}が既にクローズされている場合
+   */
+  public WavBuffer synthesisToBuffer(NativeText audioQueryJson, int styleId, VoicevoxSynthesisOptions options) throws VoicevoxException {
+    ensureNotClosed();
+    NativeOutParams out = NativeOutParams.acquire();
+
+    int result;
+    Pointer pointer = audioQueryJson.acquire();
+    try {
+      result = core.voicevox_synthesizer_synthesis(
+          nativeSynthesizer, pointer, styleId, options, out);
+    } finally {
+      audioQueryJson.release();
+    }
+
+    if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
+      throw new VoicevoxException("Failed to synthesize audio", result, core::voicevox_error_result_to_message);
+    }
+
+    int length = Math.toIntExact(out.getSize());
+    synthesizedBytes.add(length);
+    return new WavBuffer(core, out.getAddress(), length);
+  }
+
+  /**
+   * ネイティブメモリ上のカナ文字列からテキスト読み上げを行います（デフォルトオプション）。
+   * <p>
+   * 入力はJavaの文字列を経由せずにそのまま渡されます。{@link WavCache}は使用しません。
+   *
+   * @param kana カナ文字列
+   * @param styleId スタイルID
+   * @return 音声データ（WAVファイル形式）
+   * @throws VoicevoxException テキスト読み上げに失敗した場合
+   * @throws IllegalStateException このオブジェクト、または{@code kana}が既にクローズされている場合
+   * @see #ttsFromKana(String, int)
+   */
+  public byte[] ttsFromKana(NativeText kana, int styleId) throws VoicevoxException {
+    return ttsFromKana(kana, styleId, defaultTtsOptions);
+  }
+
+  /**
+   * ネイティブメモリ上のカナ文字列からテキスト読み上げを行います（オプション指定）。
+   * <p>
+   * 入力はJavaの文字列を経由せずにそのまま渡されます。{@link WavCache}は使用しません。
+   *
+   * @param kana カナ文字列
+   * @param styleId スタイルID
+   * @param options TTSオプション
+   * @return 音声データ（WAVファイル形式）
+   * @throws VoicevoxException テキスト読み上げに失敗した場合
+   * @throws IllegalStateException このオブジェクト、または{@code kana}が既にクローズされている場合
+   */
+  public byte[] ttsFromKana(NativeText kana, int styleId, VoicevoxTtsOptions options) throws VoicevoxException {
+    try (WavBuffer wav = ttsFromKanaToBuffer(kana, styleId, options)) {
+      return wav.toByteArray();
+    }
+  }
+
+  /**
+   * ネイティブメモリ上のカナ文字列からテキスト読み上げを行い、ネイティブメモリ上のWAVデータをコピーせずに返します（デフォルトオプション）。
+   *
+   * @param kana カナ文字列
+   * @param styleId スタイルID
+   * @return 音声データ（WAVファイル形式）を参照する{@link WavBuffer}。使用後はクローズしてください。
+   * @throws VoicevoxException テキスト読み上げに失敗した場合
+   * @throws IllegalStateException このオブジェクト、または{@code kana}が既にクローズされている場合
+   */
+  public WavBuffer ttsFromKanaToBuffer(NativeText kana, int styleId) throws VoicevoxException {
+    return ttsFromKanaToBuffer(kana, styleId, defaultTtsOptions);
+  }
+
+  /**
+   * ネイティブメモリ上のカナ文字列からテキスト読み上げを行い、ネイティブメモリ上のWAVデータをコピーせずに返します（オプション指定）。
+   *
+   * @param kana カナ文字列
+   * @param styleId スタイルID
+   * @param options TTSオプション
+   * @return 音声データ（WAVファイル形式）を参照する{@link WavBuffer}。使用後はクローズしてください。
+   * @throws VoicevoxException テキスト読み上げに失敗した場合
+   * @throws IllegalStateException このオブジェクト、または{@code kana}が既にクローズされている場合
+   */
+  public WavBuffer ttsFromKanaToBuffer(NativeText kana, int styleId, VoicevoxTtsOptions options) throws VoicevoxException {
+    ensureNotClosed();
+    NativeOutParams out = NativeOutParams.acquire();
+
+    int result;
+    Pointer pointer = kana.acquire();
+    try {
+      result = core.voicevox_synthesizer_tts_from_kana(
+          nativeSynthesizer, pointer, styleId, options, out);
+    } finally {
+      kana.release();
+    }
+
+    if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
+      throw new VoicevoxException("Failed to perform TTS from kana", result, core::voicevox_error_result_to_message);
+    }
+
+    int length = Math.toIntExact(out.getSize());
+    synthesizedBytes.add(length);
+    return new WavBuffer(core, out.getAddress(), length);
+  }
+
+  /**
+   * ネイティブメモリ上のテキストからテキスト読み上げを行います（デフォルトオプション）。
+   * <p>
+   * 入力はJavaの文字列を経由せずにそのまま渡されます。{@link WavCache}は使用しません。
+   *
+   * @param text テキスト
+   * @param styleId スタイルID
+   * @return 音声データ（WAVファイル形式）
+   * @throws VoicevoxException テキスト読み上げに失敗した場合
+   * @throws IllegalStateException このオブジェクト、または{@code text}が既にクローズされている場合
+   * @see #tts(String, int)
+   */
+  public byte[] tts(NativeText text, int styleId) throws VoicevoxException {
+    return tts(text, styleId, defaultTtsOptions);
+  }
+
+  /**
+   * ネイティブメモリ上のテキストからテキスト読み上げを行います（オプション指定）。
+   * <p>
+   * 入力はJavaの文字列を経由せずにそのまま渡されます。{@link WavCache}は使用しません。
+   *
+   * @param text テキスト
+   * @param styleId スタイルID
+   * @param options TTSオプション
+   * @return 音声データ（WAVファイル形式）
+   * @throws VoicevoxException テキスト読み上げに失敗した場合
+   * @throws IllegalStateException このオブジェクト、または{@code text}が既にクローズされている場合
+   */
+  public byte[] tts(NativeText text, int styleId, VoicevoxTtsOptions options) throws VoicevoxException {
+    try (WavBuffer wav = ttsToBuffer(text, styleId, options)) {
+      return wav.toByteArray();
+    }
+  }
+
+  /**
+   * ネイティブメモリ上のテキストからテキスト読み上げを行い、ネイティブメモリ上のWAVデータをコピーせずに返します（デフォルトオプション）。
+   *
+   * @param text テキスト
+   * @param styleId スタイルID
+   * @return 音声データ（WAVファイル形式）を参照する{@link WavBuffer}。使用後はクローズしてください。
+   * @throws VoicevoxException テキスト読み上げに失敗した場合
+   * @throws IllegalStateException このオブジェクト、または{@code text}が既にクローズされている場合
+   */
+  public WavBuffer ttsToBuffer(NativeText text, int styleId) throws VoicevoxException {
+    return ttsToBuffer(text, styleId, defaultTtsOptions);
+  }
+
+  /**
+   * ネイティブメモリ上のテキストからテキスト読み上げを行い、ネイティブメモリ上のWAVデータをコピーせずに返します（オプション指定）。
+   *
+   * @param text テキスト
+   * @param styleId スタイルID
+   * @param options TTSオプション
+   * @return 音声データ（WAVファイル形式）を参照する{@link WavBuffer}。使用後はクローズしてください。
+   * @throws VoicevoxException テキスト読み上げに失敗した場合
+   * @throws IllegalStateException このオブジェクト、または{@code text}が既にクローズされている場合
+   */
+  public WavBuffer ttsToBuffer(NativeText text, int styleId, VoicevoxTtsOptions options) throws VoicevoxException {
+    ensureNotClosed();
+    NativeOutParams out = NativeOutParams.acquire();
+
+    int result;
+    Pointer pointer = text.acquire();
+    try {
+      result = core.voicevox_synthesizer_tts(
+          nativeSynthesizer, pointer, styleId, options, out);
+    } finally {
+      text.release();
+    }
+
+    if (result != VoicevoxResultCode.VOICEVOX_RESULT_OK) {
+      throw new VoicevoxException("Failed to perform TTS", result, core::voicevox_error_result_to_message);
+    }
+
+    int length = Math.toIntExact(out.getSize());
+    synthesizedBytes.add(length);
+    return new WavBuffer(core, out.getAddress(), length);
+  }
+
+  /**
+   * 音声を合成し、WAVデータを指定したチャネルへ直接書き込みます（デフォルトオプション）。
+   * <p>
+   * WAVデータはネイティブメモリから書き込まれ、書き込み後に解放されます。Javaヒープ上にWAV全体の配列は作成されません。
+   *
+   * @param audioQueryJson オーディオクエリJSON
+   * @param styleId スタイルID
+   * @param channel 書き込み先のチャネル
+   * @return 書き込んだバイト数
+   * @throws VoicevoxException 音声合成に失敗した場合
+   * @throws IOException 書き込みに失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public int synthesis(String audioQueryJson, int styleId, WritableByteChannel channel) throws VoicevoxException, IOException {
+    return synthesis(audioQueryJson, styleId, defaultSynthesisOptions, channel);
+  }
+
+  /**
+   * 音声を合成し、WAVデータを指定したチャネルへ直接書き込みます（オプション指定）。
+   *
+   * @param audioQueryJson オーディオクエリJSON
+   * @param styleId スタイルID
+   * @param options 合成オプション
+   * @param channel 書き込み先のチャネル
+   * @return 書き込んだバイト数
+   * @throws VoicevoxException 音声合成に失敗した場合
+   * @throws IOException 書き込みに失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public int synthesis(String audioQueryJson, int styleId, VoicevoxSynthesisOptions options, WritableByteChannel channel) throws VoicevoxException, IOException {
+    ensureNotClosed();
+    WavCache cache = wavCache;
+    WavCache.Key key = wavCacheKey(cache, WavCache.Kind.SYNTHESIS, audioQueryJson, styleId, options.isEnableInterrogativeUpspeak());
+    if (key != null) {
+      int written = cache.writeTo(key, channel);
+      if (written >= 0) {
+        return written;
+      }
+    }
+    try (WavBuffer wav = synthesisToBuffer(audioQueryJson, styleId, options)) {
+      if (key != null) {
+        cache.put(key, wav.asByteBuffer());
+      }
+      return wav.writeTo(channel);
+    }
+  }
+
+  /**
+   * 音声を合成し、WAVデータを指定したストリームへ直接書き込みます（デフォルトオプション）。
+   * <p>
+   * WAVデータはネイティブメモリから書き込まれ、書き込み後に解放されます。Javaヒープ上にWAV全体の配列は作成されません。
+   *
+   * @param audioQueryJson オーディオクエリJSON
+   * @param styleId スタイルID
+   * @param outputStream 書き込み先のストリーム
+   * @return 書き込んだバイト数
+   * @throws VoicevoxException 音声合成に失敗した場合
+   * @throws IOException 書き込みに失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public int synthesis(String audioQueryJson, int styleId, OutputStream outputStream) throws VoicevoxException, IOException {
+    return synthesis(audioQueryJson, styleId, defaultSynthesisOptions, Channels.newChannel(outputStream));
+  }
+
+  /**
+   * 音声を合成し、WAVデータを指定したストリームへ直接書き込みます（オプション指定）。
+   *
+   * @param audioQueryJson オーディオクエリJSON
+   * @param styleId スタイルID
+   * @param options 合成オプション
+   * @param outputStream 書き込み先のストリーム
+   * @return 書き込んだバイト数
+   * @throws VoicevoxException 音声合成に失敗した場合
+   * @throws IOException 書き込みに失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public int synthesis(String audioQueryJson, int styleId, VoicevoxSynthesisOptions options, OutputStream outputStream) throws VoicevoxException, IOException {
+    return synthesis(audioQueryJson, styleId, options, Channels.newChannel(outputStream));
+  }
+
+  /**
+   * カナからテキスト読み上げを行い、WAVデータを指定したチャネルへ直接書き込みます（デフォルトオプション）。
+   * <p>
+   * WAVデータはネイティブメモリから書き込まれ、書き込み後に解放されます。Javaヒープ上にWAV全体の配列は作成されません。
+   *
+   * @param kana カナ文字列
+   * @param styleId スタイルID
+   * @param channel 書き込み先のチャネル
+   * @return 書き込んだバイト数
+   * @throws VoicevoxException テキスト読み上げに失敗した場合
+   * @throws IOException 書き込みに失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public int ttsFromKana(String kana, int styleId, WritableByteChannel channel) throws VoicevoxException, IOException {
+    return ttsFromKana(kana, styleId, defaultTtsOptions, channel);
+  }
+
+  /**
+   * カナからテキスト読み上げを行い、WAVデータを指定したチャネルへ直接書き込みます（オプション指定）。
+   *
+   * @param kana カナ文字列
+   * @param styleId スタイルID
+   * @param options TTSオプション
+   * @param channel 書き込み先のチャネル
+   * @return 書き込んだバイト数
+   * @throws VoicevoxException テキスト読み上げに失敗した場合
+   * @throws IOException 書き込みに失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public int ttsFromKana(String kana, int styleId, VoicevoxTtsOptions options, WritableByteChannel channel) throws VoicevoxException, IOException {
+    ensureNotClosed();
+    WavCache cache = wavCache;
+    WavCache.Key key = wavCacheKey(cache, WavCache.Kind.TTS_FROM_KANA, kana, styleId, options.isEnableInterrogativeUpspeak());
+    if (key != null) {
+      int written = cache.writeTo(key, channel);
+      if (written >= 0) {
+        return written;
+      }
+    }
+    try (WavBuffer wav = ttsFromKanaToBuffer(kana, styleId, options)) {
+      if (key != null) {
+        cache.put(key, wav.asByteBuffer());
+      }
+      return wav.writeTo(channel);
+    }
+  }
+
+  /**
+   * カナからテキスト読み上げを行い、WAVデータを指定したストリームへ直接書き込みます（デフォルトオプション）。
+   * <p>
+   * WAVデータはネイティブメモリから書き込まれ、書き込み後に解放されます。Javaヒープ上にWAV全体の配列は作成されません。
+   *
+   * @param kana カナ文字列
+   * @param styleId スタイルID
+   * @param outputStream 書き込み先のストリーム
+   * @return 書き込んだバイト数
+   * @throws VoicevoxException テキスト読み上げに失敗した場合
+   * @throws IOException 書き込みに失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public int ttsFromKana(String kana, int styleId, OutputStream outputStream) throws VoicevoxException, IOException {
+    return ttsFromKana(kana, styleId, defaultTtsOptions, Channels.newChannel(outputStream));
+  }
+
+  /**
+   * カナからテキスト読み上げを行い、WAVデータを指定したストリームへ直接書き込みます（オプション指定）。
+   *
+   * @param kana カナ文字列
+   * @param styleId スタイルID
+   * @param options TTSオプション
+   * @param outputStream 書き込み先のストリーム
+   * @return 書き込んだバイト数
+   * @throws VoicevoxException テキスト読み上げに失敗した場合
+   * @throws IOException 書き込みに失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public int ttsFromKana(String kana, int styleId, VoicevoxTtsOptions options, OutputStream outputStream) throws VoicevoxException, IOException {
+    return ttsFromKana(kana, styleId, options, Channels.newChannel(outputStream));
+  }
+
+  /**
+   * テキストからテキスト読み上げを行い、WAVデータを指定したチャネルへ直接書き込みます（デフォルトオプション）。
+   * <p>
+   * WAVデータはネイティブメモリから書き込まれ、書き込み後に解放されます。Javaヒープ上にWAV全体の配列は作成されません。
+   *
+   * @param text テキスト
+   * @param styleId スタイルID
+   * @param channel 書き込み先のチャネル
+   * @return 書き込んだバイト数
+   * @throws VoicevoxException テキスト読み上げに失敗した場合
+   * @throws IOException 書き込みに失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public int tts(String text, int styleId, WritableByteChannel channel) throws VoicevoxException, IOException {
+    return tts(text, styleId, defaultTtsOptions, channel);
+  }
+
+  /**
+   * テキストからテキスト読み上げを行い、WAVデータを指定したチャネルへ直接書き込みます（オプション指定）。
+   *
+   * @param text テキスト
+   * @param styleId スタイルID
+   * @param options TTSオプション
+   * @param channel 書き込み先のチャネル
+   * @return 書き込んだバイト数
+   * @throws VoicevoxException テキスト読み上げに失敗した場合
+   * @throws IOException 書き込みに失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public int tts(String text, int styleId, VoicevoxTtsOptions options, WritableByteChannel channel) throws VoicevoxException, IOException {
+    ensureNotClosed();
+    WavCache cache = wavCache;
+    WavCache.Key key = wavCacheKey(cache, WavCache.Kind.TTS, text, styleId, options.isEnableInterrogativeUpspeak());
+    if (key != null) {
+      int written = cache.writeTo(key, channel);
+      if (written >= 0) {
+        return written;
+      }
+    }
+    try (WavBuffer wav = ttsToBuffer(text, styleId, options)) {
+      if (key != null) {
+        cache.put(key, wav.asByteBuffer());
+      }
+      return wav.writeTo(channel);
+    }
+  }
+
+  /**
+   * テキストからテキスト読み上げを行い、WAVデータを指定したストリームへ直接書き込みます（デフォルトオプション）。
+   * <p>
+   * WAVデータはネイティブメモリから書き込まれ、書き込み後に解放されます。Javaヒープ上にWAV全体の配列は作成されません。
+   *
+   * @param text テキスト
+   * @param styleId スタイルID
+   * @param outputStream 書き込み先のストリーム
+   * @return 書き込んだバイト数
+   * @throws VoicevoxException テキスト読み上げに失敗した場合
+   * @throws IOException 書き込みに失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public int tts(String text, int styleId, OutputStream outputStream) throws VoicevoxException, IOException {
+    return tts(text, styleId, defaultTtsOptions, Channels.newChannel(outputStream));
+  }
+
+  /**
+   * テキストからテキスト読み上げを行い、WAVデータを指定したストリームへ直接書き込みます（オプション指定）。
+   *
+   * @param text テキスト
+   * @param styleId スタイルID
+   * @param options TTSオプション
+   * @param outputStream 書き込み先のストリーム
+   * @return 書き込んだバイト数
+   * @throws VoicevoxException テキスト読み上げに失敗した場合
+   * @throws IOException 書き込みに失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public int tts(String text, int styleId, VoicevoxTtsOptions options, OutputStream outputStream) throws VoicevoxException, IOException {
+    return tts(text, styleId, options, Channels.newChannel(outputStream));
+  }
+
+  /**
+   * 音声合成結果のキャッシュを設定します。
+   * <p>
+   * キャッシュを設定すると、WAVデータを返す{@code synthesis}、{@code tts}、{@code ttsFromKana}と、
+   * チャネルまたはストリームへ書き込む同名のメソッドは、同じ入力に対してキャッシュしたWAVデータを返します。
+   * {@code *ToBuffer}メソッドは常にネイティブの合成結果を返すため、キャッシュを使用しません。
+   * キャッシュはスタイルを含む音声モデルが読み込まれている場合にのみ使用されます。
+   *
+   * @param cache 使用するキャッシュ。nullを指定するとキャッシュを使用しません
+   */
+  public void setWavCache(WavCache cache) {
+    this.wavCache = cache;
+  }
+
+  /**
+   * 設定されている音声合成結果のキャッシュを取得します。
+   *
+   * @return キャッシュ。設定されていない場合はnull
+   */
+  public WavCache getWavCache() {
+    return wavCache;
+  }
+
+  private WavCache.Key wavCacheKey(WavCache cache, WavCache.Kind kind, String input, int styleId,
+                                   boolean interrogativeUpspeak) {
+    if (cache == null) {
+      return null;
+    }
+    byte[] modelId = styleIndex.modelIdOf(styleId);
+    if (modelId == null) {
+      return null;
+    }
+    String version = coreVersion;
+    if (version == null) {
+      version = core.voicevox_get_version();
+      coreVersion = version;
     }
+    // AudioQueryからの合成は読みが確定しているため、ユーザー辞書の状態に依存しない
+    long userDictStamp = kind == WavCache.Kind.SYNTHESIS ? 0 : openJtalk.getUserDictStamp();
+    return WavCache.key(kind, input, styleId, interrogativeUpspeak, modelId, version, userDictStamp);
   }
 
   /**
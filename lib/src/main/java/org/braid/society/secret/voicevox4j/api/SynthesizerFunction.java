@@ -0,0 +1,22 @@
+package org.braid.society.secret.voicevox4j.api;
+
+import org.braid.society.secret.voicevox4j.exception.VoicevoxException;
+
+/**
+ * {@link Synthesizer}を受け取って処理を行う関数です。
+ *
+ * @param <T> 処理結果の型
+ * @see SynthesizerPool#withSynthesizer(SynthesizerFunction)
+ */
+@FunctionalInterface
+public interface SynthesizerFunction<T> {
+
+  /**
+   * 指定された合成器で処理を行います。
+   *
+   * @param synthesizer 使用する合成器
+   * @return 処理結果
+   * @throws VoicevoxException ネイティブライブラリの関数呼び出しが成功以外を返した場合
+   */
+  T apply(Synthesizer synthesizer) throws VoicevoxException;
+}
@@ -0,0 +1,456 @@
+package org.braid.society.secret.voicevox4j.api;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.exception.VoicevoxException;
+import org.braid.society.secret.voicevox4j.internal.Core;
+import org.braid.society.secret.voicevox4j.internal.Futures;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxInitializeOptions;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxOnnxruntime;
+
+/**
+ * 複数の{@link Synthesizer}を保持し、スレッド間で貸し出すためのプール。
+ * <p>
+ * プール内のすべての合成器は、同じONNXランタイムとOpenJTalk辞書を共有し、同じ音声モデルを読み込んだ状態で作成されます。
+ * 合成器は{@link #borrow()}と{@link #release(Synthesizer)}で貸し借りするか、
+ * {@link #withSynthesizer(SynthesizerFunction)}で処理の間だけ借りることができます。
+ * <p>
+ * 各合成器の{@code cpu_num_threads}とプールのサイズを組み合わせることで、
+ * 1リクエストあたりの推論スレッド数と同時に処理できるリクエスト数のバランスを調整できます。
+ * <p>
+ * 共有しているOpenJTalk辞書と音声モデルファイルはこのプールの所有物ではないため、
+ * プールをクローズした後に呼び出し側でクローズしてください。
+ */
+@Slf4j
+public class SynthesizerPool implements Closeable, AutoCloseable {
+
+  private static final long CLOSE_CHECK_INTERVAL_MILLIS = 100;
+
+  private final List<Synthesizer> members;
+  private final BlockingQueue<Synthesizer> idle;
+  private final Map<Synthesizer, Lease> borrowed = new ConcurrentHashMap<>();
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+  private volatile AdaptiveConcurrencyLimiter limiter;
+
+  /**
+   * 合成器のプールを作成します。
+   * <p>
+   * 指定した数の合成器を作成し、それぞれに指定した音声モデルを読み込みます。
+   * 途中で失敗した場合は、それまでに作成した合成器をクローズしてから例外を送出します。
+   *
+   * @param onnxruntime 共有するONNXランタイム
+   * @param openJtalk 共有するOpenJTalk辞書
+   * @param models 各合成器に読み込む音声モデル
+   * @param size プールする合成器の数
+   * @param options 各合成器の初期化オプション
+   * @param core Coreインターフェース
+   * @throws VoicevoxException 合成器の作成、または音声モデルの読み込みに失敗した場合
+   * @throws IllegalArgumentException {@code size}が1未満の場合
+   */
+  public SynthesizerPool(VoicevoxOnnxruntime onnxruntime, OpenJTalkDictionary openJtalk, List<VoiceModelFile> models,
+                         int size, VoicevoxInitializeOptions options, Core core) throws VoicevoxException {
+    if (size < 1) {
+      throw new IllegalArgumentException("Pool size must be positive: " + size);
+    }
+    List<Synthesizer> created = new ArrayList<>(size);
+    try {
+      for (int i = 0; i < size; i++) {
+        Synthesizer synthesizer = new Synthesizer(onnxruntime, openJtalk, options, core);
+        created.add(synthesizer);
+        for (VoiceModelFile model : models) {
+          synthesizer.loadVoiceModel(model);
+        }
+      }
+    } catch (VoicevoxException | RuntimeException e) {
+      created.forEach(Synthesizer::close);
+      throw e;
+    }
+    this.members = Collections.unmodifiableList(created);
+    this.idle = new ArrayBlockingQueue<>(size, false, created);
+    log.debug("SynthesizerPool created with {} synthesizers (cpu_num_threads={}, models={})",
+        size, options.cpu_num_threads, models.size());
+  }
+
+  /**
+   * 既存の合成器からプールを作成します。
+   * <p>
+   * 渡した合成器の所有権はプールに移り、プールのクローズ時にクローズされます。
+   *
+   * @param synthesizers プールする合成器
+   * @throws IllegalArgumentException {@code synthesizers}が空であるか、同じ合成器が重複して含まれている場合
+   */
+  public SynthesizerPool(List<Synthesizer> synthesizers) {
+    if (synthesizers.isEmpty()) {
+      throw new IllegalArgumentException("Pool requires at least one synthesizer");
+    }
+    if (Set.copyOf(synthesizers).size() != synthesizers.size()) {
+      throw new IllegalArgumentException("Pool must not contain the same synthesizer twice");
+    }
+    this.members = List.copyOf(synthesizers);
+    this.idle = new ArrayBlockingQueue<>(members.size(), false, members);
+    log.debug("SynthesizerPool created from {} existing synthesizers", members.size());
+  }
+
+  /**
+   * 合成器を借り、指定した処理を実行してから返却します。
+   * <p>
+   * 空いている合成器がない場合は、いずれかが返却されるまで待機します。
+   *
+   * @param function 借りた合成器で実行する処理
+   * @param <T> 処理結果の型
+   * @return 処理結果
+   * @throws VoicevoxException 処理中にネイティブライブラリの関数呼び出しが失敗した場合
+   * @throws InterruptedException 待機中に割り込まれた場合
+   * @throws IllegalStateException このプールが既にクローズされている場合
+   */
+  public <T> T withSynthesizer(SynthesizerFunction<T> function) throws VoicevoxException, InterruptedException {
+    Objects.requireNonNull(function, "function");
+    Synthesizer synthesizer = borrow();
+    try {
+      return function.apply(synthesizer);
+    } finally {
+      release(synthesizer);
+    }
+  }
+
+  /**
+   * 合成器を借ります。空いている合成器がない場合は、いずれかが返却されるまで待機します。
+   * <p>
+   * 借りた合成器は、使用後に必ず{@link #release(Synthesizer)}で返却してください。
+   *
+   * @return 借りた合成器
+   * @throws InterruptedException 待機中に割り込まれた場合
+   * @throws IllegalStateException このプールが既にクローズされている場合
+   */
+  public Synthesizer borrow() throws InterruptedException {
+    AdaptiveConcurrencyLimiter permits = limiter;
+    if (permits != null) {
+      do {
+        ensureNotClosed();
+      } while (!permits.tryAcquire(CLOSE_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS));
+    }
+    try {
+      while (true) {
+        ensureNotClosed();
+        // クローズ後に待機し続けないよう、一定間隔で状態を確認する
+        Synthesizer synthesizer = idle.poll(CLOSE_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        if (synthesizer != null) {
+          return checkOut(synthesizer, permits);
+        }
+      }
+    } catch (InterruptedException | RuntimeException e) {
+      if (permits != null) {
+        permits.abandon();
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * 合成器を借ります。空いている合成器がない場合は、指定した時間まで待機します。
+   *
+   * @param timeout 待機する最大時間
+   * @param unit {@code timeout}の単位
+   * @return 借りた合成器。時間内に借りられなかった場合はnull
+   * @throws InterruptedException 待機中に割り込まれた場合
+   * @throws IllegalStateException このプールが既にクローズされている場合
+   */
+  public Synthesizer borrow(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    long checkInterval = TimeUnit.MILLISECONDS.toNanos(CLOSE_CHECK_INTERVAL_MILLIS);
+    AdaptiveConcurrencyLimiter permits = limiter;
+    if (permits != null) {
+      while (true) {
+        ensureNotClosed();
+        long remaining = deadline - System.nanoTime();
+        if (permits.tryAcquire(Math.min(Math.max(remaining, 0), checkInterval), TimeUnit.NANOSECONDS)) {
+          break;
+        }
+        if (remaining <= 0) {
+          return null;
+        }
+      }
+    }
+    Synthesizer synthesizer = null;
+    try {
+      while (true) {
+        ensureNotClosed();
+        long remaining = deadline - System.nanoTime();
+        synthesizer = idle.poll(Math.min(Math.max(remaining, 0), checkInterval), TimeUnit.NANOSECONDS);
+        if (synthesizer != null) {
+          return checkOut(synthesizer, permits);
+        }
+        if (remaining <= 0) {
+          return null;
+        }
+      }
+    } catch (InterruptedException | RuntimeException e) {
+      synthesizer = null;
+      throw e;
+    } finally {
+      if (synthesizer == null && permits != null) {
+        permits.abandon();
+      }
+    }
+  }
+
+  private Synthesizer checkOut(Synthesizer synthesizer, AdaptiveConcurrencyLimiter permits) {
+    borrowed.put(synthesizer, new Lease(permits, System.nanoTime(), synthesizer.getSynthesizedBytes()));
+    if (closed.get()) {
+      // クローズと競合した場合は貸し出さずに後始末する。許可は呼び出し元で返却する
+      borrowed.remove(synthesizer);
+      giveBack(synthesizer);
+      throw new IllegalStateException("SynthesizerPool is already closed");
+    }
+    return synthesizer;
+  }
+
+  /**
+   * 借りた合成器を返却します。
+   * <p>
+   * プールが既にクローズされている場合、返却された合成器はその場でクローズされます。
+   *
+   * @param synthesizer 返却する合成器
+   * @throws IllegalArgumentException このプールから借りていない合成器を渡した場合
+   */
+  public void release(Synthesizer synthesizer) {
+    Lease lease = borrowed.remove(synthesizer);
+    if (lease == null) {
+      throw new IllegalArgumentException("Synthesizer was not borrowed from this pool");
+    }
+    if (lease.permits != null) {
+      lease.permits.release(System.nanoTime() - lease.borrowedAt,
+          synthesizer.getSynthesizedBytes() - lease.synthesizedBytesAtBorrow);
+    }
+    giveBack(synthesizer);
+  }
+
+  private void giveBack(Synthesizer synthesizer) {
+    if (closed.get()) {
+      synthesizer.close();
+      return;
+    }
+    idle.add(synthesizer);
+    if (closed.get() && idle.remove(synthesizer)) {
+      synthesizer.close();
+    }
+  }
+
+  /**
+   * 同時に借りられる合成器の数を、所要時間に応じて調整するリミッターを設定します。
+   * <p>
+   * 設定すると、借りてから返却するまでの時間と、その間に合成したWAVデータの量がリミッターで計測され、
+   * 同時に借りられる数はプールのサイズと
+   * リミッターの上限の小さい方になります。既に貸し出し中の合成器は、借りた時点のリミッターに返却されます。
+   *
+   * @param limiter 使用するリミッター。nullを指定すると、プールのサイズまで制限なく貸し出します
+   * @see AdaptiveConcurrencyLimiter
+   */
+  public void setConcurrencyLimiter(AdaptiveConcurrencyLimiter limiter) {
+    this.limiter = limiter;
+  }
+
+  /**
+   * 貸し出し中の合成器を借りた時刻と、その時点で合成器が出力していたWAVデータの量、その際に取得したリミッターの許可です。
+   */
+  private static final class Lease {
+
+    private final AdaptiveConcurrencyLimiter permits;
+    private final long borrowedAt;
+    private final long synthesizedBytesAtBorrow;
+
+    private Lease(AdaptiveConcurrencyLimiter permits, long borrowedAt, long synthesizedBytesAtBorrow) {
+      this.permits = permits;
+      this.borrowedAt = borrowedAt;
+      this.synthesizedBytesAtBorrow = synthesizedBytesAtBorrow;
+    }
+  }
+
+  /**
+   * プールしているすべての合成器に、共有するAudioQueryのキャッシュを設定します。
+   *
+   * @param cache 使用するキャッシュ。nullを指定するとキャッシュを使用しません
+   * @see Synthesizer#setAudioQueryCache(AudioQueryCache)
+   */
+  public void setAudioQueryCache(AudioQueryCache cache) {
+    for (Synthesizer synthesizer : members) {
+      synthesizer.setAudioQueryCache(cache);
+    }
+  }
+
+  /**
+   * プールしているすべての合成器に、共有する音声合成結果のキャッシュを設定します。
+   *
+   * @param cache 使用するキャッシュ。nullを指定するとキャッシュを使用しません
+   * @see Synthesizer#setWavCache(WavCache)
+   */
+  public void setWavCache(WavCache cache) {
+    for (Synthesizer synthesizer : members) {
+      synthesizer.setWavCache(cache);
+    }
+  }
+
+  /**
+   * 既定の発話で、プールしているすべての合成器を呼び出し元のスレッドでウォームアップします。
+   *
+   * @throws VoicevoxException いずれかの合成器でダミーの読み上げに失敗した場合
+   * @throws InterruptedException 完了を待つ間に割り込まれた場合
+   * @throws IllegalStateException このプールが既にクローズされている場合
+   * @see #warmup(List)
+   */
+  public void warmup() throws VoicevoxException, InterruptedException {
+    warmup(Synthesizer.DEFAULT_WARMUP_UTTERANCES);
+  }
+
+  /**
+   * プールしているすべての合成器を、呼び出し元のスレッドで順番にウォームアップします。
+   * <p>
+   * 貸し出し中の合成器も含めてウォームアップするため、トラフィックを受け付ける前に呼び出してください。
+   * 完了すると{@link #isReady()}がtrueになります。合成器を並行にウォームアップする場合は{@link #warmup(List, Executor)}を使用してください。
+   *
+   * @param utterances ダミーの発話
+   * @throws VoicevoxException いずれかの合成器でダミーの読み上げに失敗した場合
+   * @throws InterruptedException 完了を待つ間に割り込まれた場合
+   * @throws IllegalStateException このプールが既にクローズされている場合
+   * @see Synthesizer#warmup(List)
+   */
+  public void warmup(List<String> utterances) throws VoicevoxException, InterruptedException {
+    ensureNotClosed();
+    Objects.requireNonNull(utterances, "utterances");
+    for (Synthesizer synthesizer : members) {
+      synthesizer.warmup(utterances);
+    }
+    log.debug("SynthesizerPool warmed up {} synthesizers", members.size());
+  }
+
+  /**
+   * プールしているすべての合成器を、指定したエグゼキューターで並行にウォームアップします。
+   * <p>
+   * 合成器ごとに1つのタスクを投入し、各合成器の音声モデルはそのタスクの中で順番にウォームアップします。
+   * このメソッドはスレッドを作成しないため、同時に実行される数はエグゼキューターによって決まります。
+   * いずれかのタスクが失敗すると、残りのタスクはキャンセルされます。
+   * <p>
+   * 貸し出し中の合成器も含めてウォームアップするため、トラフィックを受け付ける前に呼び出してください。
+   * 完了すると{@link #isReady()}がtrueになります。
+   *
+   * @param utterances ダミーの発話
+   * @param executor 合成器ごとのタスクを実行するエグゼキューター
+   * @throws VoicevoxException いずれかの合成器でダミーの読み上げに失敗した場合
+   * @throws InterruptedException 完了を待つ間に割り込まれた場合
+   * @throws IllegalStateException このプールが既にクローズされている場合
+   * @see Synthesizer#warmup(List)
+   */
+  public void warmup(List<String> utterances, Executor executor) throws VoicevoxException, InterruptedException {
+    ensureNotClosed();
+    Objects.requireNonNull(utterances, "utterances");
+    Objects.requireNonNull(executor, "executor");
+    List<FutureTask<Void>> tasks = new ArrayList<>(members.size());
+    try {
+      for (Synthesizer synthesizer : members) {
+        FutureTask<Void> task = new FutureTask<>(() -> {
+          synthesizer.warmup(utterances);
+          return null;
+        });
+        tasks.add(task);
+        executor.execute(task);
+      }
+      for (FutureTask<Void> task : tasks) {
+        Futures.await(task);
+      }
+    } finally {
+      // 失敗や割り込みで待機をやめた場合は、まだ始まっていないタスクを実行させない
+      for (FutureTask<Void> task : tasks) {
+        task.cancel(false);
+      }
+    }
+    log.debug("SynthesizerPool warmed up {} synthesizers", members.size());
+  }
+
+  /**
+   * プールしているすべての合成器のウォームアップが完了しているかどうかを確認します。
+   * ロードバランサーのヘルスチェックなどで、トラフィックを受け付けるかどうかの判断に使用できます。
+   *
+   * @return すべての合成器の{@link Synthesizer#isReady()}がtrueの場合はtrue
+   */
+  public boolean isReady() {
+    for (Synthesizer synthesizer : members) {
+      if (!synthesizer.isReady()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * プールしている合成器の数を取得します。
+   *
+   * @return プールのサイズ
+   */
+  public int size() {
+    return members.size();
+  }
+
+  /**
+   * プールしているすべての合成器を、貸し出し中のものも含めて取得します。
+   * 音声モデルの読み込みなど、すべての合成器に同じ操作を行う場合に使用します。
+   *
+   * @return プールしている合成器の変更不可能なリスト
+   */
+  List<Synthesizer> members() {
+    return members;
+  }
+
+  /**
+   * 現在貸し出し可能な合成器の数を取得します。
+   *
+   * @return 空いている合成器の数
+   */
+  public int available() {
+    return idle.size();
+  }
+
+  /**
+   * このプールがクローズされているかどうかを確認します。
+   *
+   * @return クローズされている場合はtrue
+   */
+  public boolean isClosed() {
+    return closed.get();
+  }
+
+  private void ensureNotClosed() {
+    if (closed.get()) {
+      throw new IllegalStateException("SynthesizerPool is already closed");
+    }
+  }
+
+  /**
+   * プールをクローズします。
+   * <p>
+   * 空いている合成器はすぐにクローズされ、貸し出し中の合成器は返却された時点でクローズされます。
+   * このメソッドは複数回呼び出しても安全です。
+   */
+  @Override
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      Synthesizer synthesizer;
+      while ((synthesizer = idle.poll()) != null) {
+        synthesizer.close();
+      }
+      log.debug("SynthesizerPool closed ({} synthesizers still borrowed)", borrowed.size());
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package org.braid.society.secret.voicevox4j.api;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import org.braid.society.secret.voicevox4j.internal.SentenceSplitter;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxTtsOptions;
+
+/**
+ * テキストを文ごとに合成し、{@link AudioChunk}として順に出力するパブリッシャー。
+ * <p>
+ * 購読ごとに独立して合成を行います。最初の文はAudioQueryを作成した上で、最初の無音（読点など）までのアクセント句と
+ * 残りのアクセント句に分けて合成するため、最初のチャンクは文全体の抑揚を保ったまま、より早く出力されます。
+ *
+ * @see ChunkPipeline
+ */
+final class TtsPublisher implements Flow.Publisher<AudioChunk> {
+
+  private final AsyncSynthesizer async;
+  private final int window;
+  private final String text;
+  private final int styleId;
+  private final VoicevoxTtsOptions options;
+
+  TtsPublisher(AsyncSynthesizer async, int window, String text, int styleId, VoicevoxTtsOptions options) {
+    this.async = async;
+    this.window = window;
+    this.text = Objects.requireNonNull(text, "text");
+    this.styleId = styleId;
+    this.options = options;
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super AudioChunk> subscriber) {
+    Objects.requireNonNull(subscriber, "subscriber");
+    ChunkPipeline pipeline = new ChunkPipeline(async, window, styleId, options, subscriber);
+    // 空のテキストではseal()の時点で完了が通知されるため、先にonSubscribeを呼び出す
+    subscriber.onSubscribe(pipeline);
+    List<String> sentences = SentenceSplitter.split(text, SentenceSplitter.DEFAULT_MAX_LENGTH);
+    for (int i = 0; i < sentences.size(); i++) {
+      pipeline.add(sentences.get(i), i == 0);
+    }
+    pipeline.seal();
+  }
+}
@@ -0,0 +1,209 @@
+package org.braid.society.secret.voicevox4j.api;
+
+import java.io.Closeable;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.internal.SentenceSplitter;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxTtsOptions;
+
+/**
+ * 少しずつ届くテキストを、届いた順に合成して{@link AudioChunk}として出力するセッション。
+ * <p>
+ * 言語モデルのトークン列のように、テキストが断片ごとに届く場合に使用します。
+ * {@link #append(CharSequence)}で渡した断片は文や節の区切りで分割され、区切りが確定した部分から、
+ * 後続のテキストを待たずに合成が始まります。音声は元のテキストの順番どおりに出力されます。
+ * <p>
+ * 文の区切り（{@code 。！？}など）は、直後に続く閉じ括弧などを含めるため、次の文字が届いた時点で確定します。
+ * 節の最小文字数以上たまったテキストは、読点の位置でも区切られます。
+ * 最後の区切りの後に残ったテキストは、{@link #flush()}または{@link #close()}で合成されます。
+ * <p>
+ * このセッションを購読できるのは1人だけです。購読前に確定した部分は保持され、購読時に合成が始まります。
+ * 合成は購読者の要求数の範囲でのみ先行して行われ、同時に合成するチャンクの数はプールのサイズまでです。
+ * {@link #close()}の後、すべてのチャンクを出力した時点で購読者に完了が通知されます。
+ * <p>
+ * 購読者へのシグナルは、このセッションのロックを保持していない状態で、{@code onSubscribe}の後にのみ送られます。
+ *
+ * @see AsyncSynthesizer#openTtsSession(int)
+ */
+@Slf4j
+public final class TtsSession implements Flow.Publisher<AudioChunk>, Closeable, AutoCloseable {
+
+  /**
+   * 読点の位置で区切る節の、既定の最小文字数です。
+   */
+  public static final int DEFAULT_CLAUSE_LENGTH = 24;
+
+  private final AsyncSynthesizer async;
+  private final int window;
+  private final int styleId;
+  private final VoicevoxTtsOptions options;
+  private final SentenceSplitter splitter;
+  // 区切りが確定した発話。ロック内で順番に追加し、pump()がロックの外でパイプラインへ渡す
+  private final ConcurrentLinkedQueue<Segment> pending = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger pumping = new AtomicInteger();
+  private ChunkPipeline pipeline;
+  private volatile ChunkPipeline subscribed;
+  private boolean first = true;
+  private boolean closed;
+
+  TtsSession(AsyncSynthesizer async, int window, int styleId, VoicevoxTtsOptions options, int clauseLength) {
+    this.async = async;
+    this.window = window;
+    this.styleId = styleId;
+    this.options = options;
+    this.splitter = new SentenceSplitter(SentenceSplitter.DEFAULT_MAX_LENGTH, clauseLength);
+  }
+
+  /**
+   * テキストの断片を追加します。区切りが確定した部分は、すぐに合成の対象になります。
+   *
+   * @param fragment テキストの断片
+   * @throws IllegalStateException このセッションが既にクローズされている場合
+   */
+  public void append(CharSequence fragment) {
+    Objects.requireNonNull(fragment, "fragment");
+    synchronized (this) {
+      ensureNotClosed();
+      splitter.feed(fragment, this::dispatch);
+    }
+    pump();
+  }
+
+  /**
+   * 区切りが確定していない残りのテキストを、1つの発話として合成の対象にします。
+   * <p>
+   * 言語モデルの応答の区切りなど、後続のテキストがしばらく届かないことが分かっている場合に呼び出します。
+   * セッションは引き続き使用できます。
+   *
+   * @throws IllegalStateException このセッションが既にクローズされている場合
+   */
+  public void flush() {
+    synchronized (this) {
+      ensureNotClosed();
+      splitter.flush(this::dispatch);
+    }
+    pump();
+  }
+
+  @Override
+  public void subscribe(Flow.Subscriber<? super AudioChunk> subscriber) {
+    Objects.requireNonNull(subscriber, "subscriber");
+    ChunkPipeline created;
+    synchronized (this) {
+      if (pipeline != null) {
+        created = null;
+      } else {
+        created = new ChunkPipeline(async, window, styleId, options, subscriber);
+        pipeline = created;
+      }
+    }
+    if (created == null) {
+      subscriber.onSubscribe(new Flow.Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+      });
+      subscriber.onError(new IllegalStateException("TtsSession allows only one subscriber"));
+      return;
+    }
+    subscriber.onSubscribe(created);
+    // onSubscribeの後で、購読前に確定した発話を渡し始める
+    subscribed = created;
+    pump();
+  }
+
+  /**
+   * 確定した発話を順番に追加します。呼び出し元はこのセッションのロックを保持している必要があります。
+   */
+  private void dispatch(String segment) {
+    pending.add(new Segment(segment, first));
+    first = false;
+  }
+
+  /**
+   * 確定した発話を、このセッションのロックの外でパイプラインへ渡します。
+   * <p>
+   * 購読者のシグナルはパイプラインへの追加の中から送られることがあるため、ロックを保持したまま呼び出しません。
+   * {@code pumping}によって同時に1つのスレッドだけが実行し、追加した順番を保ちます。
+   */
+  private void pump() {
+    ChunkPipeline target = subscribed;
+    if (target == null || pumping.getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    while (true) {
+      Segment segment;
+      while ((segment = pending.poll()) != null) {
+        if (segment == Segment.SEAL) {
+          target.seal();
+        } else {
+          target.add(segment.text, segment.first);
+        }
+      }
+      missed = pumping.addAndGet(-missed);
+      if (missed == 0) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * このセッションがクローズされているかどうかを確認します。
+   *
+   * @return クローズされている場合はtrue
+   */
+  public synchronized boolean isClosed() {
+    return closed;
+  }
+
+  private void ensureNotClosed() {
+    if (closed) {
+      throw new IllegalStateException("TtsSession is already closed");
+    }
+  }
+
+  /**
+   * 残りのテキストを合成の対象にしてから、セッションをクローズします。
+   * <p>
+   * これ以上テキストは追加できなくなり、すべてのチャンクを出力した時点で購読者に完了が通知されます。
+   * 合成中のチャンクは中断されません。購読を中断する場合は{@link Flow.Subscription#cancel()}を使用してください。
+   * このメソッドは複数回呼び出しても安全です。
+   */
+  @Override
+  public void close() {
+    synchronized (this) {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      splitter.flush(this::dispatch);
+      pending.add(Segment.SEAL);
+    }
+    pump();
+    log.debug("TtsSession closed");
+  }
+
+  /**
+   * パイプラインへ渡す1つの発話。{@link #SEAL}は、これ以上発話がないことを表します。
+   */
+  private static final class Segment {
+
+    private static final Segment SEAL = new Segment(null, false);
+
+    private final String text;
+    private final boolean first;
+
+    private Segment(String text, boolean first) {
+      this.text = text;
+      this.first = first;
+    }
+  }
+}
@@ -6,6 +6,7 @@ import java.io.Closeable;
 import java.nio.file.Path;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import org.braid.society.secret.voicevox4j.exception.VoicevoxException;
 import org.braid.society.secret.voicevox4j.internal.Core;
 import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxResultCode;
@@ -20,6 +21,7 @@ public class UserDict implements Closeable, AutoCloseable {
 
   private final VoicevoxUserDict nativeUserDict;
   private final AtomicBoolean closed = new AtomicBoolean(false);
+  private final AtomicLong version = new AtomicLong();
   private final Core core;
 
   /**
@@ -53,6 +55,7 @@ public class UserDict implements Closeable, AutoCloseable {
       String errorMessage = core.voicevox_error_result_to_message(result);
       throw new VoicevoxException("Failed to load user dictionary: " + errorMessage, result);
     }
+    version.incrementAndGet();
   }
 
   /**
@@ -84,6 +87,7 @@ public class UserDict implements Closeable, AutoCloseable {
       String errorMessage = core.voicevox_error_result_to_message(result);
       throw new VoicevoxException("Failed to add word to user dictionary: " + errorMessage, result);
     }
+    version.incrementAndGet();
 
     return uuidFromBytes(outputWordUuid);
   }
@@ -117,6 +121,7 @@ public class UserDict implements Closeable, AutoCloseable {
       String errorMessage = core.voicevox_error_result_to_message(result);
       throw new VoicevoxException("Failed to update word in user dictionary: " + errorMessage, result);
     }
+    version.incrementAndGet();
   }
 
   /**
@@ -136,6 +141,7 @@ public class UserDict implements Closeable, AutoCloseable {
       String errorMessage = core.voicevox_error_result_to_message(result);
       throw new VoicevoxException("Failed to remove word from user dictionary: " + errorMessage, result);
     }
+    version.incrementAndGet();
   }
 
   /**
@@ -181,6 +187,7 @@ public class UserDict implements Closeable, AutoCloseable {
       String errorMessage = core.voicevox_error_result_to_message(result);
       throw new VoicevoxException("Failed to import user dictionary: " + errorMessage, result);
     }
+    version.incrementAndGet();
   }
 
   /**
@@ -200,6 +207,15 @@ public class UserDict implements Closeable, AutoCloseable {
     }
   }
 
+  /**
+   * 辞書の内容を変更する操作が成功するたびに増加するバージョンを取得します。
+   *
+   * @return 辞書のバージョン
+   */
+  long getVersion() {
+    return version.get();
+  }
+
   /**
    * 内部使用のためのネイティブVoicevoxUserDictオブジェクトを取得します。
    *
@@ -0,0 +1,433 @@
+package org.braid.society.secret.voicevox4j.api;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.exception.VoicevoxException;
+import org.braid.society.secret.voicevox4j.internal.Core;
+import org.braid.society.secret.voicevox4j.internal.Utf8JsonReader;
+import org.braid.society.secret.voicevox4j.internal.Utf8JsonWriter;
+
+/**
+ * ディレクトリ内の音声モデルファイル（{@code *.vvm}）の一覧を、索引ファイルに保存して再利用するカタログです。
+ * <p>
+ * {@link #open(Path, Path, Core)}はディレクトリ内のVVMファイルのうち、索引ファイルに記録がないか、
+ * サイズまたは更新日時が記録と異なるものだけを並列に開き、モデルIDとメタデータを読み取って索引ファイルを更新します。
+ * 変更されていないファイルは開かずに索引ファイルの記録を使用するため、大量の音声モデルがあっても短時間で起動できます。
+ * 索引ファイルを作成したVOICEVOX COREのバージョンが異なる場合は、すべてのファイルを読み取り直します。
+ * <p>
+ * 音声モデルファイルは、{@link #openForStyle(int)}でスタイルが実際に要求された時点で開かれ、
+ * カタログをクローズするまで保持されます。スタイルと話者の検索は{@link #getStyleIndex()}で、ファイルを開かずに行えます。
+ */
+@Slf4j
+public class VoiceModelCatalog implements Closeable, AutoCloseable {
+
+  /**
+   * 索引ファイルのパスを指定しない場合に、音声モデルのディレクトリ内に作成される索引ファイルの名前。
+   */
+  public static final String DEFAULT_INDEX_FILE_NAME = "voicevox4j-models.index";
+
+  private static final int FORMAT_VERSION = 1;
+  private static final int ESTIMATED_BYTES_PER_MODEL = 4096;
+  private static final HexFormat HEX = HexFormat.of();
+  private static final AtomicInteger THREAD_SEQUENCE = new AtomicInteger();
+
+  private final Core core;
+  private final List<Entry> entries;
+  private final Map<String, Entry> entriesByModelId = new HashMap<>();
+  private final StyleIndex styleIndex = new StyleIndex();
+  private final int scannedCount;
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+
+  private VoiceModelCatalog(Core core, List<Entry> entries, int scannedCount) {
+    this.core = core;
+    this.entries = List.copyOf(entries);
+    this.scannedCount = scannedCount;
+    for (Entry entry : entries) {
+      entriesByModelId.put(HEX.formatHex(entry.modelId), entry);
+      styleIndex.add(entry.modelId, entry.speakers);
+    }
+  }
+
+  /**
+   * ディレクトリ内の音声モデルファイルのカタログを開きます。
+   * <p>
+   * 索引ファイルが存在しないか読み取れない場合は、すべてのファイルを読み取って索引ファイルを作成します。
+   * 開けなかったファイルは警告をログに出力してカタログから除外し、次回も読み取りを試みます。
+   *
+   * @param directory 音声モデルファイルのあるディレクトリ
+   * @param indexFile 索引ファイルのパス
+   * @param core Coreインターフェース
+   * @return カタログ
+   * @throws IOException ディレクトリの一覧の取得、または索引ファイルの書き込みに失敗した場合
+   * @throws InterruptedException ファイルの読み取りを待つ間に割り込まれた場合
+   */
+  public static VoiceModelCatalog open(Path directory, Path indexFile, Core core)
+      throws IOException, InterruptedException {
+    Objects.requireNonNull(core, "core");
+    String coreVersion = core.voicevox_get_version();
+    Map<String, Entry> cached = readIndex(indexFile, directory, coreVersion);
+
+    List<Path> files = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.vvm")) {
+      stream.forEach(files::add);
+    }
+    files.sort(null);
+
+    List<Entry> entries = new ArrayList<>(files.size());
+    List<Callable<Entry>> scans = new ArrayList<>();
+    for (Path file : files) {
+      BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+      long size = attributes.size();
+      long lastModified = attributes.lastModifiedTime().toMillis();
+      Entry entry = cached.get(file.getFileName().toString());
+      if (entry != null && entry.size == size && entry.lastModified == lastModified) {
+        entries.add(entry);
+      } else {
+        scans.add(() -> scan(file, size, lastModified, core));
+      }
+    }
+
+    int scanned = 0;
+    if (!scans.isEmpty()) {
+      ExecutorService executor = Executors.newFixedThreadPool(
+          Math.min(scans.size(), Runtime.getRuntime().availableProcessors()), VoiceModelCatalog::newThread);
+      try {
+        for (Future<Entry> future : executor.invokeAll(scans)) {
+          try {
+            entries.add(future.get());
+            scanned++;
+          } catch (ExecutionException e) {
+            log.warn("Skipping voice model file that could not be read", e.getCause());
+          }
+        }
+      } finally {
+        executor.shutdownNow();
+      }
+    }
+    entries.sort((a, b) -> a.path.compareTo(b.path));
+
+    if (scanned > 0 || cached.size() != entries.size() - scanned) {
+      writeIndex(indexFile, directory, coreVersion, entries);
+    }
+    log.debug("Voice model catalog opened: {} models ({} read from files, {} from index)",
+        entries.size(), scanned, entries.size() - scanned);
+    return new VoiceModelCatalog(core, entries, scanned);
+  }
+
+  private static Entry scan(Path file, long size, long lastModified, Core core) throws VoicevoxException {
+    try (VoiceModelFile model = new VoiceModelFile(file, core)) {
+      String metasJson = model.getMetasJson();
+      return new Entry(file, size, lastModified, model.getModelId(), metasJson, Speaker.listFromJson(metasJson));
+    }
+  }
+
+  private static Map<String, Entry> readIndex(Path indexFile, Path directory, String coreVersion) {
+    Map<String, Entry> cached = new HashMap<>();
+    if (!Files.exists(indexFile)) {
+      return cached;
+    }
+    try {
+      Utf8JsonReader reader = Utf8JsonReader.of(ByteBuffer.wrap(Files.readAllBytes(indexFile)));
+      int format = 0;
+      String version = null;
+      List<Entry> models = new ArrayList<>();
+      reader.beginObject();
+      while (reader.hasNext()) {
+        String name = reader.nextName();
+        if (reader.nextNullIf()) {
+          continue;
+        }
+        switch (name) {
+          case "format" -> format = reader.nextInt();
+          case "core" -> version = reader.nextString();
+          case "models" -> {
+            reader.beginArray();
+            while (reader.hasNext()) {
+              models.add(readEntry(reader, directory));
+            }
+            reader.endArray();
+          }
+          default -> reader.skipValue();
+        }
+      }
+      reader.endObject();
+      reader.endDocument();
+      if (format != FORMAT_VERSION || !coreVersion.equals(version)) {
+        log.debug("Ignoring voice model index created by another version: {}", indexFile);
+        return cached;
+      }
+      for (Entry entry : models) {
+        cached.put(entry.path.getFileName().toString(), entry);
+      }
+    } catch (IOException | RuntimeException e) {
+      log.warn("Ignoring unreadable voice model index: {}", indexFile, e);
+      cached.clear();
+    }
+    return cached;
+  }
+
+  private static Entry readEntry(Utf8JsonReader reader, Path directory) {
+    String file = null;
+    long size = -1;
+    long lastModified = -1;
+    byte[] modelId = null;
+    String metasJson = null;
+    reader.beginObject();
+    while (reader.hasNext()) {
+      String name = reader.nextName();
+      if (reader.nextNullIf()) {
+        continue;
+      }
+      switch (name) {
+        case "file" -> file = reader.nextString();
+        case "size" -> size = reader.nextLong();
+        case "lastModified" -> lastModified = reader.nextLong();
+        case "id" -> modelId = HEX.parseHex(reader.nextString());
+        case "metas" -> metasJson = reader.nextString();
+        default -> reader.skipValue();
+      }
+    }
+    reader.endObject();
+    if (file == null || modelId == null || metasJson == null) {
+      throw new IllegalArgumentException("Voice model index entry requires file, id and metas");
+    }
+    return new Entry(directory.resolve(file), size, lastModified, modelId, metasJson, Speaker.listFromJson(metasJson));
+  }
+
+  private static void writeIndex(Path indexFile, Path directory, String coreVersion, List<Entry> entries)
+      throws IOException {
+    Utf8JsonWriter writer = new Utf8JsonWriter(entries.size() * ESTIMATED_BYTES_PER_MODEL + 64);
+    writer.beginObject()
+        .name("format").value(FORMAT_VERSION)
+        .name("core").value(coreVersion)
+        .name("models").beginArray();
+    for (Entry entry : entries) {
+      writer.beginObject()
+          .name("file").value(directory.relativize(entry.path).toString())
+          .name("size").value(entry.size)
+          .name("lastModified").value(entry.lastModified)
+          .name("id").value(HEX.formatHex(entry.modelId))
+          .name("metas").value(entry.metasJson)
+          .endObject();
+    }
+    writer.endArray().endObject();
+
+    Path parent = indexFile.toAbsolutePath().getParent();
+    Files.createDirectories(parent);
+    Path temp = Files.createTempFile(parent, indexFile.getFileName().toString(), ".tmp");
+    try (OutputStream out = Files.newOutputStream(temp)) {
+      out.write(writer.toByteArray());
+    }
+    try {
+      Files.move(temp, indexFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * カタログに含まれる音声モデルを、ファイル名の順に取得します。
+   *
+   * @return 変更不可能な音声モデルのリスト
+   */
+  public List<Entry> getEntries() {
+    return entries;
+  }
+
+  /**
+   * カタログに含まれるすべての音声モデルのスタイルの索引を取得します。
+   * <p>
+   * 索引はカタログを開いた時点で作成され、音声モデルファイルを開かずに検索できます。
+   *
+   * @return スタイルの索引
+   */
+  public StyleIndex getStyleIndex() {
+    return styleIndex;
+  }
+
+  /**
+   * スタイルを含む音声モデルを検索します。ファイルは開きません。
+   *
+   * @param styleId スタイルID
+   * @return 音声モデル。カタログに含まれていない場合はnull
+   */
+  public Entry findByStyle(int styleId) {
+    byte[] modelId = styleIndex.modelIdOf(styleId);
+    return modelId == null ? null : entriesByModelId.get(HEX.formatHex(modelId));
+  }
+
+  /**
+   * スタイルを含む音声モデルファイルを取得します。まだ開いていない場合はこの時点で開きます。
+   * <p>
+   * 開いたファイルはカタログが所有し、{@link #close()}でクローズされます。呼び出し側でクローズしないでください。
+   *
+   * @param styleId スタイルID
+   * @return 音声モデルファイル
+   * @throws VoicevoxException ファイルを開けなかった場合
+   * @throws IllegalArgumentException スタイルがカタログに含まれていない場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合、
+   *     またはファイルがカタログを開いた後に別の音声モデルに置き換えられている場合
+   */
+  public VoiceModelFile openForStyle(int styleId) throws VoicevoxException {
+    ensureNotClosed();
+    Entry entry = findByStyle(styleId);
+    if (entry == null) {
+      throw new IllegalArgumentException("No voice model in the catalog has style " + styleId);
+    }
+    synchronized (entry) {
+      if (entry.file == null) {
+        VoiceModelFile file = new VoiceModelFile(entry.path, core);
+        if (!Arrays.equals(file.getModelId(), entry.modelId)) {
+          file.close();
+          throw new IllegalStateException("Voice model file was replaced after it was cataloged: " + entry.path);
+        }
+        entry.file = file;
+        log.debug("Voice model file opened on demand: {}", entry.path);
+      }
+      return entry.file;
+    }
+  }
+
+  /**
+   * カタログを開いた際に、索引ファイルの記録を使わずにファイルから読み取った音声モデルの数を取得します。
+   *
+   * @return ファイルから読み取った音声モデルの数
+   */
+  public int getScannedCount() {
+    return scannedCount;
+  }
+
+  /**
+   * このオブジェクトがクローズされているかどうかを確認します。
+   *
+   * @return クローズされている場合はtrue
+   */
+  public boolean isClosed() {
+    return closed.get();
+  }
+
+  private void ensureNotClosed() {
+    if (closed.get()) {
+      throw new IllegalStateException("VoiceModelCatalog is already closed");
+    }
+  }
+
+  private static Thread newThread(Runnable runnable) {
+    Thread thread = new Thread(runnable, "voicevox4j-catalog-" + THREAD_SEQUENCE.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  }
+
+  /**
+   * カタログが開いた音声モデルファイルをすべてクローズします。
+   * このメソッドは複数回呼び出しても安全です。
+   */
+  @Override
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      for (Entry entry : entries) {
+        synchronized (entry) {
+          if (entry.file != null) {
+            entry.file.close();
+            entry.file = null;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * カタログに含まれる1つの音声モデルファイルの情報。
+   */
+  public static final class Entry {
+
+    private final Path path;
+    private final long size;
+    private final long lastModified;
+    private final byte[] modelId;
+    private final String metasJson;
+    private final List<Speaker> speakers;
+    private VoiceModelFile file;
+
+    private Entry(Path path, long size, long lastModified, byte[] modelId, String metasJson, List<Speaker> speakers) {
+      this.path = path;
+      this.size = size;
+      this.lastModified = lastModified;
+      this.modelId = modelId;
+      this.metasJson = metasJson;
+      this.speakers = speakers;
+    }
+
+    public Path getPath() {
+      return path;
+    }
+
+    /**
+     * 索引に記録したファイルの更新日時を取得します。
+     *
+     * @return 更新日時（エポックミリ秒）
+     */
+    public long getLastModified() {
+      return lastModified;
+    }
+
+    /**
+     * ファイルのサイズを取得します。
+     *
+     * @return サイズ（バイト）
+     */
+    public long getSize() {
+      return size;
+    }
+
+    /**
+     * モデルIDを取得します。
+     *
+     * @return 16バイトのモデルIDのコピー
+     */
+    public byte[] getModelId() {
+      return modelId.clone();
+    }
+
+    /**
+     * 音声モデルに含まれる話者を取得します。
+     *
+     * @return 変更不可能な話者のリスト
+     */
+    public List<Speaker> getSpeakers() {
+      return speakers;
+    }
+
+    /**
+     * 音声モデルファイルがカタログによって開かれているかどうかを確認します。
+     *
+     * @return 開かれている場合はtrue
+     */
+    public synchronized boolean isOpen() {
+      return file != null;
+    }
+  }
+}
@@ -4,6 +4,7 @@ import com.sun.jna.Pointer;
 import com.sun.jna.ptr.PointerByReference;
 import java.io.Closeable;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import org.braid.society.secret.voicevox4j.exception.VoicevoxException;
 import org.braid.society.secret.voicevox4j.internal.Core;
@@ -19,6 +20,8 @@ public class VoiceModelFile implements Closeable, AutoCloseable {
   private final VoicevoxVoiceModelFile nativeModel;
   private final AtomicBoolean closed = new AtomicBoolean(false);
   private final Core core;
+  private final byte[] modelId;
+  private volatile List<Speaker> speakers;
 
   /**
    * 音声モデルファイルを開きます。
@@ -37,6 +40,9 @@ public class VoiceModelFile implements Closeable, AutoCloseable {
     }
 
     this.nativeModel = new VoicevoxVoiceModelFile(Pointer.nativeValue(outModel.getValue()));
+    // モデルIDはファイルを開いている間変わらないため、一度だけ取得する
+    this.modelId = new byte[16];
+    core.voicevox_voice_model_file_id(nativeModel, modelId);
   }
 
   /**
@@ -47,9 +53,7 @@ public class VoiceModelFile implements Closeable, AutoCloseable {
    */
   public byte[] getModelId() {
     ensureNotClosed();
-    byte[] modelId = new byte[16];
-    core.voicevox_voice_model_file_id(nativeModel, modelId);
-    return modelId;
+    return modelId.clone();
   }
 
   /**
@@ -69,6 +73,30 @@ public class VoiceModelFile implements Closeable, AutoCloseable {
     }
   }
 
+  /**
+   * メタデータに含まれる話者とスタイルを取得します。
+   * <p>
+   * 初回の呼び出しでメタデータJSONをネイティブメモリ上のまま解析し、結果を保持します。
+   * 2回目以降はネイティブ関数を呼び出しません。
+   *
+   * @return 変更不可能な話者のリスト
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public List<Speaker> getSpeakers() {
+    ensureNotClosed();
+    List<Speaker> result = speakers;
+    if (result == null) {
+      Pointer metasJson = core.voicevox_voice_model_file_create_metas_json(nativeModel);
+      try {
+        result = Speaker.listFromNative(metasJson);
+      } finally {
+        core.voicevox_json_free(metasJson);
+      }
+      speakers = result;
+    }
+    return result;
+  }
+
   /**
    * 内部使用のためのネイティブモデルオブジェクトを取得します。
    *
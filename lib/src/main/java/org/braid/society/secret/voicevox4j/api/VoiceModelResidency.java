@@ -0,0 +1,384 @@
+package org.braid.society.secret.voicevox4j.api;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.exception.VoicevoxException;
+
+/**
+ * メモリの予算に収まるように、{@link SynthesizerPool}に読み込む音声モデルを管理するクラス。
+ * <p>
+ * {@link #register(VoiceModelFile, long)}で登録した音声モデルは、そのスタイルが{@link #withStyle(int, SynthesizerFunction)}
+ * などで初めて使われた時点で、プールのすべての合成器に読み込まれます。読み込まれている音声モデルの合計サイズ、
+ * または数が予算を超えた場合は、最も長い間使われていない音声モデルからアンロードします。
+ * 実行中の処理が使用している音声モデルはアンロードされません。その間は一時的に予算を超えることがあり、
+ * 処理が完了した時点で改めて予算に収まるようにアンロードします。
+ * <p>
+ * 同じ音声モデルに対する同時の読み込みは1回にまとめられます。管理している音声モデルのスタイルを、
+ * このクラスを経由せずにプールの合成器で直接使用すると、処理の途中でアンロードされる可能性があります。
+ * <p>
+ * このクラスはスレッドセーフです。プールと音声モデルファイルはこのクラスの所有物ではありません。
+ */
+@Slf4j
+public class VoiceModelResidency {
+
+  private final SynthesizerPool pool;
+  private final long memoryBudget;
+  private final int maxResidentModels;
+  private final Map<Integer, Entry> styles = new ConcurrentHashMap<>();
+  private final List<Entry> entries = new ArrayList<>();
+
+  private long residentBytes;
+  private int residentModels;
+  private long tick;
+  private long loads;
+  private long unloads;
+  private long totalLoadNanos;
+  private long maxLoadNanos;
+
+  /**
+   * 音声モデルを管理するオブジェクトを作成します。
+   *
+   * @param pool 音声モデルを読み込む合成器のプール
+   * @param memoryBudget 同時に読み込む音声モデルの合計サイズの上限（バイト）
+   * @param maxResidentModels 同時に読み込む音声モデルの数の上限
+   * @throws IllegalArgumentException {@code memoryBudget}が負の場合、または{@code maxResidentModels}が1未満の場合
+   */
+  public VoiceModelResidency(SynthesizerPool pool, long memoryBudget, int maxResidentModels) {
+    if (memoryBudget < 0) {
+      throw new IllegalArgumentException("Memory budget must not be negative: " + memoryBudget);
+    }
+    if (maxResidentModels < 1) {
+      throw new IllegalArgumentException("Max resident models must be positive: " + maxResidentModels);
+    }
+    this.pool = Objects.requireNonNull(pool, "pool");
+    this.memoryBudget = memoryBudget;
+    this.maxResidentModels = maxResidentModels;
+  }
+
+  /**
+   * 音声モデルを登録します（サイズを数えない）。
+   * <p>
+   * サイズを0として扱うため、音声モデルの数の上限でのみ管理されます。
+   *
+   * @param model 登録する音声モデルファイル
+   * @throws IllegalArgumentException 音声モデルのスタイルが既に他の音声モデルで登録されている場合
+   * @see #register(VoiceModelFile, long)
+   */
+  public void register(VoiceModelFile model) {
+    register(model, 0);
+  }
+
+  /**
+   * 音声モデルを登録します。
+   * <p>
+   * 登録した時点でプールの合成器に読み込まれている場合は、読み込まれている音声モデルとして扱います。
+   * {@code size}にはVVMファイルのサイズが目安になります。
+   *
+   * @param model 登録する音声モデルファイル
+   * @param size 読み込んだ場合のメモリ使用量の見積もり（バイト）
+   * @throws IllegalArgumentException {@code size}が負の場合、または音声モデルのスタイルが既に他の音声モデルで登録されている場合
+   */
+  public void register(VoiceModelFile model, long size) {
+    Objects.requireNonNull(model, "model");
+    if (size < 0) {
+      throw new IllegalArgumentException("Model size must not be negative: " + size);
+    }
+    List<Integer> styleIds = new ArrayList<>();
+    for (Speaker speaker : model.getSpeakers()) {
+      for (Style style : speaker.getStyles()) {
+        styleIds.add(style.getId());
+      }
+    }
+    Entry entry = new Entry(model, model.getModelId(), size);
+    boolean loaded = pool.members().get(0).isLoadedVoiceModel(entry.modelId);
+    synchronized (this) {
+      for (int styleId : styleIds) {
+        if (styles.containsKey(styleId)) {
+          throw new IllegalArgumentException("Style " + styleId + " is already registered");
+        }
+      }
+      entries.add(entry);
+      if (loaded) {
+        entry.state = State.LOADED;
+        entry.lastUsed = ++tick;
+        residentBytes += size;
+        residentModels++;
+      }
+      for (int styleId : styleIds) {
+        styles.put(styleId, entry);
+      }
+    }
+    log.debug("Voice model registered ({} styles, {} bytes, loaded: {})", styleIds.size(), size, loaded);
+  }
+
+  /**
+   * スタイルの音声モデルを必要に応じて読み込み、プールから借りた合成器で処理を実行します。
+   * <p>
+   * 処理の間、音声モデルはアンロードされません。
+   *
+   * @param styleId 使用するスタイルID
+   * @param function 借りた合成器で実行する処理
+   * @param <T> 処理結果の型
+   * @return 処理結果
+   * @throws VoicevoxException 音声モデルの読み込み、または処理中のネイティブライブラリの関数呼び出しが失敗した場合
+   * @throws InterruptedException 待機中に割り込まれた場合
+   * @throws IllegalArgumentException スタイルIDが登録されていない場合
+   */
+  public <T> T withStyle(int styleId, SynthesizerFunction<T> function) throws VoicevoxException, InterruptedException {
+    Objects.requireNonNull(function, "function");
+    Entry entry = acquire(styleId);
+    try {
+      return pool.withSynthesizer(function);
+    } finally {
+      release(entry);
+    }
+  }
+
+  /**
+   * スタイルの音声モデルを必要に応じて読み込み、テキストから音声を合成します。
+   *
+   * @param text 合成するテキスト
+   * @param styleId スタイルID
+   * @return 音声データ（WAVファイル形式）
+   * @throws VoicevoxException 音声モデルの読み込み、または音声合成に失敗した場合
+   * @throws InterruptedException 待機中に割り込まれた場合
+   * @throws IllegalArgumentException スタイルIDが登録されていない場合
+   */
+  public byte[] tts(String text, int styleId) throws VoicevoxException, InterruptedException {
+    return withStyle(styleId, synthesizer -> synthesizer.tts(text, styleId));
+  }
+
+  /**
+   * スタイルの音声モデルが読み込まれているかどうかを確認します。
+   *
+   * @param styleId スタイルID
+   * @return 読み込まれている場合はtrue
+   * @throws IllegalArgumentException スタイルIDが登録されていない場合
+   */
+  public synchronized boolean isResident(int styleId) {
+    return entryOf(styleId).state == State.LOADED;
+  }
+
+  private Entry entryOf(int styleId) {
+    Entry entry = styles.get(styleId);
+    if (entry == null) {
+      throw new IllegalArgumentException("No voice model is registered for style " + styleId);
+    }
+    return entry;
+  }
+
+  private Entry acquire(int styleId) throws VoicevoxException, InterruptedException {
+    Entry entry = entryOf(styleId);
+    while (true) {
+      CompletableFuture<Void> transition;
+      List<Entry> victims;
+      synchronized (this) {
+        if (entry.state == State.LOADED) {
+          entry.pins++;
+          entry.lastUsed = ++tick;
+          return entry;
+        }
+        if (entry.state == State.UNLOADED) {
+          // 読み込む分を先に予約し、同時に読み込む他の音声モデルと合わせて予算を超えないようにする
+          entry.state = State.LOADING;
+          entry.transition = new CompletableFuture<>();
+          entry.pins++;
+          entry.lastUsed = ++tick;
+          residentBytes += entry.size;
+          residentModels++;
+          victims = selectVictims();
+          transition = null;
+        } else {
+          transition = entry.transition;
+          victims = null;
+        }
+      }
+      if (transition == null) {
+        unload(victims);
+        load(entry);
+        return entry;
+      }
+      try {
+        transition.get();
+      } catch (ExecutionException e) {
+        // 他のスレッドでの読み込みが失敗した場合は、このスレッドで読み込み直す
+      }
+    }
+  }
+
+  private void release(Entry entry) {
+    List<Entry> victims;
+    synchronized (this) {
+      entry.pins--;
+      victims = selectVictims();
+    }
+    unload(victims);
+  }
+
+  /**
+   * 予算を超えている間、使用されていない音声モデルを古い順にアンロード対象として選びます。
+   * 呼び出し元は{@code this}のロックを保持している必要があります。
+   */
+  private List<Entry> selectVictims() {
+    List<Entry> victims = new ArrayList<>();
+    while (residentBytes > memoryBudget || residentModels > maxResidentModels) {
+      Entry oldest = null;
+      for (Entry candidate : entries) {
+        if (candidate.state == State.LOADED && candidate.pins == 0
+            && (oldest == null || candidate.lastUsed < oldest.lastUsed)) {
+          oldest = candidate;
+        }
+      }
+      if (oldest == null) {
+        // すべて使用中のため、処理が完了するまで予算を超えたままにする
+        break;
+      }
+      oldest.state = State.UNLOADING;
+      oldest.transition = new CompletableFuture<>();
+      residentBytes -= oldest.size;
+      residentModels--;
+      victims.add(oldest);
+    }
+    return victims;
+  }
+
+  private void load(Entry entry) throws VoicevoxException {
+    long start = System.nanoTime();
+    List<Synthesizer> loadedInto = new ArrayList<>();
+    try {
+      for (Synthesizer synthesizer : pool.members()) {
+        synthesizer.loadVoiceModel(entry.model);
+        loadedInto.add(synthesizer);
+      }
+    } catch (VoicevoxException | RuntimeException e) {
+      for (Synthesizer synthesizer : loadedInto) {
+        unloadQuietly(synthesizer, entry);
+      }
+      synchronized (this) {
+        entry.state = State.UNLOADED;
+        entry.pins--;
+        residentBytes -= entry.size;
+        residentModels--;
+      }
+      entry.transition.completeExceptionally(e);
+      throw e;
+    }
+    long elapsed = System.nanoTime() - start;
+    synchronized (this) {
+      entry.state = State.LOADED;
+      loads++;
+      totalLoadNanos += elapsed;
+      maxLoadNanos = Math.max(maxLoadNanos, elapsed);
+    }
+    entry.transition.complete(null);
+    log.debug("Voice model loaded on demand in {} ms", elapsed / 1_000_000);
+  }
+
+  private void unload(List<Entry> victims) {
+    for (Entry victim : victims) {
+      for (Synthesizer synthesizer : pool.members()) {
+        unloadQuietly(synthesizer, victim);
+      }
+      synchronized (this) {
+        victim.state = State.UNLOADED;
+        unloads++;
+      }
+      victim.transition.complete(null);
+    }
+  }
+
+  private static void unloadQuietly(Synthesizer synthesizer, Entry entry) {
+    try {
+      if (!synthesizer.isClosed() && synthesizer.isLoadedVoiceModel(entry.modelId)) {
+        synthesizer.unloadVoiceModel(entry.modelId);
+      }
+    } catch (VoicevoxException | RuntimeException e) {
+      log.warn("Failed to unload voice model", e);
+    }
+  }
+
+  /**
+   * 音声モデルを読み込んだ回数を取得します。
+   *
+   * @return 読み込んだ回数
+   */
+  public synchronized long getLoadCount() {
+    return loads;
+  }
+
+  /**
+   * 予算に収めるために音声モデルをアンロードした回数を取得します。
+   *
+   * @return アンロードした回数
+   */
+  public synchronized long getUnloadCount() {
+    return unloads;
+  }
+
+  /**
+   * 音声モデルの読み込みにかかった時間の平均を取得します。
+   *
+   * @return 平均の読み込み時間。まだ読み込んでいない場合は{@link Duration#ZERO}
+   */
+  public synchronized Duration getAverageLoadLatency() {
+    return loads == 0 ? Duration.ZERO : Duration.ofNanos(totalLoadNanos / loads);
+  }
+
+  /**
+   * 音声モデルの読み込みにかかった時間の最大値を取得します。
+   *
+   * @return 最大の読み込み時間。まだ読み込んでいない場合は{@link Duration#ZERO}
+   */
+  public synchronized Duration getMaxLoadLatency() {
+    return Duration.ofNanos(maxLoadNanos);
+  }
+
+  /**
+   * 読み込まれている（読み込み中を含む）音声モデルの合計サイズを取得します。
+   *
+   * @return 合計サイズ（バイト）
+   */
+  public synchronized long getResidentBytes() {
+    return residentBytes;
+  }
+
+  /**
+   * 読み込まれている（読み込み中を含む）音声モデルの数を取得します。
+   *
+   * @return 音声モデルの数
+   */
+  public synchronized int getResidentModelCount() {
+    return residentModels;
+  }
+
+  private enum State {
+    UNLOADED, LOADING, LOADED, UNLOADING
+  }
+
+  /**
+   * 登録された1つの音声モデルの状態。フィールドは{@link VoiceModelResidency}のロックで保護されます。
+   */
+  private static final class Entry {
+
+    private final VoiceModelFile model;
+    private final byte[] modelId;
+    private final long size;
+    private State state = State.UNLOADED;
+    private CompletableFuture<Void> transition;
+    private int pins;
+    private long lastUsed;
+
+    private Entry(VoiceModelFile model, byte[] modelId, long size) {
+      this.model = model;
+      this.modelId = modelId;
+      this.size = size;
+    }
+  }
+}
@@ -0,0 +1,201 @@
+package org.braid.society.secret.voicevox4j.api;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.braid.society.secret.voicevox4j.internal.Core;
+
+/**
+ * ネイティブライブラリが確保したWAVデータを、Javaヒープへコピーせずに参照するためのクラス。
+ * <p>
+ * WAVデータのメモリは{@link #close()}で{@code voicevox_wav_free}によって解放されます。
+ * {@link #toByteArray()}や{@code writeTo}の実行中にクローズされた場合、解放はそれらの読み取りが終わるまで遅延されます。
+ * <p>
+ * クローズされずに到達不能になった場合は、{@link Cleaner}によって解放されます。
+ * {@link Cleaner}はネイティブメモリを直接参照する元のバッファに登録されており、
+ * {@link #asByteBuffer()}で得たバッファは元のバッファを参照し続けるため、
+ * このオブジェクトへの参照を手放しても、得たバッファが到達可能な間は解放されません。
+ * <p>
+ * ただし、{@link #asByteBuffer()}で得たバッファをこのオブジェクトをクローズした後に使用してはいけません。
+ * 解放済みのメモリへのアクセスはJVMのクラッシュにつながります。
+ */
+public final class WavBuffer implements Closeable, AutoCloseable {
+
+  private static final Cleaner CLEANER = Cleaner.create();
+
+  private final ByteBuffer buffer;
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+  // このオブジェクト自身の1つと、実行中の読み取りの数。0になった時点でネイティブメモリを解放する
+  private final AtomicInteger references = new AtomicInteger(1);
+  private final Cleaner.Cleanable cleanable;
+
+  /**
+   * ネイティブのWAVデータをラップします。
+   *
+   * @param core Coreインターフェース
+   * @param wav {@code voicevox_synthesizer_*}が出力したWAVデータのアドレス
+   * @param length WAVデータのバイト長
+   */
+  WavBuffer(Core core, long wav, int length) {
+    // ダイレクトバッファから作られたビューは元のバッファを保持するため、元のバッファに解放を登録する
+    ByteBuffer root = core.getByteBuffer(wav, length);
+    this.buffer = root.asReadOnlyBuffer().order(ByteOrder.LITTLE_ENDIAN);
+    this.cleanable = CLEANER.register(root, new Release(core, wav));
+  }
+
+  /**
+   * WAVデータを参照する読み取り専用のダイレクトバッファを取得します。
+   * <p>
+   * 返されるバッファは呼び出しごとに独立した位置とリミットを持ち、バイトオーダーはリトルエンディアンです。
+   *
+   * @return WAVデータ全体を参照するバッファ
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public ByteBuffer asByteBuffer() {
+    ensureNotClosed();
+    return buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+  }
+
+  /**
+   * WAVデータのバイト長を取得します。
+   *
+   * @return WAVデータのバイト長
+   */
+  public int size() {
+    return buffer.capacity();
+  }
+
+  /**
+   * WAVデータをJavaヒープ上のバイト配列にコピーします。
+   *
+   * @return WAVデータのコピー
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public byte[] toByteArray() {
+    acquire();
+    try {
+      byte[] bytes = new byte[buffer.capacity()];
+      buffer.duplicate().get(bytes);
+      return bytes;
+    } finally {
+      release();
+    }
+  }
+
+  /**
+   * WAVデータ全体を指定したチャネルに書き込みます。
+   * <p>
+   * ネイティブメモリから直接書き込むため、Javaヒープ上に中間配列は作成されません。
+   *
+   * @param channel 書き込み先のチャネル
+   * @return 書き込んだバイト数
+   * @throws IOException 書き込みに失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public int writeTo(WritableByteChannel channel) throws IOException {
+    acquire();
+    try {
+      ByteBuffer source = buffer.duplicate();
+      while (source.hasRemaining()) {
+        channel.write(source);
+      }
+      return source.capacity();
+    } finally {
+      release();
+    }
+  }
+
+  /**
+   * WAVデータ全体を指定したストリームに書き込みます。
+   * <p>
+   * ストリームへの書き込みは{@link Channels#newChannel(OutputStream)}を介して行われるため、
+   * WAVデータ全体ではなく、チャネル実装の小さな転送用バッファのみがヒープ上に確保されます。
+   *
+   * @param outputStream 書き込み先のストリーム
+   * @return 書き込んだバイト数
+   * @throws IOException 書き込みに失敗した場合
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  public int writeTo(OutputStream outputStream) throws IOException {
+    return writeTo(Channels.newChannel(outputStream));
+  }
+
+  /**
+   * このオブジェクトがクローズされているかどうかを確認します。
+   *
+   * @return クローズされている場合はtrue
+   */
+  public boolean isClosed() {
+    return closed.get();
+  }
+
+  private void ensureNotClosed() {
+    if (closed.get()) {
+      throw new IllegalStateException("WavBuffer is already closed");
+    }
+  }
+
+  /**
+   * 読み取りの間、ネイティブメモリが解放されないように参照を取得します。
+   *
+   * @throws IllegalStateException このオブジェクトが既にクローズされている場合
+   */
+  private void acquire() {
+    int current;
+    do {
+      current = references.get();
+      if (current == 0) {
+        throw new IllegalStateException("WavBuffer is already closed");
+      }
+    } while (!references.compareAndSet(current, current + 1));
+    if (closed.get()) {
+      release();
+      throw new IllegalStateException("WavBuffer is already closed");
+    }
+  }
+
+  private void release() {
+    if (references.decrementAndGet() == 0) {
+      cleanable.clean();
+    }
+  }
+
+  /**
+   * WAVデータのネイティブメモリを解放します。
+   * 実行中の読み取りがある場合、解放はそれらが終わった時点で行われます。
+   * このメソッドは複数回呼び出しても安全です。
+   */
+  @Override
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      release();
+    }
+  }
+
+  /**
+   * WAVデータを解放するクリーニングアクション。
+   * 元のバッファを参照しないよう、静的なクラスとして定義しています。
+   */
+  private static final class Release implements Runnable {
+
+    private final Core core;
+    private final long wav;
+
+    private Release(Core core, long wav) {
+      this.core = core;
+      this.wav = wav;
+    }
+
+    @Override
+    public void run() {
+      core.voicevox_wav_free(wav);
+    }
+  }
+}
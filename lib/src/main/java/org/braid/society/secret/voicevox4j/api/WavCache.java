@@ -0,0 +1,286 @@
+package org.braid.society.secret.voicevox4j.api;
+
+import com.sun.jna.Memory;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.internal.TinyLfuCache;
+
+/**
+ * {@link Synthesizer}の音声合成結果（WAVデータ）を保持するキャッシュ。
+ * <p>
+ * WAVデータはJavaヒープではなく、{@link Memory}で確保したネイティブメモリに格納されます。
+ * 大量の音声をキャッシュしてもヒープサイズやGCの停止時間には影響せず、
+ * 追い出されたエントリのメモリはGCを待たずにその場で解放されます。
+ * <p>
+ * キーは合成の種類（{@code synthesis}、{@code tts}、{@code ttsFromKana}）、入力文字列、スタイルID、
+ * 疑問文の語尾上げの有無、スタイルを含む音声モデルのID、およびVOICEVOX COREのバージョンです。
+ * テキストを入力とする合成（{@code tts}、{@code ttsFromKana}）では、ユーザー辞書の状態もキーに含めるため、
+ * ユーザー辞書を設定し直すか単語を追加・変更・削除すると、以前の読みで合成したエントリは使われなくなります。
+ * 容量はWAVデータの合計バイト数で制限され、W-TinyLFU方式で受け入れと追い出しを行います。
+ * <p>
+ * 同じVOICEVOX COREを使用する複数の合成器（{@link SynthesizerPool}など）で共有できます。
+ * このクラスはスレッドセーフです。使用後は{@link #close()}でネイティブメモリを解放してください。
+ *
+ * @see Synthesizer#setWavCache(WavCache)
+ */
+@Slf4j
+public final class WavCache implements Closeable, AutoCloseable {
+
+  /**
+   * キャッシュする合成処理の種類です。
+   */
+  enum Kind {
+    SYNTHESIS,
+    TTS,
+    TTS_FROM_KANA
+  }
+
+  private static final long EXPECTED_ENTRY_BYTES = 128 * 1024;
+
+  private final TinyLfuCache<Key, Entry> cache;
+  private final AtomicBoolean closed = new AtomicBoolean(false);
+
+  /**
+   * 指定したバイト数を上限とするキャッシュを作成します。
+   *
+   * @param maxBytes キャッシュするWAVデータの合計バイト数の上限
+   * @throws IllegalArgumentException {@code maxBytes}が1未満の場合
+   */
+  public WavCache(long maxBytes) {
+    this.cache = new TinyLfuCache<>(maxBytes, EXPECTED_ENTRY_BYTES,
+        (key, entry) -> entry.length, (key, entry) -> entry.release());
+  }
+
+  /**
+   * キャッシュされたWAVデータをヒープ上の配列にコピーして返します。
+   *
+   * @return WAVデータのコピー。キャッシュされていない場合はnull
+   */
+  byte[] read(Key key) {
+    Entry entry = acquire(key);
+    if (entry == null) {
+      return null;
+    }
+    try {
+      byte[] bytes = new byte[entry.length];
+      entry.memory.read(0, bytes, 0, entry.length);
+      return bytes;
+    } finally {
+      entry.release();
+    }
+  }
+
+  /**
+   * キャッシュされたWAVデータをネイティブメモリから直接チャネルへ書き込みます。
+   *
+   * @return 書き込んだバイト数。キャッシュされていない場合は-1
+   */
+  int writeTo(Key key, WritableByteChannel channel) throws IOException {
+    Entry entry = acquire(key);
+    if (entry == null) {
+      return -1;
+    }
+    try {
+      ByteBuffer source = entry.memory.getByteBuffer(0, entry.length);
+      while (source.hasRemaining()) {
+        channel.write(source);
+      }
+      return entry.length;
+    } finally {
+      entry.release();
+    }
+  }
+
+  /**
+   * WAVデータをネイティブメモリへコピーして格納します。
+   *
+   * @param wav 格納するWAVデータ。ダイレクトバッファの場合はヒープを経由せずにコピーされます
+   */
+  void put(Key key, ByteBuffer wav) {
+    if (closed.get() || !wav.hasRemaining()) {
+      return;
+    }
+    int length = wav.remaining();
+    Memory memory = new Memory(length);
+    memory.getByteBuffer(0, length).put(wav.duplicate());
+    cache.put(key, new Entry(memory, length));
+    if (closed.get()) {
+      // クローズと競合した場合に格納したエントリを残さない
+      cache.invalidateAll();
+    }
+  }
+
+  private Entry acquire(Key key) {
+    if (closed.get()) {
+      return null;
+    }
+    Entry entry = cache.get(key);
+    // 取得してから参照を得るまでの間に追い出された場合はミスとして扱う
+    return entry != null && entry.tryAcquire() ? entry : null;
+  }
+
+  static Key key(Kind kind, String input, int styleId, boolean interrogativeUpspeak, byte[] modelId,
+                 String coreVersion, long userDictStamp) {
+    return new Key(kind, input, styleId, interrogativeUpspeak, modelId, coreVersion, userDictStamp);
+  }
+
+  /**
+   * すべてのエントリを削除し、ネイティブメモリを解放します。
+   * 読み出し中のエントリのメモリは、読み出しの完了後に解放されます。
+   */
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  /**
+   * キャッシュにヒットした回数を取得します。
+   *
+   * @return ヒット数
+   */
+  public long getHitCount() {
+    return cache.hitCount();
+  }
+
+  /**
+   * キャッシュにヒットしなかった回数を取得します。
+   *
+   * @return ミス数
+   */
+  public long getMissCount() {
+    return cache.missCount();
+  }
+
+  /**
+   * 容量を超えたために追い出された、または受け入れられなかったエントリの数を取得します。
+   *
+   * @return 追い出されたエントリの数
+   */
+  public long getEvictionCount() {
+    return cache.evictionCount();
+  }
+
+  /**
+   * キャッシュしているエントリの数を取得します。
+   *
+   * @return エントリ数
+   */
+  public int size() {
+    return cache.size();
+  }
+
+  /**
+   * キャッシュしているWAVデータの合計バイト数を取得します。
+   *
+   * @return ネイティブメモリ上の合計バイト数
+   */
+  public long getWeightedSize() {
+    return cache.weightedSize();
+  }
+
+  /**
+   * このキャッシュがクローズされているかどうかを確認します。
+   *
+   * @return クローズされている場合はtrue
+   */
+  public boolean isClosed() {
+    return closed.get();
+  }
+
+  /**
+   * すべてのエントリを削除してネイティブメモリを解放します。
+   * クローズ後のキャッシュは常にミスとなり、何も格納しません。
+   * このメソッドは複数回呼び出しても安全です。
+   */
+  @Override
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      cache.invalidateAll();
+      log.debug("WavCache closed and native memory released");
+    }
+  }
+
+  /**
+   * ネイティブメモリ上のWAVデータ。
+   * <p>
+   * キャッシュ自身が1つの参照を保持し、読み出し中のスレッドがそれぞれ参照を追加します。
+   * 参照がなくなった時点でメモリを解放するため、読み出し中に追い出されても解放済みのメモリにはアクセスしません。
+   */
+  private static final class Entry {
+
+    private final Memory memory;
+    private final int length;
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    private Entry(Memory memory, int length) {
+      this.memory = memory;
+      this.length = length;
+    }
+
+    boolean tryAcquire() {
+      int current;
+      do {
+        current = references.get();
+        if (current == 0) {
+          return false;
+        }
+      } while (!references.compareAndSet(current, current + 1));
+      return true;
+    }
+
+    void release() {
+      if (references.decrementAndGet() == 0) {
+        memory.close();
+      }
+    }
+  }
+
+  static final class Key {
+
+    private final Kind kind;
+    private final String input;
+    private final int styleId;
+    private final boolean interrogativeUpspeak;
+    private final byte[] modelId;
+    private final String coreVersion;
+    private final long userDictStamp;
+    private final int hash;
+
+    private Key(Kind kind, String input, int styleId, boolean interrogativeUpspeak, byte[] modelId,
+                String coreVersion, long userDictStamp) {
+      this.kind = kind;
+      this.input = input;
+      this.styleId = styleId;
+      this.interrogativeUpspeak = interrogativeUpspeak;
+      this.modelId = modelId;
+      this.coreVersion = coreVersion;
+      this.userDictStamp = userDictStamp;
+      this.hash = Objects.hash(kind, input, styleId, interrogativeUpspeak, Arrays.hashCode(modelId), coreVersion,
+          userDictStamp);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key other)) {
+        return false;
+      }
+      return kind == other.kind && styleId == other.styleId && interrogativeUpspeak == other.interrogativeUpspeak
+          && userDictStamp == other.userDictStamp && input.equals(other.input) && Arrays.equals(modelId, other.modelId)
+          && coreVersion.equals(other.coreVersion);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
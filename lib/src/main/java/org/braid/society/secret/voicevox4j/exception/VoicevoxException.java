@@ -1,11 +1,15 @@
 package org.braid.society.secret.voicevox4j.exception;
 
+import java.util.function.IntFunction;
+
 /**
  * Voicevox操作中に発生するエラーを表す例外クラス。
  */
 public class VoicevoxException extends Exception {
 
     private final int resultCode;
+    private final transient IntFunction<String> describer;
+    private volatile String resolvedMessage;
 
     /**
      * エラーメッセージと結果コードを指定してVoicevoxExceptionを作成します。
@@ -16,6 +20,7 @@ public class VoicevoxException extends Exception {
     public VoicevoxException(String message, int resultCode) {
         super(message);
         this.resultCode = resultCode;
+        this.describer = null;
     }
 
     /**
@@ -28,6 +33,23 @@ public class VoicevoxException extends Exception {
     public VoicevoxException(String message, int resultCode, Throwable cause) {
         super(message, cause);
         this.resultCode = resultCode;
+        this.describer = null;
+    }
+
+    /**
+     * 結果コードの説明を、メッセージが最初に参照された時点で取得するVoicevoxExceptionを作成します。
+     * <p>
+     * メッセージは{@code message + ": " + describer.apply(resultCode)}になります。
+     * 例外を捕捉して結果コードだけを確認する場合は、説明を取得するネイティブ関数の呼び出しと文字列の連結が行われません。
+     *
+     * @param message エラーメッセージ
+     * @param resultCode Voicevoxの結果コード
+     * @param describer 結果コードを説明に変換する関数（{@code voicevox_error_result_to_message}など）
+     */
+    public VoicevoxException(String message, int resultCode, IntFunction<String> describer) {
+        super(message);
+        this.resultCode = resultCode;
+        this.describer = describer;
     }
 
     /**
@@ -38,4 +60,18 @@ public class VoicevoxException extends Exception {
     public int getResultCode() {
         return resultCode;
     }
+
+    @Override
+    public String getMessage() {
+        String message = resolvedMessage;
+        if (message != null) {
+            return message;
+        }
+        if (describer == null) {
+            return super.getMessage();
+        }
+        message = super.getMessage() + ": " + describer.apply(resultCode);
+        resolvedMessage = message;
+        return message;
+    }
 }
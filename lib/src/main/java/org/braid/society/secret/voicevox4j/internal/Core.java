@@ -4,6 +4,7 @@ import com.sun.jna.Library;
 import com.sun.jna.Pointer;
 import com.sun.jna.ptr.IntByReference;
 import com.sun.jna.ptr.PointerByReference;
+import java.nio.ByteBuffer;
 import org.braid.society.secret.voicevox4j.internal.structs.OpenJtalkRc;
 import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxInitializeOptions;
 import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxLoadOnnxruntimeOptions;
@@ -52,6 +53,7 @@ public interface Core extends Library {
   int voicevox_open_jtalk_rc_new(String open_jtalk_dic_dir, PointerByReference out_open_jtalk);
   int voicevox_open_jtalk_rc_use_user_dict(OpenJtalkRc open_jtalk, VoicevoxUserDict user_dict);
   int voicevox_open_jtalk_rc_analyze(OpenJtalkRc open_jtalk, String text, PointerByReference output_accent_phrases_json);
+  int voicevox_open_jtalk_rc_analyze(OpenJtalkRc open_jtalk, Pointer text, PointerByReference output_accent_phrases_json);
   void voicevox_open_jtalk_rc_delete(OpenJtalkRc open_jtalk);
 
   // VoicevoxSynthesizer関連
@@ -66,19 +68,29 @@ public interface Core extends Library {
   Pointer voicevox_synthesizer_create_metas_json(VoicevoxSynthesizer synthesizer);
 
   int voicevox_synthesizer_create_audio_query_from_kana(VoicevoxSynthesizer synthesizer, String kana, int style_id, PointerByReference output_audio_query_json);
+  int voicevox_synthesizer_create_audio_query_from_kana(VoicevoxSynthesizer synthesizer, Pointer kana, int style_id, PointerByReference output_audio_query_json);
   int voicevox_synthesizer_create_audio_query(VoicevoxSynthesizer synthesizer, String text, int style_id, PointerByReference output_audio_query_json);
+  int voicevox_synthesizer_create_audio_query(VoicevoxSynthesizer synthesizer, Pointer text, int style_id, PointerByReference output_audio_query_json);
   int voicevox_synthesizer_create_accent_phrases_from_kana(VoicevoxSynthesizer synthesizer, String kana, int style_id, PointerByReference output_accent_phrases_json);
+  int voicevox_synthesizer_create_accent_phrases_from_kana(VoicevoxSynthesizer synthesizer, Pointer kana, int style_id, PointerByReference output_accent_phrases_json);
   int voicevox_synthesizer_create_accent_phrases(VoicevoxSynthesizer synthesizer, String text, int style_id, PointerByReference output_accent_phrases_json);
+  int voicevox_synthesizer_create_accent_phrases(VoicevoxSynthesizer synthesizer, Pointer text, int style_id, PointerByReference output_accent_phrases_json);
   int voicevox_synthesizer_replace_mora_data(VoicevoxSynthesizer synthesizer, String accent_phrases_json, int style_id, PointerByReference output_accent_phrases_json);
+  int voicevox_synthesizer_replace_mora_data(VoicevoxSynthesizer synthesizer, Pointer accent_phrases_json, int style_id, PointerByReference output_accent_phrases_json);
   int voicevox_synthesizer_replace_phoneme_length(VoicevoxSynthesizer synthesizer, String accent_phrases_json, int style_id, PointerByReference output_accent_phrases_json);
+  int voicevox_synthesizer_replace_phoneme_length(VoicevoxSynthesizer synthesizer, Pointer accent_phrases_json, int style_id, PointerByReference output_accent_phrases_json);
   int voicevox_synthesizer_replace_mora_pitch(VoicevoxSynthesizer synthesizer, String accent_phrases_json, int style_id, PointerByReference output_accent_phrases_json);
+  int voicevox_synthesizer_replace_mora_pitch(VoicevoxSynthesizer synthesizer, Pointer accent_phrases_json, int style_id, PointerByReference output_accent_phrases_json);
 
   VoicevoxSynthesisOptions.ByValue voicevox_make_default_synthesis_options();
   int voicevox_synthesizer_synthesis(VoicevoxSynthesizer synthesizer, String audio_query_json, int style_id, VoicevoxSynthesisOptions options, IntByReference output_wav_length, PointerByReference output_wav);
+  int voicevox_synthesizer_synthesis(VoicevoxSynthesizer synthesizer, Pointer audio_query_json, int style_id, VoicevoxSynthesisOptions options, IntByReference output_wav_length, PointerByReference output_wav);
 
   VoicevoxTtsOptions.ByValue voicevox_make_default_tts_options();
   int voicevox_synthesizer_tts_from_kana(VoicevoxSynthesizer synthesizer, String kana, int style_id, VoicevoxTtsOptions options, IntByReference output_wav_length, PointerByReference output_wav);
+  int voicevox_synthesizer_tts_from_kana(VoicevoxSynthesizer synthesizer, Pointer kana, int style_id, VoicevoxTtsOptions options, IntByReference output_wav_length, PointerByReference output_wav);
   int voicevox_synthesizer_tts(VoicevoxSynthesizer synthesizer, String text, int style_id, VoicevoxTtsOptions options, IntByReference output_wav_length, PointerByReference output_wav);
+  int voicevox_synthesizer_tts(VoicevoxSynthesizer synthesizer, Pointer text, int style_id, VoicevoxTtsOptions options, IntByReference output_wav_length, PointerByReference output_wav);
 
   // VoicevoxVoiceModelFile関連
   int voicevox_voice_model_file_open(String path, PointerByReference out_model);
@@ -107,4 +119,130 @@ public interface Core extends Library {
 
   // その他
   String voicevox_get_version();
+
+  // バックエンドに依存しない出力引数とアドレスを使用する、合成のホットパス用のメソッド
+  // 既定の実装は上記のJNAの型を使う関数に委譲し、出力値をNativeOutParams#capture(int)で取り込む。
+  // FFMによるバインディングはこれらを上書きし、JNAの型を介さずに呼び出す
+
+  default int voicevox_synthesizer_create_audio_query_from_kana(VoicevoxSynthesizer synthesizer, String kana, int style_id, NativeOutParams out) {
+    return out.capture(voicevox_synthesizer_create_audio_query_from_kana(synthesizer, kana, style_id, out.getPointer()));
+  }
+
+  default int voicevox_synthesizer_create_audio_query_from_kana(VoicevoxSynthesizer synthesizer, Pointer kana, int style_id, NativeOutParams out) {
+    return out.capture(voicevox_synthesizer_create_audio_query_from_kana(synthesizer, kana, style_id, out.getPointer()));
+  }
+
+  default int voicevox_synthesizer_create_audio_query(VoicevoxSynthesizer synthesizer, String text, int style_id, NativeOutParams out) {
+    return out.capture(voicevox_synthesizer_create_audio_query(synthesizer, text, style_id, out.getPointer()));
+  }
+
+  default int voicevox_synthesizer_create_audio_query(VoicevoxSynthesizer synthesizer, Pointer text, int style_id, NativeOutParams out) {
+    return out.capture(voicevox_synthesizer_create_audio_query(synthesizer, text, style_id, out.getPointer()));
+  }
+
+  default int voicevox_synthesizer_create_accent_phrases_from_kana(VoicevoxSynthesizer synthesizer, String kana, int style_id, NativeOutParams out) {
+    return out.capture(voicevox_synthesizer_create_accent_phrases_from_kana(synthesizer, kana, style_id, out.getPointer()));
+  }
+
+  default int voicevox_synthesizer_create_accent_phrases_from_kana(VoicevoxSynthesizer synthesizer, Pointer kana, int style_id, NativeOutParams out) {
+    return out.capture(voicevox_synthesizer_create_accent_phrases_from_kana(synthesizer, kana, style_id, out.getPointer()));
+  }
+
+  default int voicevox_synthesizer_create_accent_phrases(VoicevoxSynthesizer synthesizer, String text, int style_id, NativeOutParams out) {
+    return out.capture(voicevox_synthesizer_create_accent_phrases(synthesizer, text, style_id, out.getPointer()));
+  }
+
+  default int voicevox_synthesizer_create_accent_phrases(VoicevoxSynthesizer synthesizer, Pointer text, int style_id, NativeOutParams out) {
+    return out.capture(voicevox_synthesizer_create_accent_phrases(synthesizer, text, style_id, out.getPointer()));
+  }
+
+  default int voicevox_synthesizer_replace_mora_data(VoicevoxSynthesizer synthesizer, String accent_phrases_json, int style_id, NativeOutParams out) {
+    return out.capture(voicevox_synthesizer_replace_mora_data(synthesizer, accent_phrases_json, style_id, out.getPointer()));
+  }
+
+  default int voicevox_synthesizer_replace_mora_data(VoicevoxSynthesizer synthesizer, Pointer accent_phrases_json, int style_id, NativeOutParams out) {
+    return out.capture(voicevox_synthesizer_replace_mora_data(synthesizer, accent_phrases_json, style_id, out.getPointer()));
+  }
+
+  default int voicevox_synthesizer_replace_phoneme_length(VoicevoxSynthesizer synthesizer, String accent_phrases_json, int style_id, NativeOutParams out) {
+    return out.capture(voicevox_synthesizer_replace_phoneme_length(synthesizer, accent_phrases_json, style_id, out.getPointer()));
+  }
+
+  default int voicevox_synthesizer_replace_phoneme_length(VoicevoxSynthesizer synthesizer, Pointer accent_phrases_json, int style_id, NativeOutParams out) {
+    return out.capture(voicevox_synthesizer_replace_phoneme_length(synthesizer, accent_phrases_json, style_id, out.getPointer()));
+  }
+
+  default int voicevox_synthesizer_replace_mora_pitch(VoicevoxSynthesizer synthesizer, String accent_phrases_json, int style_id, NativeOutParams out) {
+    return out.capture(voicevox_synthesizer_replace_mora_pitch(synthesizer, accent_phrases_json, style_id, out.getPointer()));
+  }
+
+  default int voicevox_synthesizer_replace_mora_pitch(VoicevoxSynthesizer synthesizer, Pointer accent_phrases_json, int style_id, NativeOutParams out) {
+    return out.capture(voicevox_synthesizer_replace_mora_pitch(synthesizer, accent_phrases_json, style_id, out.getPointer()));
+  }
+
+  default int voicevox_synthesizer_synthesis(VoicevoxSynthesizer synthesizer, String audio_query_json, int style_id, VoicevoxSynthesisOptions options, NativeOutParams out) {
+    return out.capture(voicevox_synthesizer_synthesis(synthesizer, audio_query_json, style_id, options, out.getLength(), out.getPointer()));
+  }
+
+  default int voicevox_synthesizer_synthesis(VoicevoxSynthesizer synthesizer, Pointer audio_query_json, int style_id, VoicevoxSynthesisOptions options, NativeOutParams out) {
+    return out.capture(voicevox_synthesizer_synthesis(synthesizer, audio_query_json, style_id, options, out.getLength(), out.getPointer()));
+  }
+
+  default int voicevox_synthesizer_tts_from_kana(VoicevoxSynthesizer synthesizer, String kana, int style_id, VoicevoxTtsOptions options, NativeOutParams out) {
+    return out.capture(voicevox_synthesizer_tts_from_kana(synthesizer, kana, style_id, options, out.getLength(), out.getPointer()));
+  }
+
+  default int voicevox_synthesizer_tts_from_kana(VoicevoxSynthesizer synthesizer, Pointer kana, int style_id, VoicevoxTtsOptions options, NativeOutParams out) {
+    return out.capture(voicevox_synthesizer_tts_from_kana(synthesizer, kana, style_id, options, out.getLength(), out.getPointer()));
+  }
+
+  default int voicevox_synthesizer_tts(VoicevoxSynthesizer synthesizer, String text, int style_id, VoicevoxTtsOptions options, NativeOutParams out) {
+    return out.capture(voicevox_synthesizer_tts(synthesizer, text, style_id, options, out.getLength(), out.getPointer()));
+  }
+
+  default int voicevox_synthesizer_tts(VoicevoxSynthesizer synthesizer, Pointer text, int style_id, VoicevoxTtsOptions options, NativeOutParams out) {
+    return out.capture(voicevox_synthesizer_tts(synthesizer, text, style_id, options, out.getLength(), out.getPointer()));
+  }
+
+  default void voicevox_json_free(long json) {
+    voicevox_json_free(new Pointer(json));
+  }
+
+  default void voicevox_wav_free(long wav) {
+    voicevox_wav_free(new Pointer(wav));
+  }
+
+  /**
+   * 指定したアドレスにあるNUL終端のUTF-8文字列をデコードします。
+   *
+   * @param address 文字列のアドレス
+   * @return デコードした文字列
+   */
+  default String getString(long address) {
+    return new Pointer(address).getString(0, "UTF-8");
+  }
+
+  /**
+   * 指定したアドレスにあるNUL終端の文字列を、NUL終端を含めずに参照するダイレクトバッファを作成します。
+   *
+   * @param address 文字列のアドレス
+   * @return 文字列を参照するバッファ
+   */
+  default ByteBuffer getStringBuffer(long address) {
+    Pointer pointer = new Pointer(address);
+    return pointer.getByteBuffer(0, pointer.indexOf(0, (byte) 0));
+  }
+
+  /**
+   * 指定したアドレスから{@code length}バイトを参照するダイレクトバッファを作成します。
+   * <p>
+   * 作成したバッファの{@link ByteBuffer#duplicate()}などのビューは、作成したバッファを参照し続けます。
+   *
+   * @param address 先頭のアドレス
+   * @param length バイト長
+   * @return メモリを参照するバッファ
+   */
+  default ByteBuffer getByteBuffer(long address, long length) {
+    return new Pointer(address).getByteBuffer(0, length);
+  }
 }
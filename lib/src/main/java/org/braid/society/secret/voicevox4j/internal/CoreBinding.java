@@ -0,0 +1,46 @@
+package org.braid.society.secret.voicevox4j.internal;
+
+/**
+ * {@link Core}をネイティブライブラリへ結び付ける方式を表す列挙型です。
+ * <p>
+ * システムプロパティ {@value #PROPERTY_NAME} に列挙子の名前（大文字小文字は区別しません）を指定することで、
+ * {@link NativeVoicevoxLibrary#load(java.nio.file.Path)}が使用する方式を固定できます。
+ * 指定がない場合は、JDK 22以降では{@link #FOREIGN}、{@link #DIRECT}、{@link #PROXY}の順に、
+ * それより前のJDKでは{@link #DIRECT}、{@link #PROXY}の順に試みます。
+ */
+public enum CoreBinding {
+
+  /**
+   * Foreign Function &amp; Memory API（{@code java.lang.foreign}）のダウンコールを使用します。
+   * JDK 22以降でのみ使用でき、マルチリリースJARの{@code META-INF/versions/22}に含まれる実装が選択されます。
+   * <p>
+   * ネイティブアクセスの警告を抑制するには、{@code --enable-native-access=voicevox4j.lib.api}
+   * （クラスパス上で使用する場合は{@code ALL-UNNAMED}）を指定してください。
+   * <p>
+   * 合成のホットパスでは、出力引数と入力文字列をスレッドごとに再利用するセグメントに確保し、
+   * WAVとJSONを{@code MemorySegment}から直接読み取るため、JNAによる変換は発生しません。
+   */
+  FOREIGN,
+
+  /**
+   * JNAのダイレクトマッピング（{@code Native.register}）による静的ネイティブメソッドを使用します。
+   * 呼び出しごとのリフレクションや引数のボクシングが発生しないため、高頻度の呼び出しに適しています。
+   */
+  DIRECT,
+
+  /**
+   * JNAのインターフェースマッピング（{@code Native.load}）による動的プロキシを使用します。
+   * すべての環境で動作する従来の方式です。
+   */
+  PROXY;
+
+  /**
+   * 使用するバインディングを指定するシステムプロパティ名です。
+   */
+  public static final String PROPERTY_NAME = "voicevox4j.binding";
+
+  /**
+   * {@link #FOREIGN}を使用できるJDKのフィーチャーリリース番号です。
+   */
+  static final int FOREIGN_FEATURE_VERSION = 22;
+}
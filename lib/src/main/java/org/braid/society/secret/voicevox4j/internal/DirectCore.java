@@ -0,0 +1,574 @@
+package org.braid.society.secret.voicevox4j.internal;
+
+import com.sun.jna.Native;
+import com.sun.jna.NativeLibrary;
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.IntByReference;
+import com.sun.jna.ptr.PointerByReference;
+import org.braid.society.secret.voicevox4j.internal.structs.OpenJtalkRc;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxInitializeOptions;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxLoadOnnxruntimeOptions;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxOnnxruntime;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxSynthesisOptions;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxSynthesizer;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxTtsOptions;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxUserDict;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxUserDictWord;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxVoiceModelFile;
+
+/**
+ * JNAのダイレクトマッピングによって{@link Core}を実装したクラスです。
+ * <p>
+ * 関数は{@link Natives}の静的ネイティブメソッドとして{@link Native#register(Class, NativeLibrary)}で登録され、
+ * インターフェースマッピングのような動的プロキシによるディスパッチや引数のボクシングを経由せずに呼び出されます。
+ * <p>
+ * ダイレクトマッピングでは宣言された型に基づいて変換方法が決まるため、
+ * 出力引数は{@link PointerByReference}ではなくその背後のメモリ（{@link Pointer}）として渡し、
+ * C APIで値渡しとなっているオプション構造体は{@code ByValue}型として宣言しています。
+ * <p>
+ * 文字列の引数は{@link #cString(String)}でNUL終端のUTF-8バイト列に変換してから渡すため、
+ * ライブラリのオプションやシステムプロパティ{@code jna.encoding}には依存せず、グローバルな状態も参照しません。
+ * @apiNote
+ * 静的ネイティブメソッドはクラス単位で登録されるため、1つのプロセス内でダイレクトマッピングできるライブラリは1つだけです。
+ * @see NativeVoicevoxLibrary
+ * @see CoreBinding#DIRECT
+ */
+public final class DirectCore implements Core {
+
+  private static final Object LOCK = new Object();
+  private static NativeLibrary registeredLibrary;
+
+  private DirectCore() {
+    // use bind(NativeLibrary)
+  }
+
+  /**
+   * 指定したライブラリの関数を静的ネイティブメソッドに登録し、{@link Core}として返します。
+   *
+   * @param library 登録対象のネイティブライブラリ
+   * @return ダイレクトマッピングされた{@link Core}
+   * @throws UnsatisfiedLinkError ライブラリに存在しない関数があった場合
+   * @throws IllegalStateException 既に別のライブラリが登録されていた場合
+   */
+  static Core bind(NativeLibrary library) {
+    synchronized (LOCK) {
+      if (registeredLibrary == null) {
+        Native.register(Natives.class, library);
+        registeredLibrary = library;
+      } else if (!registeredLibrary.getFile().equals(library.getFile())) {
+        throw new IllegalStateException("Direct mapping is already bound to " + registeredLibrary.getFile());
+      }
+      return new DirectCore();
+    }
+  }
+
+  /**
+   * 文字列をC APIに渡すNUL終端のUTF-8バイト列に変換します。
+   *
+   * @param value 変換する文字列
+   * @return NUL終端のUTF-8バイト列。{@code value}がnullの場合はnull
+   */
+  static byte[] cString(String value) {
+    if (value == null) {
+      return null;
+    }
+    // 長さを数えてから直接エンコードし、NUL終端を含む配列を1回の割り当てで作成する
+    int length = value.length();
+    int size = 0;
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        size += 1;
+      } else if (c < 0x800) {
+        size += 2;
+      } else if (Character.isSurrogate(c)) {
+        if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+          size += 4;
+          i++;
+        } else {
+          size += 1;
+        }
+      } else {
+        size += 3;
+      }
+    }
+    byte[] bytes = new byte[size + 1];
+    int position = 0;
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        bytes[position++] = (byte) c;
+      } else if (c < 0x800) {
+        bytes[position++] = (byte) (0xC0 | (c >> 6));
+        bytes[position++] = (byte) (0x80 | (c & 0x3F));
+      } else if (Character.isSurrogate(c)) {
+        if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+          int codePoint = Character.toCodePoint(c, value.charAt(++i));
+          bytes[position++] = (byte) (0xF0 | (codePoint >> 18));
+          bytes[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+          bytes[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+          bytes[position++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else {
+          // String#getBytes(UTF_8)と同じく、対になっていないサロゲートは'?'に置き換える
+          bytes[position++] = '?';
+        }
+      } else {
+        bytes[position++] = (byte) (0xE0 | (c >> 12));
+        bytes[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        bytes[position++] = (byte) (0x80 | (c & 0x3F));
+      }
+    }
+    return bytes;
+  }
+
+  private static VoicevoxTtsOptions.ByValue byValue(VoicevoxTtsOptions options) {
+    if (options instanceof VoicevoxTtsOptions.ByValue) {
+      return (VoicevoxTtsOptions.ByValue) options;
+    }
+    VoicevoxTtsOptions.ByValue copy = new VoicevoxTtsOptions.ByValue();
+    copy.enable_interrogative_upspeak = options.enable_interrogative_upspeak;
+    return copy;
+  }
+
+  private static VoicevoxSynthesisOptions.ByValue byValue(VoicevoxSynthesisOptions options) {
+    if (options instanceof VoicevoxSynthesisOptions.ByValue) {
+      return (VoicevoxSynthesisOptions.ByValue) options;
+    }
+    VoicevoxSynthesisOptions.ByValue copy = new VoicevoxSynthesisOptions.ByValue();
+    copy.enable_interrogative_upspeak = options.enable_interrogative_upspeak;
+    return copy;
+  }
+
+  private static VoicevoxInitializeOptions.ByValue byValue(VoicevoxInitializeOptions options) {
+    if (options instanceof VoicevoxInitializeOptions.ByValue) {
+      return (VoicevoxInitializeOptions.ByValue) options;
+    }
+    VoicevoxInitializeOptions.ByValue copy = new VoicevoxInitializeOptions.ByValue();
+    copy.acceleration_mode = options.acceleration_mode;
+    copy.cpu_num_threads = options.cpu_num_threads;
+    return copy;
+  }
+
+  private static VoicevoxLoadOnnxruntimeOptions.ByValue byValue(VoicevoxLoadOnnxruntimeOptions options) {
+    if (options instanceof VoicevoxLoadOnnxruntimeOptions.ByValue) {
+      return (VoicevoxLoadOnnxruntimeOptions.ByValue) options;
+    }
+    VoicevoxLoadOnnxruntimeOptions.ByValue copy = new VoicevoxLoadOnnxruntimeOptions.ByValue();
+    copy.filename = options.filename;
+    return copy;
+  }
+
+  private static VoicevoxOnnxruntime onnxruntime(Pointer pointer) {
+    return pointer == null ? null : new VoicevoxOnnxruntime(Pointer.nativeValue(pointer));
+  }
+
+  // ONNX Runtime関連
+
+  @Override
+  public String voicevox_get_onnxruntime_lib_versioned_filename() {
+    return Natives.voicevox_get_onnxruntime_lib_versioned_filename();
+  }
+
+  @Override
+  public String voicevox_get_onnxruntime_lib_unversioned_filename() {
+    return Natives.voicevox_get_onnxruntime_lib_unversioned_filename();
+  }
+
+  @Override
+  public VoicevoxLoadOnnxruntimeOptions.ByValue voicevox_make_default_load_onnxruntime_options() {
+    return Natives.voicevox_make_default_load_onnxruntime_options();
+  }
+
+  @Override
+  public VoicevoxOnnxruntime voicevox_onnxruntime_get() {
+    return onnxruntime(Natives.voicevox_onnxruntime_get());
+  }
+
+  @Override
+  public int voicevox_onnxruntime_load_once(VoicevoxLoadOnnxruntimeOptions options, PointerByReference out_onnxruntime) {
+    return Natives.voicevox_onnxruntime_load_once(byValue(options), out_onnxruntime.getPointer());
+  }
+
+  @Override
+  public int voicevox_onnxruntime_create_supported_devices_json(VoicevoxOnnxruntime onnxruntime, PointerByReference output_supported_devices_json) {
+    return Natives.voicevox_onnxruntime_create_supported_devices_json(onnxruntime, output_supported_devices_json.getPointer());
+  }
+
+  // OpenJtalkRc関連
+
+  @Override
+  public int voicevox_open_jtalk_rc_new(String open_jtalk_dic_dir, PointerByReference out_open_jtalk) {
+    return Natives.voicevox_open_jtalk_rc_new(cString(open_jtalk_dic_dir), out_open_jtalk.getPointer());
+  }
+
+  @Override
+  public int voicevox_open_jtalk_rc_use_user_dict(OpenJtalkRc open_jtalk, VoicevoxUserDict user_dict) {
+    return Natives.voicevox_open_jtalk_rc_use_user_dict(open_jtalk, user_dict);
+  }
+
+  @Override
+  public int voicevox_open_jtalk_rc_analyze(OpenJtalkRc open_jtalk, String text, PointerByReference output_accent_phrases_json) {
+    return Natives.voicevox_open_jtalk_rc_analyze(open_jtalk, cString(text), output_accent_phrases_json.getPointer());
+  }
+
+  @Override
+  public int voicevox_open_jtalk_rc_analyze(OpenJtalkRc open_jtalk, Pointer text, PointerByReference output_accent_phrases_json) {
+    return Natives.voicevox_open_jtalk_rc_analyze(open_jtalk, text, output_accent_phrases_json.getPointer());
+  }
+
+  @Override
+  public void voicevox_open_jtalk_rc_delete(OpenJtalkRc open_jtalk) {
+    Natives.voicevox_open_jtalk_rc_delete(open_jtalk);
+  }
+
+  // VoicevoxSynthesizer関連
+
+  @Override
+  public VoicevoxInitializeOptions.ByValue voicevox_make_default_initialize_options() {
+    return Natives.voicevox_make_default_initialize_options();
+  }
+
+  @Override
+  public int voicevox_synthesizer_new(VoicevoxOnnxruntime onnxruntime, OpenJtalkRc open_jtalk, VoicevoxInitializeOptions options, PointerByReference out_synthesizer) {
+    return Natives.voicevox_synthesizer_new(onnxruntime, open_jtalk, byValue(options), out_synthesizer.getPointer());
+  }
+
+  @Override
+  public void voicevox_synthesizer_delete(VoicevoxSynthesizer synthesizer) {
+    Natives.voicevox_synthesizer_delete(synthesizer);
+  }
+
+  @Override
+  public int voicevox_synthesizer_load_voice_model(VoicevoxSynthesizer synthesizer, VoicevoxVoiceModelFile model) {
+    return Natives.voicevox_synthesizer_load_voice_model(synthesizer, model);
+  }
+
+  @Override
+  public int voicevox_synthesizer_unload_voice_model(VoicevoxSynthesizer synthesizer, byte[] model_id) {
+    return Natives.voicevox_synthesizer_unload_voice_model(synthesizer, model_id);
+  }
+
+  @Override
+  public VoicevoxOnnxruntime voicevox_synthesizer_get_onnxruntime(VoicevoxSynthesizer synthesizer) {
+    return onnxruntime(Natives.voicevox_synthesizer_get_onnxruntime(synthesizer));
+  }
+
+  @Override
+  public boolean voicevox_synthesizer_is_gpu_mode(VoicevoxSynthesizer synthesizer) {
+    return Natives.voicevox_synthesizer_is_gpu_mode(synthesizer);
+  }
+
+  @Override
+  public boolean voicevox_synthesizer_is_loaded_voice_model(VoicevoxSynthesizer synthesizer, byte[] model_id) {
+    return Natives.voicevox_synthesizer_is_loaded_voice_model(synthesizer, model_id);
+  }
+
+  @Override
+  public Pointer voicevox_synthesizer_create_metas_json(VoicevoxSynthesizer synthesizer) {
+    return Natives.voicevox_synthesizer_create_metas_json(synthesizer);
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_audio_query_from_kana(VoicevoxSynthesizer synthesizer, String kana, int style_id, PointerByReference output_audio_query_json) {
+    return Natives.voicevox_synthesizer_create_audio_query_from_kana(synthesizer, cString(kana), style_id, output_audio_query_json.getPointer());
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_audio_query_from_kana(VoicevoxSynthesizer synthesizer, Pointer kana, int style_id, PointerByReference output_audio_query_json) {
+    return Natives.voicevox_synthesizer_create_audio_query_from_kana(synthesizer, kana, style_id, output_audio_query_json.getPointer());
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_audio_query(VoicevoxSynthesizer synthesizer, String text, int style_id, PointerByReference output_audio_query_json) {
+    return Natives.voicevox_synthesizer_create_audio_query(synthesizer, cString(text), style_id, output_audio_query_json.getPointer());
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_audio_query(VoicevoxSynthesizer synthesizer, Pointer text, int style_id, PointerByReference output_audio_query_json) {
+    return Natives.voicevox_synthesizer_create_audio_query(synthesizer, text, style_id, output_audio_query_json.getPointer());
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_accent_phrases_from_kana(VoicevoxSynthesizer synthesizer, String kana, int style_id, PointerByReference output_accent_phrases_json) {
+    return Natives.voicevox_synthesizer_create_accent_phrases_from_kana(synthesizer, cString(kana), style_id, output_accent_phrases_json.getPointer());
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_accent_phrases_from_kana(VoicevoxSynthesizer synthesizer, Pointer kana, int style_id, PointerByReference output_accent_phrases_json) {
+    return Natives.voicevox_synthesizer_create_accent_phrases_from_kana(synthesizer, kana, style_id, output_accent_phrases_json.getPointer());
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_accent_phrases(VoicevoxSynthesizer synthesizer, String text, int style_id, PointerByReference output_accent_phrases_json) {
+    return Natives.voicevox_synthesizer_create_accent_phrases(synthesizer, cString(text), style_id, output_accent_phrases_json.getPointer());
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_accent_phrases(VoicevoxSynthesizer synthesizer, Pointer text, int style_id, PointerByReference output_accent_phrases_json) {
+    return Natives.voicevox_synthesizer_create_accent_phrases(synthesizer, text, style_id, output_accent_phrases_json.getPointer());
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_mora_data(VoicevoxSynthesizer synthesizer, String accent_phrases_json, int style_id, PointerByReference output_accent_phrases_json) {
+    return Natives.voicevox_synthesizer_replace_mora_data(synthesizer, cString(accent_phrases_json), style_id, output_accent_phrases_json.getPointer());
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_mora_data(VoicevoxSynthesizer synthesizer, Pointer accent_phrases_json, int style_id, PointerByReference output_accent_phrases_json) {
+    return Natives.voicevox_synthesizer_replace_mora_data(synthesizer, accent_phrases_json, style_id, output_accent_phrases_json.getPointer());
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_phoneme_length(VoicevoxSynthesizer synthesizer, String accent_phrases_json, int style_id, PointerByReference output_accent_phrases_json) {
+    return Natives.voicevox_synthesizer_replace_phoneme_length(synthesizer, cString(accent_phrases_json), style_id, output_accent_phrases_json.getPointer());
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_phoneme_length(VoicevoxSynthesizer synthesizer, Pointer accent_phrases_json, int style_id, PointerByReference output_accent_phrases_json) {
+    return Natives.voicevox_synthesizer_replace_phoneme_length(synthesizer, accent_phrases_json, style_id, output_accent_phrases_json.getPointer());
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_mora_pitch(VoicevoxSynthesizer synthesizer, String accent_phrases_json, int style_id, PointerByReference output_accent_phrases_json) {
+    return Natives.voicevox_synthesizer_replace_mora_pitch(synthesizer, cString(accent_phrases_json), style_id, output_accent_phrases_json.getPointer());
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_mora_pitch(VoicevoxSynthesizer synthesizer, Pointer accent_phrases_json, int style_id, PointerByReference output_accent_phrases_json) {
+    return Natives.voicevox_synthesizer_replace_mora_pitch(synthesizer, accent_phrases_json, style_id, output_accent_phrases_json.getPointer());
+  }
+
+  @Override
+  public VoicevoxSynthesisOptions.ByValue voicevox_make_default_synthesis_options() {
+    return Natives.voicevox_make_default_synthesis_options();
+  }
+
+  @Override
+  public int voicevox_synthesizer_synthesis(VoicevoxSynthesizer synthesizer, String audio_query_json, int style_id, VoicevoxSynthesisOptions options, IntByReference output_wav_length, PointerByReference output_wav) {
+    return Natives.voicevox_synthesizer_synthesis(synthesizer, cString(audio_query_json), style_id, byValue(options), output_wav_length.getPointer(), output_wav.getPointer());
+  }
+
+  @Override
+  public int voicevox_synthesizer_synthesis(VoicevoxSynthesizer synthesizer, Pointer audio_query_json, int style_id, VoicevoxSynthesisOptions options, IntByReference output_wav_length, PointerByReference output_wav) {
+    return Natives.voicevox_synthesizer_synthesis(synthesizer, audio_query_json, style_id, byValue(options), output_wav_length.getPointer(), output_wav.getPointer());
+  }
+
+  @Override
+  public VoicevoxTtsOptions.ByValue voicevox_make_default_tts_options() {
+    return Natives.voicevox_make_default_tts_options();
+  }
+
+  @Override
+  public int voicevox_synthesizer_tts_from_kana(VoicevoxSynthesizer synthesizer, String kana, int style_id, VoicevoxTtsOptions options, IntByReference output_wav_length, PointerByReference output_wav) {
+    return Natives.voicevox_synthesizer_tts_from_kana(synthesizer, cString(kana), style_id, byValue(options), output_wav_length.getPointer(), output_wav.getPointer());
+  }
+
+  @Override
+  public int voicevox_synthesizer_tts_from_kana(VoicevoxSynthesizer synthesizer, Pointer kana, int style_id, VoicevoxTtsOptions options, IntByReference output_wav_length, PointerByReference output_wav) {
+    return Natives.voicevox_synthesizer_tts_from_kana(synthesizer, kana, style_id, byValue(options), output_wav_length.getPointer(), output_wav.getPointer());
+  }
+
+  @Override
+  public int voicevox_synthesizer_tts(VoicevoxSynthesizer synthesizer, String text, int style_id, VoicevoxTtsOptions options, IntByReference output_wav_length, PointerByReference output_wav) {
+    return Natives.voicevox_synthesizer_tts(synthesizer, cString(text), style_id, byValue(options), output_wav_length.getPointer(), output_wav.getPointer());
+  }
+
+  @Override
+  public int voicevox_synthesizer_tts(VoicevoxSynthesizer synthesizer, Pointer text, int style_id, VoicevoxTtsOptions options, IntByReference output_wav_length, PointerByReference output_wav) {
+    return Natives.voicevox_synthesizer_tts(synthesizer, text, style_id, byValue(options), output_wav_length.getPointer(), output_wav.getPointer());
+  }
+
+  // VoicevoxVoiceModelFile関連
+
+  @Override
+  public int voicevox_voice_model_file_open(String path, PointerByReference out_model) {
+    return Natives.voicevox_voice_model_file_open(cString(path), out_model.getPointer());
+  }
+
+  @Override
+  public void voicevox_voice_model_file_id(VoicevoxVoiceModelFile model, byte[] output_voice_model_id) {
+    Natives.voicevox_voice_model_file_id(model, output_voice_model_id);
+  }
+
+  @Override
+  public Pointer voicevox_voice_model_file_create_metas_json(VoicevoxVoiceModelFile model) {
+    return Natives.voicevox_voice_model_file_create_metas_json(model);
+  }
+
+  @Override
+  public void voicevox_voice_model_file_delete(VoicevoxVoiceModelFile model) {
+    Natives.voicevox_voice_model_file_delete(model);
+  }
+
+  // メモリ解放関連
+
+  @Override
+  public void voicevox_json_free(Pointer json) {
+    Natives.voicevox_json_free(json);
+  }
+
+  @Override
+  public void voicevox_wav_free(Pointer wav) {
+    Natives.voicevox_wav_free(wav);
+  }
+
+  // エラーメッセージ
+
+  @Override
+  public String voicevox_error_result_to_message(int result_code) {
+    return Natives.voicevox_error_result_to_message(result_code);
+  }
+
+  // ユーザー辞書関連
+
+  @Override
+  public VoicevoxUserDictWord.ByValue voicevox_user_dict_word_make(String surface, String pronunciation, long accent_type) {
+    return Natives.voicevox_user_dict_word_make(surface, pronunciation, accent_type);
+  }
+
+  @Override
+  public Pointer voicevox_user_dict_new() {
+    return Natives.voicevox_user_dict_new();
+  }
+
+  @Override
+  public int voicevox_user_dict_load(VoicevoxUserDict user_dict, String dict_path) {
+    return Natives.voicevox_user_dict_load(user_dict, cString(dict_path));
+  }
+
+  @Override
+  public int voicevox_user_dict_add_word(VoicevoxUserDict user_dict, VoicevoxUserDictWord word, byte[] output_word_uuid) {
+    return Natives.voicevox_user_dict_add_word(user_dict, word, output_word_uuid);
+  }
+
+  @Override
+  public int voicevox_user_dict_update_word(VoicevoxUserDict user_dict, byte[] word_uuid, VoicevoxUserDictWord word) {
+    return Natives.voicevox_user_dict_update_word(user_dict, word_uuid, word);
+  }
+
+  @Override
+  public int voicevox_user_dict_remove_word(VoicevoxUserDict user_dict, byte[] word_uuid) {
+    return Natives.voicevox_user_dict_remove_word(user_dict, word_uuid);
+  }
+
+  @Override
+  public int voicevox_user_dict_to_json(VoicevoxUserDict user_dict, PointerByReference output_json) {
+    return Natives.voicevox_user_dict_to_json(user_dict, output_json.getPointer());
+  }
+
+  @Override
+  public int voicevox_user_dict_import(VoicevoxUserDict user_dict, VoicevoxUserDict other_dict) {
+    return Natives.voicevox_user_dict_import(user_dict, other_dict);
+  }
+
+  @Override
+  public int voicevox_user_dict_save(VoicevoxUserDict user_dict, String path) {
+    return Natives.voicevox_user_dict_save(user_dict, cString(path));
+  }
+
+  @Override
+  public void voicevox_user_dict_delete(VoicevoxUserDict user_dict) {
+    Natives.voicevox_user_dict_delete(user_dict);
+  }
+
+  // その他
+
+  @Override
+  public String voicevox_get_version() {
+    return Natives.voicevox_get_version();
+  }
+
+  /**
+   * {@link Native#register(Class, NativeLibrary)}で登録される静的ネイティブメソッドの集合です。
+   * <p>
+   * 宣言はC APIの関数と1対1に対応しています。
+   * 戻り値のハンドル型はダイレクトマッピングで扱えないため{@link Pointer}として宣言しています。
+   * 入力文字列はNUL終端のUTF-8バイト列（{@code byte[]}）として宣言しています。
+   * 既にネイティブメモリ上にあるJSONを受け取る関数は、{@link Pointer}を受け取るオーバーロードも宣言しています。
+   */
+  static final class Natives {
+
+    private Natives() {
+      // Prevent instantiation
+    }
+
+    // ONNX Runtime関連
+    static native String voicevox_get_onnxruntime_lib_versioned_filename();
+    static native String voicevox_get_onnxruntime_lib_unversioned_filename();
+    static native VoicevoxLoadOnnxruntimeOptions.ByValue voicevox_make_default_load_onnxruntime_options();
+    static native Pointer voicevox_onnxruntime_get();
+    static native int voicevox_onnxruntime_load_once(VoicevoxLoadOnnxruntimeOptions.ByValue options, Pointer out_onnxruntime);
+    static native int voicevox_onnxruntime_create_supported_devices_json(Pointer onnxruntime, Pointer output_supported_devices_json);
+
+    // OpenJtalkRc関連
+    static native int voicevox_open_jtalk_rc_new(byte[] open_jtalk_dic_dir, Pointer out_open_jtalk);
+    static native int voicevox_open_jtalk_rc_use_user_dict(Pointer open_jtalk, Pointer user_dict);
+    static native int voicevox_open_jtalk_rc_analyze(Pointer open_jtalk, byte[] text, Pointer output_accent_phrases_json);
+    static native int voicevox_open_jtalk_rc_analyze(Pointer open_jtalk, Pointer text, Pointer output_accent_phrases_json);
+    static native void voicevox_open_jtalk_rc_delete(Pointer open_jtalk);
+
+    // VoicevoxSynthesizer関連
+    static native VoicevoxInitializeOptions.ByValue voicevox_make_default_initialize_options();
+    static native int voicevox_synthesizer_new(Pointer onnxruntime, Pointer open_jtalk, VoicevoxInitializeOptions.ByValue options, Pointer out_synthesizer);
+    static native void voicevox_synthesizer_delete(Pointer synthesizer);
+    static native int voicevox_synthesizer_load_voice_model(Pointer synthesizer, Pointer model);
+    static native int voicevox_synthesizer_unload_voice_model(Pointer synthesizer, byte[] model_id);
+    static native Pointer voicevox_synthesizer_get_onnxruntime(Pointer synthesizer);
+    static native boolean voicevox_synthesizer_is_gpu_mode(Pointer synthesizer);
+    static native boolean voicevox_synthesizer_is_loaded_voice_model(Pointer synthesizer, byte[] model_id);
+    static native Pointer voicevox_synthesizer_create_metas_json(Pointer synthesizer);
+
+    static native int voicevox_synthesizer_create_audio_query_from_kana(Pointer synthesizer, byte[] kana, int style_id, Pointer output_audio_query_json);
+    static native int voicevox_synthesizer_create_audio_query_from_kana(Pointer synthesizer, Pointer kana, int style_id, Pointer output_audio_query_json);
+    static native int voicevox_synthesizer_create_audio_query(Pointer synthesizer, byte[] text, int style_id, Pointer output_audio_query_json);
+    static native int voicevox_synthesizer_create_audio_query(Pointer synthesizer, Pointer text, int style_id, Pointer output_audio_query_json);
+    static native int voicevox_synthesizer_create_accent_phrases_from_kana(Pointer synthesizer, byte[] kana, int style_id, Pointer output_accent_phrases_json);
+    static native int voicevox_synthesizer_create_accent_phrases_from_kana(Pointer synthesizer, Pointer kana, int style_id, Pointer output_accent_phrases_json);
+    static native int voicevox_synthesizer_create_accent_phrases(Pointer synthesizer, byte[] text, int style_id, Pointer output_accent_phrases_json);
+    static native int voicevox_synthesizer_create_accent_phrases(Pointer synthesizer, Pointer text, int style_id, Pointer output_accent_phrases_json);
+    static native int voicevox_synthesizer_replace_mora_data(Pointer synthesizer, byte[] accent_phrases_json, int style_id, Pointer output_accent_phrases_json);
+    static native int voicevox_synthesizer_replace_mora_data(Pointer synthesizer, Pointer accent_phrases_json, int style_id, Pointer output_accent_phrases_json);
+    static native int voicevox_synthesizer_replace_phoneme_length(Pointer synthesizer, byte[] accent_phrases_json, int style_id, Pointer output_accent_phrases_json);
+    static native int voicevox_synthesizer_replace_phoneme_length(Pointer synthesizer, Pointer accent_phrases_json, int style_id, Pointer output_accent_phrases_json);
+    static native int voicevox_synthesizer_replace_mora_pitch(Pointer synthesizer, byte[] accent_phrases_json, int style_id, Pointer output_accent_phrases_json);
+    static native int voicevox_synthesizer_replace_mora_pitch(Pointer synthesizer, Pointer accent_phrases_json, int style_id, Pointer output_accent_phrases_json);
+
+    static native VoicevoxSynthesisOptions.ByValue voicevox_make_default_synthesis_options();
+    static native int voicevox_synthesizer_synthesis(Pointer synthesizer, byte[] audio_query_json, int style_id, VoicevoxSynthesisOptions.ByValue options, Pointer output_wav_length, Pointer output_wav);
+    static native int voicevox_synthesizer_synthesis(Pointer synthesizer, Pointer audio_query_json, int style_id, VoicevoxSynthesisOptions.ByValue options, Pointer output_wav_length, Pointer output_wav);
+
+    static native VoicevoxTtsOptions.ByValue voicevox_make_default_tts_options();
+    static native int voicevox_synthesizer_tts_from_kana(Pointer synthesizer, byte[] kana, int style_id, VoicevoxTtsOptions.ByValue options, Pointer output_wav_length, Pointer output_wav);
+    static native int voicevox_synthesizer_tts_from_kana(Pointer synthesizer, Pointer kana, int style_id, VoicevoxTtsOptions.ByValue options, Pointer output_wav_length, Pointer output_wav);
+    static native int voicevox_synthesizer_tts(Pointer synthesizer, byte[] text, int style_id, VoicevoxTtsOptions.ByValue options, Pointer output_wav_length, Pointer output_wav);
+    static native int voicevox_synthesizer_tts(Pointer synthesizer, Pointer text, int style_id, VoicevoxTtsOptions.ByValue options, Pointer output_wav_length, Pointer output_wav);
+
+    // VoicevoxVoiceModelFile関連
+    static native int voicevox_voice_model_file_open(byte[] path, Pointer out_model);
+    static native void voicevox_voice_model_file_id(Pointer model, byte[] output_voice_model_id);
+    static native Pointer voicevox_voice_model_file_create_metas_json(Pointer model);
+    static native void voicevox_voice_model_file_delete(Pointer model);
+
+    // メモリ解放関連
+    static native void voicevox_json_free(Pointer json);
+    static native void voicevox_wav_free(Pointer wav);
+
+    // エラーメッセージ
+    static native String voicevox_error_result_to_message(int result_code);
+
+    // ユーザー辞書関連
+    static native VoicevoxUserDictWord.ByValue voicevox_user_dict_word_make(String surface, String pronunciation, long accent_type);
+    static native Pointer voicevox_user_dict_new();
+    static native int voicevox_user_dict_load(Pointer user_dict, byte[] dict_path);
+    static native int voicevox_user_dict_add_word(Pointer user_dict, VoicevoxUserDictWord word, byte[] output_word_uuid);
+    static native int voicevox_user_dict_update_word(Pointer user_dict, byte[] word_uuid, VoicevoxUserDictWord word);
+    static native int voicevox_user_dict_remove_word(Pointer user_dict, byte[] word_uuid);
+    static native int voicevox_user_dict_to_json(Pointer user_dict, Pointer output_json);
+    static native int voicevox_user_dict_import(Pointer user_dict, Pointer other_dict);
+    static native int voicevox_user_dict_save(Pointer user_dict, byte[] path);
+    static native void voicevox_user_dict_delete(Pointer user_dict);
+
+    // その他
+    static native String voicevox_get_version();
+  }
+}
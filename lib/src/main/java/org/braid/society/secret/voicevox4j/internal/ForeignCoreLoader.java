@@ -0,0 +1,28 @@
+package org.braid.society.secret.voicevox4j.internal;
+
+/**
+ * Foreign Function &amp; Memory API（{@code java.lang.foreign}）による{@link Core}の実装をロードするクラスです。
+ * <p>
+ * このクラスはJava 17向けの実装で、ロードは常に失敗します。
+ * JDK 22以降では、マルチリリースJARの{@code META-INF/versions/22}に含まれる同名のクラスに置き換えられます。
+ * @see CoreBinding#FOREIGN
+ */
+final class ForeignCoreLoader {
+
+  private ForeignCoreLoader() {
+    // Prevent instantiation
+  }
+
+  /**
+   * FFMバックエンドで指定したライブラリをロードします。
+   *
+   * @param libraryPath ライブラリファイルのパス
+   * @return ロードされた{@link Core}
+   * @throws UnsupportedOperationException 実行中のランタイムがFFMバックエンドに対応していない場合
+   */
+  static Core load(String libraryPath) {
+    throw new UnsupportedOperationException(
+        "The Foreign Function & Memory backend requires JDK 22 or later (running on "
+            + Runtime.version().feature() + ")");
+  }
+}
@@ -0,0 +1,72 @@
+package org.braid.society.secret.voicevox4j.internal;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.exception.VoicevoxException;
+
+/**
+ * 非同期に実行した合成の結果を待つためのユーティリティクラスです。
+ */
+@Slf4j
+public final class Futures {
+
+  private Futures() {
+  }
+
+  /**
+   * 処理の完了を待ち、結果を取得します。
+   * <p>
+   * 処理が失敗した場合は、{@link ExecutionException}を取り除いて元の例外をスローします。
+   *
+   * @param future 完了を待つ処理
+   * @param <T> 結果の型
+   * @return 処理の結果
+   * @throws VoicevoxException 処理がVoicevoxExceptionで失敗した場合
+   * @throws InterruptedException 待機中に割り込まれた場合、または処理が割り込みで失敗した場合
+   * @throws IllegalStateException 処理がキャンセルされた場合、または検査例外で失敗した場合
+   */
+  public static <T> T await(Future<T> future) throws VoicevoxException, InterruptedException {
+    try {
+      return future.get();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof VoicevoxException voicevoxException) {
+        throw voicevoxException;
+      }
+      if (cause instanceof InterruptedException interruptedException) {
+        throw interruptedException;
+      }
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      if (cause instanceof Error error) {
+        throw error;
+      }
+      throw new IllegalStateException(cause);
+    } catch (CancellationException e) {
+      throw new IllegalStateException("Synthesis was cancelled", e);
+    }
+  }
+
+  /**
+   * 不要になった処理をキャンセルし、既に得られていた結果を解放します。
+   * <p>
+   * キャンセルより先に処理が完了していた場合は、ここで結果をクローズします。
+   * 処理の実行中にキャンセルした場合、結果は処理を実行した側が解放する必要があります。
+   *
+   * @param future 不要になった処理
+   */
+  public static void discard(CompletableFuture<? extends AutoCloseable> future) {
+    if (future.cancel(false) || future.isCompletedExceptionally()) {
+      return;
+    }
+    try {
+      future.join().close();
+    } catch (Exception e) {
+      log.warn("Failed to close a discarded result", e);
+    }
+  }
+}
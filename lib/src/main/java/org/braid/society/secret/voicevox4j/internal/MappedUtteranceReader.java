@@ -0,0 +1,145 @@
+package org.braid.society.secret.voicevox4j.internal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+
+/**
+ * UTF-8のテキストファイルをメモリマップで読み込み、{@link SentenceSplitter}で分割した発話を順に返すクラスです。
+ * <p>
+ * ファイルは一定サイズの窓ごとにマップされ、必要な分だけデコードされるため、
+ * ファイル全体をヒープに読み込むことなく、非常に大きなテキストを扱えます。
+ * 不正なバイト列は置換文字に置き換えられ、先頭のBOMは無視されます。
+ * このクラスはスレッドセーフではありません。
+ */
+public final class MappedUtteranceReader implements Closeable {
+
+  private static final long WINDOW_SIZE = 64L << 20;
+  private static final int CHAR_BUFFER_SIZE = 8192;
+  private static final char BOM = '\uFEFF';
+
+  private final FileChannel channel;
+  private final long size;
+  private final SentenceSplitter splitter;
+  private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+      .onMalformedInput(CodingErrorAction.REPLACE)
+      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+  private final CharBuffer chars = CharBuffer.allocate(CHAR_BUFFER_SIZE);
+  private final ArrayDeque<String> ready = new ArrayDeque<>();
+
+  private MappedByteBuffer window;
+  private long windowStart;
+  private long windowEnd;
+  private boolean startOfFile = true;
+  private boolean endOfFile;
+
+  /**
+   * 指定したファイルを開きます。
+   *
+   * @param path 読み込むUTF-8テキストファイル
+   * @param maxUtteranceLength 1つの発話の最大文字数
+   * @throws IOException ファイルを開けなかった場合
+   */
+  public MappedUtteranceReader(Path path, int maxUtteranceLength) throws IOException {
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    this.size = channel.size();
+    this.splitter = new SentenceSplitter(maxUtteranceLength);
+  }
+
+  /**
+   * 次の発話を取得します。
+   *
+   * @return 次の発話。ファイルの終端に達した場合はnull
+   * @throws IOException ファイルの読み込みに失敗した場合
+   */
+  public String next() throws IOException {
+    while (ready.isEmpty() && !endOfFile) {
+      fill();
+    }
+    return ready.poll();
+  }
+
+  /**
+   * 指定した数の発話を読み飛ばします。
+   *
+   * @param count 読み飛ばす発話の数
+   * @return 実際に読み飛ばした発話の数。ファイルの終端に達した場合は{@code count}より小さくなります
+   * @throws IOException ファイルの読み込みに失敗した場合
+   */
+  public long skip(long count) throws IOException {
+    long skipped = 0;
+    while (skipped < count && next() != null) {
+      skipped++;
+    }
+    return skipped;
+  }
+
+  /**
+   * ファイルに含まれる発話の総数を数えます。
+   *
+   * @param path 読み込むUTF-8テキストファイル
+   * @param maxUtteranceLength 1つの発話の最大文字数
+   * @return 発話の総数
+   * @throws IOException ファイルの読み込みに失敗した場合
+   */
+  public static long count(Path path, int maxUtteranceLength) throws IOException {
+    try (MappedUtteranceReader reader = new MappedUtteranceReader(path, maxUtteranceLength)) {
+      return reader.skip(Long.MAX_VALUE);
+    }
+  }
+
+  private void fill() throws IOException {
+    if (window == null) {
+      map(0);
+    }
+    boolean last = windowEnd == size;
+    CoderResult result = decoder.decode(window, chars, last);
+    if (result.isError()) {
+      result.throwException();
+    }
+    if (result.isUnderflow()) {
+      if (last) {
+        decoder.flush(chars);
+        drainChars();
+        splitter.flush(ready::add);
+        endOfFile = true;
+        return;
+      }
+      // 窓の境界をまたぐ文字は、次の窓の先頭からデコードし直す
+      map(windowStart + window.position());
+    }
+    drainChars();
+  }
+
+  private void drainChars() {
+    chars.flip();
+    if (startOfFile && chars.hasRemaining()) {
+      startOfFile = false;
+      if (chars.get(chars.position()) == BOM) {
+        chars.get();
+      }
+    }
+    splitter.feed(chars, ready::add);
+    chars.clear();
+  }
+
+  private void map(long start) throws IOException {
+    windowStart = start;
+    windowEnd = Math.min(size, start + WINDOW_SIZE);
+    window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowEnd - windowStart);
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+}
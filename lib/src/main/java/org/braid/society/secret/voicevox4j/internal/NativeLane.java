@@ -0,0 +1,119 @@
+package org.braid.society.secret.voicevox4j.internal;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * ネイティブ関数の呼び出しを、少数のプラットフォームスレッドで実行するための実行レーン。
+ * <p>
+ * JNAによるネイティブ関数の呼び出し中、仮想スレッドはキャリアスレッドに固定（pin）されます。
+ * 推論のような長時間の呼び出しを仮想スレッドから直接行うとキャリアスレッドが枯渇するため、
+ * 呼び出しをこのレーンのスレッドへ委譲し、呼び出し元の仮想スレッドは完了までパークさせます。
+ * <p>
+ * ライブラリはJava 17向けにコンパイルされるため、仮想スレッドの判定は{@code Thread#isVirtual}をリフレクションで解決して行います。
+ * JDK 21より前の実行環境では、すべてのスレッドがプラットフォームスレッドとして扱われます。
+ */
+@Slf4j
+public final class NativeLane {
+
+  private static final MethodHandle IS_VIRTUAL = findIsVirtual();
+  private static final AtomicInteger THREAD_SEQUENCE = new AtomicInteger();
+  private static final long KEEP_ALIVE_SECONDS = 30;
+
+  private final ThreadPoolExecutor executor;
+
+  /**
+   * 指定した数のプラットフォームスレッドを持つレーンを作成します。
+   * スレッドは必要になった時点で作成され、一定時間使われなければ終了します。
+   *
+   * @param threads レーンのスレッド数。同時に実行されるネイティブ関数の呼び出し数の上限になります
+   * @throws IllegalArgumentException {@code threads}が1未満の場合
+   */
+  public NativeLane(int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("Native lane requires at least one thread: " + threads);
+    }
+    this.executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(), NativeLane::newThread);
+    this.executor.allowCoreThreadTimeOut(true);
+    log.debug("Native lane created with {} threads (virtual thread detection: {})", threads, IS_VIRTUAL != null);
+  }
+
+  /**
+   * 現在のスレッドが仮想スレッドかどうかを判定します。
+   *
+   * @return 仮想スレッドの場合はtrue。仮想スレッドをサポートしない実行環境では常にfalse
+   */
+  public static boolean isVirtualThread() {
+    if (IS_VIRTUAL == null) {
+      return false;
+    }
+    try {
+      return (boolean) IS_VIRTUAL.invokeExact(Thread.currentThread());
+    } catch (Throwable t) {
+      return false;
+    }
+  }
+
+  /**
+   * 指定した呼び出しをレーンのスレッドで実行し、完了するまで待機します。
+   * <p>
+   * ネイティブ関数の呼び出しは途中で中断できず、呼び出し元が渡した出力用の引数へ書き込みを行うため、
+   * 待機中に割り込まれても完了まで待ち続け、割り込み状態を復元してから戻ります。
+   *
+   * @param call 実行する呼び出し
+   * @param <T> 呼び出しの結果の型
+   * @return 呼び出しの結果
+   */
+  public <T> T call(Supplier<T> call) {
+    FutureTask<T> task = new FutureTask<>(call::get);
+    executor.execute(task);
+    boolean interrupted = false;
+    try {
+      while (true) {
+        try {
+          return task.get();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+          }
+          if (cause instanceof Error error) {
+            throw error;
+          }
+          throw new IllegalStateException(cause);
+        }
+      }
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private static Thread newThread(Runnable runnable) {
+    Thread thread = new Thread(runnable, "voicevox4j-native-" + THREAD_SEQUENCE.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  }
+
+  private static MethodHandle findIsVirtual() {
+    try {
+      return MethodHandles.publicLookup()
+          .findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      return null;
+    }
+  }
+}
@@ -0,0 +1,111 @@
+package org.braid.society.secret.voicevox4j.internal;
+
+import com.sun.jna.Native;
+import com.sun.jna.ptr.IntByReference;
+import com.sun.jna.ptr.PointerByReference;
+
+/**
+ * ネイティブ関数の出力引数を、スレッドごとに再利用するためのホルダーです。
+ * <p>
+ * 出力引数はそれぞれ小さなネイティブメモリを確保し、解放用のクリーナーを登録するため、呼び出しのたびに作成すると
+ * 定常状態でも割り当てが発生します。このクラスはスレッドごとに1組だけ作成し、{@link #acquire()}のたびに値を初期化して返します。
+ * <p>
+ * {@link NativeOutParams}を受け取る{@link Core}のメソッドは、出力されたアドレスと長さを{@link #getAddress()}と{@link #getSize()}の
+ * 単純な値として設定します。JNAによるバインディングは{@link #getLength()}と{@link #getPointer()}に書き込まれた値を{@link #capture(int)}で取り込み、
+ * FFMによるバインディングは{@link #set(long, long)}で直接設定するため、呼び出し側はバックエンドを意識せず、
+ * JNAのラッパーを作成せずに出力値を読み取れます。
+ * <p>
+ * 取得したホルダーは、同じスレッドで次に{@link #acquire()}を呼び出すまでの間だけ有効です。
+ * ネイティブ関数の呼び出し直後に出力値を読み取り、ホルダー自体を保持しないでください。
+ * 仮想スレッドでは仮想スレッドごとに作成されるため、タスクごとに仮想スレッドを作成する場合は再利用されません。
+ */
+public final class NativeOutParams {
+
+  private static final ThreadLocal<NativeOutParams> CURRENT = ThreadLocal.withInitial(NativeOutParams::new);
+
+  private final IntByReference length = new IntByReference();
+  private final PointerByReference pointer = new PointerByReference();
+  private long address;
+  private long size;
+
+  private NativeOutParams() {
+    // use acquire()
+  }
+
+  /**
+   * 現在のスレッドのホルダーを、出力値を初期化した状態で取得します。
+   *
+   * @return 現在のスレッドのホルダー
+   */
+  public static NativeOutParams acquire() {
+    NativeOutParams params = CURRENT.get();
+    params.length.setValue(0);
+    params.pointer.setValue(null);
+    params.address = 0;
+    params.size = 0;
+    return params;
+  }
+
+  /**
+   * 長さを受け取る出力引数を取得します。
+   *
+   * @return 長さの出力引数
+   */
+  public IntByReference getLength() {
+    return length;
+  }
+
+  /**
+   * ポインタを受け取る出力引数を取得します。
+   *
+   * @return ポインタの出力引数
+   */
+  public PointerByReference getPointer() {
+    return pointer;
+  }
+
+  /**
+   * 出力されたポインタのアドレスを取得します。
+   *
+   * @return 出力されたアドレス。出力されなかった場合は0
+   */
+  public long getAddress() {
+    return address;
+  }
+
+  /**
+   * 出力された長さを取得します。
+   *
+   * @return 出力された長さ。出力されなかった場合は0
+   */
+  public long getSize() {
+    return size;
+  }
+
+  /**
+   * 出力値を設定します。
+   *
+   * @param address 出力されたアドレス
+   * @param size 出力された長さ
+   */
+  public void set(long address, long size) {
+    this.address = address;
+    this.size = size;
+  }
+
+  /**
+   * {@link #getLength()}と{@link #getPointer()}に書き込まれた値を取り込みます。
+   * <p>
+   * {@link PointerByReference#getValue()}のように{@link com.sun.jna.Pointer}を作成せず、出力引数のメモリから直接読み取ります。
+   *
+   * @param result ネイティブ関数の戻り値
+   * @return {@code result}
+   */
+  public int capture(int result) {
+    address = Native.POINTER_SIZE == Long.BYTES
+        ? pointer.getPointer().getLong(0)
+        : Integer.toUnsignedLong(pointer.getPointer().getInt(0));
+    size = Integer.toUnsignedLong(length.getValue());
+    return result;
+  }
+}
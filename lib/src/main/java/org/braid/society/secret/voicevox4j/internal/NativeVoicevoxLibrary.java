@@ -2,13 +2,16 @@ package org.braid.society.secret.voicevox4j.internal;
 
 import com.sun.jna.Native;
 import com.sun.jna.Library;
+import com.sun.jna.NativeLibrary;
 import jakarta.annotation.Nonnull;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Stream;
 import lombok.extern.slf4j.Slf4j;
 
@@ -21,6 +24,13 @@ public class NativeVoicevoxLibrary {
 
   private static final String LIBRARY_NAME = "voicevox_core";
 
+  // UTF-8エンコーディングを強制するJNAオプション
+  private static final Map<String, ?> LIBRARY_OPTIONS = Map.of(
+    Library.OPTION_STRING_ENCODING, "UTF-8"
+  );
+
+  private static final Map<String, String> EXTRACTED_RESOURCES = new ConcurrentHashMap<>();
+
   private static String libraryExtension() {
     String osName = System.getProperty("os.name").toLowerCase();
 
@@ -35,7 +45,65 @@ public class NativeVoicevoxLibrary {
     }
   }
 
+  /**
+   * 指定したディレクトリ（見つからなければリソース）からライブラリをロードし、{@link Core}として返します。
+   * <p>
+   * システムプロパティ {@value CoreBinding#PROPERTY_NAME} が指定されていればそのバインディングを使用します。
+   * 指定がない場合は、JDK 22以降であれば{@link CoreBinding#FOREIGN}を試み、次に{@link CoreBinding#DIRECT}、
+   * 最後に{@link CoreBinding#PROXY}を使用します。
+   *
+   * @param libraryDirectoryPath ライブラリが存在するディレクトリのパス
+   * @return ロードされた{@link Core}
+   */
   public static Core load(Path libraryDirectoryPath) {
+    String libraryPath = resolveLibraryPath(libraryDirectoryPath);
+    String requested = System.getProperty(CoreBinding.PROPERTY_NAME);
+    if (requested != null) {
+      return bind(libraryPath, CoreBinding.valueOf(requested.trim().toUpperCase(Locale.ROOT)));
+    }
+    if (Runtime.version().feature() >= CoreBinding.FOREIGN_FEATURE_VERSION) {
+      try {
+        return bind(libraryPath, CoreBinding.FOREIGN);
+      } catch (LinkageError | RuntimeException e) {
+        log.warn("Foreign Function & Memory binding is not available, falling back to direct mapping.", e);
+      }
+    }
+    try {
+      return bind(libraryPath, CoreBinding.DIRECT);
+    } catch (LinkageError | RuntimeException e) {
+      log.warn("Direct mapping is not available, falling back to the interface proxy binding.", e);
+      return bind(libraryPath, CoreBinding.PROXY);
+    }
+  }
+
+  /**
+   * 指定したディレクトリ（見つからなければリソース）からライブラリをロードし、指定したバインディングで{@link Core}として返します。
+   *
+   * @param libraryDirectoryPath ライブラリが存在するディレクトリのパス
+   * @param binding 使用するバインディング
+   * @return ロードされた{@link Core}
+   * @throws UnsatisfiedLinkError {@link CoreBinding#DIRECT}の登録、または{@link CoreBinding#FOREIGN}でのシンボルの解決に失敗した場合
+   * @throws UnsupportedOperationException 実行中のランタイムが{@link CoreBinding#FOREIGN}に対応していない場合
+   */
+  public static Core load(Path libraryDirectoryPath, CoreBinding binding) {
+    return bind(resolveLibraryPath(libraryDirectoryPath), binding);
+  }
+
+  private static Core bind(String libraryPath, CoreBinding binding) {
+    log.debug("Binding voicevox_core library with {} mapping.", binding);
+    switch (binding) {
+      case FOREIGN:
+        return ForeignCoreLoader.load(libraryPath);
+      case DIRECT:
+        return DirectCore.bind(NativeLibrary.getInstance(libraryPath, LIBRARY_OPTIONS));
+      case PROXY:
+        return Native.load(libraryPath, Core.class, LIBRARY_OPTIONS);
+      default:
+        throw new IllegalArgumentException("Unsupported binding: " + binding);
+    }
+  }
+
+  private static String resolveLibraryPath(Path libraryDirectoryPath) {
     String libraryPath;
     try {
       log.trace("Searching for voicevox_core library in directory: {}", libraryDirectoryPath);
@@ -52,13 +120,7 @@ public class NativeVoicevoxLibrary {
         throw new RuntimeException("Failed to load voicevox_core library. Ensure the library is available in the specified directory or as a resource.", e);
       }
     }
-
-    // UTF-8エンコーディングを強制するJNAオプションを設定
-    java.util.Map<String, ?> options = Map.of(
-      Library.OPTION_STRING_ENCODING, "UTF-8"
-    );
-
-    return Native.load(libraryPath, Core.class, options);
+    return libraryPath;
   }
 
   private static String loadLibraryFromDirectory(@Nonnull Path directory) {
@@ -81,6 +143,11 @@ public class NativeVoicevoxLibrary {
   }
 
   private static String loadLibraryFromResource(String resourcePath) {
+    // ダイレクトマッピングは1つのライブラリファイルにしか登録できないため、展開は1度だけ行う
+    return EXTRACTED_RESOURCES.computeIfAbsent(resourcePath, NativeVoicevoxLibrary::extractResource);
+  }
+
+  private static String extractResource(String resourcePath) {
     try (InputStream inputStream = NativeVoicevoxLibrary.class.getResourceAsStream(resourcePath)) {
       if (inputStream == null) {
         throw new RuntimeException("Resource not found: " + resourcePath);
@@ -96,7 +163,7 @@ public class NativeVoicevoxLibrary {
       // Set file as executable (for Unix-like systems)
       boolean success = tempFile.toFile().setExecutable(true);
       if (!success) {
-        System.err.println("Warning: Failed to set executable permission for " + tempFile);
+        log.warn("Failed to set executable permission for {}", tempFile);
       }
       
       // Delete on exit
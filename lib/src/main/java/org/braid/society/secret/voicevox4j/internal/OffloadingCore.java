@@ -0,0 +1,623 @@
+package org.braid.society.secret.voicevox4j.internal;
+
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.IntByReference;
+import com.sun.jna.ptr.PointerByReference;
+import java.nio.ByteBuffer;
+import org.braid.society.secret.voicevox4j.internal.structs.OpenJtalkRc;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxInitializeOptions;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxLoadOnnxruntimeOptions;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxOnnxruntime;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxSynthesisOptions;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxSynthesizer;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxTtsOptions;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxUserDict;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxUserDictWord;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxVoiceModelFile;
+
+/**
+ * 仮想スレッドからの重いネイティブ関数の呼び出しを{@link NativeLane}へ委譲する{@link Core}のデコレーターです。
+ * <p>
+ * 推論や辞書・モデルの読み込みなど、長時間かかる可能性のある関数のみを委譲します。
+ * 既定値の取得やメモリの解放などの軽量な関数、およびプラットフォームスレッドからの呼び出しは、
+ * 呼び出し元のスレッドでそのまま実行されます。
+ */
+public final class OffloadingCore implements Core {
+
+  private final Core delegate;
+  private final NativeLane lane;
+
+  /**
+   * 指定したCoreの呼び出しを、仮想スレッドから呼ばれた場合にレーンへ委譲するようにラップします。
+   *
+   * @param delegate 実際にネイティブ関数を呼び出すCore
+   * @param lane 呼び出しを実行するレーン
+   */
+  public OffloadingCore(Core delegate, NativeLane lane) {
+    this.delegate = delegate;
+    this.lane = lane;
+  }
+
+  @Override
+  public String voicevox_get_onnxruntime_lib_versioned_filename() {
+    return delegate.voicevox_get_onnxruntime_lib_versioned_filename();
+  }
+
+  @Override
+  public String voicevox_get_onnxruntime_lib_unversioned_filename() {
+    return delegate.voicevox_get_onnxruntime_lib_unversioned_filename();
+  }
+
+  @Override
+  public VoicevoxLoadOnnxruntimeOptions.ByValue voicevox_make_default_load_onnxruntime_options() {
+    return delegate.voicevox_make_default_load_onnxruntime_options();
+  }
+
+  @Override
+  public VoicevoxOnnxruntime voicevox_onnxruntime_get() {
+    return delegate.voicevox_onnxruntime_get();
+  }
+
+  @Override
+  public int voicevox_onnxruntime_load_once(VoicevoxLoadOnnxruntimeOptions options, PointerByReference out_onnxruntime) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_onnxruntime_load_once(options, out_onnxruntime));
+    }
+    return delegate.voicevox_onnxruntime_load_once(options, out_onnxruntime);
+  }
+
+  @Override
+  public int voicevox_onnxruntime_create_supported_devices_json(VoicevoxOnnxruntime onnxruntime, PointerByReference output_supported_devices_json) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_onnxruntime_create_supported_devices_json(onnxruntime, output_supported_devices_json));
+    }
+    return delegate.voicevox_onnxruntime_create_supported_devices_json(onnxruntime, output_supported_devices_json);
+  }
+
+  @Override
+  public int voicevox_open_jtalk_rc_new(String open_jtalk_dic_dir, PointerByReference out_open_jtalk) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_open_jtalk_rc_new(open_jtalk_dic_dir, out_open_jtalk));
+    }
+    return delegate.voicevox_open_jtalk_rc_new(open_jtalk_dic_dir, out_open_jtalk);
+  }
+
+  @Override
+  public int voicevox_open_jtalk_rc_use_user_dict(OpenJtalkRc open_jtalk, VoicevoxUserDict user_dict) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_open_jtalk_rc_use_user_dict(open_jtalk, user_dict));
+    }
+    return delegate.voicevox_open_jtalk_rc_use_user_dict(open_jtalk, user_dict);
+  }
+
+  @Override
+  public int voicevox_open_jtalk_rc_analyze(OpenJtalkRc open_jtalk, String text, PointerByReference output_accent_phrases_json) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_open_jtalk_rc_analyze(open_jtalk, text, output_accent_phrases_json));
+    }
+    return delegate.voicevox_open_jtalk_rc_analyze(open_jtalk, text, output_accent_phrases_json);
+  }
+
+  @Override
+  public int voicevox_open_jtalk_rc_analyze(OpenJtalkRc open_jtalk, Pointer text, PointerByReference output_accent_phrases_json) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_open_jtalk_rc_analyze(open_jtalk, text, output_accent_phrases_json));
+    }
+    return delegate.voicevox_open_jtalk_rc_analyze(open_jtalk, text, output_accent_phrases_json);
+  }
+
+  @Override
+  public void voicevox_open_jtalk_rc_delete(OpenJtalkRc open_jtalk) {
+    delegate.voicevox_open_jtalk_rc_delete(open_jtalk);
+  }
+
+  @Override
+  public VoicevoxInitializeOptions.ByValue voicevox_make_default_initialize_options() {
+    return delegate.voicevox_make_default_initialize_options();
+  }
+
+  @Override
+  public int voicevox_synthesizer_new(VoicevoxOnnxruntime onnxruntime, OpenJtalkRc open_jtalk, VoicevoxInitializeOptions options, PointerByReference out_synthesizer) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_new(onnxruntime, open_jtalk, options, out_synthesizer));
+    }
+    return delegate.voicevox_synthesizer_new(onnxruntime, open_jtalk, options, out_synthesizer);
+  }
+
+  @Override
+  public void voicevox_synthesizer_delete(VoicevoxSynthesizer synthesizer) {
+    delegate.voicevox_synthesizer_delete(synthesizer);
+  }
+
+  @Override
+  public int voicevox_synthesizer_load_voice_model(VoicevoxSynthesizer synthesizer, VoicevoxVoiceModelFile model) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_load_voice_model(synthesizer, model));
+    }
+    return delegate.voicevox_synthesizer_load_voice_model(synthesizer, model);
+  }
+
+  @Override
+  public int voicevox_synthesizer_unload_voice_model(VoicevoxSynthesizer synthesizer, byte[] model_id) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_unload_voice_model(synthesizer, model_id));
+    }
+    return delegate.voicevox_synthesizer_unload_voice_model(synthesizer, model_id);
+  }
+
+  @Override
+  public VoicevoxOnnxruntime voicevox_synthesizer_get_onnxruntime(VoicevoxSynthesizer synthesizer) {
+    return delegate.voicevox_synthesizer_get_onnxruntime(synthesizer);
+  }
+
+  @Override
+  public boolean voicevox_synthesizer_is_gpu_mode(VoicevoxSynthesizer synthesizer) {
+    return delegate.voicevox_synthesizer_is_gpu_mode(synthesizer);
+  }
+
+  @Override
+  public boolean voicevox_synthesizer_is_loaded_voice_model(VoicevoxSynthesizer synthesizer, byte[] model_id) {
+    return delegate.voicevox_synthesizer_is_loaded_voice_model(synthesizer, model_id);
+  }
+
+  @Override
+  public Pointer voicevox_synthesizer_create_metas_json(VoicevoxSynthesizer synthesizer) {
+    return delegate.voicevox_synthesizer_create_metas_json(synthesizer);
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_audio_query_from_kana(VoicevoxSynthesizer synthesizer, String kana, int style_id, PointerByReference output_audio_query_json) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_create_audio_query_from_kana(synthesizer, kana, style_id, output_audio_query_json));
+    }
+    return delegate.voicevox_synthesizer_create_audio_query_from_kana(synthesizer, kana, style_id, output_audio_query_json);
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_audio_query_from_kana(VoicevoxSynthesizer synthesizer, Pointer kana, int style_id, PointerByReference output_audio_query_json) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_create_audio_query_from_kana(synthesizer, kana, style_id, output_audio_query_json));
+    }
+    return delegate.voicevox_synthesizer_create_audio_query_from_kana(synthesizer, kana, style_id, output_audio_query_json);
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_audio_query(VoicevoxSynthesizer synthesizer, String text, int style_id, PointerByReference output_audio_query_json) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_create_audio_query(synthesizer, text, style_id, output_audio_query_json));
+    }
+    return delegate.voicevox_synthesizer_create_audio_query(synthesizer, text, style_id, output_audio_query_json);
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_audio_query(VoicevoxSynthesizer synthesizer, Pointer text, int style_id, PointerByReference output_audio_query_json) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_create_audio_query(synthesizer, text, style_id, output_audio_query_json));
+    }
+    return delegate.voicevox_synthesizer_create_audio_query(synthesizer, text, style_id, output_audio_query_json);
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_accent_phrases_from_kana(VoicevoxSynthesizer synthesizer, String kana, int style_id, PointerByReference output_accent_phrases_json) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_create_accent_phrases_from_kana(synthesizer, kana, style_id, output_accent_phrases_json));
+    }
+    return delegate.voicevox_synthesizer_create_accent_phrases_from_kana(synthesizer, kana, style_id, output_accent_phrases_json);
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_accent_phrases_from_kana(VoicevoxSynthesizer synthesizer, Pointer kana, int style_id, PointerByReference output_accent_phrases_json) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_create_accent_phrases_from_kana(synthesizer, kana, style_id, output_accent_phrases_json));
+    }
+    return delegate.voicevox_synthesizer_create_accent_phrases_from_kana(synthesizer, kana, style_id, output_accent_phrases_json);
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_accent_phrases(VoicevoxSynthesizer synthesizer, String text, int style_id, PointerByReference output_accent_phrases_json) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_create_accent_phrases(synthesizer, text, style_id, output_accent_phrases_json));
+    }
+    return delegate.voicevox_synthesizer_create_accent_phrases(synthesizer, text, style_id, output_accent_phrases_json);
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_accent_phrases(VoicevoxSynthesizer synthesizer, Pointer text, int style_id, PointerByReference output_accent_phrases_json) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_create_accent_phrases(synthesizer, text, style_id, output_accent_phrases_json));
+    }
+    return delegate.voicevox_synthesizer_create_accent_phrases(synthesizer, text, style_id, output_accent_phrases_json);
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_mora_data(VoicevoxSynthesizer synthesizer, String accent_phrases_json, int style_id, PointerByReference output_accent_phrases_json) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_replace_mora_data(synthesizer, accent_phrases_json, style_id, output_accent_phrases_json));
+    }
+    return delegate.voicevox_synthesizer_replace_mora_data(synthesizer, accent_phrases_json, style_id, output_accent_phrases_json);
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_mora_data(VoicevoxSynthesizer synthesizer, Pointer accent_phrases_json, int style_id, PointerByReference output_accent_phrases_json) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_replace_mora_data(synthesizer, accent_phrases_json, style_id, output_accent_phrases_json));
+    }
+    return delegate.voicevox_synthesizer_replace_mora_data(synthesizer, accent_phrases_json, style_id, output_accent_phrases_json);
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_phoneme_length(VoicevoxSynthesizer synthesizer, String accent_phrases_json, int style_id, PointerByReference output_accent_phrases_json) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_replace_phoneme_length(synthesizer, accent_phrases_json, style_id, output_accent_phrases_json));
+    }
+    return delegate.voicevox_synthesizer_replace_phoneme_length(synthesizer, accent_phrases_json, style_id, output_accent_phrases_json);
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_phoneme_length(VoicevoxSynthesizer synthesizer, Pointer accent_phrases_json, int style_id, PointerByReference output_accent_phrases_json) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_replace_phoneme_length(synthesizer, accent_phrases_json, style_id, output_accent_phrases_json));
+    }
+    return delegate.voicevox_synthesizer_replace_phoneme_length(synthesizer, accent_phrases_json, style_id, output_accent_phrases_json);
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_mora_pitch(VoicevoxSynthesizer synthesizer, String accent_phrases_json, int style_id, PointerByReference output_accent_phrases_json) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_replace_mora_pitch(synthesizer, accent_phrases_json, style_id, output_accent_phrases_json));
+    }
+    return delegate.voicevox_synthesizer_replace_mora_pitch(synthesizer, accent_phrases_json, style_id, output_accent_phrases_json);
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_mora_pitch(VoicevoxSynthesizer synthesizer, Pointer accent_phrases_json, int style_id, PointerByReference output_accent_phrases_json) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_replace_mora_pitch(synthesizer, accent_phrases_json, style_id, output_accent_phrases_json));
+    }
+    return delegate.voicevox_synthesizer_replace_mora_pitch(synthesizer, accent_phrases_json, style_id, output_accent_phrases_json);
+  }
+
+  @Override
+  public VoicevoxSynthesisOptions.ByValue voicevox_make_default_synthesis_options() {
+    return delegate.voicevox_make_default_synthesis_options();
+  }
+
+  @Override
+  public int voicevox_synthesizer_synthesis(VoicevoxSynthesizer synthesizer, String audio_query_json, int style_id, VoicevoxSynthesisOptions options, IntByReference output_wav_length, PointerByReference output_wav) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_synthesis(synthesizer, audio_query_json, style_id, options, output_wav_length, output_wav));
+    }
+    return delegate.voicevox_synthesizer_synthesis(synthesizer, audio_query_json, style_id, options, output_wav_length, output_wav);
+  }
+
+  @Override
+  public int voicevox_synthesizer_synthesis(VoicevoxSynthesizer synthesizer, Pointer audio_query_json, int style_id, VoicevoxSynthesisOptions options, IntByReference output_wav_length, PointerByReference output_wav) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_synthesis(synthesizer, audio_query_json, style_id, options, output_wav_length, output_wav));
+    }
+    return delegate.voicevox_synthesizer_synthesis(synthesizer, audio_query_json, style_id, options, output_wav_length, output_wav);
+  }
+
+  @Override
+  public VoicevoxTtsOptions.ByValue voicevox_make_default_tts_options() {
+    return delegate.voicevox_make_default_tts_options();
+  }
+
+  @Override
+  public int voicevox_synthesizer_tts_from_kana(VoicevoxSynthesizer synthesizer, String kana, int style_id, VoicevoxTtsOptions options, IntByReference output_wav_length, PointerByReference output_wav) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_tts_from_kana(synthesizer, kana, style_id, options, output_wav_length, output_wav));
+    }
+    return delegate.voicevox_synthesizer_tts_from_kana(synthesizer, kana, style_id, options, output_wav_length, output_wav);
+  }
+
+  @Override
+  public int voicevox_synthesizer_tts_from_kana(VoicevoxSynthesizer synthesizer, Pointer kana, int style_id, VoicevoxTtsOptions options, IntByReference output_wav_length, PointerByReference output_wav) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_tts_from_kana(synthesizer, kana, style_id, options, output_wav_length, output_wav));
+    }
+    return delegate.voicevox_synthesizer_tts_from_kana(synthesizer, kana, style_id, options, output_wav_length, output_wav);
+  }
+
+  @Override
+  public int voicevox_synthesizer_tts(VoicevoxSynthesizer synthesizer, String text, int style_id, VoicevoxTtsOptions options, IntByReference output_wav_length, PointerByReference output_wav) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_tts(synthesizer, text, style_id, options, output_wav_length, output_wav));
+    }
+    return delegate.voicevox_synthesizer_tts(synthesizer, text, style_id, options, output_wav_length, output_wav);
+  }
+
+  @Override
+  public int voicevox_synthesizer_tts(VoicevoxSynthesizer synthesizer, Pointer text, int style_id, VoicevoxTtsOptions options, IntByReference output_wav_length, PointerByReference output_wav) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_tts(synthesizer, text, style_id, options, output_wav_length, output_wav));
+    }
+    return delegate.voicevox_synthesizer_tts(synthesizer, text, style_id, options, output_wav_length, output_wav);
+  }
+
+  @Override
+  public int voicevox_voice_model_file_open(String path, PointerByReference out_model) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_voice_model_file_open(path, out_model));
+    }
+    return delegate.voicevox_voice_model_file_open(path, out_model);
+  }
+
+  @Override
+  public void voicevox_voice_model_file_id(VoicevoxVoiceModelFile model, byte[] output_voice_model_id) {
+    delegate.voicevox_voice_model_file_id(model, output_voice_model_id);
+  }
+
+  @Override
+  public Pointer voicevox_voice_model_file_create_metas_json(VoicevoxVoiceModelFile model) {
+    return delegate.voicevox_voice_model_file_create_metas_json(model);
+  }
+
+  @Override
+  public void voicevox_voice_model_file_delete(VoicevoxVoiceModelFile model) {
+    delegate.voicevox_voice_model_file_delete(model);
+  }
+
+  @Override
+  public void voicevox_json_free(Pointer json) {
+    delegate.voicevox_json_free(json);
+  }
+
+  @Override
+  public void voicevox_wav_free(Pointer wav) {
+    delegate.voicevox_wav_free(wav);
+  }
+
+  @Override
+  public String voicevox_error_result_to_message(int result_code) {
+    return delegate.voicevox_error_result_to_message(result_code);
+  }
+
+  @Override
+  public VoicevoxUserDictWord.ByValue voicevox_user_dict_word_make(String surface, String pronunciation, long accent_type) {
+    return delegate.voicevox_user_dict_word_make(surface, pronunciation, accent_type);
+  }
+
+  @Override
+  public Pointer voicevox_user_dict_new() {
+    return delegate.voicevox_user_dict_new();
+  }
+
+  @Override
+  public int voicevox_user_dict_load(VoicevoxUserDict user_dict, String dict_path) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_user_dict_load(user_dict, dict_path));
+    }
+    return delegate.voicevox_user_dict_load(user_dict, dict_path);
+  }
+
+  @Override
+  public int voicevox_user_dict_add_word(VoicevoxUserDict user_dict, VoicevoxUserDictWord word, byte[] output_word_uuid) {
+    return delegate.voicevox_user_dict_add_word(user_dict, word, output_word_uuid);
+  }
+
+  @Override
+  public int voicevox_user_dict_update_word(VoicevoxUserDict user_dict, byte[] word_uuid, VoicevoxUserDictWord word) {
+    return delegate.voicevox_user_dict_update_word(user_dict, word_uuid, word);
+  }
+
+  @Override
+  public int voicevox_user_dict_remove_word(VoicevoxUserDict user_dict, byte[] word_uuid) {
+    return delegate.voicevox_user_dict_remove_word(user_dict, word_uuid);
+  }
+
+  @Override
+  public int voicevox_user_dict_to_json(VoicevoxUserDict user_dict, PointerByReference output_json) {
+    return delegate.voicevox_user_dict_to_json(user_dict, output_json);
+  }
+
+  @Override
+  public int voicevox_user_dict_import(VoicevoxUserDict user_dict, VoicevoxUserDict other_dict) {
+    return delegate.voicevox_user_dict_import(user_dict, other_dict);
+  }
+
+  @Override
+  public int voicevox_user_dict_save(VoicevoxUserDict user_dict, String path) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_user_dict_save(user_dict, path));
+    }
+    return delegate.voicevox_user_dict_save(user_dict, path);
+  }
+
+  @Override
+  public void voicevox_user_dict_delete(VoicevoxUserDict user_dict) {
+    delegate.voicevox_user_dict_delete(user_dict);
+  }
+
+  @Override
+  public String voicevox_get_version() {
+    return delegate.voicevox_get_version();
+  }
+
+  // バックエンドに依存しない出力引数を使用する関数
+
+  @Override
+  public int voicevox_synthesizer_create_audio_query_from_kana(VoicevoxSynthesizer synthesizer, String kana, int style_id, NativeOutParams out) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_create_audio_query_from_kana(synthesizer, kana, style_id, out));
+    }
+    return delegate.voicevox_synthesizer_create_audio_query_from_kana(synthesizer, kana, style_id, out);
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_audio_query_from_kana(VoicevoxSynthesizer synthesizer, Pointer kana, int style_id, NativeOutParams out) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_create_audio_query_from_kana(synthesizer, kana, style_id, out));
+    }
+    return delegate.voicevox_synthesizer_create_audio_query_from_kana(synthesizer, kana, style_id, out);
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_audio_query(VoicevoxSynthesizer synthesizer, String text, int style_id, NativeOutParams out) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_create_audio_query(synthesizer, text, style_id, out));
+    }
+    return delegate.voicevox_synthesizer_create_audio_query(synthesizer, text, style_id, out);
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_audio_query(VoicevoxSynthesizer synthesizer, Pointer text, int style_id, NativeOutParams out) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_create_audio_query(synthesizer, text, style_id, out));
+    }
+    return delegate.voicevox_synthesizer_create_audio_query(synthesizer, text, style_id, out);
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_accent_phrases_from_kana(VoicevoxSynthesizer synthesizer, String kana, int style_id, NativeOutParams out) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_create_accent_phrases_from_kana(synthesizer, kana, style_id, out));
+    }
+    return delegate.voicevox_synthesizer_create_accent_phrases_from_kana(synthesizer, kana, style_id, out);
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_accent_phrases_from_kana(VoicevoxSynthesizer synthesizer, Pointer kana, int style_id, NativeOutParams out) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_create_accent_phrases_from_kana(synthesizer, kana, style_id, out));
+    }
+    return delegate.voicevox_synthesizer_create_accent_phrases_from_kana(synthesizer, kana, style_id, out);
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_accent_phrases(VoicevoxSynthesizer synthesizer, String text, int style_id, NativeOutParams out) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_create_accent_phrases(synthesizer, text, style_id, out));
+    }
+    return delegate.voicevox_synthesizer_create_accent_phrases(synthesizer, text, style_id, out);
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_accent_phrases(VoicevoxSynthesizer synthesizer, Pointer text, int style_id, NativeOutParams out) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_create_accent_phrases(synthesizer, text, style_id, out));
+    }
+    return delegate.voicevox_synthesizer_create_accent_phrases(synthesizer, text, style_id, out);
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_mora_data(VoicevoxSynthesizer synthesizer, String accent_phrases_json, int style_id, NativeOutParams out) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_replace_mora_data(synthesizer, accent_phrases_json, style_id, out));
+    }
+    return delegate.voicevox_synthesizer_replace_mora_data(synthesizer, accent_phrases_json, style_id, out);
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_mora_data(VoicevoxSynthesizer synthesizer, Pointer accent_phrases_json, int style_id, NativeOutParams out) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_replace_mora_data(synthesizer, accent_phrases_json, style_id, out));
+    }
+    return delegate.voicevox_synthesizer_replace_mora_data(synthesizer, accent_phrases_json, style_id, out);
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_phoneme_length(VoicevoxSynthesizer synthesizer, String accent_phrases_json, int style_id, NativeOutParams out) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_replace_phoneme_length(synthesizer, accent_phrases_json, style_id, out));
+    }
+    return delegate.voicevox_synthesizer_replace_phoneme_length(synthesizer, accent_phrases_json, style_id, out);
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_phoneme_length(VoicevoxSynthesizer synthesizer, Pointer accent_phrases_json, int style_id, NativeOutParams out) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_replace_phoneme_length(synthesizer, accent_phrases_json, style_id, out));
+    }
+    return delegate.voicevox_synthesizer_replace_phoneme_length(synthesizer, accent_phrases_json, style_id, out);
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_mora_pitch(VoicevoxSynthesizer synthesizer, String accent_phrases_json, int style_id, NativeOutParams out) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_replace_mora_pitch(synthesizer, accent_phrases_json, style_id, out));
+    }
+    return delegate.voicevox_synthesizer_replace_mora_pitch(synthesizer, accent_phrases_json, style_id, out);
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_mora_pitch(VoicevoxSynthesizer synthesizer, Pointer accent_phrases_json, int style_id, NativeOutParams out) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_replace_mora_pitch(synthesizer, accent_phrases_json, style_id, out));
+    }
+    return delegate.voicevox_synthesizer_replace_mora_pitch(synthesizer, accent_phrases_json, style_id, out);
+  }
+
+  @Override
+  public int voicevox_synthesizer_synthesis(VoicevoxSynthesizer synthesizer, String audio_query_json, int style_id, VoicevoxSynthesisOptions options, NativeOutParams out) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_synthesis(synthesizer, audio_query_json, style_id, options, out));
+    }
+    return delegate.voicevox_synthesizer_synthesis(synthesizer, audio_query_json, style_id, options, out);
+  }
+
+  @Override
+  public int voicevox_synthesizer_synthesis(VoicevoxSynthesizer synthesizer, Pointer audio_query_json, int style_id, VoicevoxSynthesisOptions options, NativeOutParams out) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_synthesis(synthesizer, audio_query_json, style_id, options, out));
+    }
+    return delegate.voicevox_synthesizer_synthesis(synthesizer, audio_query_json, style_id, options, out);
+  }
+
+  @Override
+  public int voicevox_synthesizer_tts_from_kana(VoicevoxSynthesizer synthesizer, String kana, int style_id, VoicevoxTtsOptions options, NativeOutParams out) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_tts_from_kana(synthesizer, kana, style_id, options, out));
+    }
+    return delegate.voicevox_synthesizer_tts_from_kana(synthesizer, kana, style_id, options, out);
+  }
+
+  @Override
+  public int voicevox_synthesizer_tts_from_kana(VoicevoxSynthesizer synthesizer, Pointer kana, int style_id, VoicevoxTtsOptions options, NativeOutParams out) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_tts_from_kana(synthesizer, kana, style_id, options, out));
+    }
+    return delegate.voicevox_synthesizer_tts_from_kana(synthesizer, kana, style_id, options, out);
+  }
+
+  @Override
+  public int voicevox_synthesizer_tts(VoicevoxSynthesizer synthesizer, String text, int style_id, VoicevoxTtsOptions options, NativeOutParams out) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_tts(synthesizer, text, style_id, options, out));
+    }
+    return delegate.voicevox_synthesizer_tts(synthesizer, text, style_id, options, out);
+  }
+
+  @Override
+  public int voicevox_synthesizer_tts(VoicevoxSynthesizer synthesizer, Pointer text, int style_id, VoicevoxTtsOptions options, NativeOutParams out) {
+    if (NativeLane.isVirtualThread()) {
+      return lane.call(() -> delegate.voicevox_synthesizer_tts(synthesizer, text, style_id, options, out));
+    }
+    return delegate.voicevox_synthesizer_tts(synthesizer, text, style_id, options, out);
+  }
+
+  @Override
+  public void voicevox_json_free(long json) {
+    delegate.voicevox_json_free(json);
+  }
+
+  @Override
+  public void voicevox_wav_free(long wav) {
+    delegate.voicevox_wav_free(wav);
+  }
+
+  @Override
+  public String getString(long address) {
+    return delegate.getString(address);
+  }
+
+  @Override
+  public ByteBuffer getStringBuffer(long address) {
+    return delegate.getStringBuffer(address);
+  }
+
+  @Override
+  public ByteBuffer getByteBuffer(long address, long length) {
+    return delegate.getByteBuffer(address, length);
+  }
+}
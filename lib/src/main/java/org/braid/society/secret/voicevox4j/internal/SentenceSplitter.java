@@ -0,0 +1,174 @@
+package org.braid.society.secret.voicevox4j.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * テキストを発話単位（文）に分割するクラスです。
+ * <p>
+ * 句点や感嘆符・疑問符（{@code 。．！？!?}）と改行を文の区切りとして扱います。
+ * 区切り文字の直後に続く区切り文字や閉じ括弧（{@code 」』）)"}など）は、直前の文に含めます。
+ * 区切りのないまま最大長に達した場合は、読点や空白の位置で、それもなければ最大長の位置で分割します。
+ * 節の最小文字数を指定した場合は、その文字数以上たまった時点で読点（{@code 、，,}）の位置でも分割します。
+ * 空白を除去した結果、文字や数字を含まない断片は発話として出力しません。
+ * <p>
+ * テキストは任意の長さの断片ごとに{@link #feed(CharSequence, Consumer)}で渡すことができ、
+ * 最後に{@link #flush(Consumer)}を呼び出すと、残っている文が出力されます。
+ * このクラスはスレッドセーフではありません。
+ */
+public final class SentenceSplitter {
+
+  /**
+   * 1つの発話の既定の最大文字数です。
+   */
+  public static final int DEFAULT_MAX_LENGTH = 200;
+
+  private final int maxLength;
+  private final int clauseLength;
+  private final StringBuilder pending = new StringBuilder();
+  private boolean terminated;
+
+  /**
+   * 既定の最大文字数で分割するインスタンスを作成します。
+   */
+  public SentenceSplitter() {
+    this(DEFAULT_MAX_LENGTH);
+  }
+
+  /**
+   * 指定した最大文字数で分割するインスタンスを作成します。
+   *
+   * @param maxLength 1つの発話の最大文字数
+   * @throws IllegalArgumentException {@code maxLength}が2未満の場合
+   */
+  public SentenceSplitter(int maxLength) {
+    this(maxLength, 0);
+  }
+
+  /**
+   * 指定した最大文字数で分割し、指定した文字数以上の節を読点の位置でも分割するインスタンスを作成します。
+   *
+   * @param maxLength 1つの発話の最大文字数
+   * @param clauseLength 読点の位置で分割する節の最小文字数。0の場合は読点の位置で分割しません
+   * @throws IllegalArgumentException {@code maxLength}が2未満の場合、または{@code clauseLength}が負の場合
+   */
+  public SentenceSplitter(int maxLength, int clauseLength) {
+    if (maxLength < 2) {
+      throw new IllegalArgumentException("maxLength must be at least 2: " + maxLength);
+    }
+    if (clauseLength < 0) {
+      throw new IllegalArgumentException("clauseLength must not be negative: " + clauseLength);
+    }
+    this.maxLength = maxLength;
+    this.clauseLength = clauseLength;
+  }
+
+  /**
+   * テキスト全体を発話単位に分割します。
+   *
+   * @param text 分割するテキスト
+   * @param maxLength 1つの発話の最大文字数
+   * @return 発話のリスト
+   */
+  public static List<String> split(CharSequence text, int maxLength) {
+    List<String> sentences = new ArrayList<>();
+    SentenceSplitter splitter = new SentenceSplitter(maxLength);
+    splitter.feed(text, sentences::add);
+    splitter.flush(sentences::add);
+    return sentences;
+  }
+
+  /**
+   * テキストの断片を追加し、確定した発話を出力します。
+   *
+   * @param text 追加するテキストの断片
+   * @param sink 確定した発話の出力先
+   */
+  public void feed(CharSequence text, Consumer<String> sink) {
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c == '\n') {
+        emit(sink);
+        continue;
+      }
+      if (terminated) {
+        if (isTerminator(c) || isClosing(c)) {
+          pending.append(c);
+          continue;
+        }
+        emit(sink);
+      }
+      pending.append(c);
+      if (isTerminator(c)) {
+        terminated = true;
+      } else if (clauseLength > 0 && isClauseBreak(c) && pending.length() >= clauseLength) {
+        emit(sink);
+      } else if (pending.length() >= maxLength) {
+        splitOverlong(sink);
+      }
+    }
+  }
+
+  /**
+   * 残っているテキストを最後の発話として出力します。
+   *
+   * @param sink 発話の出力先
+   */
+  public void flush(Consumer<String> sink) {
+    emit(sink);
+  }
+
+  private void splitOverlong(Consumer<String> sink) {
+    int cut = -1;
+    for (int i = pending.length() - 1; i >= maxLength / 2; i--) {
+      if (isSoftBreak(pending.charAt(i))) {
+        cut = i + 1;
+        break;
+      }
+    }
+    if (cut < 0) {
+      cut = pending.length();
+      // サロゲートペアの途中では分割しない
+      if (Character.isHighSurrogate(pending.charAt(cut - 1))) {
+        cut--;
+      }
+    }
+    String rest = pending.substring(cut);
+    pending.setLength(cut);
+    emit(sink);
+    pending.append(rest);
+  }
+
+  private void emit(Consumer<String> sink) {
+    terminated = false;
+    if (pending.length() == 0) {
+      return;
+    }
+    String sentence = pending.toString().strip();
+    pending.setLength(0);
+    if (isSpeakable(sentence)) {
+      sink.accept(sentence);
+    }
+  }
+
+  private static boolean isSpeakable(String sentence) {
+    return sentence.codePoints().anyMatch(Character::isLetterOrDigit);
+  }
+
+  private static boolean isTerminator(char c) {
+    return c == '。' || c == '．' || c == '！' || c == '？' || c == '!' || c == '?';
+  }
+
+  private static boolean isClosing(char c) {
+    return c == '」' || c == '』' || c == '）' || c == ')' || c == '】' || c == '"' || c == '”' || c == '’';
+  }
+
+  private static boolean isClauseBreak(char c) {
+    return c == '、' || c == '，' || c == ',';
+  }
+
+  private static boolean isSoftBreak(char c) {
+    return isClauseBreak(c) || Character.isWhitespace(c);
+  }
+}
@@ -0,0 +1,158 @@
+package org.braid.society.secret.voicevox4j.internal;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 同じキーで同時に実行中の非同期処理を1つにまとめるクラスです。
+ * <p>
+ * あるキーの処理が実行中の間に同じキーで{@link #submit(Object, Supplier)}を呼び出すと、新しい処理は開始されず、
+ * 実行中の処理の結果（または失敗）を共有します。処理が完了した時点でキーは解除されるため、結果はキャッシュされません。
+ * 完了後の呼び出しは新しい処理を開始します。
+ * <p>
+ * 呼び出しごとに別の{@link CompletableFuture}を返すため、1つをキャンセルしても他の呼び出し元には影響しません。
+ * すべての呼び出し元がキャンセルした場合にのみ、共有の処理のフューチャーもキャンセルされます。
+ *
+ * @param <K> キーの型
+ * @param <V> 結果の型
+ */
+public final class SingleFlight<K, V> {
+
+  private final ConcurrentHashMap<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+  private final UnaryOperator<V> share;
+
+  /**
+   * 合流した呼び出し元にも同じ結果のオブジェクトを渡すインスタンスを作成します。
+   */
+  public SingleFlight() {
+    this(UnaryOperator.identity());
+  }
+
+  /**
+   * 合流した呼び出し元に渡す結果を変換するインスタンスを作成します。
+   * <p>
+   * 結果が配列などの変更可能なオブジェクトの場合に、呼び出し元ごとにコピーを渡すために使用します。
+   * 処理を開始した呼び出し元には、変換せずに結果を渡します。
+   *
+   * @param share 合流した呼び出し元に渡す結果を作成する関数
+   */
+  public SingleFlight(UnaryOperator<V> share) {
+    this.share = share;
+  }
+
+  /**
+   * 処理を非同期に開始するか、同じキーで実行中の処理に合流します。
+   * <p>
+   * {@code starter}は新しい処理を開始する場合にのみ、呼び出し元のスレッドで呼び出されます。
+   *
+   * @param key 処理を識別するキー
+   * @param starter 処理を開始し、その結果を返すフューチャーを返す関数
+   * @return この呼び出し元専用のフューチャー
+   */
+  public CompletableFuture<V> submit(K key, Supplier<CompletableFuture<V>> starter) {
+    Flight<V> created = new Flight<>();
+    Flight<V> flight = join(key, created);
+    boolean leader = flight == created;
+    CompletableFuture<V> view = new CompletableFuture<>();
+    flight.result.whenComplete((value, error) -> {
+      if (error != null) {
+        view.completeExceptionally(error);
+      } else {
+        view.complete(leader ? value : share.apply(value));
+      }
+    });
+    view.whenComplete((value, error) -> {
+      if (error instanceof CancellationException) {
+        leave(key, flight);
+      }
+    });
+    if (leader) {
+      CompletableFuture<V> started;
+      try {
+        started = starter.get();
+      } catch (Throwable t) {
+        inFlight.remove(key, flight);
+        flight.result.completeExceptionally(t);
+        return view;
+      }
+      flight.start(started);
+      started.whenComplete((value, error) -> {
+        // 結果を渡す前に解除し、完了後の呼び出しが古い処理に合流しないようにする
+        inFlight.remove(key, flight);
+        if (error != null) {
+          flight.result.completeExceptionally(error);
+        } else {
+          flight.result.complete(value);
+        }
+      });
+    }
+    return view;
+  }
+
+  /**
+   * 実行中の処理の数を取得します。
+   *
+   * @return 実行中のキーの数
+   */
+  public int inFlightCount() {
+    return inFlight.size();
+  }
+
+  private Flight<V> join(K key, Flight<V> created) {
+    while (true) {
+      Flight<V> flight = inFlight.putIfAbsent(key, created);
+      if (flight == null) {
+        return created;
+      }
+      synchronized (flight) {
+        if (!flight.abandoned) {
+          flight.waiters++;
+          return flight;
+        }
+      }
+      // すべての呼び出し元がキャンセルした処理は、解除されるのを待たずに置き換える
+      inFlight.remove(key, flight);
+    }
+  }
+
+  private void leave(K key, Flight<V> flight) {
+    CompletableFuture<V> started;
+    synchronized (flight) {
+      if (--flight.waiters > 0 || flight.result.isDone()) {
+        return;
+      }
+      flight.abandoned = true;
+      started = flight.started;
+    }
+    inFlight.remove(key, flight);
+    if (started != null) {
+      started.cancel(false);
+    }
+  }
+
+  /**
+   * 実行中の1件の処理と、その結果を待つ呼び出し元の数。
+   */
+  private static final class Flight<V> {
+
+    private final CompletableFuture<V> result = new CompletableFuture<>();
+    private CompletableFuture<V> started;
+    private int waiters = 1;
+    private boolean abandoned;
+
+    private void start(CompletableFuture<V> future) {
+      boolean cancel;
+      synchronized (this) {
+        started = future;
+        cancel = abandoned;
+      }
+      if (cancel) {
+        // 開始する前にすべての呼び出し元がキャンセルした
+        future.cancel(false);
+      }
+    }
+  }
+}
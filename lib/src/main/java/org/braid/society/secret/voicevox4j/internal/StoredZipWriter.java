@@ -0,0 +1,311 @@
+package org.braid.society.secret.voicevox4j.internal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+import java.util.zip.CRC32;
+
+/**
+ * 無圧縮（STORED）のエントリだけを持つZIPアーカイブを、ファイルへ追記しながら書き込むクラスです。
+ * <p>
+ * エントリのデータは{@link FileChannel}へ直接書き込まれ、ヒープへの複製は行われません。
+ * 中央ディレクトリは{@link #close()}で書き込まれるため、書き込み中に異常終了したアーカイブは不完全になりますが、
+ * {@link #resume(Path, long, long, LongFunction)}でローカルヘッダーを順に読んでエントリの一覧を復元し、
+ * 既存のデータを複製せずに最後の完全なエントリの後から追記を再開できます。
+ * <p>
+ * エントリ数や中央ディレクトリの位置がZIPの上限を超える場合は、ZIP64の拡張情報と終端レコードを書き込みます。
+ * 1つのエントリの大きさは4GiB未満である必要があります。
+ */
+public final class StoredZipWriter implements Closeable {
+
+  private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+  private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+  private static final int END_SIGNATURE = 0x06054b50;
+  private static final int ZIP64_END_SIGNATURE = 0x06064b50;
+  private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+  private static final int LOCAL_HEADER_SIZE = 30;
+  private static final int CENTRAL_HEADER_SIZE = 46;
+  private static final int ZIP64_END_SIZE = 56;
+  private static final int ZIP64_EXTRA_SIZE = 12;
+  private static final short ZIP64_EXTRA_ID = 0x0001;
+  private static final short VERSION_STORED = 10;
+  private static final short VERSION_ZIP64 = 45;
+  private static final int FLAG_DATA_DESCRIPTOR = 0x08;
+  private static final long ZIP64_MAGIC = 0xFFFFFFFFL;
+  private static final int ZIP64_MAGIC_COUNT = 0xFFFF;
+  private static final int DIRECTORY_BUFFER_SIZE = 64 * 1024;
+
+  private final FileChannel channel;
+  private final List<Entry> entries;
+  private final ByteBuffer header = ByteBuffer.allocate(LOCAL_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+  private final CRC32 crc = new CRC32();
+  private final short dosTime;
+  private final short dosDate;
+  private long position;
+  private boolean closed;
+
+  private StoredZipWriter(FileChannel channel, List<Entry> entries, long position) {
+    this.channel = channel;
+    this.entries = entries;
+    this.position = position;
+    LocalDateTime now = LocalDateTime.now();
+    this.dosTime = (short) ((now.getHour() << 11) | (now.getMinute() << 5) | (now.getSecond() >> 1));
+    this.dosDate = (short) ((Math.max(now.getYear() - 1980, 0) << 9) | (now.getMonthValue() << 5) | now.getDayOfMonth());
+  }
+
+  /**
+   * 新しいアーカイブを作成します。既存のファイルは上書きされます。
+   *
+   * @param archive アーカイブのパス
+   * @return 作成したライター
+   * @throws IOException ファイルを開けなかった場合
+   */
+  public static StoredZipWriter create(Path archive) throws IOException {
+    FileChannel channel = FileChannel.open(archive,
+        StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    return new StoredZipWriter(channel, new ArrayList<>(), 0);
+  }
+
+  /**
+   * 書き込みが中断されたアーカイブを開き、最後の完全なエントリの後から追記を再開します。
+   * <p>
+   * 先頭からローカルヘッダーを順に読み、{@code maxEntries}個のエントリを読むか、{@code limit}を超えるか、
+   * 不正なヘッダーや期待と異なる名前のエントリに達した時点で走査を終えます。
+   * それ以降のデータ（書き込み途中のエントリや以前の中央ディレクトリ）は切り詰められます。
+   * 復元できたエントリ数は{@link #getEntryCount()}で確認できます。
+   *
+   * @param archive アーカイブのパス。存在しない場合は新しく作成します
+   * @param maxEntries 復元するエントリの最大数
+   * @param limit 復元するエントリの終わりの位置の上限。負の値の場合はファイルの終わりまで走査します
+   * @param names インデックスから期待されるエントリ名を返す関数
+   * @return 再開したライター
+   * @throws IOException ファイルの読み込みまたは切り詰めに失敗した場合
+   */
+  public static StoredZipWriter resume(Path archive, long maxEntries, long limit, LongFunction<String> names)
+      throws IOException {
+    FileChannel channel = FileChannel.open(archive,
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      long end = limit < 0 ? channel.size() : Math.min(limit, channel.size());
+      List<Entry> entries = new ArrayList<>();
+      ByteBuffer header = ByteBuffer.allocate(LOCAL_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+      long offset = 0;
+      while (entries.size() < maxEntries && offset + LOCAL_HEADER_SIZE <= end) {
+        header.clear();
+        readFully(channel, header, offset);
+        if (header.getInt(0) != LOCAL_HEADER_SIGNATURE
+            || (header.getShort(6) & FLAG_DATA_DESCRIPTOR) != 0
+            || header.getShort(8) != 0) {
+          break;
+        }
+        long size = Integer.toUnsignedLong(header.getInt(18));
+        int nameLength = Short.toUnsignedInt(header.getShort(26));
+        int extraLength = Short.toUnsignedInt(header.getShort(28));
+        long next = offset + LOCAL_HEADER_SIZE + nameLength + extraLength + size;
+        if (size != Integer.toUnsignedLong(header.getInt(22)) || next > end) {
+          break;
+        }
+        ByteBuffer nameBytes = ByteBuffer.allocate(nameLength);
+        readFully(channel, nameBytes, offset + LOCAL_HEADER_SIZE);
+        String name = new String(nameBytes.array(), StandardCharsets.UTF_8);
+        if (!name.equals(names.apply(entries.size()))) {
+          break;
+        }
+        entries.add(new Entry(name, header.getInt(14), size, offset));
+        offset = next;
+      }
+      channel.truncate(offset);
+      channel.position(offset);
+      return new StoredZipWriter(channel, entries, offset);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  private static void readFully(FileChannel channel, ByteBuffer buffer, long offset) throws IOException {
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, offset + buffer.position()) < 0) {
+        throw new IOException("Unexpected end of archive");
+      }
+    }
+  }
+
+  /**
+   * 書き込み済みのエントリ数を取得します。
+   *
+   * @return エントリ数
+   */
+  public long getEntryCount() {
+    return entries.size();
+  }
+
+  /**
+   * 最後に書き込んだエントリの終わりの位置を取得します。
+   * <p>
+   * この値を{@link #resume(Path, long, long, LongFunction)}の{@code limit}に渡すと、ここまでのエントリから再開できます。
+   *
+   * @return アーカイブの先頭からのバイト数
+   */
+  public long position() {
+    return position;
+  }
+
+  /**
+   * エントリを1つ書き込みます。
+   *
+   * @param name エントリ名
+   * @param data エントリのデータ。位置からリミットまでを書き込み、位置はリミットまで進みます
+   * @throws IOException 書き込みに失敗した場合
+   * @throws IllegalArgumentException データが4GiB以上の場合
+   * @throws IllegalStateException 既にクローズされている場合
+   */
+  public void write(String name, ByteBuffer data) throws IOException {
+    if (closed) {
+      throw new IllegalStateException("StoredZipWriter is already closed");
+    }
+    long size = data.remaining();
+    if (size >= ZIP64_MAGIC) {
+      throw new IllegalArgumentException("Entry is too large: " + size);
+    }
+    byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+    crc.reset();
+    crc.update(data.duplicate());
+    int checksum = (int) crc.getValue();
+
+    header.clear();
+    header.putInt(LOCAL_HEADER_SIGNATURE)
+        .putShort(VERSION_STORED)
+        .putShort((short) 0)
+        .putShort((short) 0)
+        .putShort(dosTime)
+        .putShort(dosDate)
+        .putInt(checksum)
+        .putInt((int) size)
+        .putInt((int) size)
+        .putShort((short) nameBytes.length)
+        .putShort((short) 0)
+        .flip();
+    writeFully(header);
+    writeFully(ByteBuffer.wrap(nameBytes));
+    writeFully(data);
+
+    entries.add(new Entry(name, checksum, size, position));
+    position += LOCAL_HEADER_SIZE + nameBytes.length + size;
+  }
+
+  private void writeFully(ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  /**
+   * 中央ディレクトリと終端レコードを書き込み、ファイルを閉じます。既にクローズされている場合は何もしません。
+   *
+   * @throws IOException 書き込みに失敗した場合
+   */
+  @Override
+  public void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try (channel) {
+      // 書き込みに失敗したエントリの残りを取り除く
+      channel.truncate(position);
+      channel.position(position);
+      long directoryOffset = position;
+      ByteBuffer buffer = ByteBuffer.allocate(DIRECTORY_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+      for (Entry entry : entries) {
+        byte[] nameBytes = entry.name.getBytes(StandardCharsets.UTF_8);
+        boolean zip64 = entry.offset >= ZIP64_MAGIC;
+        if (buffer.remaining() < CENTRAL_HEADER_SIZE + ZIP64_EXTRA_SIZE + nameBytes.length) {
+          writeFully(buffer.flip());
+          buffer.clear();
+        }
+        buffer.putInt(CENTRAL_HEADER_SIGNATURE)
+            .putShort(VERSION_ZIP64)
+            .putShort(zip64 ? VERSION_ZIP64 : VERSION_STORED)
+            .putShort((short) 0)
+            .putShort((short) 0)
+            .putShort(dosTime)
+            .putShort(dosDate)
+            .putInt(entry.crc)
+            .putInt((int) entry.size)
+            .putInt((int) entry.size)
+            .putShort((short) nameBytes.length)
+            .putShort((short) (zip64 ? ZIP64_EXTRA_SIZE : 0))
+            .putShort((short) 0)
+            .putShort((short) 0)
+            .putShort((short) 0)
+            .putInt(0)
+            .putInt((int) (zip64 ? ZIP64_MAGIC : entry.offset))
+            .put(nameBytes);
+        if (zip64) {
+          buffer.putShort(ZIP64_EXTRA_ID).putShort((short) Long.BYTES).putLong(entry.offset);
+        }
+      }
+      writeFully(buffer.flip());
+      buffer.clear();
+
+      long directoryEnd = channel.position();
+      long directorySize = directoryEnd - directoryOffset;
+      long count = entries.size();
+      boolean zip64 = count >= ZIP64_MAGIC_COUNT || directoryOffset >= ZIP64_MAGIC || directorySize >= ZIP64_MAGIC;
+      if (zip64) {
+        buffer.putInt(ZIP64_END_SIGNATURE)
+            .putLong(ZIP64_END_SIZE - 12)
+            .putShort(VERSION_ZIP64)
+            .putShort(VERSION_ZIP64)
+            .putInt(0)
+            .putInt(0)
+            .putLong(count)
+            .putLong(count)
+            .putLong(directorySize)
+            .putLong(directoryOffset)
+            .putInt(ZIP64_LOCATOR_SIGNATURE)
+            .putInt(0)
+            .putLong(directoryEnd)
+            .putInt(1);
+      }
+      short countField = (short) Math.min(count, ZIP64_MAGIC_COUNT);
+      buffer.putInt(END_SIGNATURE)
+          .putShort((short) 0)
+          .putShort((short) 0)
+          .putShort(countField)
+          .putShort(countField)
+          .putInt((int) Math.min(directorySize, ZIP64_MAGIC))
+          .putInt((int) Math.min(directoryOffset, ZIP64_MAGIC))
+          .putShort((short) 0);
+      writeFully(buffer.flip());
+    }
+  }
+
+  /**
+   * 中央ディレクトリに書き込むエントリの情報。
+   */
+  private static final class Entry {
+
+    private final String name;
+    private final int crc;
+    private final long size;
+    private final long offset;
+
+    private Entry(String name, int crc, long size, long offset) {
+      this.name = name;
+      this.crc = crc;
+      this.size = size;
+      this.offset = offset;
+    }
+  }
+}
@@ -0,0 +1,411 @@
+package org.braid.society.secret.voicevox4j.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * W-TinyLFU方式の受け入れと追い出しを行う、バイト数で上限を設定するキャッシュです。
+ * <p>
+ * 新しいエントリはまず小さなウィンドウ（LRU、容量の1%）に入り、ウィンドウから溢れたエントリは、
+ * メイン領域（セグメント化LRU）の追い出し候補よりアクセス頻度が高い場合にのみメイン領域へ受け入れられます。
+ * アクセス頻度はCount-Min Sketchで近似し、一定回数ごとに半減させることで古い傾向を忘れます。
+ * これにより、一度しか使われないエントリが頻繁に使われるエントリを追い出すことを防ぎます。
+ * <p>
+ * すべての操作は単一のロックで保護されています。
+ * キャッシュする値の計算（推論など）に比べて十分に軽量であることを前提としています。
+ * <p>
+ * 値がネイティブメモリなどの明示的な解放を必要とするリソースを保持する場合は、削除リスナーを指定してください。
+ * 削除リスナーはロックを保持したまま呼び出されるため、このキャッシュを操作してはいけません。
+ *
+ * @param <K> キーの型
+ * @param <V> 値の型
+ */
+public final class TinyLfuCache<K, V> {
+
+  private static final int WINDOW = 0;
+  private static final int PROBATION = 1;
+  private static final int PROTECTED = 2;
+
+  private final long maxBytes;
+  private final long windowMaxBytes;
+  private final long protectedMaxBytes;
+  private final ToLongBiFunction<K, V> weigher;
+  private final BiConsumer<K, V> removalListener;
+  private final FrequencySketch sketch;
+  private final Map<K, Node<K, V>> data = new HashMap<>();
+  private final AccessQueue<K, V> window = new AccessQueue<>();
+  private final AccessQueue<K, V> probation = new AccessQueue<>();
+  private final AccessQueue<K, V> protectedQueue = new AccessQueue<>();
+
+  private long windowBytes;
+  private long probationBytes;
+  private long protectedBytes;
+  private long hits;
+  private long misses;
+  private long evictions;
+
+  /**
+   * キャッシュを作成します。
+   *
+   * @param maxBytes キャッシュ全体の最大バイト数
+   * @param expectedEntrySize 1エントリの想定バイト数。頻度推定の精度に使用します
+   * @param weigher キーと値からエントリのバイト数を見積もる関数
+   * @throws IllegalArgumentException {@code maxBytes}または{@code expectedEntrySize}が1未満の場合
+   */
+  public TinyLfuCache(long maxBytes, long expectedEntrySize, ToLongBiFunction<K, V> weigher) {
+    this(maxBytes, expectedEntrySize, weigher, (key, value) -> { });
+  }
+
+  /**
+   * 削除リスナーを指定してキャッシュを作成します。
+   * <p>
+   * 削除リスナーは、エントリが追い出された場合、受け入れられなかった場合、値が置き換えられた場合、
+   * および{@link #invalidateAll()}で削除された場合に呼び出されます。
+   *
+   * @param maxBytes キャッシュ全体の最大バイト数
+   * @param expectedEntrySize 1エントリの想定バイト数。頻度推定の精度に使用します
+   * @param weigher キーと値からエントリのバイト数を見積もる関数
+   * @param removalListener キャッシュから取り除かれたキーと値を受け取るリスナー
+   * @throws IllegalArgumentException {@code maxBytes}または{@code expectedEntrySize}が1未満の場合
+   */
+  public TinyLfuCache(long maxBytes, long expectedEntrySize, ToLongBiFunction<K, V> weigher,
+                      BiConsumer<K, V> removalListener) {
+    if (maxBytes < 1 || expectedEntrySize < 1) {
+      throw new IllegalArgumentException("maxBytes and expectedEntrySize must be positive");
+    }
+    this.maxBytes = maxBytes;
+    this.windowMaxBytes = Math.max(1, maxBytes / 100);
+    this.protectedMaxBytes = (maxBytes - windowMaxBytes) * 4 / 5;
+    this.weigher = weigher;
+    this.removalListener = removalListener;
+    this.sketch = new FrequencySketch(maxBytes / expectedEntrySize);
+  }
+
+  /**
+   * 値を取得します。キーのアクセス頻度も記録されます。
+   *
+   * @param key キー
+   * @return キャッシュされた値。存在しない場合はnull
+   */
+  public synchronized V get(K key) {
+    sketch.increment(key.hashCode());
+    Node<K, V> node = data.get(key);
+    if (node == null) {
+      misses++;
+      return null;
+    }
+    hits++;
+    onHit(node);
+    return node.value;
+  }
+
+  /**
+   * 値を格納します。
+   * <p>
+   * エントリのバイト数がキャッシュ全体の最大バイト数を超える場合は格納されません。
+   * 格納された値も、受け入れ判定によって直ちに追い出される場合があります。
+   *
+   * @param key キー
+   * @param value 値
+   */
+  public synchronized void put(K key, V value) {
+    long weight = weigher.applyAsLong(key, value);
+    if (weight > maxBytes) {
+      removalListener.accept(key, value);
+      return;
+    }
+    Node<K, V> node = data.get(key);
+    if (node != null) {
+      V replaced = node.value;
+      addBytes(node.queue, weight - node.weight);
+      node.value = value;
+      node.weight = weight;
+      onHit(node);
+      if (replaced != value) {
+        removalListener.accept(key, replaced);
+      }
+    } else {
+      node = new Node<>(key, value, weight);
+      data.put(key, node);
+      window.addLast(node);
+      windowBytes += weight;
+    }
+    evict();
+  }
+
+  /**
+   * すべてのエントリを削除します。アクセス頻度の記録は保持されます。
+   */
+  public synchronized void invalidateAll() {
+    for (Node<K, V> node : data.values()) {
+      removalListener.accept(node.key, node.value);
+    }
+    data.clear();
+    window.clear();
+    probation.clear();
+    protectedQueue.clear();
+    windowBytes = 0;
+    probationBytes = 0;
+    protectedBytes = 0;
+  }
+
+  /**
+   * エントリ数を取得します。
+   *
+   * @return エントリ数
+   */
+  public synchronized int size() {
+    return data.size();
+  }
+
+  /**
+   * 格納しているエントリの合計バイト数を取得します。
+   *
+   * @return 合計バイト数
+   */
+  public synchronized long weightedSize() {
+    return windowBytes + probationBytes + protectedBytes;
+  }
+
+  /**
+   * ヒット数を取得します。
+   *
+   * @return ヒット数
+   */
+  public synchronized long hitCount() {
+    return hits;
+  }
+
+  /**
+   * ミス数を取得します。
+   *
+   * @return ミス数
+   */
+  public synchronized long missCount() {
+    return misses;
+  }
+
+  /**
+   * 容量を超えたために追い出された、または受け入れられなかったエントリの数を取得します。
+   *
+   * @return 追い出されたエントリの数
+   */
+  public synchronized long evictionCount() {
+    return evictions;
+  }
+
+  private void onHit(Node<K, V> node) {
+    switch (node.queue) {
+      case WINDOW -> window.moveToLast(node);
+      case PROBATION -> {
+        probation.remove(node);
+        probationBytes -= node.weight;
+        node.queue = PROTECTED;
+        protectedQueue.addLast(node);
+        protectedBytes += node.weight;
+        while (protectedBytes > protectedMaxBytes) {
+          Node<K, V> demoted = protectedQueue.removeFirst();
+          protectedBytes -= demoted.weight;
+          demoted.queue = PROBATION;
+          probation.addLast(demoted);
+          probationBytes += demoted.weight;
+        }
+      }
+      default -> protectedQueue.moveToLast(node);
+    }
+  }
+
+  private void evict() {
+    while (windowBytes > windowMaxBytes) {
+      Node<K, V> candidate = window.removeFirst();
+      windowBytes -= candidate.weight;
+      admit(candidate);
+    }
+    long mainMaxBytes = maxBytes - windowMaxBytes;
+    while (probationBytes + protectedBytes > mainMaxBytes) {
+      Node<K, V> victim = probation.isEmpty() ? protectedQueue.first() : probation.first();
+      discard(victim);
+    }
+  }
+
+  private void admit(Node<K, V> candidate) {
+    long mainMaxBytes = maxBytes - windowMaxBytes;
+    int candidateFrequency = sketch.frequency(candidate.key.hashCode());
+    while (probationBytes + protectedBytes + candidate.weight > mainMaxBytes) {
+      Node<K, V> victim = probation.isEmpty() ? protectedQueue.first() : probation.first();
+      if (victim == null || candidateFrequency <= sketch.frequency(victim.key.hashCode())) {
+        data.remove(candidate.key);
+        evictions++;
+        removalListener.accept(candidate.key, candidate.value);
+        return;
+      }
+      discard(victim);
+    }
+    candidate.queue = PROBATION;
+    probation.addLast(candidate);
+    probationBytes += candidate.weight;
+  }
+
+  private void discard(Node<K, V> victim) {
+    queueOf(victim.queue).remove(victim);
+    addBytes(victim.queue, -victim.weight);
+    data.remove(victim.key);
+    evictions++;
+    removalListener.accept(victim.key, victim.value);
+  }
+
+  private AccessQueue<K, V> queueOf(int queue) {
+    return switch (queue) {
+      case WINDOW -> window;
+      case PROBATION -> probation;
+      default -> protectedQueue;
+    };
+  }
+
+  private void addBytes(int queue, long delta) {
+    switch (queue) {
+      case WINDOW -> windowBytes += delta;
+      case PROBATION -> probationBytes += delta;
+      default -> protectedBytes += delta;
+    }
+  }
+
+  private static final class Node<K, V> {
+
+    private final K key;
+    private V value;
+    private long weight;
+    private int queue = WINDOW;
+    private Node<K, V> prev;
+    private Node<K, V> next;
+
+    private Node(K key, V value, long weight) {
+      this.key = key;
+      this.value = value;
+      this.weight = weight;
+    }
+  }
+
+  /**
+   * 先頭が最も長くアクセスされていないエントリとなる、侵入型の双方向リストです。
+   */
+  private static final class AccessQueue<K, V> {
+
+    private Node<K, V> head;
+    private Node<K, V> tail;
+
+    boolean isEmpty() {
+      return head == null;
+    }
+
+    Node<K, V> first() {
+      return head;
+    }
+
+    void addLast(Node<K, V> node) {
+      node.prev = tail;
+      node.next = null;
+      if (tail == null) {
+        head = node;
+      } else {
+        tail.next = node;
+      }
+      tail = node;
+    }
+
+    Node<K, V> removeFirst() {
+      Node<K, V> node = head;
+      remove(node);
+      return node;
+    }
+
+    void remove(Node<K, V> node) {
+      if (node.prev == null) {
+        head = node.next;
+      } else {
+        node.prev.next = node.next;
+      }
+      if (node.next == null) {
+        tail = node.prev;
+      } else {
+        node.next.prev = node.prev;
+      }
+      node.prev = null;
+      node.next = null;
+    }
+
+    void moveToLast(Node<K, V> node) {
+      if (node != tail) {
+        remove(node);
+        addLast(node);
+      }
+    }
+
+    void clear() {
+      head = null;
+      tail = null;
+    }
+  }
+
+  /**
+   * 4段のCount-Min Sketchによるアクセス頻度の近似です。カウンタは15で飽和します。
+   */
+  private static final class FrequencySketch {
+
+    private static final int DEPTH = 4;
+    private static final int MAX_COUNT = 15;
+    private static final int MIN_WIDTH = 64;
+    private static final int MAX_WIDTH = 1 << 22;
+    private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+    private final int[][] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    private FrequencySketch(long expectedEntries) {
+      int width = Integer.highestOneBit((int) Math.min(MAX_WIDTH, Math.max(MIN_WIDTH, expectedEntries)) * 2 - 1);
+      this.table = new int[DEPTH][width];
+      this.mask = width - 1;
+      this.sampleSize = width * 10;
+    }
+
+    int frequency(int hash) {
+      int frequency = MAX_COUNT;
+      for (int i = 0; i < DEPTH; i++) {
+        frequency = Math.min(frequency, table[i][index(hash, i)]);
+      }
+      return frequency;
+    }
+
+    void increment(int hash) {
+      boolean added = false;
+      for (int i = 0; i < DEPTH; i++) {
+        int index = index(hash, i);
+        if (table[i][index] < MAX_COUNT) {
+          table[i][index]++;
+          added = true;
+        }
+      }
+      if (added && ++additions >= sampleSize) {
+        reset();
+      }
+    }
+
+    private void reset() {
+      for (int[] row : table) {
+        for (int i = 0; i < row.length; i++) {
+          row[i] >>>= 1;
+        }
+      }
+      additions /= 2;
+    }
+
+    private int index(int hash, int row) {
+      int h = (hash ^ (hash >>> 16)) * SEEDS[row];
+      return (h ^ (h >>> 15)) & mask;
+    }
+  }
+}
@@ -0,0 +1,339 @@
+package org.braid.society.secret.voicevox4j.internal;
+
+import com.sun.jna.Pointer;
+import java.nio.ByteBuffer;
+
+/**
+ * UTF-8でエンコードされたJSONを先頭から順に読み取る、依存ライブラリのないプル型パーサーです。
+ * <p>
+ * ネイティブメモリ上のJSONを{@link ByteBuffer}として直接参照し、Java側の{@link String}へ一括でデコードすることなく、
+ * 必要な値だけをその場でデコードします。このクラスはスレッドセーフではありません。
+ * <p>
+ * 構文に誤りがある場合は{@link IllegalArgumentException}を送出します。
+ */
+public final class Utf8JsonReader {
+
+  private final ByteBuffer buffer;
+  private final int limit;
+  private final StringBuilder text = new StringBuilder();
+  private int position;
+  private boolean needComma;
+
+  private Utf8JsonReader(ByteBuffer buffer) {
+    this.buffer = buffer;
+    this.position = buffer.position();
+    this.limit = buffer.limit();
+  }
+
+  /**
+   * NUL終端のUTF-8文字列としてネイティブメモリ上にあるJSONを読み取ります。
+   * <p>
+   * 読み取りが終わるまで、{@code json}が指すメモリを解放してはいけません。
+   *
+   * @param json NUL終端のJSON文字列へのポインタ
+   * @return リーダー
+   */
+  public static Utf8JsonReader of(Pointer json) {
+    long length = json.indexOf(0, (byte) 0);
+    return new Utf8JsonReader(json.getByteBuffer(0, length));
+  }
+
+  /**
+   * バッファの位置からリミットまでのUTF-8のJSONを読み取ります。
+   *
+   * @param json JSONのバイト列
+   * @return リーダー
+   */
+  public static Utf8JsonReader of(ByteBuffer json) {
+    return new Utf8JsonReader(json.duplicate());
+  }
+
+  public void beginObject() {
+    beforeValue();
+    expect('{');
+    needComma = false;
+  }
+
+  public void endObject() {
+    expect('}');
+    needComma = true;
+  }
+
+  public void beginArray() {
+    beforeValue();
+    expect('[');
+    needComma = false;
+  }
+
+  public void endArray() {
+    expect(']');
+    needComma = true;
+  }
+
+  /**
+   * 現在のオブジェクトまたは配列に、次の要素があるかどうかを確認します。
+   *
+   * @return 次の要素がある場合はtrue
+   */
+  public boolean hasNext() {
+    int c = peek();
+    if (c == '}' || c == ']') {
+      return false;
+    }
+    if (needComma) {
+      expect(',');
+      needComma = false;
+    }
+    return true;
+  }
+
+  public String nextName() {
+    hasNext();
+    String name = readString();
+    expect(':');
+    needComma = false;
+    return name;
+  }
+
+  /**
+   * 次の値がnullであれば読み飛ばします。
+   *
+   * @return 次の値がnullだった場合はtrue
+   */
+  public boolean nextNullIf() {
+    beforeValue();
+    if (peek() != 'n') {
+      return false;
+    }
+    literal("null");
+    needComma = true;
+    return true;
+  }
+
+  public String nextString() {
+    beforeValue();
+    String value = readString();
+    needComma = true;
+    return value;
+  }
+
+  public boolean nextBoolean() {
+    beforeValue();
+    boolean value;
+    if (peek() == 't') {
+      literal("true");
+      value = true;
+    } else {
+      literal("false");
+      value = false;
+    }
+    needComma = true;
+    return value;
+  }
+
+  public double nextDouble() {
+    beforeValue();
+    int start = position;
+    while (position < limit && isNumberChar(buffer.get(position))) {
+      position++;
+    }
+    if (start == position) {
+      throw syntaxError("number");
+    }
+    char[] chars = new char[position - start];
+    for (int i = 0; i < chars.length; i++) {
+      chars[i] = (char) buffer.get(start + i);
+    }
+    needComma = true;
+    try {
+      return Double.parseDouble(new String(chars));
+    } catch (NumberFormatException e) {
+      throw syntaxError("number");
+    }
+  }
+
+  public int nextInt() {
+    double value = nextDouble();
+    int intValue = (int) value;
+    if (intValue != value) {
+      throw new IllegalArgumentException("Expected an integer but was " + value + " at offset " + position);
+    }
+    return intValue;
+  }
+
+  /**
+   * 整数を読み取ります。
+   * <p>
+   * 数値は{@code double}として解析するため、絶対値が2<sup>53</sup>以下の整数のみを正確に読み取れます。
+   *
+   * @return 読み取った値
+   */
+  public long nextLong() {
+    double value = nextDouble();
+    long longValue = (long) value;
+    if (longValue != value) {
+      throw new IllegalArgumentException("Expected an integer but was " + value + " at offset " + position);
+    }
+    return longValue;
+  }
+
+  /**
+   * 次の値を、種類にかかわらず読み飛ばします。
+   */
+  public void skipValue() {
+    beforeValue();
+    switch (peek()) {
+      case '{' -> {
+        beginObject();
+        while (hasNext()) {
+          nextName();
+          skipValue();
+        }
+        endObject();
+      }
+      case '[' -> {
+        beginArray();
+        while (hasNext()) {
+          skipValue();
+        }
+        endArray();
+      }
+      case '"' -> nextString();
+      case 't', 'f' -> nextBoolean();
+      case 'n' -> nextNullIf();
+      default -> nextDouble();
+    }
+  }
+
+  /**
+   * 最上位の値を読み終えた後に、余分な入力がないことを確認します。
+   */
+  public void endDocument() {
+    if (peek() != -1) {
+      throw syntaxError("end of input");
+    }
+  }
+
+  private void beforeValue() {
+    if (needComma) {
+      hasNext();
+    }
+  }
+
+  private String readString() {
+    expect('"');
+    text.setLength(0);
+    while (true) {
+      if (position >= limit) {
+        throw syntaxError("'\"'");
+      }
+      int b = buffer.get(position++) & 0xFF;
+      if (b == '"') {
+        return text.toString();
+      }
+      if (b == '\\') {
+        readEscape();
+      } else if (b < 0x80) {
+        text.append((char) b);
+      } else {
+        readMultiByte(b);
+      }
+    }
+  }
+
+  private void readEscape() {
+    if (position >= limit) {
+      throw syntaxError("escape sequence");
+    }
+    int c = buffer.get(position++);
+    switch (c) {
+      case '"', '\\', '/' -> text.append((char) c);
+      case 'b' -> text.append('\b');
+      case 'f' -> text.append('\f');
+      case 'n' -> text.append('\n');
+      case 'r' -> text.append('\r');
+      case 't' -> text.append('\t');
+      case 'u' -> {
+        if (position + 4 > limit) {
+          throw syntaxError("unicode escape");
+        }
+        int code = 0;
+        for (int i = 0; i < 4; i++) {
+          int digit = Character.digit(buffer.get(position++), 16);
+          if (digit < 0) {
+            throw syntaxError("hex digit");
+          }
+          code = (code << 4) | digit;
+        }
+        text.append((char) code);
+      }
+      default -> throw syntaxError("escape sequence");
+    }
+  }
+
+  private void readMultiByte(int first) {
+    int extra;
+    int codePoint;
+    if ((first & 0xE0) == 0xC0) {
+      extra = 1;
+      codePoint = first & 0x1F;
+    } else if ((first & 0xF0) == 0xE0) {
+      extra = 2;
+      codePoint = first & 0x0F;
+    } else if ((first & 0xF8) == 0xF0) {
+      extra = 3;
+      codePoint = first & 0x07;
+    } else {
+      throw syntaxError("UTF-8 lead byte");
+    }
+    if (position + extra > limit) {
+      throw syntaxError("UTF-8 continuation byte");
+    }
+    for (int i = 0; i < extra; i++) {
+      int b = buffer.get(position++) & 0xFF;
+      if ((b & 0xC0) != 0x80) {
+        throw syntaxError("UTF-8 continuation byte");
+      }
+      codePoint = (codePoint << 6) | (b & 0x3F);
+    }
+    text.appendCodePoint(codePoint);
+  }
+
+  private void literal(String literal) {
+    for (int i = 0; i < literal.length(); i++) {
+      if (position >= limit || buffer.get(position) != literal.charAt(i)) {
+        throw syntaxError(literal);
+      }
+      position++;
+    }
+  }
+
+  private void expect(char c) {
+    if (peek() != c) {
+      throw syntaxError("'" + c + "'");
+    }
+    position++;
+  }
+
+  /**
+   * 空白を読み飛ばし、次の文字を返します。入力の終わりに達した場合は-1を返します。
+   */
+  private int peek() {
+    while (position < limit) {
+      byte b = buffer.get(position);
+      if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+        return b;
+      }
+      position++;
+    }
+    return -1;
+  }
+
+  private static boolean isNumberChar(byte b) {
+    return (b >= '0' && b <= '9') || b == '-' || b == '+' || b == '.' || b == 'e' || b == 'E';
+  }
+
+  private IllegalArgumentException syntaxError(String expected) {
+    return new IllegalArgumentException("Malformed JSON: expected " + expected + " at offset " + position);
+  }
+}
@@ -0,0 +1,239 @@
+package org.braid.society.secret.voicevox4j.internal;
+
+import com.sun.jna.Memory;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 空白を含まないコンパクトなJSONを、UTF-8のバイト列として直接書き出すライターです。
+ * <p>
+ * 書き出したJSONは{@link #toNativeMemory()}でNUL終端のネイティブ文字列としてそのままC APIに渡せるため、
+ * Java側の{@link String}を経由したエンコードが不要です。このクラスはスレッドセーフではありません。
+ */
+public final class Utf8JsonWriter {
+
+  private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+
+  private byte[] bytes;
+  private int size;
+  private boolean needComma;
+
+  /**
+   * 想定されるサイズを指定してライターを作成します。
+   *
+   * @param initialCapacity 初期バッファサイズ（バイト）
+   */
+  public Utf8JsonWriter(int initialCapacity) {
+    this.bytes = new byte[Math.max(16, initialCapacity)];
+  }
+
+  public Utf8JsonWriter beginObject() {
+    beforeValue();
+    write('{');
+    needComma = false;
+    return this;
+  }
+
+  public Utf8JsonWriter endObject() {
+    write('}');
+    needComma = true;
+    return this;
+  }
+
+  public Utf8JsonWriter beginArray() {
+    beforeValue();
+    write('[');
+    needComma = false;
+    return this;
+  }
+
+  public Utf8JsonWriter endArray() {
+    write(']');
+    needComma = true;
+    return this;
+  }
+
+  public Utf8JsonWriter name(String name) {
+    beforeValue();
+    writeString(name);
+    write(':');
+    needComma = false;
+    return this;
+  }
+
+  public Utf8JsonWriter value(String value) {
+    beforeValue();
+    if (value == null) {
+      writeAscii("null");
+    } else {
+      writeString(value);
+    }
+    needComma = true;
+    return this;
+  }
+
+  public Utf8JsonWriter value(boolean value) {
+    beforeValue();
+    writeAscii(value ? "true" : "false");
+    needComma = true;
+    return this;
+  }
+
+  public Utf8JsonWriter value(long value) {
+    beforeValue();
+    writeAscii(Long.toString(value));
+    needComma = true;
+    return this;
+  }
+
+  /**
+   * 数値を書き出します。
+   *
+   * @param value 書き出す値
+   * @return このライター
+   * @throws IllegalArgumentException 値がNaNまたは無限大の場合
+   */
+  public Utf8JsonWriter value(double value) {
+    if (!Double.isFinite(value)) {
+      throw new IllegalArgumentException("JSON does not allow non-finite numbers: " + value);
+    }
+    beforeValue();
+    writeAscii(Double.toString(value));
+    needComma = true;
+    return this;
+  }
+
+  /**
+   * 数値を書き出します。nullの場合はJSONのnullを書き出します。
+   *
+   * @param value 書き出す値
+   * @return このライター
+   * @throws IllegalArgumentException 値がNaNまたは無限大の場合
+   */
+  public Utf8JsonWriter value(Double value) {
+    if (value == null) {
+      beforeValue();
+      writeAscii("null");
+      needComma = true;
+      return this;
+    }
+    return value(value.doubleValue());
+  }
+
+  public Utf8JsonWriter nullValue() {
+    beforeValue();
+    writeAscii("null");
+    needComma = true;
+    return this;
+  }
+
+  /**
+   * 書き出したJSONをNUL終端のUTF-8文字列としてネイティブメモリにコピーします。
+   * <p>
+   * 返されたメモリは使用後に{@link Memory#close()}で解放できます。解放しなかった場合はGCによって解放されます。
+   *
+   * @return JSONを格納したネイティブメモリ
+   */
+  public Memory toNativeMemory() {
+    Memory memory = new Memory(size + 1L);
+    memory.write(0, bytes, 0, size);
+    memory.setByte(size, (byte) 0);
+    return memory;
+  }
+
+  /**
+   * 書き出したJSONのUTF-8バイト列を返します。
+   *
+   * @return JSONのコピー
+   */
+  public byte[] toByteArray() {
+    return Arrays.copyOf(bytes, size);
+  }
+
+  @Override
+  public String toString() {
+    return new String(bytes, 0, size, StandardCharsets.UTF_8);
+  }
+
+  private void beforeValue() {
+    if (needComma) {
+      write(',');
+      needComma = false;
+    }
+  }
+
+  private void writeString(String value) {
+    ensureCapacity(value.length() + 2);
+    bytes[size++] = '"';
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      // 1文字あたり最大6バイト（制御文字のエスケープ）
+      ensureCapacity(6);
+      if (c == '"' || c == '\\') {
+        bytes[size++] = '\\';
+        bytes[size++] = (byte) c;
+      } else if (c < 0x20) {
+        writeControl(c);
+      } else if (c < 0x80) {
+        bytes[size++] = (byte) c;
+      } else if (c < 0x800) {
+        bytes[size++] = (byte) (0xC0 | (c >> 6));
+        bytes[size++] = (byte) (0x80 | (c & 0x3F));
+      } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+          && Character.isLowSurrogate(value.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, value.charAt(++i));
+        bytes[size++] = (byte) (0xF0 | (codePoint >> 18));
+        bytes[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+        bytes[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+        bytes[size++] = (byte) (0x80 | (codePoint & 0x3F));
+      } else if (Character.isSurrogate(c)) {
+        // 対になっていないサロゲートはUTF-8で表現できないため、置換文字にする
+        bytes[size++] = (byte) 0xEF;
+        bytes[size++] = (byte) 0xBF;
+        bytes[size++] = (byte) 0xBD;
+      } else {
+        bytes[size++] = (byte) (0xE0 | (c >> 12));
+        bytes[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+        bytes[size++] = (byte) (0x80 | (c & 0x3F));
+      }
+    }
+    ensureCapacity(1);
+    bytes[size++] = '"';
+  }
+
+  private void writeControl(char c) {
+    bytes[size++] = '\\';
+    switch (c) {
+      case '\b' -> bytes[size++] = 'b';
+      case '\f' -> bytes[size++] = 'f';
+      case '\n' -> bytes[size++] = 'n';
+      case '\r' -> bytes[size++] = 'r';
+      case '\t' -> bytes[size++] = 't';
+      default -> {
+        bytes[size++] = 'u';
+        bytes[size++] = '0';
+        bytes[size++] = '0';
+        bytes[size++] = HEX[c >> 4];
+        bytes[size++] = HEX[c & 0xF];
+      }
+    }
+  }
+
+  private void writeAscii(String ascii) {
+    ensureCapacity(ascii.length());
+    for (int i = 0; i < ascii.length(); i++) {
+      bytes[size++] = (byte) ascii.charAt(i);
+    }
+  }
+
+  private void write(char c) {
+    ensureCapacity(1);
+    bytes[size++] = (byte) c;
+  }
+
+  private void ensureCapacity(int additional) {
+    if (size + additional > bytes.length) {
+      bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + additional));
+    }
+  }
+}
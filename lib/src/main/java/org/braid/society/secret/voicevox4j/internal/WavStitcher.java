@@ -0,0 +1,160 @@
+package org.braid.society.secret.voicevox4j.internal;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 同じ形式の複数のWAVデータを、間に無音を挟みながら1つのWAVデータに連結するクラスです。
+ * <p>
+ * 各WAVデータのチャンクを走査して{@code fmt }チャンクと{@code data}チャンクを探すため、
+ * ヘッダーが44バイト固定でないWAVデータも扱えます。出力は{@code fmt }チャンクと{@code data}チャンクのみを持ちます。
+ * 連結結果はヒープ上の1つのバイト配列に直接書き込まれ、中間のバッファは作成されません。
+ */
+public final class WavStitcher {
+
+  private static final int RIFF_HEADER_SIZE = 12;
+  private static final int CHUNK_HEADER_SIZE = 8;
+  private static final int PCM_8BIT = 8;
+  private static final byte SILENCE_8BIT = (byte) 0x80;
+
+  private WavStitcher() {
+  }
+
+  /**
+   * WAVデータを順番どおりに連結します。
+   *
+   * @param wavs 連結するWAVデータ。各バッファの位置からリミットまでを1つのWAVデータとして扱います
+   * @param pause WAVデータの間に挟む無音の長さ
+   * @return 連結したWAVデータ
+   * @throws IllegalArgumentException WAVデータが空であるか、形式が不正であるか、互いに形式が異なる場合
+   * @throws IllegalStateException 連結結果が配列に格納できる大きさを超える場合
+   */
+  public static byte[] stitch(List<ByteBuffer> wavs, Duration pause) {
+    if (wavs.isEmpty()) {
+      throw new IllegalArgumentException("No WAV data to stitch");
+    }
+    List<Chunks> parsed = new ArrayList<>(wavs.size());
+    for (ByteBuffer wav : wavs) {
+      Chunks chunks = Chunks.parse(wav.slice().order(ByteOrder.LITTLE_ENDIAN));
+      if (!parsed.isEmpty() && !parsed.get(0).sameFormat(chunks)) {
+        throw new IllegalArgumentException("WAV data " + parsed.size() + " has a different format from the first one");
+      }
+      parsed.add(chunks);
+    }
+
+    Chunks first = parsed.get(0);
+    long pauseBytes = pauseFrames(first, pause) * first.blockAlign();
+    long dataSize = pauseBytes * (parsed.size() - 1);
+    for (Chunks chunks : parsed) {
+      dataSize += chunks.data.remaining();
+    }
+    int fmtSize = first.fmt.remaining();
+    long totalSize = RIFF_HEADER_SIZE + CHUNK_HEADER_SIZE + fmtSize + (fmtSize & 1) + CHUNK_HEADER_SIZE + dataSize + (dataSize & 1);
+    if (totalSize > Integer.MAX_VALUE - 8) {
+      throw new IllegalStateException("Stitched WAV data is too large: " + totalSize + " bytes");
+    }
+
+    byte[] result = new byte[(int) totalSize];
+    ByteBuffer out = ByteBuffer.wrap(result).order(ByteOrder.LITTLE_ENDIAN);
+    out.put(ascii("RIFF")).putInt((int) totalSize - 8).put(ascii("WAVE"));
+    out.put(ascii("fmt ")).putInt(fmtSize).put(first.fmt.duplicate());
+    if ((fmtSize & 1) != 0) {
+      out.put((byte) 0);
+    }
+    out.put(ascii("data")).putInt((int) dataSize);
+    for (int i = 0; i < parsed.size(); i++) {
+      if (i > 0 && pauseBytes > 0) {
+        int start = out.position();
+        out.position(start + (int) pauseBytes);
+        if (first.bitsPerSample() == PCM_8BIT) {
+          Arrays.fill(result, start, out.position(), SILENCE_8BIT);
+        }
+      }
+      out.put(parsed.get(i).data.duplicate());
+    }
+    // 奇数長のチャンクの後ろのパディングは、配列の初期値の0のまま残す
+    return result;
+  }
+
+  private static long pauseFrames(Chunks format, Duration pause) {
+    if (pause.isNegative() || pause.isZero()) {
+      return 0;
+    }
+    return Math.round(pause.toNanos() / 1e9 * format.sampleRate());
+  }
+
+  private static byte[] ascii(String id) {
+    return new byte[] {(byte) id.charAt(0), (byte) id.charAt(1), (byte) id.charAt(2), (byte) id.charAt(3)};
+  }
+
+  /**
+   * 1つのWAVデータの{@code fmt }チャンクと{@code data}チャンクの本体。
+   */
+  private static final class Chunks {
+
+    private final ByteBuffer fmt;
+    private final ByteBuffer data;
+
+    private Chunks(ByteBuffer fmt, ByteBuffer data) {
+      this.fmt = fmt;
+      this.data = data;
+    }
+
+    private static Chunks parse(ByteBuffer wav) {
+      if (wav.remaining() < RIFF_HEADER_SIZE || !isId(wav, 0, "RIFF") || !isId(wav, 8, "WAVE")) {
+        throw new IllegalArgumentException("Not a RIFF/WAVE data");
+      }
+      ByteBuffer fmt = null;
+      ByteBuffer data = null;
+      int position = RIFF_HEADER_SIZE;
+      while (position + CHUNK_HEADER_SIZE <= wav.limit() && (fmt == null || data == null)) {
+        long size = Integer.toUnsignedLong(wav.getInt(position + 4));
+        int bodyStart = position + CHUNK_HEADER_SIZE;
+        // ストリーミング出力などでサイズが不正確な場合は、データの終わりまでを本体とする
+        int bodyEnd = (int) Math.min(wav.limit(), bodyStart + size);
+        if (isId(wav, position, "fmt ")) {
+          fmt = wav.slice(bodyStart, bodyEnd - bodyStart).order(ByteOrder.LITTLE_ENDIAN);
+        } else if (isId(wav, position, "data")) {
+          data = wav.slice(bodyStart, bodyEnd - bodyStart);
+        }
+        position = bodyEnd + (bodyEnd & 1);
+      }
+      if (fmt == null || fmt.remaining() < 16) {
+        throw new IllegalArgumentException("WAV data has no valid fmt chunk");
+      }
+      if (data == null) {
+        throw new IllegalArgumentException("WAV data has no data chunk");
+      }
+      return new Chunks(fmt, data);
+    }
+
+    private static boolean isId(ByteBuffer wav, int offset, String id) {
+      for (int i = 0; i < 4; i++) {
+        if (wav.get(offset + i) != id.charAt(i)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private int sampleRate() {
+      return fmt.getInt(4);
+    }
+
+    private int blockAlign() {
+      return Short.toUnsignedInt(fmt.getShort(12));
+    }
+
+    private int bitsPerSample() {
+      return Short.toUnsignedInt(fmt.getShort(14));
+    }
+
+    private boolean sameFormat(Chunks other) {
+      return fmt.equals(other.fmt);
+    }
+  }
+}
@@ -5,6 +5,8 @@ import com.sun.jna.Structure;
 
 @Structure.FieldOrder({"enable_interrogative_upspeak"})
 public class VoicevoxTtsOptions extends Structure {
+  // C の bool は1バイトのため、4バイトの int として変換される boolean ではなく byte で宣言する
+  public byte enable_interrogative_upspeak;
 
   public VoicevoxTtsOptions() {
     super();
@@ -15,6 +17,14 @@ public class VoicevoxTtsOptions extends Structure {
     read();
   }
 
+  public boolean isEnableInterrogativeUpspeak() {
+    return enable_interrogative_upspeak != 0;
+  }
+
+  public void setEnableInterrogativeUpspeak(boolean enableInterrogativeUpspeak) {
+    this.enable_interrogative_upspeak = (byte) (enableInterrogativeUpspeak ? 1 : 0);
+  }
+
   public static class ByReference extends VoicevoxTtsOptions implements Structure.ByReference {}
   public static class ByValue extends VoicevoxTtsOptions implements Structure.ByValue {}
 }
@@ -0,0 +1,1176 @@
+package org.braid.society.secret.voicevox4j.internal;
+
+import static java.lang.foreign.ValueLayout.ADDRESS;
+import static java.lang.foreign.ValueLayout.JAVA_BOOLEAN;
+import static java.lang.foreign.ValueLayout.JAVA_BYTE;
+import static java.lang.foreign.ValueLayout.JAVA_INT;
+import static java.lang.foreign.ValueLayout.JAVA_LONG;
+import static java.lang.foreign.ValueLayout.JAVA_SHORT;
+
+import com.sun.jna.Pointer;
+import com.sun.jna.ptr.IntByReference;
+import com.sun.jna.ptr.PointerByReference;
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SegmentAllocator;
+import java.lang.foreign.StructLayout;
+import java.lang.foreign.SymbolLookup;
+import java.lang.invoke.MethodHandle;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import org.braid.society.secret.voicevox4j.internal.structs.OpenJtalkRc;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxInitializeOptions;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxLoadOnnxruntimeOptions;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxOnnxruntime;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxSynthesisOptions;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxSynthesizer;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxTtsOptions;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxUserDict;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxUserDictWord;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxVoiceModelFile;
+
+/**
+ * Foreign Function &amp; Memory API（{@code java.lang.foreign}）によって{@link Core}を実装したクラスです。
+ * <p>
+ * 関数はダウンコールハンドルとして呼び出されます。合成のホットパスである{@link NativeOutParams}を受け取るメソッドでは、
+ * 出力引数と入力文字列をスレッドごとに再利用する{@link Scratch}のセグメントに確保し、出力されたアドレスと長さを
+ * {@link NativeOutParams#set(long, long)}で直接設定します。WAVとJSONは{@link #getByteBuffer(long, long)}などで
+ * {@link MemorySegment}から読み取るため、ホットパスではJNAの型による変換や呼び出しごとの{@link Arena}は発生しません。
+ * <p>
+ * JNAの型を受け取る従来のメソッドも実装していますが、結果はそれらの型（{@link PointerByReference}、{@link IntByReference}、
+ * JNAの構造体）に書き戻されます。モデルや辞書の読み込みなどの頻度の低い関数は、呼び出しごとの{@link Arena}を使用します。
+ * <p>
+ * ダウンコールハンドルを定数として扱えるよう{@link Handles}の静的フィールドに保持しているため、
+ * 1つのプロセス内でロードできるライブラリは1つだけです。
+ * @see ForeignCoreLoader
+ * @see CoreBinding#FOREIGN
+ */
+final class ForeignCore implements Core {
+
+  private static final Object LOCK = new Object();
+  private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+  private static String boundLibraryPath;
+
+  private static final StructLayout LOAD_ONNXRUNTIME_OPTIONS = MemoryLayout.structLayout(
+      ADDRESS.withName("filename"));
+  private static final StructLayout INITIALIZE_OPTIONS = MemoryLayout.structLayout(
+      JAVA_INT.withName("acceleration_mode"),
+      JAVA_SHORT.withName("cpu_num_threads"),
+      MemoryLayout.paddingLayout(2));
+  private static final StructLayout TTS_OPTIONS = MemoryLayout.structLayout(
+      JAVA_BYTE.withName("enable_interrogative_upspeak"));
+  private static final StructLayout SYNTHESIS_OPTIONS = MemoryLayout.structLayout(
+      JAVA_BYTE.withName("enable_interrogative_upspeak"));
+  private static final StructLayout USER_DICT_WORD = MemoryLayout.structLayout(
+      ADDRESS.withName("surface"),
+      ADDRESS.withName("pronunciation"),
+      JAVA_LONG.withName("accent_type"),
+      JAVA_INT.withName("word_type"),
+      JAVA_INT.withName("priority"));
+
+  // uintptr_t
+  private static final long UINTPTR_SIZE = ADDRESS.byteSize();
+  private static final long MODEL_ID_SIZE = 16;
+
+  private ForeignCore() {
+    // use bind(String)
+  }
+
+  /**
+   * 指定したライブラリのシンボルをダウンコールハンドルに結び付け、{@link Core}として返します。
+   *
+   * @param libraryPath ライブラリファイルのパス
+   * @return FFMによる{@link Core}
+   * @throws IllegalStateException 既に別のライブラリが結び付けられていた場合
+   * @throws UnsatisfiedLinkError 必須の関数がライブラリに存在しない場合
+   */
+  static Core bind(String libraryPath) {
+    synchronized (LOCK) {
+      if (boundLibraryPath == null) {
+        boundLibraryPath = libraryPath;
+      } else if (!boundLibraryPath.equals(libraryPath)) {
+        throw new IllegalStateException("Foreign backend is already bound to " + boundLibraryPath);
+      }
+      // ハンドルの初期化（シンボルの解決）をここで行い、失敗をロード時に検出する
+      try {
+        Handles.ensureInitialized();
+      } catch (ExceptionInInitializerError e) {
+        if (e.getCause() instanceof UnsatisfiedLinkError missingSymbol) {
+          throw missingSymbol;
+        }
+        throw e;
+      }
+      return new ForeignCore();
+    }
+  }
+
+  // ONNX Runtime関連
+
+  @Override
+  public String voicevox_get_onnxruntime_lib_versioned_filename() {
+    try {
+      return string((MemorySegment) Handles.get_onnxruntime_lib_versioned_filename().invokeExact());
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public String voicevox_get_onnxruntime_lib_unversioned_filename() {
+    try {
+      return string((MemorySegment) Handles.get_onnxruntime_lib_unversioned_filename().invokeExact());
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public VoicevoxLoadOnnxruntimeOptions.ByValue voicevox_make_default_load_onnxruntime_options() {
+    try (Arena arena = Arena.ofConfined()) {
+      MemorySegment struct = (MemorySegment) Handles.make_default_load_onnxruntime_options().invokeExact((SegmentAllocator) arena);
+      VoicevoxLoadOnnxruntimeOptions.ByValue options = new VoicevoxLoadOnnxruntimeOptions.ByValue();
+      options.filename = string(struct.get(ADDRESS, 0));
+      return options;
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public VoicevoxOnnxruntime voicevox_onnxruntime_get() {
+    try {
+      MemorySegment onnxruntime = (MemorySegment) Handles.onnxruntime_get().invokeExact();
+      return onnxruntime.address() == 0 ? null : new VoicevoxOnnxruntime(onnxruntime.address());
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public int voicevox_onnxruntime_load_once(VoicevoxLoadOnnxruntimeOptions options, PointerByReference out_onnxruntime) {
+    try (Arena arena = Arena.ofConfined()) {
+      MemorySegment struct = arena.allocate(LOAD_ONNXRUNTIME_OPTIONS);
+      struct.set(ADDRESS, 0, cString(arena, options.filename));
+      MemorySegment out = arena.allocate(ADDRESS);
+      int result = (int) Handles.onnxruntime_load_once().invokeExact(struct, out);
+      out_onnxruntime.setValue(pointer(out.get(ADDRESS, 0)));
+      return result;
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public int voicevox_onnxruntime_create_supported_devices_json(VoicevoxOnnxruntime onnxruntime, PointerByReference output_supported_devices_json) {
+    try (Arena arena = Arena.ofConfined()) {
+      MemorySegment out = arena.allocate(ADDRESS);
+      int result = (int) Handles.onnxruntime_create_supported_devices_json().invokeExact(segment(onnxruntime), out);
+      output_supported_devices_json.setValue(pointer(out.get(ADDRESS, 0)));
+      return result;
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  // OpenJtalkRc関連
+
+  @Override
+  public int voicevox_open_jtalk_rc_new(String open_jtalk_dic_dir, PointerByReference out_open_jtalk) {
+    try (Arena arena = Arena.ofConfined()) {
+      MemorySegment out = arena.allocate(ADDRESS);
+      int result = (int) Handles.open_jtalk_rc_new().invokeExact(cString(arena, open_jtalk_dic_dir), out);
+      out_open_jtalk.setValue(pointer(out.get(ADDRESS, 0)));
+      return result;
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public int voicevox_open_jtalk_rc_use_user_dict(OpenJtalkRc open_jtalk, VoicevoxUserDict user_dict) {
+    try {
+      return (int) Handles.open_jtalk_rc_use_user_dict().invokeExact(segment(open_jtalk), segment(user_dict));
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public int voicevox_open_jtalk_rc_analyze(OpenJtalkRc open_jtalk, String text, PointerByReference output_accent_phrases_json) {
+    try (Arena arena = Arena.ofConfined()) {
+      MemorySegment out = arena.allocate(ADDRESS);
+      int result = (int) Handles.open_jtalk_rc_analyze().invokeExact(segment(open_jtalk), cString(arena, text), out);
+      output_accent_phrases_json.setValue(pointer(out.get(ADDRESS, 0)));
+      return result;
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public int voicevox_open_jtalk_rc_analyze(OpenJtalkRc open_jtalk, Pointer text, PointerByReference output_accent_phrases_json) {
+    try (Arena arena = Arena.ofConfined()) {
+      MemorySegment out = arena.allocate(ADDRESS);
+      int result = (int) Handles.open_jtalk_rc_analyze().invokeExact(segment(open_jtalk), segment(text), out);
+      output_accent_phrases_json.setValue(pointer(out.get(ADDRESS, 0)));
+      return result;
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public void voicevox_open_jtalk_rc_delete(OpenJtalkRc open_jtalk) {
+    try {
+      Handles.open_jtalk_rc_delete().invokeExact(segment(open_jtalk));
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  // VoicevoxSynthesizer関連
+
+  @Override
+  public VoicevoxInitializeOptions.ByValue voicevox_make_default_initialize_options() {
+    try (Arena arena = Arena.ofConfined()) {
+      MemorySegment struct = (MemorySegment) Handles.make_default_initialize_options().invokeExact((SegmentAllocator) arena);
+      VoicevoxInitializeOptions.ByValue options = new VoicevoxInitializeOptions.ByValue();
+      options.acceleration_mode = struct.get(JAVA_INT, 0);
+      options.cpu_num_threads = struct.get(JAVA_SHORT, 4);
+      return options;
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public int voicevox_synthesizer_new(VoicevoxOnnxruntime onnxruntime, OpenJtalkRc open_jtalk, VoicevoxInitializeOptions options, PointerByReference out_synthesizer) {
+    try (Arena arena = Arena.ofConfined()) {
+      MemorySegment struct = arena.allocate(INITIALIZE_OPTIONS);
+      struct.set(JAVA_INT, 0, options.acceleration_mode);
+      struct.set(JAVA_SHORT, 4, options.cpu_num_threads);
+      MemorySegment out = arena.allocate(ADDRESS);
+      int result = (int) Handles.synthesizer_new().invokeExact(segment(onnxruntime), segment(open_jtalk), struct, out);
+      out_synthesizer.setValue(pointer(out.get(ADDRESS, 0)));
+      return result;
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public void voicevox_synthesizer_delete(VoicevoxSynthesizer synthesizer) {
+    try {
+      Handles.synthesizer_delete().invokeExact(segment(synthesizer));
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public int voicevox_synthesizer_load_voice_model(VoicevoxSynthesizer synthesizer, VoicevoxVoiceModelFile model) {
+    try {
+      return (int) Handles.synthesizer_load_voice_model().invokeExact(segment(synthesizer), segment(model));
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public int voicevox_synthesizer_unload_voice_model(VoicevoxSynthesizer synthesizer, byte[] model_id) {
+    try (Arena arena = Arena.ofConfined()) {
+      return (int) Handles.synthesizer_unload_voice_model().invokeExact(segment(synthesizer), bytes(arena, model_id));
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public VoicevoxOnnxruntime voicevox_synthesizer_get_onnxruntime(VoicevoxSynthesizer synthesizer) {
+    try {
+      MemorySegment onnxruntime = (MemorySegment) Handles.synthesizer_get_onnxruntime().invokeExact(segment(synthesizer));
+      return onnxruntime.address() == 0 ? null : new VoicevoxOnnxruntime(onnxruntime.address());
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public boolean voicevox_synthesizer_is_gpu_mode(VoicevoxSynthesizer synthesizer) {
+    try {
+      return (boolean) Handles.synthesizer_is_gpu_mode().invokeExact(segment(synthesizer));
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public boolean voicevox_synthesizer_is_loaded_voice_model(VoicevoxSynthesizer synthesizer, byte[] model_id) {
+    try (Arena arena = Arena.ofConfined()) {
+      return (boolean) Handles.synthesizer_is_loaded_voice_model().invokeExact(segment(synthesizer), bytes(arena, model_id));
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public Pointer voicevox_synthesizer_create_metas_json(VoicevoxSynthesizer synthesizer) {
+    try {
+      return pointer((MemorySegment) Handles.synthesizer_create_metas_json().invokeExact(segment(synthesizer)));
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_audio_query_from_kana(VoicevoxSynthesizer synthesizer, String kana, int style_id, PointerByReference output_audio_query_json) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_create_audio_query_from_kana(), scratch, synthesizer, scratch.text(kana), style_id);
+    output_audio_query_json.setValue(pointer(scratch.out.get(ADDRESS, 0)));
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_audio_query_from_kana(VoicevoxSynthesizer synthesizer, Pointer kana, int style_id, PointerByReference output_audio_query_json) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_create_audio_query_from_kana(), scratch, synthesizer, segment(kana), style_id);
+    output_audio_query_json.setValue(pointer(scratch.out.get(ADDRESS, 0)));
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_audio_query_from_kana(VoicevoxSynthesizer synthesizer, String kana, int style_id, NativeOutParams out) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_create_audio_query_from_kana(), scratch, synthesizer, scratch.text(kana), style_id);
+    out.set(scratch.out.get(ADDRESS, 0).address(), 0);
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_audio_query_from_kana(VoicevoxSynthesizer synthesizer, Pointer kana, int style_id, NativeOutParams out) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_create_audio_query_from_kana(), scratch, synthesizer, segment(kana), style_id);
+    out.set(scratch.out.get(ADDRESS, 0).address(), 0);
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_audio_query(VoicevoxSynthesizer synthesizer, String text, int style_id, PointerByReference output_audio_query_json) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_create_audio_query(), scratch, synthesizer, scratch.text(text), style_id);
+    output_audio_query_json.setValue(pointer(scratch.out.get(ADDRESS, 0)));
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_audio_query(VoicevoxSynthesizer synthesizer, Pointer text, int style_id, PointerByReference output_audio_query_json) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_create_audio_query(), scratch, synthesizer, segment(text), style_id);
+    output_audio_query_json.setValue(pointer(scratch.out.get(ADDRESS, 0)));
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_audio_query(VoicevoxSynthesizer synthesizer, String text, int style_id, NativeOutParams out) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_create_audio_query(), scratch, synthesizer, scratch.text(text), style_id);
+    out.set(scratch.out.get(ADDRESS, 0).address(), 0);
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_audio_query(VoicevoxSynthesizer synthesizer, Pointer text, int style_id, NativeOutParams out) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_create_audio_query(), scratch, synthesizer, segment(text), style_id);
+    out.set(scratch.out.get(ADDRESS, 0).address(), 0);
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_accent_phrases_from_kana(VoicevoxSynthesizer synthesizer, String kana, int style_id, PointerByReference output_accent_phrases_json) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_create_accent_phrases_from_kana(), scratch, synthesizer, scratch.text(kana), style_id);
+    output_accent_phrases_json.setValue(pointer(scratch.out.get(ADDRESS, 0)));
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_accent_phrases_from_kana(VoicevoxSynthesizer synthesizer, Pointer kana, int style_id, PointerByReference output_accent_phrases_json) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_create_accent_phrases_from_kana(), scratch, synthesizer, segment(kana), style_id);
+    output_accent_phrases_json.setValue(pointer(scratch.out.get(ADDRESS, 0)));
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_accent_phrases_from_kana(VoicevoxSynthesizer synthesizer, String kana, int style_id, NativeOutParams out) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_create_accent_phrases_from_kana(), scratch, synthesizer, scratch.text(kana), style_id);
+    out.set(scratch.out.get(ADDRESS, 0).address(), 0);
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_accent_phrases_from_kana(VoicevoxSynthesizer synthesizer, Pointer kana, int style_id, NativeOutParams out) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_create_accent_phrases_from_kana(), scratch, synthesizer, segment(kana), style_id);
+    out.set(scratch.out.get(ADDRESS, 0).address(), 0);
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_accent_phrases(VoicevoxSynthesizer synthesizer, String text, int style_id, PointerByReference output_accent_phrases_json) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_create_accent_phrases(), scratch, synthesizer, scratch.text(text), style_id);
+    output_accent_phrases_json.setValue(pointer(scratch.out.get(ADDRESS, 0)));
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_accent_phrases(VoicevoxSynthesizer synthesizer, Pointer text, int style_id, PointerByReference output_accent_phrases_json) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_create_accent_phrases(), scratch, synthesizer, segment(text), style_id);
+    output_accent_phrases_json.setValue(pointer(scratch.out.get(ADDRESS, 0)));
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_accent_phrases(VoicevoxSynthesizer synthesizer, String text, int style_id, NativeOutParams out) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_create_accent_phrases(), scratch, synthesizer, scratch.text(text), style_id);
+    out.set(scratch.out.get(ADDRESS, 0).address(), 0);
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_create_accent_phrases(VoicevoxSynthesizer synthesizer, Pointer text, int style_id, NativeOutParams out) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_create_accent_phrases(), scratch, synthesizer, segment(text), style_id);
+    out.set(scratch.out.get(ADDRESS, 0).address(), 0);
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_mora_data(VoicevoxSynthesizer synthesizer, String accent_phrases_json, int style_id, PointerByReference output_accent_phrases_json) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_replace_mora_data(), scratch, synthesizer, scratch.text(accent_phrases_json), style_id);
+    output_accent_phrases_json.setValue(pointer(scratch.out.get(ADDRESS, 0)));
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_mora_data(VoicevoxSynthesizer synthesizer, Pointer accent_phrases_json, int style_id, PointerByReference output_accent_phrases_json) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_replace_mora_data(), scratch, synthesizer, segment(accent_phrases_json), style_id);
+    output_accent_phrases_json.setValue(pointer(scratch.out.get(ADDRESS, 0)));
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_mora_data(VoicevoxSynthesizer synthesizer, String accent_phrases_json, int style_id, NativeOutParams out) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_replace_mora_data(), scratch, synthesizer, scratch.text(accent_phrases_json), style_id);
+    out.set(scratch.out.get(ADDRESS, 0).address(), 0);
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_mora_data(VoicevoxSynthesizer synthesizer, Pointer accent_phrases_json, int style_id, NativeOutParams out) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_replace_mora_data(), scratch, synthesizer, segment(accent_phrases_json), style_id);
+    out.set(scratch.out.get(ADDRESS, 0).address(), 0);
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_phoneme_length(VoicevoxSynthesizer synthesizer, String accent_phrases_json, int style_id, PointerByReference output_accent_phrases_json) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_replace_phoneme_length(), scratch, synthesizer, scratch.text(accent_phrases_json), style_id);
+    output_accent_phrases_json.setValue(pointer(scratch.out.get(ADDRESS, 0)));
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_phoneme_length(VoicevoxSynthesizer synthesizer, Pointer accent_phrases_json, int style_id, PointerByReference output_accent_phrases_json) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_replace_phoneme_length(), scratch, synthesizer, segment(accent_phrases_json), style_id);
+    output_accent_phrases_json.setValue(pointer(scratch.out.get(ADDRESS, 0)));
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_phoneme_length(VoicevoxSynthesizer synthesizer, String accent_phrases_json, int style_id, NativeOutParams out) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_replace_phoneme_length(), scratch, synthesizer, scratch.text(accent_phrases_json), style_id);
+    out.set(scratch.out.get(ADDRESS, 0).address(), 0);
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_phoneme_length(VoicevoxSynthesizer synthesizer, Pointer accent_phrases_json, int style_id, NativeOutParams out) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_replace_phoneme_length(), scratch, synthesizer, segment(accent_phrases_json), style_id);
+    out.set(scratch.out.get(ADDRESS, 0).address(), 0);
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_mora_pitch(VoicevoxSynthesizer synthesizer, String accent_phrases_json, int style_id, PointerByReference output_accent_phrases_json) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_replace_mora_pitch(), scratch, synthesizer, scratch.text(accent_phrases_json), style_id);
+    output_accent_phrases_json.setValue(pointer(scratch.out.get(ADDRESS, 0)));
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_mora_pitch(VoicevoxSynthesizer synthesizer, Pointer accent_phrases_json, int style_id, PointerByReference output_accent_phrases_json) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_replace_mora_pitch(), scratch, synthesizer, segment(accent_phrases_json), style_id);
+    output_accent_phrases_json.setValue(pointer(scratch.out.get(ADDRESS, 0)));
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_mora_pitch(VoicevoxSynthesizer synthesizer, String accent_phrases_json, int style_id, NativeOutParams out) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_replace_mora_pitch(), scratch, synthesizer, scratch.text(accent_phrases_json), style_id);
+    out.set(scratch.out.get(ADDRESS, 0).address(), 0);
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_replace_mora_pitch(VoicevoxSynthesizer synthesizer, Pointer accent_phrases_json, int style_id, NativeOutParams out) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToJson(Handles.synthesizer_replace_mora_pitch(), scratch, synthesizer, segment(accent_phrases_json), style_id);
+    out.set(scratch.out.get(ADDRESS, 0).address(), 0);
+    return result;
+  }
+
+  private static int textToJson(MethodHandle handle, Scratch scratch, VoicevoxSynthesizer synthesizer, MemorySegment text, int styleId) {
+    try {
+      scratch.out.set(ADDRESS, 0, MemorySegment.NULL);
+      return (int) handle.invokeExact(segment(synthesizer), text, styleId, scratch.out);
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public VoicevoxSynthesisOptions.ByValue voicevox_make_default_synthesis_options() {
+    try (Arena arena = Arena.ofConfined()) {
+      MemorySegment struct = (MemorySegment) Handles.make_default_synthesis_options().invokeExact((SegmentAllocator) arena);
+      VoicevoxSynthesisOptions.ByValue options = new VoicevoxSynthesisOptions.ByValue();
+      options.enable_interrogative_upspeak = struct.get(JAVA_BYTE, 0);
+      return options;
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public int voicevox_synthesizer_synthesis(VoicevoxSynthesizer synthesizer, String audio_query_json, int style_id, VoicevoxSynthesisOptions options, IntByReference output_wav_length, PointerByReference output_wav) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToWav(Handles.synthesizer_synthesis(), scratch, synthesizer, scratch.text(audio_query_json), style_id, options.enable_interrogative_upspeak);
+    output_wav_length.setValue(Math.toIntExact(scratch.wavLength()));
+    output_wav.setValue(pointer(scratch.out.get(ADDRESS, 0)));
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_synthesis(VoicevoxSynthesizer synthesizer, Pointer audio_query_json, int style_id, VoicevoxSynthesisOptions options, IntByReference output_wav_length, PointerByReference output_wav) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToWav(Handles.synthesizer_synthesis(), scratch, synthesizer, segment(audio_query_json), style_id, options.enable_interrogative_upspeak);
+    output_wav_length.setValue(Math.toIntExact(scratch.wavLength()));
+    output_wav.setValue(pointer(scratch.out.get(ADDRESS, 0)));
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_synthesis(VoicevoxSynthesizer synthesizer, String audio_query_json, int style_id, VoicevoxSynthesisOptions options, NativeOutParams out) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToWav(Handles.synthesizer_synthesis(), scratch, synthesizer, scratch.text(audio_query_json), style_id, options.enable_interrogative_upspeak);
+    out.set(scratch.out.get(ADDRESS, 0).address(), scratch.wavLength());
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_synthesis(VoicevoxSynthesizer synthesizer, Pointer audio_query_json, int style_id, VoicevoxSynthesisOptions options, NativeOutParams out) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToWav(Handles.synthesizer_synthesis(), scratch, synthesizer, segment(audio_query_json), style_id, options.enable_interrogative_upspeak);
+    out.set(scratch.out.get(ADDRESS, 0).address(), scratch.wavLength());
+    return result;
+  }
+
+  @Override
+  public VoicevoxTtsOptions.ByValue voicevox_make_default_tts_options() {
+    try (Arena arena = Arena.ofConfined()) {
+      MemorySegment struct = (MemorySegment) Handles.make_default_tts_options().invokeExact((SegmentAllocator) arena);
+      VoicevoxTtsOptions.ByValue options = new VoicevoxTtsOptions.ByValue();
+      options.enable_interrogative_upspeak = struct.get(JAVA_BYTE, 0);
+      return options;
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public int voicevox_synthesizer_tts_from_kana(VoicevoxSynthesizer synthesizer, String kana, int style_id, VoicevoxTtsOptions options, IntByReference output_wav_length, PointerByReference output_wav) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToWav(Handles.synthesizer_tts_from_kana(), scratch, synthesizer, scratch.text(kana), style_id, options.enable_interrogative_upspeak);
+    output_wav_length.setValue(Math.toIntExact(scratch.wavLength()));
+    output_wav.setValue(pointer(scratch.out.get(ADDRESS, 0)));
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_tts_from_kana(VoicevoxSynthesizer synthesizer, Pointer kana, int style_id, VoicevoxTtsOptions options, IntByReference output_wav_length, PointerByReference output_wav) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToWav(Handles.synthesizer_tts_from_kana(), scratch, synthesizer, segment(kana), style_id, options.enable_interrogative_upspeak);
+    output_wav_length.setValue(Math.toIntExact(scratch.wavLength()));
+    output_wav.setValue(pointer(scratch.out.get(ADDRESS, 0)));
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_tts_from_kana(VoicevoxSynthesizer synthesizer, String kana, int style_id, VoicevoxTtsOptions options, NativeOutParams out) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToWav(Handles.synthesizer_tts_from_kana(), scratch, synthesizer, scratch.text(kana), style_id, options.enable_interrogative_upspeak);
+    out.set(scratch.out.get(ADDRESS, 0).address(), scratch.wavLength());
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_tts_from_kana(VoicevoxSynthesizer synthesizer, Pointer kana, int style_id, VoicevoxTtsOptions options, NativeOutParams out) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToWav(Handles.synthesizer_tts_from_kana(), scratch, synthesizer, segment(kana), style_id, options.enable_interrogative_upspeak);
+    out.set(scratch.out.get(ADDRESS, 0).address(), scratch.wavLength());
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_tts(VoicevoxSynthesizer synthesizer, String text, int style_id, VoicevoxTtsOptions options, IntByReference output_wav_length, PointerByReference output_wav) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToWav(Handles.synthesizer_tts(), scratch, synthesizer, scratch.text(text), style_id, options.enable_interrogative_upspeak);
+    output_wav_length.setValue(Math.toIntExact(scratch.wavLength()));
+    output_wav.setValue(pointer(scratch.out.get(ADDRESS, 0)));
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_tts(VoicevoxSynthesizer synthesizer, Pointer text, int style_id, VoicevoxTtsOptions options, IntByReference output_wav_length, PointerByReference output_wav) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToWav(Handles.synthesizer_tts(), scratch, synthesizer, segment(text), style_id, options.enable_interrogative_upspeak);
+    output_wav_length.setValue(Math.toIntExact(scratch.wavLength()));
+    output_wav.setValue(pointer(scratch.out.get(ADDRESS, 0)));
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_tts(VoicevoxSynthesizer synthesizer, String text, int style_id, VoicevoxTtsOptions options, NativeOutParams out) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToWav(Handles.synthesizer_tts(), scratch, synthesizer, scratch.text(text), style_id, options.enable_interrogative_upspeak);
+    out.set(scratch.out.get(ADDRESS, 0).address(), scratch.wavLength());
+    return result;
+  }
+
+  @Override
+  public int voicevox_synthesizer_tts(VoicevoxSynthesizer synthesizer, Pointer text, int style_id, VoicevoxTtsOptions options, NativeOutParams out) {
+    Scratch scratch = SCRATCH.get();
+    int result = textToWav(Handles.synthesizer_tts(), scratch, synthesizer, segment(text), style_id, options.enable_interrogative_upspeak);
+    out.set(scratch.out.get(ADDRESS, 0).address(), scratch.wavLength());
+    return result;
+  }
+
+  private static int textToWav(MethodHandle handle, Scratch scratch, VoicevoxSynthesizer synthesizer, MemorySegment text, int styleId,
+      byte enableInterrogativeUpspeak) {
+    try {
+      // VoicevoxTtsOptions と VoicevoxSynthesisOptions は同じレイアウトのため、同じセグメントを使用する
+      scratch.options.set(JAVA_BYTE, 0, enableInterrogativeUpspeak);
+      scratch.length.fill((byte) 0);
+      scratch.out.set(ADDRESS, 0, MemorySegment.NULL);
+      return (int) handle.invokeExact(segment(synthesizer), text, styleId, scratch.options, scratch.length, scratch.out);
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  // VoicevoxVoiceModelFile関連
+
+  @Override
+  public int voicevox_voice_model_file_open(String path, PointerByReference out_model) {
+    try (Arena arena = Arena.ofConfined()) {
+      MemorySegment out = arena.allocate(ADDRESS);
+      int result = (int) Handles.voice_model_file_open().invokeExact(cString(arena, path), out);
+      out_model.setValue(pointer(out.get(ADDRESS, 0)));
+      return result;
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public void voicevox_voice_model_file_id(VoicevoxVoiceModelFile model, byte[] output_voice_model_id) {
+    try (Arena arena = Arena.ofConfined()) {
+      MemorySegment out = arena.allocate(MODEL_ID_SIZE);
+      Handles.voice_model_file_id().invokeExact(segment(model), out);
+      MemorySegment.copy(out, JAVA_BYTE, 0, output_voice_model_id, 0, (int) MODEL_ID_SIZE);
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public Pointer voicevox_voice_model_file_create_metas_json(VoicevoxVoiceModelFile model) {
+    try {
+      return pointer((MemorySegment) Handles.voice_model_file_create_metas_json().invokeExact(segment(model)));
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public void voicevox_voice_model_file_delete(VoicevoxVoiceModelFile model) {
+    try {
+      Handles.voice_model_file_delete().invokeExact(segment(model));
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  // メモリ解放関連
+
+  @Override
+  public void voicevox_json_free(Pointer json) {
+    try {
+      Handles.json_free().invokeExact(segment(json));
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public void voicevox_wav_free(Pointer wav) {
+    try {
+      Handles.wav_free().invokeExact(segment(wav));
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public void voicevox_json_free(long json) {
+    try {
+      Handles.json_free().invokeExact(MemorySegment.ofAddress(json));
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public void voicevox_wav_free(long wav) {
+    try {
+      Handles.wav_free().invokeExact(MemorySegment.ofAddress(wav));
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  // ネイティブメモリの読み取り
+
+  @Override
+  public String getString(long address) {
+    return MemorySegment.ofAddress(address).reinterpret(Long.MAX_VALUE).getString(0);
+  }
+
+  @Override
+  public ByteBuffer getStringBuffer(long address) {
+    try {
+      return getByteBuffer(address, (long) Handles.strlen().invokeExact(MemorySegment.ofAddress(address)));
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public ByteBuffer getByteBuffer(long address, long length) {
+    // グローバルスコープのセグメントから作られたバッファは添付オブジェクトを持たず、ビューはこのバッファを参照し続ける
+    return MemorySegment.ofAddress(address).reinterpret(length).asByteBuffer();
+  }
+
+  // エラーメッセージ
+
+  @Override
+  public String voicevox_error_result_to_message(int result_code) {
+    try {
+      return string((MemorySegment) Handles.error_result_to_message().invokeExact(result_code));
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  // ユーザー辞書関連
+
+  @Override
+  public VoicevoxUserDictWord.ByValue voicevox_user_dict_word_make(String surface, String pronunciation, long accent_type) {
+    try (Arena arena = Arena.ofConfined()) {
+      MemorySegment struct = (MemorySegment) Handles.user_dict_word_make().invokeExact(
+          (SegmentAllocator) arena, cString(arena, surface), cString(arena, pronunciation), accent_type);
+      // surface と pronunciation は引数の文字列を指しているため、Arenaを閉じる前に読み出す
+      VoicevoxUserDictWord.ByValue word = new VoicevoxUserDictWord.ByValue();
+      word.surface = string(struct.get(ADDRESS, 0));
+      word.pronunciation = string(struct.get(ADDRESS, ADDRESS.byteSize()));
+      word.accent_type = struct.get(JAVA_LONG, 2 * ADDRESS.byteSize());
+      word.word_type = struct.get(JAVA_INT, 2 * ADDRESS.byteSize() + JAVA_LONG.byteSize());
+      word.priority = struct.get(JAVA_INT, 2 * ADDRESS.byteSize() + JAVA_LONG.byteSize() + JAVA_INT.byteSize());
+      return word;
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public Pointer voicevox_user_dict_new() {
+    try {
+      return pointer((MemorySegment) Handles.user_dict_new().invokeExact());
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public int voicevox_user_dict_load(VoicevoxUserDict user_dict, String dict_path) {
+    try (Arena arena = Arena.ofConfined()) {
+      return (int) Handles.user_dict_load().invokeExact(segment(user_dict), cString(arena, dict_path));
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public int voicevox_user_dict_add_word(VoicevoxUserDict user_dict, VoicevoxUserDictWord word, byte[] output_word_uuid) {
+    try (Arena arena = Arena.ofConfined()) {
+      MemorySegment out = arena.allocate(MODEL_ID_SIZE);
+      int result = (int) Handles.user_dict_add_word().invokeExact(segment(user_dict), userDictWord(arena, word), out);
+      MemorySegment.copy(out, JAVA_BYTE, 0, output_word_uuid, 0, (int) MODEL_ID_SIZE);
+      return result;
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public int voicevox_user_dict_update_word(VoicevoxUserDict user_dict, byte[] word_uuid, VoicevoxUserDictWord word) {
+    try (Arena arena = Arena.ofConfined()) {
+      return (int) Handles.user_dict_update_word().invokeExact(segment(user_dict), bytes(arena, word_uuid), userDictWord(arena, word));
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public int voicevox_user_dict_remove_word(VoicevoxUserDict user_dict, byte[] word_uuid) {
+    try (Arena arena = Arena.ofConfined()) {
+      return (int) Handles.user_dict_remove_word().invokeExact(segment(user_dict), bytes(arena, word_uuid));
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public int voicevox_user_dict_to_json(VoicevoxUserDict user_dict, PointerByReference output_json) {
+    try (Arena arena = Arena.ofConfined()) {
+      MemorySegment out = arena.allocate(ADDRESS);
+      int result = (int) Handles.user_dict_to_json().invokeExact(segment(user_dict), out);
+      output_json.setValue(pointer(out.get(ADDRESS, 0)));
+      return result;
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public int voicevox_user_dict_import(VoicevoxUserDict user_dict, VoicevoxUserDict other_dict) {
+    try {
+      return (int) Handles.user_dict_import().invokeExact(segment(user_dict), segment(other_dict));
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public int voicevox_user_dict_save(VoicevoxUserDict user_dict, String path) {
+    try (Arena arena = Arena.ofConfined()) {
+      return (int) Handles.user_dict_save().invokeExact(segment(user_dict), cString(arena, path));
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  @Override
+  public void voicevox_user_dict_delete(VoicevoxUserDict user_dict) {
+    try {
+      Handles.user_dict_delete().invokeExact(segment(user_dict));
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  // その他
+
+  @Override
+  public String voicevox_get_version() {
+    try {
+      return string((MemorySegment) Handles.get_version().invokeExact());
+    } catch (Throwable t) {
+      throw rethrow(t);
+    }
+  }
+
+  // 変換ヘルパー
+
+  private static MemorySegment segment(Pointer pointer) {
+    return MemorySegment.ofAddress(Pointer.nativeValue(pointer));
+  }
+
+  private static Pointer pointer(MemorySegment segment) {
+    return segment.address() == 0 ? null : new Pointer(segment.address());
+  }
+
+  private static MemorySegment cString(Arena arena, String value) {
+    return value == null ? MemorySegment.NULL : arena.allocateFrom(value);
+  }
+
+  private static String string(MemorySegment segment) {
+    return segment.address() == 0 ? null : segment.reinterpret(Long.MAX_VALUE).getString(0);
+  }
+
+  private static MemorySegment bytes(Arena arena, byte[] value) {
+    return arena.allocateFrom(JAVA_BYTE, value);
+  }
+
+  private static MemorySegment userDictWord(Arena arena, VoicevoxUserDictWord word) {
+    MemorySegment struct = arena.allocate(USER_DICT_WORD);
+    struct.set(ADDRESS, 0, cString(arena, word.surface));
+    struct.set(ADDRESS, ADDRESS.byteSize(), cString(arena, word.pronunciation));
+    struct.set(JAVA_LONG, 2 * ADDRESS.byteSize(), word.accent_type);
+    struct.set(JAVA_INT, 2 * ADDRESS.byteSize() + JAVA_LONG.byteSize(), word.word_type);
+    struct.set(JAVA_INT, 2 * ADDRESS.byteSize() + JAVA_LONG.byteSize() + JAVA_INT.byteSize(), word.priority);
+    return struct;
+  }
+
+  private static RuntimeException rethrow(Throwable t) {
+    if (t instanceof RuntimeException runtimeException) {
+      return runtimeException;
+    }
+    if (t instanceof Error error) {
+      throw error;
+    }
+    return new IllegalStateException("Native call failed", t);
+  }
+
+  /**
+   * スレッドごとに再利用する、出力引数と入力文字列のためのメモリです。
+   * <p>
+   * メモリは{@link Arena#ofAuto()}から確保され、スレッドとともに到達不能になった時点で解放されます。
+   * ネイティブ関数からJavaへのコールバックはないため、同じスレッドで呼び出しが入れ子になることはありません。
+   */
+  private static final class Scratch {
+
+    private static final long INITIAL_TEXT_SIZE = 4096;
+
+    private final MemorySegment out;
+    // output_wav_length は uintptr_t* のため、ポインタ幅で確保する
+    private final MemorySegment length;
+    private final MemorySegment options;
+    private MemorySegment text;
+
+    private Scratch() {
+      Arena arena = Arena.ofAuto();
+      this.out = arena.allocate(ADDRESS);
+      this.length = arena.allocate(UINTPTR_SIZE, UINTPTR_SIZE);
+      this.options = arena.allocate(TTS_OPTIONS);
+      this.text = arena.allocate(INITIAL_TEXT_SIZE);
+    }
+
+    /**
+     * 文字列をNUL終端のUTF-8としてテキスト用のセグメントに書き込みます。
+     * 書き込んだ内容は、同じスレッドで次にこのメソッドを呼び出すまで有効です。
+     */
+    MemorySegment text(String value) {
+      if (value == null) {
+        return MemorySegment.NULL;
+      }
+      // UTF-16の1文字はUTF-8で最大3バイトになる
+      long required = value.length() * 3L + 1;
+      if (text.byteSize() < required) {
+        // 古いセグメントを解放できるよう、拡張したセグメントは新しいArenaから確保する
+        text = Arena.ofAuto().allocate(Math.max(required, text.byteSize() * 2));
+      }
+      text.setString(0, value);
+      return text;
+    }
+
+    long wavLength() {
+      return UINTPTR_SIZE == Long.BYTES ? length.get(JAVA_LONG, 0) : Integer.toUnsignedLong(length.get(JAVA_INT, 0));
+    }
+  }
+
+  /**
+   * ダウンコールハンドルを保持するクラスです。
+   * <p>
+   * {@link ForeignCore#bind(String)}でライブラリのパスが決まった後に初期化され、必須の関数が見つからない場合は
+   * {@link UnsatisfiedLinkError}によって初期化に失敗します。
+   * {@code VOICEVOX_LOAD_ONNXRUNTIME}でビルドされたライブラリにのみ存在する関数は任意とし、
+   * 存在しない場合は呼び出し時に{@link UnsupportedOperationException}を投げます。
+   */
+  private static final class Handles {
+
+    private static final Linker LINKER = Linker.nativeLinker();
+    private static final SymbolLookup LOOKUP = SymbolLookup.libraryLookup(Path.of(boundLibraryPath), Arena.global());
+
+    private static final MethodHandle GET_ONNXRUNTIME_LIB_VERSIONED_FILENAME = optionalDowncall("voicevox_get_onnxruntime_lib_versioned_filename", FunctionDescriptor.of(ADDRESS));
+    private static final MethodHandle GET_ONNXRUNTIME_LIB_UNVERSIONED_FILENAME = optionalDowncall("voicevox_get_onnxruntime_lib_unversioned_filename", FunctionDescriptor.of(ADDRESS));
+    private static final MethodHandle MAKE_DEFAULT_LOAD_ONNXRUNTIME_OPTIONS = optionalDowncall("voicevox_make_default_load_onnxruntime_options", FunctionDescriptor.of(LOAD_ONNXRUNTIME_OPTIONS));
+    private static final MethodHandle ONNXRUNTIME_GET = downcall("voicevox_onnxruntime_get", FunctionDescriptor.of(ADDRESS));
+    private static final MethodHandle ONNXRUNTIME_LOAD_ONCE = optionalDowncall("voicevox_onnxruntime_load_once", FunctionDescriptor.of(JAVA_INT, LOAD_ONNXRUNTIME_OPTIONS, ADDRESS));
+    private static final MethodHandle ONNXRUNTIME_CREATE_SUPPORTED_DEVICES_JSON = downcall("voicevox_onnxruntime_create_supported_devices_json", FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS));
+
+    private static final MethodHandle OPEN_JTALK_RC_NEW = downcall("voicevox_open_jtalk_rc_new", FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS));
+    private static final MethodHandle OPEN_JTALK_RC_USE_USER_DICT = downcall("voicevox_open_jtalk_rc_use_user_dict", FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS));
+    private static final MethodHandle OPEN_JTALK_RC_ANALYZE = downcall("voicevox_open_jtalk_rc_analyze", FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS, ADDRESS));
+    private static final MethodHandle OPEN_JTALK_RC_DELETE = downcall("voicevox_open_jtalk_rc_delete", FunctionDescriptor.ofVoid(ADDRESS));
+
+    private static final MethodHandle MAKE_DEFAULT_INITIALIZE_OPTIONS = downcall("voicevox_make_default_initialize_options", FunctionDescriptor.of(INITIALIZE_OPTIONS));
+    private static final MethodHandle SYNTHESIZER_NEW = downcall("voicevox_synthesizer_new", FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS, INITIALIZE_OPTIONS, ADDRESS));
+    private static final MethodHandle SYNTHESIZER_DELETE = downcall("voicevox_synthesizer_delete", FunctionDescriptor.ofVoid(ADDRESS));
+    private static final MethodHandle SYNTHESIZER_LOAD_VOICE_MODEL = downcall("voicevox_synthesizer_load_voice_model", FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS));
+    private static final MethodHandle SYNTHESIZER_UNLOAD_VOICE_MODEL = downcall("voicevox_synthesizer_unload_voice_model", FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS));
+    private static final MethodHandle SYNTHESIZER_GET_ONNXRUNTIME = downcall("voicevox_synthesizer_get_onnxruntime", FunctionDescriptor.of(ADDRESS, ADDRESS));
+    private static final MethodHandle SYNTHESIZER_IS_GPU_MODE = downcall("voicevox_synthesizer_is_gpu_mode", FunctionDescriptor.of(JAVA_BOOLEAN, ADDRESS));
+    private static final MethodHandle SYNTHESIZER_IS_LOADED_VOICE_MODEL = downcall("voicevox_synthesizer_is_loaded_voice_model", FunctionDescriptor.of(JAVA_BOOLEAN, ADDRESS, ADDRESS));
+    private static final MethodHandle SYNTHESIZER_CREATE_METAS_JSON = downcall("voicevox_synthesizer_create_metas_json", FunctionDescriptor.of(ADDRESS, ADDRESS));
+
+    private static final FunctionDescriptor TEXT_TO_JSON = FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS, JAVA_INT, ADDRESS);
+    private static final MethodHandle SYNTHESIZER_CREATE_AUDIO_QUERY_FROM_KANA = downcall("voicevox_synthesizer_create_audio_query_from_kana", TEXT_TO_JSON);
+    private static final MethodHandle SYNTHESIZER_CREATE_AUDIO_QUERY = downcall("voicevox_synthesizer_create_audio_query", TEXT_TO_JSON);
+    private static final MethodHandle SYNTHESIZER_CREATE_ACCENT_PHRASES_FROM_KANA = downcall("voicevox_synthesizer_create_accent_phrases_from_kana", TEXT_TO_JSON);
+    private static final MethodHandle SYNTHESIZER_CREATE_ACCENT_PHRASES = downcall("voicevox_synthesizer_create_accent_phrases", TEXT_TO_JSON);
+    private static final MethodHandle SYNTHESIZER_REPLACE_MORA_DATA = downcall("voicevox_synthesizer_replace_mora_data", TEXT_TO_JSON);
+    private static final MethodHandle SYNTHESIZER_REPLACE_PHONEME_LENGTH = downcall("voicevox_synthesizer_replace_phoneme_length", TEXT_TO_JSON);
+    private static final MethodHandle SYNTHESIZER_REPLACE_MORA_PITCH = downcall("voicevox_synthesizer_replace_mora_pitch", TEXT_TO_JSON);
+
+    private static final MethodHandle MAKE_DEFAULT_SYNTHESIS_OPTIONS = downcall("voicevox_make_default_synthesis_options", FunctionDescriptor.of(SYNTHESIS_OPTIONS));
+    private static final MethodHandle SYNTHESIZER_SYNTHESIS = downcall("voicevox_synthesizer_synthesis", FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS, JAVA_INT, SYNTHESIS_OPTIONS, ADDRESS, ADDRESS));
+    private static final MethodHandle MAKE_DEFAULT_TTS_OPTIONS = downcall("voicevox_make_default_tts_options", FunctionDescriptor.of(TTS_OPTIONS));
+    private static final MethodHandle SYNTHESIZER_TTS_FROM_KANA = downcall("voicevox_synthesizer_tts_from_kana", FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS, JAVA_INT, TTS_OPTIONS, ADDRESS, ADDRESS));
+    private static final MethodHandle SYNTHESIZER_TTS = downcall("voicevox_synthesizer_tts", FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS, JAVA_INT, TTS_OPTIONS, ADDRESS, ADDRESS));
+
+    private static final MethodHandle VOICE_MODEL_FILE_OPEN = downcall("voicevox_voice_model_file_open", FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS));
+    private static final MethodHandle VOICE_MODEL_FILE_ID = downcall("voicevox_voice_model_file_id", FunctionDescriptor.ofVoid(ADDRESS, ADDRESS));
+    private static final MethodHandle VOICE_MODEL_FILE_CREATE_METAS_JSON = downcall("voicevox_voice_model_file_create_metas_json", FunctionDescriptor.of(ADDRESS, ADDRESS));
+    private static final MethodHandle VOICE_MODEL_FILE_DELETE = downcall("voicevox_voice_model_file_delete", FunctionDescriptor.ofVoid(ADDRESS));
+
+    private static final MethodHandle JSON_FREE = downcall("voicevox_json_free", FunctionDescriptor.ofVoid(ADDRESS));
+    private static final MethodHandle WAV_FREE = downcall("voicevox_wav_free", FunctionDescriptor.ofVoid(ADDRESS));
+
+    private static final MethodHandle ERROR_RESULT_TO_MESSAGE = downcall("voicevox_error_result_to_message", FunctionDescriptor.of(ADDRESS, JAVA_INT));
+
+    private static final MethodHandle USER_DICT_WORD_MAKE = downcall("voicevox_user_dict_word_make", FunctionDescriptor.of(USER_DICT_WORD, ADDRESS, ADDRESS, JAVA_LONG));
+    private static final MethodHandle USER_DICT_NEW = downcall("voicevox_user_dict_new", FunctionDescriptor.of(ADDRESS));
+    private static final MethodHandle USER_DICT_LOAD = downcall("voicevox_user_dict_load", FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS));
+    private static final MethodHandle USER_DICT_ADD_WORD = downcall("voicevox_user_dict_add_word", FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS, ADDRESS));
+    private static final MethodHandle USER_DICT_UPDATE_WORD = downcall("voicevox_user_dict_update_word", FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS, ADDRESS));
+    private static final MethodHandle USER_DICT_REMOVE_WORD = downcall("voicevox_user_dict_remove_word", FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS));
+    private static final MethodHandle USER_DICT_TO_JSON = downcall("voicevox_user_dict_to_json", FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS));
+    private static final MethodHandle USER_DICT_IMPORT = downcall("voicevox_user_dict_import", FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS));
+    private static final MethodHandle USER_DICT_SAVE = downcall("voicevox_user_dict_save", FunctionDescriptor.of(JAVA_INT, ADDRESS, ADDRESS));
+    private static final MethodHandle USER_DICT_DELETE = downcall("voicevox_user_dict_delete", FunctionDescriptor.ofVoid(ADDRESS));
+
+    private static final MethodHandle GET_VERSION = downcall("voicevox_get_version", FunctionDescriptor.of(ADDRESS));
+
+    private static final MethodHandle STRLEN = LINKER.downcallHandle(
+        LINKER.defaultLookup().find("strlen").orElseThrow(() -> new UnsatisfiedLinkError("strlen is not found")),
+        FunctionDescriptor.of(JAVA_LONG, ADDRESS));
+
+    private Handles() {
+      // Prevent instantiation
+    }
+
+    static void ensureInitialized() {
+      // クラスの初期化のみを目的とする
+    }
+
+    private static MethodHandle downcall(String name, FunctionDescriptor descriptor) {
+      return LINKER.downcallHandle(
+          LOOKUP.find(name).orElseThrow(() -> new UnsatisfiedLinkError("Symbol not found in voicevox_core: " + name)),
+          descriptor);
+    }
+
+    private static MethodHandle optionalDowncall(String name, FunctionDescriptor descriptor) {
+      return LOOKUP.find(name)
+          .map(symbol -> LINKER.downcallHandle(symbol, descriptor))
+          .orElse(null);
+    }
+
+    private static MethodHandle require(MethodHandle handle, String name) {
+      if (handle == null) {
+        throw new UnsupportedOperationException("Symbol not found in voicevox_core: " + name);
+      }
+      return handle;
+    }
+
+    static MethodHandle get_onnxruntime_lib_versioned_filename() { return require(GET_ONNXRUNTIME_LIB_VERSIONED_FILENAME, "voicevox_get_onnxruntime_lib_versioned_filename"); }
+    static MethodHandle get_onnxruntime_lib_unversioned_filename() { return require(GET_ONNXRUNTIME_LIB_UNVERSIONED_FILENAME, "voicevox_get_onnxruntime_lib_unversioned_filename"); }
+    static MethodHandle make_default_load_onnxruntime_options() { return require(MAKE_DEFAULT_LOAD_ONNXRUNTIME_OPTIONS, "voicevox_make_default_load_onnxruntime_options"); }
+    static MethodHandle onnxruntime_get() { return ONNXRUNTIME_GET; }
+    static MethodHandle onnxruntime_load_once() { return require(ONNXRUNTIME_LOAD_ONCE, "voicevox_onnxruntime_load_once"); }
+    static MethodHandle onnxruntime_create_supported_devices_json() { return ONNXRUNTIME_CREATE_SUPPORTED_DEVICES_JSON; }
+    static MethodHandle open_jtalk_rc_new() { return OPEN_JTALK_RC_NEW; }
+    static MethodHandle open_jtalk_rc_use_user_dict() { return OPEN_JTALK_RC_USE_USER_DICT; }
+    static MethodHandle open_jtalk_rc_analyze() { return OPEN_JTALK_RC_ANALYZE; }
+    static MethodHandle open_jtalk_rc_delete() { return OPEN_JTALK_RC_DELETE; }
+    static MethodHandle make_default_initialize_options() { return MAKE_DEFAULT_INITIALIZE_OPTIONS; }
+    static MethodHandle synthesizer_new() { return SYNTHESIZER_NEW; }
+    static MethodHandle synthesizer_delete() { return SYNTHESIZER_DELETE; }
+    static MethodHandle synthesizer_load_voice_model() { return SYNTHESIZER_LOAD_VOICE_MODEL; }
+    static MethodHandle synthesizer_unload_voice_model() { return SYNTHESIZER_UNLOAD_VOICE_MODEL; }
+    static MethodHandle synthesizer_get_onnxruntime() { return SYNTHESIZER_GET_ONNXRUNTIME; }
+    static MethodHandle synthesizer_is_gpu_mode() { return SYNTHESIZER_IS_GPU_MODE; }
+    static MethodHandle synthesizer_is_loaded_voice_model() { return SYNTHESIZER_IS_LOADED_VOICE_MODEL; }
+    static MethodHandle synthesizer_create_metas_json() { return SYNTHESIZER_CREATE_METAS_JSON; }
+    static MethodHandle synthesizer_create_audio_query_from_kana() { return SYNTHESIZER_CREATE_AUDIO_QUERY_FROM_KANA; }
+    static MethodHandle synthesizer_create_audio_query() { return SYNTHESIZER_CREATE_AUDIO_QUERY; }
+    static MethodHandle synthesizer_create_accent_phrases_from_kana() { return SYNTHESIZER_CREATE_ACCENT_PHRASES_FROM_KANA; }
+    static MethodHandle synthesizer_create_accent_phrases() { return SYNTHESIZER_CREATE_ACCENT_PHRASES; }
+    static MethodHandle synthesizer_replace_mora_data() { return SYNTHESIZER_REPLACE_MORA_DATA; }
+    static MethodHandle synthesizer_replace_phoneme_length() { return SYNTHESIZER_REPLACE_PHONEME_LENGTH; }
+    static MethodHandle synthesizer_replace_mora_pitch() { return SYNTHESIZER_REPLACE_MORA_PITCH; }
+    static MethodHandle make_default_synthesis_options() { return MAKE_DEFAULT_SYNTHESIS_OPTIONS; }
+    static MethodHandle synthesizer_synthesis() { return SYNTHESIZER_SYNTHESIS; }
+    static MethodHandle make_default_tts_options() { return MAKE_DEFAULT_TTS_OPTIONS; }
+    static MethodHandle synthesizer_tts_from_kana() { return SYNTHESIZER_TTS_FROM_KANA; }
+    static MethodHandle synthesizer_tts() { return SYNTHESIZER_TTS; }
+    static MethodHandle voice_model_file_open() { return VOICE_MODEL_FILE_OPEN; }
+    static MethodHandle voice_model_file_id() { return VOICE_MODEL_FILE_ID; }
+    static MethodHandle voice_model_file_create_metas_json() { return VOICE_MODEL_FILE_CREATE_METAS_JSON; }
+    static MethodHandle voice_model_file_delete() { return VOICE_MODEL_FILE_DELETE; }
+    static MethodHandle json_free() { return JSON_FREE; }
+    static MethodHandle wav_free() { return WAV_FREE; }
+    static MethodHandle error_result_to_message() { return ERROR_RESULT_TO_MESSAGE; }
+    static MethodHandle user_dict_word_make() { return USER_DICT_WORD_MAKE; }
+    static MethodHandle user_dict_new() { return USER_DICT_NEW; }
+    static MethodHandle user_dict_load() { return USER_DICT_LOAD; }
+    static MethodHandle user_dict_add_word() { return USER_DICT_ADD_WORD; }
+    static MethodHandle user_dict_update_word() { return USER_DICT_UPDATE_WORD; }
+    static MethodHandle user_dict_remove_word() { return USER_DICT_REMOVE_WORD; }
+    static MethodHandle user_dict_to_json() { return USER_DICT_TO_JSON; }
+    static MethodHandle user_dict_import() { return USER_DICT_IMPORT; }
+    static MethodHandle user_dict_save() { return USER_DICT_SAVE; }
+    static MethodHandle user_dict_delete() { return USER_DICT_DELETE; }
+    static MethodHandle get_version() { return GET_VERSION; }
+    static MethodHandle strlen() { return STRLEN; }
+  }
+}
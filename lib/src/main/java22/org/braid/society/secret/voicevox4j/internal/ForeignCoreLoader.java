@@ -0,0 +1,24 @@
+package org.braid.society.secret.voicevox4j.internal;
+
+/**
+ * Foreign Function &amp; Memory API（{@code java.lang.foreign}）による{@link Core}の実装をロードするクラスです。
+ * <p>
+ * このクラスはJDK 22以降向けの実装で、{@link ForeignCore}を返します。
+ * @see CoreBinding#FOREIGN
+ */
+final class ForeignCoreLoader {
+
+  private ForeignCoreLoader() {
+    // Prevent instantiation
+  }
+
+  /**
+   * FFMバックエンドで指定したライブラリをロードします。
+   *
+   * @param libraryPath ライブラリファイルのパス
+   * @return ロードされた{@link Core}
+   */
+  static Core load(String libraryPath) {
+    return ForeignCore.bind(libraryPath);
+  }
+}
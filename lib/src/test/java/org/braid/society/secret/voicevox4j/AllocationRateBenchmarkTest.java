@@ -0,0 +1,108 @@
+package org.braid.society.secret.voicevox4j;
+
+import com.google.common.truth.Truth;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.api.OnnxRuntime;
+import org.braid.society.secret.voicevox4j.api.OpenJTalkDictionary;
+import org.braid.society.secret.voicevox4j.api.Synthesizer;
+import org.braid.society.secret.voicevox4j.api.VoiceModelFile;
+import org.braid.society.secret.voicevox4j.api.WavBuffer;
+import org.braid.society.secret.voicevox4j.exception.VoicevoxException;
+import org.braid.society.secret.voicevox4j.internal.Core;
+import org.braid.society.secret.voicevox4j.internal.CoreBinding;
+import org.braid.society.secret.voicevox4j.internal.NativeVoicevoxLibrary;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link Synthesizer}の定常状態での呼び出し1回あたりの割り当て量（bytes/op）を計測するベンチマークです。
+ * <p>
+ * 既定のオプションを使う呼び出しと、呼び出しのたびに既定のオプションを取得し直す呼び出しを、
+ * WAVデータをJavaヒープにコピーする{@link Synthesizer#tts(String, int)}と比較します。
+ * {@link WavBuffer}を返す呼び出しはWAVデータをコピーしないため、割り当て量はWAVデータのサイズに依存しない小さな上限に収まる必要があります。
+ * また、既定のオプションを再利用する呼び出しは、オプションの構造体を毎回作成しない分だけ割り当て量が少ない必要があります。
+ * 計測結果はログ（DEBUGレベル）に出力されます。
+ */
+@Slf4j
+public class AllocationRateBenchmarkTest {
+
+  private static final int WARMUP_ITERATIONS = 20;
+  private static final int MEASURE_ITERATIONS = 100;
+  // WAVデータをコピーしない呼び出し1回あたりの割り当て量の上限。WavBufferとその参照、引数の変換に必要な分だけを見込む
+  private static final long MAX_BUFFER_BYTES_PER_OP = 4 * 1024;
+  // オプションの構造体を毎回作成する場合に、少なくとも増える割り当て量（Structure、Memory、クリーナーの登録）
+  private static final long MIN_OPTIONS_BYTES_PER_OP = 128;
+
+  private static final com.sun.management.ThreadMXBean THREADS =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private final Path dictPath = Paths.get("src/main/resources/voicevox_core/dict/open_jtalk_dic_utf_8-1.11").toAbsolutePath();
+  private final Path vvmPath = Paths.get("src/main/resources/voicevox_core/models/vvms/0.vvm").toAbsolutePath();
+
+  @Test
+  void benchmarkSteadyStateAllocation() throws VoicevoxException {
+    Truth.assertThat(THREADS.isThreadAllocatedMemorySupported()).isTrue();
+    THREADS.setThreadAllocatedMemoryEnabled(true);
+
+    log.debug("=== 定常状態の割り当て量 ===");
+    for (CoreBinding binding : new CoreBinding[] {CoreBinding.DIRECT, CoreBinding.PROXY}) {
+      Core core = NativeVoicevoxLibrary.load(Path.of(""), binding);
+      try (OpenJTalkDictionary dictionary = new OpenJTalkDictionary(dictPath, core);
+          VoiceModelFile model = new VoiceModelFile(vvmPath, core);
+          Synthesizer synthesizer = new Synthesizer(new OnnxRuntime(core).getNativeOnnxruntime(), dictionary, core)) {
+        synthesizer.loadVoiceModel(model);
+
+        SynthesizerCall cached = () -> {
+          try (WavBuffer wav = synthesizer.ttsToBuffer("あ", 0)) {
+            return wav.size();
+          }
+        };
+        SynthesizerCall fresh = () -> {
+          try (WavBuffer wav = synthesizer.ttsToBuffer("あ", 0, core.voicevox_make_default_tts_options())) {
+            return wav.size();
+          }
+        };
+
+        SynthesizerCall copying = () -> synthesizer.tts("あ", 0).length;
+
+        int wavSize = cached.run();
+        long cachedBytes = measure(cached);
+        long freshBytes = measure(fresh);
+        long copyingBytes = measure(copying);
+        log.debug("{}: WAV = {} bytes, ttsToBuffer(既定のオプション) = {} bytes/op, "
+                + "ttsToBuffer(毎回取得したオプション) = {} bytes/op, tts = {} bytes/op",
+            binding, wavSize, cachedBytes, freshBytes, copyingBytes);
+        // ヒープへのコピーを含む基準の呼び出しは、少なくともWAVデータのサイズを割り当てる
+        Truth.assertThat(copyingBytes).isAtLeast((long) wavSize);
+        // WAVデータをコピーしない呼び出しの割り当ては、呼び出しごとの小さなオブジェクトに限られる
+        Truth.assertThat(cachedBytes).isAtMost(MAX_BUFFER_BYTES_PER_OP);
+        Truth.assertThat(freshBytes).isAtMost(MAX_BUFFER_BYTES_PER_OP);
+        // 既定のオプションを再利用すると、オプションの構造体の分だけ割り当てが減る
+        Truth.assertThat(freshBytes - cachedBytes).isAtLeast(MIN_OPTIONS_BYTES_PER_OP);
+      }
+    }
+  }
+
+  private static long measure(SynthesizerCall call) throws VoicevoxException {
+    long sink = 0;
+    for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+      sink += call.run();
+    }
+    long threadId = Thread.currentThread().getId();
+    long before = THREADS.getThreadAllocatedBytes(threadId);
+    for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+      sink += call.run();
+    }
+    long allocated = THREADS.getThreadAllocatedBytes(threadId) - before;
+    log.trace("sink: {}", sink);
+    return allocated / MEASURE_ITERATIONS;
+  }
+
+  @FunctionalInterface
+  private interface SynthesizerCall {
+
+    int run() throws VoicevoxException;
+  }
+}
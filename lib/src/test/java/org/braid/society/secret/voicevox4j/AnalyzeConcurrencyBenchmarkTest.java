@@ -0,0 +1,106 @@
+package org.braid.society.secret.voicevox4j;
+
+import com.google.common.truth.Truth;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.api.OpenJTalkDictionary;
+import org.braid.society.secret.voicevox4j.internal.Core;
+import org.braid.society.secret.voicevox4j.internal.CoreBinding;
+import org.braid.society.secret.voicevox4j.internal.NativeVoicevoxLibrary;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link OpenJTalkDictionary#analyze(String)}を複数のスレッドから同時に呼び出すストレステスト兼ベンチマークです。
+ * <p>
+ * すべての結果が単一スレッドでの結果と一致すること、およびシステムプロパティ{@code jna.encoding}に依存しないことを確認します。
+ * 計測結果はログ（DEBUGレベル）に出力されます。
+ */
+@Slf4j
+public class AnalyzeConcurrencyBenchmarkTest {
+
+  private static final int THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
+  private static final int ITERATIONS_PER_THREAD = 200;
+  private static final String[] TEXTS = {
+      "こんにちは、世界。",
+      "𠮷野家で🍣を食べました。",
+      "ﾊﾝｶｸｶﾀｶﾅとＡＢＣ",
+      "東京特許許可局許可局長",
+  };
+
+  private final Path dictPath = Paths.get("src/main/resources/voicevox_core/dict/open_jtalk_dic_utf_8-1.11").toAbsolutePath();
+
+  @Test
+  void benchmarkConcurrentAnalyze() throws Exception {
+    // UTF-8以外を指定しても、解析結果が変わらないことを確認する
+    String originalEncoding = System.getProperty("jna.encoding");
+    System.setProperty("jna.encoding", "ISO-8859-1");
+    try {
+      for (CoreBinding binding : new CoreBinding[] {CoreBinding.DIRECT, CoreBinding.PROXY}) {
+        Core core = NativeVoicevoxLibrary.load(Path.of(""), binding);
+        try (OpenJTalkDictionary dictionary = new OpenJTalkDictionary(dictPath, core)) {
+          run(binding, dictionary);
+        }
+      }
+      Truth.assertThat(System.getProperty("jna.encoding")).isEqualTo("ISO-8859-1");
+      log.debug("✓ jna.encodingは変更されませんでした");
+    } finally {
+      if (originalEncoding != null) {
+        System.setProperty("jna.encoding", originalEncoding);
+      } else {
+        System.clearProperty("jna.encoding");
+      }
+    }
+  }
+
+  private static void run(CoreBinding binding, OpenJTalkDictionary dictionary) throws Exception {
+    log.debug("=== analyze 同時実行: {} ===", binding);
+    String[] expected = new String[TEXTS.length];
+    for (int i = 0; i < TEXTS.length; i++) {
+      expected[i] = dictionary.analyze(TEXTS[i]);
+      Truth.assertThat(expected[i]).isNotEmpty();
+    }
+
+    long single = measure(dictionary, expected, 1);
+    long concurrent = measure(dictionary, expected, THREADS);
+    log.debug("{}: 1スレッド = {} ops/s, {}スレッド = {} ops/s",
+        binding, single, THREADS, concurrent);
+  }
+
+  private static long measure(OpenJTalkDictionary dictionary, String[] expected, int threads) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<Integer>> futures = new ArrayList<>();
+      for (int t = 0; t < threads; t++) {
+        int offset = t;
+        futures.add(executor.submit(() -> {
+          start.await();
+          int mismatches = 0;
+          for (int i = 0; i < ITERATIONS_PER_THREAD; i++) {
+            int index = (offset + i) % TEXTS.length;
+            if (!dictionary.analyze(TEXTS[index]).equals(expected[index])) {
+              mismatches++;
+            }
+          }
+          return mismatches;
+        }));
+      }
+      long begin = System.nanoTime();
+      start.countDown();
+      for (Future<Integer> future : futures) {
+        Truth.assertThat(future.get()).isEqualTo(0);
+      }
+      long elapsed = System.nanoTime() - begin;
+      return (long) threads * ITERATIONS_PER_THREAD * 1_000_000_000L / elapsed;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,264 @@
+package org.braid.society.secret.voicevox4j;
+
+import com.google.common.truth.Truth;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.api.AsyncSynthesizer;
+import org.braid.society.secret.voicevox4j.api.AudioChunk;
+import org.braid.society.secret.voicevox4j.api.OpenJTalkDictionary;
+import org.braid.society.secret.voicevox4j.api.Synthesizer;
+import org.braid.society.secret.voicevox4j.api.SynthesizerPool;
+import org.braid.society.secret.voicevox4j.api.TtsSession;
+import org.braid.society.secret.voicevox4j.api.VoiceModelFile;
+import org.braid.society.secret.voicevox4j.exception.VoicevoxException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * AsyncSynthesizerクラスのテストクラス。
+ */
+@Slf4j
+public class AsyncSynthesizerTest {
+
+  private static final int TEST_STYLE_ID = 0;
+
+  private final Path dictPath = Paths.get("src/main/resources/voicevox_core/dict/open_jtalk_dic_utf_8-1.11").toAbsolutePath();
+  private final Path vvmPath = Paths.get("src/main/resources/voicevox_core/models/vvms/0.vvm").toAbsolutePath();
+  private final Voicevox voicevox = new Voicevox(Path.of("src/main/resources/voicevox_core").toAbsolutePath());
+
+  @Test
+  void testAsyncOperations() throws Exception {
+    log.debug("=== AsyncSynthesizer 非同期操作テスト開始 ===");
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile model = voicevox.useVoiceModelFile(vvmPath);
+        SynthesizerPool pool = voicevox.createSynthesizerPool(dictionary, 2, model);
+        AsyncSynthesizer async = new AsyncSynthesizer(pool)) {
+
+      byte[] wav = async.createAudioQueryAsync("こんにちは", TEST_STYLE_ID)
+          .thenCompose(query -> async.synthesisAsync(query, TEST_STYLE_ID))
+          .get(60, TimeUnit.SECONDS);
+      Truth.assertThat(wav).isNotEmpty();
+      log.debug("✓ AudioQuery作成から音声合成までを非同期に連結できました");
+
+      Truth.assertThat(async.ttsAsync("ありがとう", TEST_STYLE_ID).get(60, TimeUnit.SECONDS)).isNotEmpty();
+      log.debug("✓ 非同期TTSが完了しました");
+
+      CompletableFuture<byte[]> failed = async.ttsAsync("", TEST_STYLE_ID);
+      ExecutionException e = Assertions.assertThrows(ExecutionException.class, () -> failed.get(60, TimeUnit.SECONDS));
+      Truth.assertThat(e).hasCauseThat().isInstanceOf(VoicevoxException.class);
+      log.debug("✓ ネイティブ関数の失敗がフューチャーに伝播しました");
+    }
+  }
+
+  @Test
+  void testCancelBeforeNativeCall() throws Exception {
+    log.debug("=== AsyncSynthesizer キャンセルテスト開始 ===");
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        SynthesizerPool pool = voicevox.createSynthesizerPool(dictionary, 1);
+        AsyncSynthesizer async = new AsyncSynthesizer(pool)) {
+
+      AtomicInteger invocations = new AtomicInteger();
+
+      // 唯一の合成器を借りておき、処理を待機させる
+      Synthesizer held = pool.borrow();
+      CompletableFuture<Boolean> pending = async.submit(synthesizer -> {
+        invocations.incrementAndGet();
+        return synthesizer.isGpuMode();
+      });
+      Truth.assertThat(pending.cancel(false)).isTrue();
+      pool.release(held);
+
+      // 後続の処理が完了すれば、キャンセルされた処理の順番は過ぎている
+      Truth.assertThat(async.submit(Synthesizer::isGpuMode).get(60, TimeUnit.SECONDS)).isFalse();
+      Truth.assertThat(invocations.get()).isEqualTo(0);
+      Truth.assertThat(pending.isCancelled()).isTrue();
+      log.debug("✓ キャンセルされた処理はネイティブ関数を呼び出しませんでした");
+    }
+  }
+
+  @Test
+  void testCloseCancelsQueuedTasksOnSuppliedExecutor() throws Exception {
+    log.debug("=== AsyncSynthesizer 外部エグゼキュータでのクローズテスト開始 ===");
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        SynthesizerPool pool = voicevox.createSynthesizerPool(dictionary, 1)) {
+
+      AtomicInteger invocations = new AtomicInteger();
+      CountDownLatch blocked = new CountDownLatch(1);
+      CountDownLatch proceed = new CountDownLatch(1);
+      // エグゼキュータの唯一のスレッドを塞ぎ、投入した処理をキューに留める
+      executor.execute(() -> {
+        blocked.countDown();
+        try {
+          proceed.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+      Truth.assertThat(blocked.await(60, TimeUnit.SECONDS)).isTrue();
+
+      AsyncSynthesizer async = new AsyncSynthesizer(pool, executor);
+      CompletableFuture<Boolean> queued = async.submit(synthesizer -> {
+        invocations.incrementAndGet();
+        return synthesizer.isGpuMode();
+      });
+      async.close();
+      Truth.assertThat(queued.isCancelled()).isTrue();
+      log.debug("✓ クローズ時にキューに残っている処理がキャンセルされました");
+
+      proceed.countDown();
+      // 後続の処理が完了すれば、キャンセルされた処理の順番は過ぎている
+      executor.submit(() -> { }).get(60, TimeUnit.SECONDS);
+      Truth.assertThat(invocations.get()).isEqualTo(0);
+      Truth.assertThat(executor.isShutdown()).isFalse();
+      log.debug("✓ キャンセルされた処理はネイティブ関数を呼び出さず、エグゼキュータはシャットダウンされませんでした");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void testCancelDuringCallClosesResult() throws Exception {
+    log.debug("=== AsyncSynthesizer 実行中キャンセルテスト開始 ===");
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        SynthesizerPool pool = voicevox.createSynthesizerPool(dictionary, 1);
+        AsyncSynthesizer async = new AsyncSynthesizer(pool)) {
+
+      CountDownLatch started = new CountDownLatch(1);
+      CountDownLatch cancelled = new CountDownLatch(1);
+      CountDownLatch closed = new CountDownLatch(1);
+      CompletableFuture<AutoCloseable> running = async.submit(synthesizer -> {
+        started.countDown();
+        while (cancelled.getCount() > 0) {
+          Thread.onSpinWait();
+        }
+        return closed::countDown;
+      });
+      Truth.assertThat(started.await(60, TimeUnit.SECONDS)).isTrue();
+      Truth.assertThat(running.cancel(false)).isTrue();
+      cancelled.countDown();
+
+      Truth.assertThat(closed.await(60, TimeUnit.SECONDS)).isTrue();
+      log.debug("✓ 実行中にキャンセルされた処理の結果がクローズされました");
+    }
+  }
+
+  @Test
+  void testTtsStream() throws Exception {
+    log.debug("=== AsyncSynthesizer ストリーミング合成テスト開始 ===");
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile model = voicevox.useVoiceModelFile(vvmPath);
+        SynthesizerPool pool = voicevox.createSynthesizerPool(dictionary, 2, model);
+        AsyncSynthesizer async = new AsyncSynthesizer(pool)) {
+
+      CollectingSubscriber subscriber = new CollectingSubscriber();
+      async.ttsStream("ええと、今日はいい天気ですね。散歩に行きましょう。", TEST_STYLE_ID).subscribe(subscriber);
+
+      // 1つだけ要求した場合は、1つだけ出力される
+      subscriber.subscription.request(1);
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+      while (subscriber.chunks.isEmpty() && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      Thread.sleep(500);
+      Truth.assertThat(subscriber.chunks).hasSize(1);
+      Truth.assertThat(subscriber.completed.getCount()).isEqualTo(1);
+      log.debug("✓ 要求した数だけチャンクが出力されました: {}", subscriber.chunks.get(0));
+
+      subscriber.subscription.request(Long.MAX_VALUE);
+      Truth.assertThat(subscriber.completed.await(60, TimeUnit.SECONDS)).isTrue();
+      Truth.assertThat(subscriber.error).isNull();
+      // 最初の文は読点の位置で2つに分割される
+      Truth.assertThat(subscriber.chunks).hasSize(3);
+      for (int i = 0; i < subscriber.chunks.size(); i++) {
+        Truth.assertThat(subscriber.chunks.get(i).getIndex()).isEqualTo(i);
+        Truth.assertThat(subscriber.chunks.get(i).getWav()).isNotEmpty();
+      }
+      Truth.assertThat(subscriber.chunks.get(2).getText()).isEqualTo("散歩に行きましょう。");
+      log.debug("✓ すべてのチャンクが順番どおりに出力されました");
+    }
+  }
+
+  @Test
+  void testTtsSession() throws Exception {
+    log.debug("=== AsyncSynthesizer 逐次入力セッションテスト開始 ===");
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile model = voicevox.useVoiceModelFile(vvmPath);
+        SynthesizerPool pool = voicevox.createSynthesizerPool(dictionary, 2, model);
+        AsyncSynthesizer async = new AsyncSynthesizer(pool)) {
+
+      CollectingSubscriber subscriber = new CollectingSubscriber();
+      TtsSession session = async.openTtsSession(TEST_STYLE_ID);
+      session.subscribe(subscriber);
+      subscriber.subscription.request(Long.MAX_VALUE);
+
+      // トークンごとに届くテキストを追加する。文の区切りは次の文字が届いた時点で確定する
+      for (String token : new String[] {"今日", "は", "いい", "天気", "です", "。", "散歩", "に"}) {
+        session.append(token);
+      }
+      long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+      while (subscriber.chunks.isEmpty() && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      Truth.assertThat(subscriber.chunks).hasSize(1);
+      Truth.assertThat(subscriber.chunks.get(0).getText()).isEqualTo("今日はいい天気です。");
+      Truth.assertThat(subscriber.completed.getCount()).isEqualTo(1);
+      log.debug("✓ クローズ前に最初の文のチャンクが出力されました");
+
+      session.append("行きましょう");
+      session.close();
+      Truth.assertThat(subscriber.completed.await(60, TimeUnit.SECONDS)).isTrue();
+      Truth.assertThat(subscriber.error).isNull();
+      Truth.assertThat(subscriber.chunks).hasSize(2);
+      Truth.assertThat(subscriber.chunks.get(1).getIndex()).isEqualTo(1);
+      Truth.assertThat(subscriber.chunks.get(1).getText()).isEqualTo("散歩に行きましょう");
+      log.debug("✓ クローズ時に残りのテキストが合成され、完了が通知されました");
+
+      Assertions.assertThrows(IllegalStateException.class, () -> session.append("。"));
+      log.debug("✓ クローズ後の追加は拒否されました");
+    }
+  }
+
+  /**
+   * 出力されたチャンクを記録する購読者。要求は呼び出し側で行う。
+   */
+  private static final class CollectingSubscriber implements Flow.Subscriber<AudioChunk> {
+
+    private final List<AudioChunk> chunks = new CopyOnWriteArrayList<>();
+    private final CountDownLatch completed = new CountDownLatch(1);
+    private volatile Flow.Subscription subscription;
+    private volatile Throwable error;
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(AudioChunk chunk) {
+      chunks.add(chunk);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      error = throwable;
+      completed.countDown();
+    }
+
+    @Override
+    public void onComplete() {
+      completed.countDown();
+    }
+  }
+}
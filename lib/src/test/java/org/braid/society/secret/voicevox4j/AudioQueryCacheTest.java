@@ -0,0 +1,85 @@
+package org.braid.society.secret.voicevox4j;
+
+import com.google.common.truth.Truth;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.api.AudioQueryCache;
+import org.braid.society.secret.voicevox4j.api.OpenJTalkDictionary;
+import org.braid.society.secret.voicevox4j.api.Synthesizer;
+import org.braid.society.secret.voicevox4j.api.UserDict;
+import org.braid.society.secret.voicevox4j.api.VoiceModelFile;
+import org.junit.jupiter.api.Test;
+
+/**
+ * AudioQueryCacheクラスのテストクラス。
+ */
+@Slf4j
+public class AudioQueryCacheTest {
+
+  private static final int TEST_STYLE_ID = 0;
+
+  private final Path dictPath = Paths.get("src/main/resources/voicevox_core/dict/open_jtalk_dic_utf_8-1.11").toAbsolutePath();
+  private final Path vvmPath = Paths.get("src/main/resources/voicevox_core/models/vvms/0.vvm").toAbsolutePath();
+  private final Voicevox voicevox = new Voicevox(Path.of("src/main/resources/voicevox_core").toAbsolutePath());
+
+  @Test
+  void testNormalize() {
+    Truth.assertThat(AudioQueryCache.normalize("　ｺﾝﾆﾁﾊ  ＡＢＣ\n１２３ ")).isEqualTo("コンニチハ ABC 123");
+    log.debug("✓ 全角・半角と空白が正規化されました");
+  }
+
+  @Test
+  void testHitAndInvalidation() throws Exception {
+    log.debug("=== AudioQueryCache ヒットと無効化のテスト開始 ===");
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile model = voicevox.useVoiceModelFile(vvmPath);
+        Synthesizer synthesizer = voicevox.createSynthesizer(dictionary);
+        UserDict userDict = voicevox.createUserDict()) {
+      synthesizer.loadVoiceModel(model);
+      AudioQueryCache cache = new AudioQueryCache(1024 * 1024);
+      synthesizer.setAudioQueryCache(cache);
+
+      String first = synthesizer.createAudioQuery("こんにちは", TEST_STYLE_ID);
+      String second = synthesizer.createAudioQuery("　こんにちは ", TEST_STYLE_ID);
+      Truth.assertThat(second).isEqualTo(first);
+      Truth.assertThat(cache.getHitCount()).isEqualTo(1);
+      Truth.assertThat(cache.getMissCount()).isEqualTo(1);
+      log.debug("✓ 正規化後に同じテキストはキャッシュから返されました");
+
+      // ユーザー辞書を設定・変更すると既存のエントリは使われない
+      dictionary.useUserDict(userDict);
+      synthesizer.createAudioQuery("こんにちは", TEST_STYLE_ID);
+      Truth.assertThat(cache.getMissCount()).isEqualTo(2);
+      userDict.addWord("テスト", "テスト", 1);
+      synthesizer.createAudioQuery("こんにちは", TEST_STYLE_ID);
+      Truth.assertThat(cache.getMissCount()).isEqualTo(3);
+      Truth.assertThat(cache.size()).isEqualTo(1);
+      log.debug("✓ ユーザー辞書の変更でキャッシュが無効化されました");
+
+      synthesizer.unloadVoiceModel(model.getModelId());
+      Truth.assertThat(cache.size()).isEqualTo(0);
+      log.debug("✓ 音声モデルのアンロードでキャッシュが無効化されました");
+    }
+  }
+
+  @Test
+  void testEviction() throws Exception {
+    log.debug("=== AudioQueryCache 容量制限のテスト開始 ===");
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile model = voicevox.useVoiceModelFile(vvmPath);
+        Synthesizer synthesizer = voicevox.createSynthesizer(dictionary)) {
+      synthesizer.loadVoiceModel(model);
+      long maxBytes = 16 * 1024;
+      AudioQueryCache cache = new AudioQueryCache(maxBytes);
+      synthesizer.setAudioQueryCache(cache);
+
+      for (int i = 0; i < 50; i++) {
+        synthesizer.createAudioQuery("これは" + i + "番目の文です。", TEST_STYLE_ID);
+      }
+      Truth.assertThat(cache.getWeightedSize()).isAtMost(maxBytes);
+      Truth.assertThat(cache.getEvictionCount()).isGreaterThan(0L);
+      log.debug("✓ 容量を超えたエントリが追い出されました: {}件保持, {}バイト", cache.size(), cache.getWeightedSize());
+    }
+  }
+}
@@ -0,0 +1,88 @@
+package org.braid.society.secret.voicevox4j;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.truth.Truth;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.api.AccentPhrase;
+import org.braid.society.secret.voicevox4j.api.AudioQuery;
+import org.braid.society.secret.voicevox4j.api.Mora;
+import org.braid.society.secret.voicevox4j.api.OpenJTalkDictionary;
+import org.braid.society.secret.voicevox4j.api.Synthesizer;
+import org.braid.society.secret.voicevox4j.api.VoiceModelFile;
+import org.junit.jupiter.api.Test;
+
+/**
+ * AudioQuery、AccentPhrase、Moraクラスのテストクラス。
+ */
+@Slf4j
+public class AudioQueryTest {
+
+  private static final int TEST_STYLE_ID = 0;
+
+  private final Path dictPath = Paths.get("src/main/resources/voicevox_core/dict/open_jtalk_dic_utf_8-1.11").toAbsolutePath();
+  private final Path vvmPath = Paths.get("src/main/resources/voicevox_core/models/vvms/0.vvm").toAbsolutePath();
+  private final Voicevox voicevox = new Voicevox(Path.of("src/main/resources/voicevox_core").toAbsolutePath());
+
+  @Test
+  void testJsonRoundTrip() {
+    log.debug("=== AudioQuery JSON 往復変換のテスト開始 ===");
+    Mora mora = new Mora("\"\\\n🍣", null, null, "a", 0.1, 5.5);
+    AccentPhrase phrase = new AccentPhrase(List.of(mora), 1, new Mora("、", null, null, "pau", 0.3, 0.0), true);
+    AudioQuery query = new AudioQuery(List.of(phrase), 1.2, 0.0, 1.0, 1.0, 0.1, 0.1, null, 1.0, 24000, false, "ア'");
+
+    String json = query.toJson();
+    Truth.assertThat(json).doesNotContain(" ");
+    Truth.assertThat(json).contains("\"pause_mora\":{");
+    Truth.assertThat(json).contains("\"pauseLength\":null");
+    Truth.assertThat(AudioQuery.fromJson(json)).isEqualTo(query);
+    Truth.assertThat(AccentPhrase.listFromJson(AccentPhrase.listToJson(List.of(phrase)))).containsExactly(phrase);
+    log.debug("✓ エスケープや絵文字を含むクエリが往復変換されました");
+
+    String spaced = "{ \"accent_phrases\" : [ ], \"speedScale\" : 1.5, \"unknown\" : { \"x\" : [ 1, true ] } }";
+    Truth.assertThat(AudioQuery.fromJson(spaced).getSpeedScale()).isEqualTo(1.5);
+    log.debug("✓ 空白と未知のキーを含むJSONが解析されました");
+  }
+
+  @Test
+  void testMalformedJson() {
+    assertThrows(IllegalArgumentException.class, () -> AudioQuery.fromJson("{\"accent_phrases\":[}"));
+    assertThrows(IllegalArgumentException.class, () -> AudioQuery.fromJson("{} {}"));
+    assertThrows(IllegalArgumentException.class,
+        () -> new AudioQuery(List.of(), Double.NaN, 0.0, 1.0, 1.0, 0.1, 0.1, null, 1.0, 24000, false, null).toJson());
+    log.debug("✓ 不正なJSONと非有限数が拒否されました");
+  }
+
+  @Test
+  void testTypedSynthesis() throws Exception {
+    log.debug("=== 型付きAudioQueryによる音声合成のテスト開始 ===");
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile model = voicevox.useVoiceModelFile(vvmPath);
+        Synthesizer synthesizer = voicevox.createSynthesizer(dictionary)) {
+      synthesizer.loadVoiceModel(model);
+
+      AudioQuery query = synthesizer.createAudioQueryTyped("こんにちは", TEST_STYLE_ID);
+      Truth.assertThat(query).isEqualTo(AudioQuery.fromJson(synthesizer.createAudioQuery("こんにちは", TEST_STYLE_ID)));
+      Truth.assertThat(query.getAccentPhrases()).isNotEmpty();
+      log.debug("✓ 型付きのAudioQueryが作成されました: {}", query.getKana());
+
+      byte[] wav = synthesizer.synthesis(query, TEST_STYLE_ID);
+      Truth.assertThat(wav).isEqualTo(synthesizer.synthesis(query.toJson(), TEST_STYLE_ID));
+      byte[] faster = synthesizer.synthesis(query.withSpeedScale(1.5), TEST_STYLE_ID);
+      Truth.assertThat(faster.length).isLessThan(wav.length);
+      log.debug("✓ 変更したAudioQueryから音声が合成されました: {} -> {} bytes", wav.length, faster.length);
+
+      List<AccentPhrase> phrases = synthesizer.createAccentPhrasesTyped("こんにちは", TEST_STYLE_ID);
+      List<AccentPhrase> flat = phrases.stream()
+          .map(p -> p.withMoras(p.getMoras().stream().map(m -> m.withPitch(0.0)).toList()))
+          .toList();
+      List<AccentPhrase> replaced = synthesizer.replaceMoraPitch(flat, TEST_STYLE_ID);
+      Truth.assertThat(replaced).hasSize(phrases.size());
+      Truth.assertThat(replaced).isEqualTo(phrases);
+      log.debug("✓ 型付きのアクセント句でピッチが再計算されました");
+    }
+  }
+}
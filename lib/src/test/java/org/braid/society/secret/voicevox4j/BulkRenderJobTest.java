@@ -0,0 +1,239 @@
+package org.braid.society.secret.voicevox4j;
+
+import com.google.common.truth.Truth;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import java.util.zip.ZipFile;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.api.BulkRenderJob;
+import org.braid.society.secret.voicevox4j.api.BulkRenderProgress;
+import org.braid.society.secret.voicevox4j.api.OpenJTalkDictionary;
+import org.braid.society.secret.voicevox4j.api.SynthesizerPool;
+import org.braid.society.secret.voicevox4j.api.VoiceModelFile;
+import org.braid.society.secret.voicevox4j.internal.MappedUtteranceReader;
+import org.braid.society.secret.voicevox4j.internal.SentenceSplitter;
+import org.braid.society.secret.voicevox4j.internal.StoredZipWriter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * BulkRenderJobクラスと、その発話分割処理のテストクラス。
+ */
+@Slf4j
+public class BulkRenderJobTest {
+
+  private static final int TEST_STYLE_ID = 0;
+  private static final int UTTERANCES = 12;
+
+  private final Path dictPath = Paths.get("src/main/resources/voicevox_core/dict/open_jtalk_dic_utf_8-1.11").toAbsolutePath();
+  private final Path vvmPath = Paths.get("src/main/resources/voicevox_core/models/vvms/0.vvm").toAbsolutePath();
+  private final Voicevox voicevox = new Voicevox(Path.of("src/main/resources/voicevox_core").toAbsolutePath());
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void testSentenceSplitter() {
+    List<String> sentences = SentenceSplitter.split("こんにちは。元気ですか？！\n見出し\n\n……\n" + "あ".repeat(30) + "、いいえ。", 20);
+    log.debug("分割結果: {}", sentences);
+    Truth.assertThat(sentences.subList(0, 3)).containsExactly("こんにちは。", "元気ですか？！", "見出し").inOrder();
+    Truth.assertThat(sentences.stream().allMatch(s -> s.length() <= 20)).isTrue();
+    Truth.assertThat(String.join("", sentences.subList(3, sentences.size()))).isEqualTo("あ".repeat(30) + "、いいえ。");
+    log.debug("✓ 句点・改行・最大長で分割され、記号のみの断片は除外されました");
+  }
+
+  @Test
+  void testMappedUtteranceReader() throws IOException {
+    Path input = writeInput(UTTERANCES);
+    Truth.assertThat(MappedUtteranceReader.count(input, SentenceSplitter.DEFAULT_MAX_LENGTH)).isEqualTo(UTTERANCES);
+    try (MappedUtteranceReader reader = new MappedUtteranceReader(input, SentenceSplitter.DEFAULT_MAX_LENGTH)) {
+      // 先頭のBOMは発話に含まれない
+      Truth.assertThat(reader.next()).isEqualTo("これは0番目の文です。");
+      Truth.assertThat(reader.skip(UTTERANCES)).isEqualTo(UTTERANCES - 1);
+      Truth.assertThat(reader.next()).isNull();
+    }
+    log.debug("✓ メモリマップしたファイルから発話を読み出せました");
+  }
+
+  @Test
+  void testStoredZipWriterResume() throws IOException {
+    log.debug("=== StoredZipWriter 中断と再開のテスト開始 ===");
+    Path archive = tempDir.resolve("resume.zip");
+
+    // 中央ディレクトリを書き込まずに中断し、書き込み途中のエントリを残す
+    StoredZipWriter writer = StoredZipWriter.create(archive);
+    for (int i = 0; i < 3; i++) {
+      writer.write(entryName(i), entryData(i));
+    }
+    long position = writer.position();
+    writer.write(entryName(3), entryData(3));
+    Files.write(archive, new byte[] {1, 2, 3}, StandardOpenOption.APPEND);
+
+    try (StoredZipWriter resumed = StoredZipWriter.resume(archive, 3, position, BulkRenderJobTest::entryName)) {
+      Truth.assertThat(resumed.getEntryCount()).isEqualTo(3);
+      Truth.assertThat(resumed.position()).isEqualTo(position);
+      for (int i = 3; i < 5; i++) {
+        resumed.write(entryName(i), entryData(i));
+      }
+    }
+    try (ZipFile zip = new ZipFile(archive.toFile())) {
+      Truth.assertThat(zip.size()).isEqualTo(5);
+      for (int i = 0; i < 5; i++) {
+        try (InputStream in = zip.getInputStream(zip.getEntry(entryName(i)))) {
+          Truth.assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("entry " + i);
+        }
+      }
+    }
+    log.debug("✓ 記録した位置から追記を再開し、完全なアーカイブを出力しました");
+  }
+
+  @Test
+  void testStopAndResumeNumberedWav() throws Exception {
+    log.debug("=== BulkRenderJob 停止と再開のテスト開始 ===");
+    Path input = writeInput(UTTERANCES);
+    Path output = tempDir.resolve("wav");
+
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile model = voicevox.useVoiceModelFile(vvmPath);
+        SynthesizerPool pool = voicevox.createSynthesizerPool(dictionary, 2, model)) {
+
+      AtomicReference<BulkRenderJob> jobRef = new AtomicReference<>();
+      BulkRenderJob job = new BulkRenderJob(pool, input, output, TEST_STYLE_ID, BulkRenderJob.OutputFormat.NUMBERED_WAV)
+          .setProgressInterval(Duration.ZERO)
+          .setProgressListener(progress -> {
+            log.debug("進捗: {}", progress);
+            if (progress.getCompleted() >= UTTERANCES / 2) {
+              jobRef.get().stop();
+            }
+          });
+      jobRef.set(job);
+
+      BulkRenderProgress stopped = job.run();
+      Truth.assertThat(stopped.getCompleted()).isLessThan((long) UTTERANCES);
+      log.debug("✓ {}件で停止しました", stopped.getCompleted());
+
+      job.setProgressListener(progress -> log.debug("進捗: {}", progress));
+      BulkRenderProgress resumed = job.run();
+      Truth.assertThat(resumed.getResumedFrom()).isEqualTo(stopped.getCompleted());
+      Truth.assertThat(resumed.getCompleted()).isEqualTo(UTTERANCES);
+      Truth.assertThat(resumed.getUtterancesPerSecond()).isGreaterThan(0.0);
+      try (Stream<Path> files = Files.list(output)) {
+        Truth.assertThat(files.filter(p -> p.toString().endsWith(".wav")).count()).isEqualTo(UTTERANCES);
+      }
+      Truth.assertThat(Files.size(output.resolve("000001.wav"))).isGreaterThan(44L);
+      log.debug("✓ チェックポイントから再開し、すべての発話を出力しました");
+
+      // 設定が異なるジョブはチェックポイントから再開しない
+      BulkRenderJob mismatched = new BulkRenderJob(pool, input, output, TEST_STYLE_ID + 1,
+          BulkRenderJob.OutputFormat.NUMBERED_WAV);
+      Assertions.assertThrows(IllegalStateException.class, mismatched::run);
+    }
+  }
+
+  @Test
+  void testZipArchive() throws Exception {
+    log.debug("=== BulkRenderJob ZIP出力テスト開始 ===");
+    Path input = writeInput(UTTERANCES);
+    Path archive = tempDir.resolve("out.zip");
+
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile model = voicevox.useVoiceModelFile(vvmPath);
+        SynthesizerPool pool = voicevox.createSynthesizerPool(dictionary, 2, model)) {
+
+      BulkRenderProgress progress = new BulkRenderJob(pool, input, archive, TEST_STYLE_ID, BulkRenderJob.OutputFormat.ZIP)
+          .setProgressListener(p -> log.debug("進捗: {}", p))
+          .run();
+      Truth.assertThat(progress.isFinished()).isTrue();
+
+      try (ZipFile zip = new ZipFile(archive.toFile())) {
+        Truth.assertThat(zip.size()).isEqualTo(UTTERANCES);
+        Truth.assertThat(zip.getEntry(String.format("%06d.wav", UTTERANCES))).isNotNull();
+      }
+      log.debug("✓ {}件の発話を1つのアーカイブに出力しました", UTTERANCES);
+    }
+  }
+
+  @Test
+  void testStopAndResumeZipArchive() throws Exception {
+    log.debug("=== BulkRenderJob ZIP出力の停止と再開のテスト開始 ===");
+    Path input = writeInput(UTTERANCES);
+    Path archive = tempDir.resolve("resumed.zip");
+    Path checkpoint = tempDir.resolve("resumed.zip.checkpoint");
+
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile model = voicevox.useVoiceModelFile(vvmPath);
+        SynthesizerPool pool = voicevox.createSynthesizerPool(dictionary, 2, model)) {
+
+      AtomicReference<BulkRenderJob> jobRef = new AtomicReference<>();
+      BulkRenderJob job = new BulkRenderJob(pool, input, archive, TEST_STYLE_ID, BulkRenderJob.OutputFormat.ZIP)
+          .setProgressInterval(Duration.ZERO)
+          .setProgressListener(progress -> {
+            if (progress.getCompleted() >= UTTERANCES / 2) {
+              jobRef.get().stop();
+            }
+          });
+      jobRef.set(job);
+
+      BulkRenderProgress stopped = job.run();
+      Truth.assertThat(stopped.getCompleted()).isLessThan((long) UTTERANCES);
+      Truth.assertThat(readCheckpoint(checkpoint).getProperty("finished")).isEqualTo("false");
+      try (ZipFile zip = new ZipFile(archive.toFile())) {
+        Truth.assertThat((long) zip.size()).isEqualTo(stopped.getCompleted());
+      }
+      log.debug("✓ 停止時点のアーカイブは{}件のエントリを持ち、未完了として記録されました", stopped.getCompleted());
+
+      job.setProgressListener(progress -> log.debug("進捗: {}", progress));
+      BulkRenderProgress resumed = job.run();
+      Truth.assertThat(resumed.getResumedFrom()).isEqualTo(stopped.getCompleted());
+      Truth.assertThat(resumed.getCompleted()).isEqualTo(UTTERANCES);
+      Truth.assertThat(readCheckpoint(checkpoint).getProperty("finished")).isEqualTo("true");
+      try (ZipFile zip = new ZipFile(archive.toFile())) {
+        Truth.assertThat(zip.size()).isEqualTo(UTTERANCES);
+        Truth.assertThat(zip.getEntry(String.format("%06d.wav", UTTERANCES))).isNotNull();
+      }
+      log.debug("✓ 既存のエントリに追記して再開し、完了が記録されました");
+    }
+  }
+
+  private static String entryName(long index) {
+    return String.format("%06d.wav", index + 1);
+  }
+
+  private static ByteBuffer entryData(int index) {
+    byte[] bytes = ("entry " + index).getBytes(StandardCharsets.UTF_8);
+    return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+  }
+
+  private static Properties readCheckpoint(Path checkpoint) throws IOException {
+    Properties properties = new Properties();
+    try (InputStream in = Files.newInputStream(checkpoint)) {
+      properties.load(in);
+    }
+    return properties;
+  }
+
+  private Path writeInput(int utterances) throws IOException {
+    StringBuilder text = new StringBuilder("\uFEFF");
+    for (int i = 0; i < utterances; i++) {
+      text.append("これは").append(i).append("番目の文です。");
+      if (i % 4 == 3) {
+        text.append('\n');
+      }
+    }
+    Path input = tempDir.resolve("input.txt");
+    Files.writeString(input, text);
+    return input;
+  }
+}
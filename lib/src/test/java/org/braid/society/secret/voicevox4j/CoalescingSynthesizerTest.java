@@ -0,0 +1,107 @@
+package org.braid.society.secret.voicevox4j;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.truth.Truth;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.api.CoalescingSynthesizer;
+import org.braid.society.secret.voicevox4j.api.OpenJTalkDictionary;
+import org.braid.society.secret.voicevox4j.api.SynthesizerPool;
+import org.braid.society.secret.voicevox4j.api.VoiceModelFile;
+import org.braid.society.secret.voicevox4j.exception.VoicevoxException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * CoalescingSynthesizerクラスのテストクラス。
+ */
+@Slf4j
+public class CoalescingSynthesizerTest {
+
+  private static final int TEST_STYLE_ID = 0;
+  private static final String TEST_TEXT = "こんにちは";
+
+  private final Path dictPath = Paths.get("src/main/resources/voicevox_core/dict/open_jtalk_dic_utf_8-1.11").toAbsolutePath();
+  private final Path vvmPath = Paths.get("src/main/resources/voicevox_core/models/vvms/0.vvm").toAbsolutePath();
+  private final Voicevox voicevox = new Voicevox(Path.of("src/main/resources/voicevox_core").toAbsolutePath());
+
+  @Test
+  void testIdenticalRequestsShareOneSynthesis() throws Exception {
+    log.debug("=== CoalescingSynthesizer 同一要求の集約テスト開始 ===");
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    CountDownLatch gate = new CountDownLatch(1);
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile model = voicevox.useVoiceModelFile(vvmPath);
+        SynthesizerPool pool = voicevox.createSynthesizerPool(dictionary, 1, model);
+        CoalescingSynthesizer coalescing = new CoalescingSynthesizer(pool, executor)) {
+      // 合成が始まらないようにエグゼキュータを塞ぎ、要求が確実に重なるようにする
+      executor.execute(() -> {
+        try {
+          gate.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+
+      CompletableFuture<byte[]> first = coalescing.ttsAsync(TEST_TEXT, TEST_STYLE_ID);
+      CompletableFuture<byte[]> second = coalescing.ttsAsync(TEST_TEXT, TEST_STYLE_ID);
+      CompletableFuture<byte[]> cancelled = coalescing.ttsAsync(TEST_TEXT, TEST_STYLE_ID);
+      CompletableFuture<byte[]> other = coalescing.ttsAsync("さようなら", TEST_STYLE_ID);
+      Truth.assertThat(coalescing.requestCount()).isEqualTo(4);
+      Truth.assertThat(coalescing.coalescedCount()).isEqualTo(2);
+
+      Truth.assertThat(cancelled.cancel(false)).isTrue();
+      gate.countDown();
+
+      byte[] firstWav = first.get();
+      byte[] secondWav = second.get();
+      Truth.assertThat(firstWav).isEqualTo(secondWav);
+      Truth.assertThat(firstWav).isNotSameInstanceAs(secondWav);
+      Truth.assertThat(other.get()).isNotEqualTo(firstWav);
+      log.debug("✓ 同一の要求は1回の合成にまとめられ、キャンセルした要求は他の要求に影響しませんでした");
+
+      // 完了後の要求は新しく合成される
+      Truth.assertThat(coalescing.tts(TEST_TEXT, TEST_STYLE_ID)).isEqualTo(firstWav);
+      Truth.assertThat(coalescing.coalescedCount()).isEqualTo(2);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void testFailureIsSharedByAllWaiters() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    CountDownLatch gate = new CountDownLatch(1);
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile model = voicevox.useVoiceModelFile(vvmPath);
+        SynthesizerPool pool = voicevox.createSynthesizerPool(dictionary, 1, model);
+        CoalescingSynthesizer coalescing = new CoalescingSynthesizer(pool, executor)) {
+      executor.execute(() -> {
+        try {
+          gate.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      });
+
+      CompletableFuture<byte[]> first = coalescing.synthesisAsync("{invalid json", TEST_STYLE_ID);
+      CompletableFuture<byte[]> second = coalescing.synthesisAsync("{invalid json", TEST_STYLE_ID);
+      gate.countDown();
+
+      ExecutionException firstError = assertThrows(ExecutionException.class, first::get);
+      ExecutionException secondError = assertThrows(ExecutionException.class, second::get);
+      Truth.assertThat(firstError.getCause()).isInstanceOf(VoicevoxException.class);
+      Truth.assertThat(secondError.getCause()).isSameInstanceAs(firstError.getCause());
+      assertThrows(VoicevoxException.class, () -> coalescing.synthesis("{invalid json", TEST_STYLE_ID));
+      log.debug("✓ 合成の失敗はすべての要求に伝わりました");
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package org.braid.society.secret.voicevox4j;
+
+import com.google.common.truth.Truth;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.api.OnnxRuntime;
+import org.braid.society.secret.voicevox4j.api.OpenJTalkDictionary;
+import org.braid.society.secret.voicevox4j.api.Synthesizer;
+import org.braid.society.secret.voicevox4j.api.VoiceModelFile;
+import org.braid.society.secret.voicevox4j.exception.VoicevoxException;
+import org.braid.society.secret.voicevox4j.internal.Core;
+import org.braid.society.secret.voicevox4j.internal.CoreBinding;
+import org.braid.society.secret.voicevox4j.internal.DirectCore;
+import org.braid.society.secret.voicevox4j.internal.NativeVoicevoxLibrary;
+import org.braid.society.secret.voicevox4j.internal.structs.VoicevoxTtsOptions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * ダイレクトマッピングとインターフェースプロキシの2つのバインディングの呼び出しコストを比較するベンチマークです。
+ * <p>
+ * 計測結果はログ（DEBUGレベル）に出力されます。
+ */
+@Slf4j
+public class CoreBindingBenchmarkTest {
+
+  private static final int WARMUP_ITERATIONS = 20_000;
+  private static final int MEASURE_ITERATIONS = 200_000;
+  private static final int TTS_ITERATIONS = 20;
+
+  private static final Core direct = NativeVoicevoxLibrary.load(Path.of(""), CoreBinding.DIRECT);
+  private static final Core proxy = NativeVoicevoxLibrary.load(Path.of(""), CoreBinding.PROXY);
+
+  @Test
+  void testBindingsAreDistinct() {
+    Truth.assertThat(direct).isInstanceOf(DirectCore.class);
+    Truth.assertThat(proxy).isNotInstanceOf(DirectCore.class);
+    Truth.assertThat(direct.voicevox_get_version()).isEqualTo(proxy.voicevox_get_version());
+    Truth.assertThat(direct.voicevox_make_default_tts_options().isEnableInterrogativeUpspeak())
+        .isEqualTo(proxy.voicevox_make_default_tts_options().isEnableInterrogativeUpspeak());
+  }
+
+  @Test
+  void benchmarkLightweightCalls() {
+    log.debug("=== バインディング比較: 軽量関数 ===");
+    for (Core core : new Core[] {direct, proxy}) {
+      measure(core, WARMUP_ITERATIONS);
+      long elapsed = measure(core, MEASURE_ITERATIONS);
+      log.debug("{}: voicevox_make_default_tts_options = {} ns/op",
+          core.getClass().getSimpleName(), elapsed / MEASURE_ITERATIONS);
+    }
+  }
+
+  @Test
+  void benchmarkShortUtterance() throws VoicevoxException {
+    Path dictPath = Paths.get("src/main/resources/voicevox_core/dict/open_jtalk_dic_utf_8-1.11").toAbsolutePath();
+    Path vvmPath = Paths.get("src/main/resources/voicevox_core/models/vvms/0.vvm").toAbsolutePath();
+
+    log.debug("=== バインディング比較: 短い発話のTTS ===");
+    for (Core core : new Core[] {direct, proxy}) {
+      try (OpenJTalkDictionary dictionary = new OpenJTalkDictionary(dictPath, core);
+          VoiceModelFile model = new VoiceModelFile(vvmPath, core);
+          Synthesizer synthesizer = new Synthesizer(new OnnxRuntime(core).getNativeOnnxruntime(), dictionary, core)) {
+        synthesizer.loadVoiceModel(model);
+
+        // ウォームアップ
+        synthesizer.tts("あ", 0);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < TTS_ITERATIONS; i++) {
+          Truth.assertThat(synthesizer.tts("あ", 0)).isNotEmpty();
+        }
+        long elapsed = System.nanoTime() - start;
+        log.debug("{}: tts(\"あ\") = {} us/op", core.getClass().getSimpleName(), elapsed / TTS_ITERATIONS / 1_000);
+      }
+    }
+  }
+
+  private static long measure(Core core, int iterations) {
+    boolean sink = false;
+    long start = System.nanoTime();
+    for (int i = 0; i < iterations; i++) {
+      VoicevoxTtsOptions.ByValue options = core.voicevox_make_default_tts_options();
+      sink ^= options.isEnableInterrogativeUpspeak();
+    }
+    long elapsed = System.nanoTime() - start;
+    log.trace("sink: {}", sink);
+    return elapsed;
+  }
+}
@@ -0,0 +1,71 @@
+package org.braid.society.secret.voicevox4j;
+
+import com.google.common.truth.Truth;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.api.LongTextSynthesizer;
+import org.braid.society.secret.voicevox4j.api.OpenJTalkDictionary;
+import org.braid.society.secret.voicevox4j.api.SynthesizerPool;
+import org.braid.society.secret.voicevox4j.api.VoiceModelFile;
+import org.junit.jupiter.api.Test;
+
+/**
+ * LongTextSynthesizerクラスのテストクラス。
+ */
+@Slf4j
+public class LongTextSynthesizerTest {
+
+  private static final int TEST_STYLE_ID = 0;
+  private static final int WAV_HEADER_SIZE = 44;
+  private static final String[] SENTENCES = {"こんにちは。", "今日はいい天気ですね！", "散歩に行きませんか？"};
+
+  private final Path dictPath = Paths.get("src/main/resources/voicevox_core/dict/open_jtalk_dic_utf_8-1.11").toAbsolutePath();
+  private final Path vvmPath = Paths.get("src/main/resources/voicevox_core/models/vvms/0.vvm").toAbsolutePath();
+  private final Voicevox voicevox = new Voicevox(Path.of("src/main/resources/voicevox_core").toAbsolutePath());
+
+  @Test
+  void testStitchedInOrderWithPauses() throws Exception {
+    log.debug("=== LongTextSynthesizer 文ごとの並列合成のテスト開始 ===");
+    Duration pause = Duration.ofMillis(250);
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile model = voicevox.useVoiceModelFile(vvmPath);
+        SynthesizerPool pool = voicevox.createSynthesizerPool(dictionary, 2, model);
+        LongTextSynthesizer longText = new LongTextSynthesizer(pool).setSentencePause(pause)) {
+
+      byte[] wav = longText.tts(String.join("", SENTENCES[0], SENTENCES[1]) + "\n" + SENTENCES[2], TEST_STYLE_ID);
+      ByteBuffer header = ByteBuffer.wrap(wav).order(ByteOrder.LITTLE_ENDIAN);
+      Truth.assertThat(new String(wav, 0, 4, StandardCharsets.US_ASCII)).isEqualTo("RIFF");
+      Truth.assertThat(header.getInt(4)).isEqualTo(wav.length - 8);
+      Truth.assertThat(new String(wav, 36, 4, StandardCharsets.US_ASCII)).isEqualTo("data");
+      Truth.assertThat(header.getInt(40)).isEqualTo(wav.length - WAV_HEADER_SIZE);
+      log.debug("✓ 連結結果が有効なWAVヘッダーを持っています: {} bytes", wav.length);
+
+      int blockAlign = header.getShort(32);
+      int pauseBytes = (int) (pause.toMillis() * header.getInt(24) / 1000) * blockAlign;
+      int expectedData = pauseBytes * (SENTENCES.length - 1);
+      for (String sentence : SENTENCES) {
+        byte[] single = pool.withSynthesizer(synthesizer -> synthesizer.tts(sentence, TEST_STYLE_ID));
+        expectedData += single.length - WAV_HEADER_SIZE;
+      }
+      Truth.assertThat(header.getInt(40)).isEqualTo(expectedData);
+      log.debug("✓ 各文の音声と無音が連結されました");
+    }
+  }
+
+  @Test
+  void testSingleSentence() throws Exception {
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile model = voicevox.useVoiceModelFile(vvmPath);
+        SynthesizerPool pool = voicevox.createSynthesizerPool(dictionary, 2, model);
+        LongTextSynthesizer longText = new LongTextSynthesizer(pool)) {
+      byte[] wav = longText.tts(SENTENCES[0], TEST_STYLE_ID);
+      Truth.assertThat(wav).isEqualTo(pool.withSynthesizer(synthesizer -> synthesizer.tts(SENTENCES[0], TEST_STYLE_ID)));
+      log.debug("✓ 1文のテキストはそのまま合成されました");
+    }
+  }
+}
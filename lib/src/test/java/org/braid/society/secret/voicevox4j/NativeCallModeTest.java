@@ -0,0 +1,80 @@
+package org.braid.society.secret.voicevox4j;
+
+import com.google.common.truth.Truth;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.api.NativeCallMode;
+import org.braid.society.secret.voicevox4j.api.OpenJTalkDictionary;
+import org.braid.society.secret.voicevox4j.api.SynthesizerPool;
+import org.braid.society.secret.voicevox4j.api.VoiceModelFile;
+import org.braid.society.secret.voicevox4j.internal.NativeLane;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * {@link NativeCallMode#OFFLOAD_VIRTUAL_THREADS}のテストクラス。
+ * <p>
+ * 仮想スレッドを使用するテストは、JDK 21以降で実行された場合のみ実行されます。
+ */
+@Slf4j
+public class NativeCallModeTest {
+
+  private static final int TEST_STYLE_ID = 0;
+  private static final int POOL_SIZE = 2;
+  private static final int REQUESTS = 64;
+
+  private final Path dictPath = Paths.get("src/main/resources/voicevox_core/dict/open_jtalk_dic_utf_8-1.11").toAbsolutePath();
+  private final Path vvmPath = Paths.get("src/main/resources/voicevox_core/models/vvms/0.vvm").toAbsolutePath();
+
+  @Test
+  void testPlatformThreadIsNotVirtual() {
+    Truth.assertThat(NativeLane.isVirtualThread()).isFalse();
+    log.debug("✓ プラットフォームスレッドは仮想スレッドとして判定されませんでした");
+  }
+
+  @Test
+  void testManyVirtualThreadsShareFewSynthesizers() throws Exception {
+    ExecutorService virtualThreads = newVirtualThreadPerTaskExecutor();
+    Assumptions.assumeTrue(virtualThreads != null, "仮想スレッドはJDK 21以降でのみ使用できます");
+
+    log.debug("=== 仮想スレッドからのオフロードテスト開始 ===");
+    Voicevox voicevox = new Voicevox(Path.of("src/main/resources/voicevox_core").toAbsolutePath(),
+        NativeCallMode.OFFLOAD_VIRTUAL_THREADS, POOL_SIZE);
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile model = voicevox.useVoiceModelFile(vvmPath);
+        SynthesizerPool pool = voicevox.createSynthesizerPool(dictionary, POOL_SIZE, model)) {
+
+      List<Future<byte[]>> futures = new ArrayList<>();
+      for (int i = 0; i < REQUESTS; i++) {
+        futures.add(virtualThreads.submit(() -> {
+          Truth.assertThat(NativeLane.isVirtualThread()).isTrue();
+          return pool.withSynthesizer(s -> s.tts("こんにちは", TEST_STYLE_ID));
+        }));
+      }
+      for (Future<byte[]> future : futures) {
+        Truth.assertThat(future.get(120, TimeUnit.SECONDS)).isNotEmpty();
+      }
+      log.debug("✓ {}個の仮想スレッドが{}個の合成器を共有してTTSを完了しました", REQUESTS, POOL_SIZE);
+    } finally {
+      virtualThreads.shutdownNow();
+    }
+  }
+
+  /**
+   * テストはJava 17向けにコンパイルされるため、仮想スレッドのエグゼキュータはリフレクションで作成します。
+   */
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return null;
+    }
+  }
+}
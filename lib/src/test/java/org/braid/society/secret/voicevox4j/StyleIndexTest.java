@@ -0,0 +1,91 @@
+package org.braid.society.secret.voicevox4j;
+
+import com.google.common.truth.Truth;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.api.OpenJTalkDictionary;
+import org.braid.society.secret.voicevox4j.api.Speaker;
+import org.braid.society.secret.voicevox4j.api.Style;
+import org.braid.society.secret.voicevox4j.api.StyleIndex;
+import org.braid.society.secret.voicevox4j.api.Synthesizer;
+import org.braid.society.secret.voicevox4j.api.VoiceModelFile;
+import org.junit.jupiter.api.Test;
+
+/**
+ * StyleIndexクラスと、話者のメタデータの解析のテストクラス。
+ */
+@Slf4j
+public class StyleIndexTest {
+
+  private static final String METAS_JSON = """
+      [{"name":"四国めたん","styles":[{"name":"ノーマル","id":2,"type":"talk","order":0},
+      {"name":"あまあま","id":0,"type":"talk","order":1}],"version":"0.15.0",
+      "speaker_uuid":"7ffcb7ce-00ec-4bdc-82cd-45a8889e43ff","order":0},
+      {"name":"ずんだもん","styles":[{"name":"ノーマル","id":3}],"version":"0.15.0",
+      "speaker_uuid":"388f246b-8c41-4ac1-8e2d-5d79f3ff56d9"}]""";
+
+  private static final byte[] FIRST_MODEL = new byte[16];
+  private static final byte[] SECOND_MODEL = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16};
+
+  private final Path dictPath = Paths.get("src/main/resources/voicevox_core/dict/open_jtalk_dic_utf_8-1.11").toAbsolutePath();
+  private final Path vvmPath = Paths.get("src/main/resources/voicevox_core/models/vvms/0.vvm").toAbsolutePath();
+  private final Voicevox voicevox = new Voicevox(Path.of("src/main/resources/voicevox_core").toAbsolutePath());
+
+  @Test
+  void testLookupsAndIncrementalUpdates() {
+    log.debug("=== StyleIndex 検索と更新のテスト開始 ===");
+    List<Speaker> speakers = Speaker.listFromJson(METAS_JSON);
+    Truth.assertThat(speakers).hasSize(2);
+    Truth.assertThat(speakers.get(0).getStyles()).containsExactly(
+        new Style(2, "ノーマル", "talk", 0), new Style(0, "あまあま", "talk", 1)).inOrder();
+    Truth.assertThat(speakers.get(1).getStyles().get(0).getType()).isEqualTo("talk");
+    Truth.assertThat(speakers.get(1).getOrder()).isNull();
+
+    StyleIndex index = new StyleIndex();
+    index.add(FIRST_MODEL, speakers.subList(0, 1));
+    index.add(SECOND_MODEL, speakers.subList(1, 2));
+    Truth.assertThat(index.size()).isEqualTo(3);
+    Truth.assertThat(index.getModelId(0)).isEqualTo(FIRST_MODEL);
+    Truth.assertThat(index.getModelId(3)).isEqualTo(SECOND_MODEL);
+    Truth.assertThat(index.getSpeaker(0).getName()).isEqualTo("四国めたん");
+    Truth.assertThat(index.getStyle(0).getName()).isEqualTo("あまあま");
+    Truth.assertThat(index.getStyleIds("四国めたん")).containsExactly(2, 0).inOrder();
+    Truth.assertThat(index.getStyleIds("春日部つむぎ")).isEmpty();
+    log.debug("✓ スタイルID、話者名からの検索が正常に動作しました");
+
+    Truth.assertThat(index.remove(FIRST_MODEL)).isTrue();
+    Truth.assertThat(index.remove(FIRST_MODEL)).isFalse();
+    Truth.assertThat(index.contains(0)).isFalse();
+    Truth.assertThat(index.getModelId(0)).isNull();
+    Truth.assertThat(index.getStyleIds("ずんだもん")).containsExactly(3);
+    Truth.assertThat(index.getSpeakers()).containsExactly(speakers.get(1));
+    log.debug("✓ 音声モデルの削除が索引に反映されました");
+  }
+
+  @Test
+  void testSynthesizerIndexFollowsLoadedModels() throws Exception {
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile model = voicevox.useVoiceModelFile(vvmPath);
+        Synthesizer synthesizer = voicevox.createSynthesizer(dictionary)) {
+      StyleIndex index = synthesizer.getStyleIndex();
+      Truth.assertThat(index.size()).isEqualTo(0);
+
+      synthesizer.loadVoiceModel(model);
+      List<Speaker> speakers = model.getSpeakers();
+      Truth.assertThat(speakers).isEqualTo(Speaker.listFromJson(model.getMetasJson()));
+      Truth.assertThat(index.getSpeakers()).isEqualTo(speakers);
+      for (Speaker speaker : speakers) {
+        for (Style style : speaker.getStyles()) {
+          Truth.assertThat(index.getModelId(style.getId())).isEqualTo(model.getModelId());
+          Truth.assertThat(index.getSpeaker(style.getId())).isEqualTo(speaker);
+        }
+      }
+      log.debug("✓ 音声モデルの読み込みで索引が更新されました: {}", speakers);
+
+      synthesizer.unloadVoiceModel(model.getModelId());
+      Truth.assertThat(index.size()).isEqualTo(0);
+    }
+  }
+}
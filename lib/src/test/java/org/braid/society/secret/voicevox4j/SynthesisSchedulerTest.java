@@ -0,0 +1,108 @@
+package org.braid.society.secret.voicevox4j;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.truth.Truth;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.api.OpenJTalkDictionary;
+import org.braid.society.secret.voicevox4j.api.SynthesisScheduler;
+import org.braid.society.secret.voicevox4j.api.SynthesisScheduler.Priority;
+import org.braid.society.secret.voicevox4j.api.SynthesizerPool;
+import org.braid.society.secret.voicevox4j.api.VoiceModelFile;
+import org.junit.jupiter.api.Test;
+
+/**
+ * SynthesisSchedulerクラスのテストクラス。
+ */
+@Slf4j
+public class SynthesisSchedulerTest {
+
+  private static final int TEST_STYLE_ID = 0;
+
+  private final Path dictPath = Paths.get("src/main/resources/voicevox_core/dict/open_jtalk_dic_utf_8-1.11").toAbsolutePath();
+  private final Path vvmPath = Paths.get("src/main/resources/voicevox_core/models/vvms/0.vvm").toAbsolutePath();
+  private final Voicevox voicevox = new Voicevox(Path.of("src/main/resources/voicevox_core").toAbsolutePath());
+
+  @Test
+  void testPriorityAndShortestJobOrder() throws Exception {
+    log.debug("=== SynthesisScheduler 実行順のテスト開始 ===");
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile model = voicevox.useVoiceModelFile(vvmPath);
+        SynthesizerPool pool = voicevox.createSynthesizerPool(dictionary, 1, model);
+        SynthesisScheduler scheduler = new SynthesisScheduler(pool)) {
+      // 合成器を塞いでおき、以降の処理がキューで順番を待つようにする
+      CountDownLatch started = new CountDownLatch(1);
+      CountDownLatch gate = new CountDownLatch(1);
+      CompletableFuture<Void> blocker = scheduler.submit(Priority.NORMAL, 1, synthesizer -> {
+        started.countDown();
+        awaitQuietly(gate);
+        return null;
+      });
+      started.await();
+
+      List<String> order = Collections.synchronizedList(new ArrayList<>());
+      List<CompletableFuture<?>> futures = new ArrayList<>();
+      futures.add(scheduler.submit(Priority.BACKGROUND, 100, synthesizer -> order.add("background-long")));
+      futures.add(scheduler.submit(Priority.BACKGROUND, 10, synthesizer -> order.add("background-short")));
+      CompletableFuture<Boolean> cancelled = scheduler.submit(Priority.NORMAL, 1, synthesizer -> order.add("cancelled"));
+      futures.add(scheduler.ttsAsync("こんにちは", TEST_STYLE_ID, Priority.INTERACTIVE)
+          .thenApply(wav -> order.add("interactive")));
+      Truth.assertThat(cancelled.cancel(false)).isTrue();
+      Truth.assertThat(scheduler.queued()).isEqualTo(3);
+
+      gate.countDown();
+      blocker.get();
+      CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get();
+      Truth.assertThat(order).containsExactly("interactive", "background-short", "background-long").inOrder();
+      log.debug("✓ 優先度、処理量の順に実行され、キャンセルした処理は実行されませんでした: {}", order);
+    }
+  }
+
+  @Test
+  void testExpiredRequestIsDropped() throws Exception {
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile model = voicevox.useVoiceModelFile(vvmPath);
+        SynthesizerPool pool = voicevox.createSynthesizerPool(dictionary, 1, model);
+        SynthesisScheduler scheduler = new SynthesisScheduler(pool)) {
+      // 合成器を塞いでおき、以降の処理がキューで順番を待つようにする
+      CountDownLatch started = new CountDownLatch(1);
+      CountDownLatch gate = new CountDownLatch(1);
+      CompletableFuture<Void> blocker = scheduler.submit(Priority.NORMAL, 1, synthesizer -> {
+        started.countDown();
+        awaitQuietly(gate);
+        return null;
+      });
+      started.await();
+
+      CompletableFuture<byte[]> expired = scheduler.ttsAsync("こんにちは", TEST_STYLE_ID, Priority.INTERACTIVE, Duration.ZERO);
+      CompletableFuture<byte[]> timely = scheduler.ttsAsync("こんにちは", TEST_STYLE_ID, Priority.INTERACTIVE,
+          Duration.ofMinutes(1));
+      gate.countDown();
+      blocker.get();
+
+      ExecutionException error = assertThrows(ExecutionException.class, expired::get);
+      Truth.assertThat(error.getCause()).isInstanceOf(TimeoutException.class);
+      Truth.assertThat(timely.get()).isNotEmpty();
+      Truth.assertThat(scheduler.expiredCount()).isEqualTo(1);
+      log.debug("✓ 期限を過ぎた処理は合成されずに破棄されました");
+    }
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,182 @@
+package org.braid.society.secret.voicevox4j;
+
+import com.google.common.truth.Truth;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.api.AdaptiveConcurrencyLimiter;
+import org.braid.society.secret.voicevox4j.api.OpenJTalkDictionary;
+import org.braid.society.secret.voicevox4j.api.Synthesizer;
+import org.braid.society.secret.voicevox4j.api.SynthesizerPool;
+import org.braid.society.secret.voicevox4j.api.VoiceModelFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * SynthesizerPoolクラスのテストクラス。
+ */
+@Slf4j
+public class SynthesizerPoolTest {
+
+  private static final int TEST_STYLE_ID = 0;
+  private static final int POOL_SIZE = 2;
+
+  private final Path dictPath = Paths.get("src/main/resources/voicevox_core/dict/open_jtalk_dic_utf_8-1.11").toAbsolutePath();
+  private final Path vvmPath = Paths.get("src/main/resources/voicevox_core/models/vvms/0.vvm").toAbsolutePath();
+  private final Voicevox voicevox = new Voicevox(Path.of("src/main/resources/voicevox_core").toAbsolutePath());
+
+  @Test
+  void testBorrowAndRelease() throws Exception {
+    log.debug("=== SynthesizerPool 貸し出しテスト開始 ===");
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile model = voicevox.useVoiceModelFile(vvmPath);
+        SynthesizerPool pool = voicevox.createSynthesizerPool(dictionary, POOL_SIZE, 1, model)) {
+
+      Truth.assertThat(pool.size()).isEqualTo(POOL_SIZE);
+      Truth.assertThat(pool.available()).isEqualTo(POOL_SIZE);
+
+      Synthesizer first = pool.borrow();
+      Synthesizer second = pool.borrow();
+      Truth.assertThat(first).isNotSameInstanceAs(second);
+      Truth.assertThat(first.isLoadedVoiceModel(model.getModelId())).isTrue();
+      Truth.assertThat(second.isLoadedVoiceModel(model.getModelId())).isTrue();
+      Truth.assertThat(pool.available()).isEqualTo(0);
+      log.debug("✓ すべての合成器に音声モデルが読み込まれています");
+
+      // 空きがない場合はタイムアウトする
+      Truth.assertThat(pool.borrow(10, TimeUnit.MILLISECONDS)).isNull();
+      log.debug("✓ 空きがない場合の待機がタイムアウトしました");
+
+      pool.release(first);
+      pool.release(second);
+      Truth.assertThat(pool.available()).isEqualTo(POOL_SIZE);
+      Assertions.assertThrows(IllegalArgumentException.class, () -> pool.release(first));
+      log.debug("✓ 返却と二重返却の検出が正常に動作しました");
+    }
+  }
+
+  @Test
+  void testConcurrentTts() throws Exception {
+    log.debug("=== SynthesizerPool 並行TTSテスト開始 ===");
+    ExecutorService executor = Executors.newFixedThreadPool(POOL_SIZE * 2);
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile model = voicevox.useVoiceModelFile(vvmPath);
+        SynthesizerPool pool = voicevox.createSynthesizerPool(dictionary, POOL_SIZE, model)) {
+
+      List<Future<byte[]>> futures = new ArrayList<>();
+      for (int i = 0; i < POOL_SIZE * 4; i++) {
+        futures.add(executor.submit(() -> pool.withSynthesizer(s -> s.tts("こんにちは", TEST_STYLE_ID))));
+      }
+      for (Future<byte[]> future : futures) {
+        Truth.assertThat(future.get(60, TimeUnit.SECONDS)).isNotEmpty();
+      }
+      Truth.assertThat(pool.available()).isEqualTo(POOL_SIZE);
+      log.debug("✓ {}件のTTSがプール経由で完了しました", futures.size());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void testConcurrencyLimiter() throws Exception {
+    log.debug("=== SynthesizerPool 同時実行数リミッターのテスト開始 ===");
+    ExecutorService executor = Executors.newFixedThreadPool(POOL_SIZE * 2);
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile model = voicevox.useVoiceModelFile(vvmPath);
+        SynthesizerPool pool = voicevox.createSynthesizerPool(dictionary, POOL_SIZE, 1, model)) {
+      AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+      pool.setConcurrencyLimiter(limiter);
+
+      // 上限が1のため、空いている合成器があっても2つ目は借りられない
+      Synthesizer first = pool.borrow();
+      Truth.assertThat(pool.available()).isEqualTo(POOL_SIZE - 1);
+      Truth.assertThat(pool.borrow(10, TimeUnit.MILLISECONDS)).isNull();
+      pool.release(first);
+
+      AtomicInteger running = new AtomicInteger();
+      AtomicInteger maxRunning = new AtomicInteger();
+      List<Future<byte[]>> futures = new ArrayList<>();
+      for (int i = 0; i < POOL_SIZE * 4; i++) {
+        futures.add(executor.submit(() -> pool.withSynthesizer(s -> {
+          maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+          try {
+            return s.tts("こんにちは", TEST_STYLE_ID);
+          } finally {
+            running.decrementAndGet();
+          }
+        })));
+      }
+      for (Future<byte[]> future : futures) {
+        Truth.assertThat(future.get(60, TimeUnit.SECONDS)).isNotEmpty();
+      }
+      Truth.assertThat(maxRunning.get()).isEqualTo(1);
+      Truth.assertThat(limiter.getInFlight()).isEqualTo(0);
+      // 合成せずに返却した最初の貸し出しは、処理量を見積もれないため計測されない
+      Truth.assertThat(limiter.getSampleCount()).isEqualTo(futures.size());
+      Truth.assertThat(limiter.getShortLatency()).isGreaterThan(Duration.ZERO);
+      log.debug("✓ 同時実行数が上限に制限されました: {}", limiter);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void testWarmup() throws Exception {
+    log.debug("=== SynthesizerPool ウォームアップテスト開始 ===");
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile model = voicevox.useVoiceModelFile(vvmPath);
+        SynthesizerPool pool = voicevox.createSynthesizerPool(dictionary, POOL_SIZE, 1, model)) {
+
+      Truth.assertThat(pool.isReady()).isFalse();
+      ExecutorService executor = Executors.newFixedThreadPool(POOL_SIZE);
+      try {
+        pool.warmup(List.of("テスト"), executor);
+      } finally {
+        executor.shutdownNow();
+      }
+      Truth.assertThat(pool.isReady()).isTrue();
+      Synthesizer synthesizer = pool.borrow();
+      try {
+        Truth.assertThat(synthesizer.isWarm(TEST_STYLE_ID)).isTrue();
+        synthesizer.unloadVoiceModel(model.getModelId());
+        Truth.assertThat(synthesizer.isWarm(TEST_STYLE_ID)).isFalse();
+        // 読み上げ用のスタイルがない合成器は準備ができていない
+        Truth.assertThat(synthesizer.isReady()).isFalse();
+        synthesizer.loadVoiceModel(model);
+        Truth.assertThat(synthesizer.isReady()).isFalse();
+        Truth.assertThat(pool.isReady()).isFalse();
+        synthesizer.warmup(List.of("テスト"));
+        Truth.assertThat(synthesizer.isReady()).isTrue();
+      } finally {
+        pool.release(synthesizer);
+      }
+      log.debug("✓ すべての合成器がウォームアップされ、音声モデルの読み込みと解放で準備状態が戻りました");
+    }
+  }
+
+  @Test
+  void testClosedPool() throws Exception {
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath)) {
+      SynthesizerPool pool = voicevox.createSynthesizerPool(dictionary, 1);
+      Synthesizer borrowed = pool.borrow();
+      pool.close();
+      pool.close(); // 複数回のクローズは安全
+
+      Truth.assertThat(pool.isClosed()).isTrue();
+      Assertions.assertThrows(IllegalStateException.class, pool::borrow);
+
+      // 貸し出し中の合成器は返却時にクローズされる
+      pool.release(borrowed);
+      Assertions.assertThrows(IllegalStateException.class, borrowed::isGpuMode);
+      log.debug("✓ クローズ後の操作が正しく拒否されました");
+    }
+  }
+}
@@ -1,14 +1,32 @@
 package org.braid.society.secret.voicevox4j;
 
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
 import com.google.common.truth.Truth;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.api.NativeText;
 import org.braid.society.secret.voicevox4j.api.OpenJTalkDictionary;
 import org.braid.society.secret.voicevox4j.api.Synthesizer;
 import org.braid.society.secret.voicevox4j.api.UserDict;
 import org.braid.society.secret.voicevox4j.api.VoiceModelFile;
+import org.braid.society.secret.voicevox4j.api.WavBuffer;
 import org.braid.society.secret.voicevox4j.exception.VoicevoxException;
 import org.junit.jupiter.api.Test;
 
@@ -50,6 +68,7 @@ import org.junit.jupiter.api.Test;
 public class SynthesizerTest {
 
   private static final int TEST_STYLE_ID = 0;
+  private static final int THREADS = 4;
   private static final String[] TEST_TEXTS = {
       "こんにちは", "おはよう", "ありがとう", "さようなら"
   };
@@ -107,4 +126,228 @@ public class SynthesizerTest {
     } // ここで自動的にclose()が呼ばれる
     log.debug("✓ try-with-resourcesブロック終了 - 自動クローズ完了");
   }
+
+  @Test
+  void testTtsToBuffer() throws VoicevoxException {
+    Path dictPath = Paths.get("src/main/resources/voicevox_core/dict/open_jtalk_dic_utf_8-1.11").toAbsolutePath();
+    Path vvmPath = Paths.get("src/main/resources/voicevox_core/models/vvms/0.vvm").toAbsolutePath();
+    Voicevox voicevox = new Voicevox(Path.of("src/main/resources/voicevox_core").toAbsolutePath());
+
+    log.debug("=== WavBuffer テスト開始 ===");
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile modelFile = voicevox.useVoiceModelFile(vvmPath);
+        Synthesizer synthesizer = voicevox.createSynthesizer(dictionary)) {
+      synthesizer.loadVoiceModel(modelFile);
+
+      byte[] expected = synthesizer.tts(TEST_TEXTS[0], TEST_STYLE_ID);
+      WavBuffer wav = synthesizer.ttsToBuffer(TEST_TEXTS[0], TEST_STYLE_ID);
+      try (wav) {
+        Truth.assertThat(wav.size()).isEqualTo(expected.length);
+        Truth.assertThat(wav.asByteBuffer().isDirect()).isTrue();
+        Truth.assertThat(wav.asByteBuffer().isReadOnly()).isTrue();
+        Truth.assertThat(wav.toByteArray()).isEqualTo(expected);
+        log.debug("✓ WavBuffer取得成功 ({} バイト)", wav.size());
+      }
+      Truth.assertThat(wav.isClosed()).isTrue();
+      wav.close();
+      log.debug("✓ 複数回のclose()呼び出しが安全であることを確認");
+    }
+  }
+
+  @Test
+  void testWavBufferViewOutlivesOwner() throws VoicevoxException {
+    Path dictPath = Paths.get("src/main/resources/voicevox_core/dict/open_jtalk_dic_utf_8-1.11").toAbsolutePath();
+    Path vvmPath = Paths.get("src/main/resources/voicevox_core/models/vvms/0.vvm").toAbsolutePath();
+    Voicevox voicevox = new Voicevox(Path.of("src/main/resources/voicevox_core").toAbsolutePath());
+
+    log.debug("=== WavBuffer ビューの寿命テスト開始 ===");
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile modelFile = voicevox.useVoiceModelFile(vvmPath);
+        Synthesizer synthesizer = voicevox.createSynthesizer(dictionary)) {
+      synthesizer.loadVoiceModel(modelFile);
+
+      byte[] expected = synthesizer.tts(TEST_TEXTS[0], TEST_STYLE_ID);
+      WavBuffer owner = synthesizer.ttsToBuffer(TEST_TEXTS[0], TEST_STYLE_ID);
+      ByteBuffer view = owner.asByteBuffer();
+      // 所有者への参照を手放し、ビューだけを保持する
+      owner = null;
+      byte[] actual = new byte[view.remaining()];
+      view.get(actual);
+      Truth.assertThat(actual).isEqualTo(expected);
+      log.debug("✓ 所有者への参照を手放した後もビューからWAVデータを読み取れました");
+    }
+  }
+
+  @Test
+  void testWavBufferCloseDuringWriteTo() throws Exception {
+    Path dictPath = Paths.get("src/main/resources/voicevox_core/dict/open_jtalk_dic_utf_8-1.11").toAbsolutePath();
+    Path vvmPath = Paths.get("src/main/resources/voicevox_core/models/vvms/0.vvm").toAbsolutePath();
+    Voicevox voicevox = new Voicevox(Path.of("src/main/resources/voicevox_core").toAbsolutePath());
+
+    log.debug("=== WavBuffer 書き込み中のクローズテスト開始 ===");
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile modelFile = voicevox.useVoiceModelFile(vvmPath);
+        Synthesizer synthesizer = voicevox.createSynthesizer(dictionary)) {
+      synthesizer.loadVoiceModel(modelFile);
+
+      byte[] expected = synthesizer.tts(TEST_TEXTS[1], TEST_STYLE_ID);
+      WavBuffer wav = synthesizer.ttsToBuffer(TEST_TEXTS[1], TEST_STYLE_ID);
+      CountDownLatch writing = new CountDownLatch(1);
+      CountDownLatch proceed = new CountDownLatch(1);
+      ByteArrayOutputStream written = new ByteArrayOutputStream();
+      // 最初の書き込みでブロックし、再開後にネイティブメモリから読み取るチャネル
+      WritableByteChannel channel = new WritableByteChannel() {
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+          writing.countDown();
+          try {
+            proceed.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+          }
+          byte[] bytes = new byte[src.remaining()];
+          src.get(bytes);
+          written.write(bytes, 0, bytes.length);
+          return bytes.length;
+        }
+
+        @Override
+        public boolean isOpen() {
+          return true;
+        }
+
+        @Override
+        public void close() {
+        }
+      };
+
+      ExecutorService executor = Executors.newSingleThreadExecutor();
+      try {
+        Future<Integer> writeTo = executor.submit(() -> wav.writeTo(channel));
+        Truth.assertThat(writing.await(60, TimeUnit.SECONDS)).isTrue();
+        wav.close();
+        Truth.assertThat(wav.isClosed()).isTrue();
+        assertThrows(IllegalStateException.class, wav::toByteArray);
+        log.debug("✓ 書き込み中にクローズでき、新しい読み取りは拒否されました");
+
+        proceed.countDown();
+        Truth.assertThat(writeTo.get(60, TimeUnit.SECONDS)).isEqualTo(expected.length);
+        Truth.assertThat(written.toByteArray()).isEqualTo(expected);
+        log.debug("✓ 解放は書き込みの完了まで遅延され、WAVデータ全体が書き込まれました");
+      } finally {
+        proceed.countDown();
+        executor.shutdownNow();
+      }
+    }
+  }
+
+  @Test
+  void testTtsToChannel() throws VoicevoxException, IOException {
+    Path dictPath = Paths.get("src/main/resources/voicevox_core/dict/open_jtalk_dic_utf_8-1.11").toAbsolutePath();
+    Path vvmPath = Paths.get("src/main/resources/voicevox_core/models/vvms/0.vvm").toAbsolutePath();
+    Voicevox voicevox = new Voicevox(Path.of("src/main/resources/voicevox_core").toAbsolutePath());
+
+    log.debug("=== チャネル出力テスト開始 ===");
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile modelFile = voicevox.useVoiceModelFile(vvmPath);
+        Synthesizer synthesizer = voicevox.createSynthesizer(dictionary)) {
+      synthesizer.loadVoiceModel(modelFile);
+
+      byte[] expected = synthesizer.tts(TEST_TEXTS[1], TEST_STYLE_ID);
+      Path output = Files.createTempFile("voicevox4j", ".wav");
+      try (FileChannel channel = FileChannel.open(output, StandardOpenOption.WRITE)) {
+        int written = synthesizer.tts(TEST_TEXTS[1], TEST_STYLE_ID, channel);
+        Truth.assertThat(written).isEqualTo(expected.length);
+      }
+      Truth.assertThat(Files.readAllBytes(output)).isEqualTo(expected);
+      log.debug("✓ FileChannelへの書き込み成功: {}", output);
+
+      ByteArrayOutputStream stream = new ByteArrayOutputStream();
+      synthesizer.ttsFromKana(TEST_KANA[1], TEST_STYLE_ID, stream);
+      Truth.assertThat(stream.toByteArray()).isEqualTo(synthesizer.ttsFromKana(TEST_KANA[1], TEST_STYLE_ID));
+      log.debug("✓ OutputStreamへの書き込み成功 ({} バイト)", stream.size());
+
+      Files.deleteIfExists(output);
+    }
+  }
+
+  @Test
+  void testNativeTextRoundTrip() throws VoicevoxException {
+    Path dictPath = Paths.get("src/main/resources/voicevox_core/dict/open_jtalk_dic_utf_8-1.11").toAbsolutePath();
+    Path vvmPath = Paths.get("src/main/resources/voicevox_core/models/vvms/0.vvm").toAbsolutePath();
+    Voicevox voicevox = new Voicevox(Path.of("src/main/resources/voicevox_core").toAbsolutePath());
+
+    log.debug("=== NativeText テスト開始 ===");
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile modelFile = voicevox.useVoiceModelFile(vvmPath);
+        Synthesizer synthesizer = voicevox.createSynthesizer(dictionary)) {
+      synthesizer.loadVoiceModel(modelFile);
+
+      NativeText text = NativeText.of(TEST_TEXTS[2]);
+      try (text;
+          NativeText audioQuery = synthesizer.createAudioQueryAsNative(text, TEST_STYLE_ID)) {
+        Truth.assertThat(audioQuery.toString()).isEqualTo(synthesizer.createAudioQuery(TEST_TEXTS[2], TEST_STYLE_ID));
+        Truth.assertThat(synthesizer.synthesis(audioQuery, TEST_STYLE_ID))
+            .isEqualTo(synthesizer.synthesis(audioQuery.toString(), TEST_STYLE_ID));
+        Truth.assertThat(synthesizer.tts(text, TEST_STYLE_ID)).isEqualTo(synthesizer.tts(TEST_TEXTS[2], TEST_STYLE_ID));
+        log.debug("✓ オーディオクエリ作成から合成まで文字列を経由せずに実行 ({} バイト)", audioQuery.size());
+
+        try (NativeText accentPhrases = dictionary.analyzeAsNative(text)) {
+          Truth.assertThat(accentPhrases.toString()).isEqualTo(dictionary.analyze(TEST_TEXTS[2]));
+        }
+      }
+      Truth.assertThat(text.isClosed()).isTrue();
+      assertThrows(IllegalStateException.class, () -> synthesizer.tts(text, TEST_STYLE_ID));
+      log.debug("✓ クローズ後のNativeTextは使用できないことを確認");
+    }
+  }
+
+  @Test
+  void testNativeTextCloseDuringUse() throws Exception {
+    Path dictPath = Paths.get("src/main/resources/voicevox_core/dict/open_jtalk_dic_utf_8-1.11").toAbsolutePath();
+    Path vvmPath = Paths.get("src/main/resources/voicevox_core/models/vvms/0.vvm").toAbsolutePath();
+    Voicevox voicevox = new Voicevox(Path.of("src/main/resources/voicevox_core").toAbsolutePath());
+
+    log.debug("=== NativeText 使用中のクローズテスト開始 ===");
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile modelFile = voicevox.useVoiceModelFile(vvmPath);
+        Synthesizer synthesizer = voicevox.createSynthesizer(dictionary)) {
+      synthesizer.loadVoiceModel(modelFile);
+
+      String expected = dictionary.analyze(TEST_TEXTS[3]);
+      NativeText text = NativeText.of(TEST_TEXTS[3]);
+      CountDownLatch started = new CountDownLatch(THREADS);
+      AtomicInteger completed = new AtomicInteger();
+      AtomicInteger rejected = new AtomicInteger();
+      ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+      try {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+          futures.add(executor.submit(() -> {
+            started.countDown();
+            while (true) {
+              try (NativeText analyzed = dictionary.analyzeAsNative(text)) {
+                Truth.assertThat(analyzed.toString()).isEqualTo(expected);
+                completed.incrementAndGet();
+              } catch (IllegalStateException e) {
+                rejected.incrementAndGet();
+                return null;
+              }
+            }
+          }));
+        }
+        Truth.assertThat(started.await(60, TimeUnit.SECONDS)).isTrue();
+        // 他のスレッドがネイティブ関数の呼び出し中でもクローズできる
+        text.close();
+        for (Future<?> future : futures) {
+          future.get(60, TimeUnit.SECONDS);
+        }
+      } finally {
+        executor.shutdownNow();
+      }
+      Truth.assertThat(rejected.get()).isEqualTo(THREADS);
+      log.debug("✓ 使用中のクローズで解放が遅延され、{}回の解析がすべて正しい結果を返しました", completed.get());
+    }
+  }
 }
@@ -0,0 +1,87 @@
+package org.braid.society.secret.voicevox4j;
+
+import com.google.common.truth.Truth;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.api.Speaker;
+import org.braid.society.secret.voicevox4j.api.VoiceModelCatalog;
+import org.braid.society.secret.voicevox4j.api.VoiceModelFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * VoiceModelCatalogクラスのテストクラス。
+ */
+@Slf4j
+public class VoiceModelCatalogTest {
+
+  private final Path vvmPath = Paths.get("src/main/resources/voicevox_core/models/vvms/0.vvm").toAbsolutePath();
+  private final Voicevox voicevox = new Voicevox(Path.of("src/main/resources/voicevox_core").toAbsolutePath());
+
+  @TempDir
+  Path modelDir;
+
+  @Test
+  void testIndexIsReusedAndFilesOpenLazily() throws Exception {
+    log.debug("=== VoiceModelCatalog 索引の再利用と遅延オープンのテスト開始 ===");
+    Files.copy(vvmPath, modelDir.resolve("0.vvm"));
+    Path indexFile = modelDir.resolve(VoiceModelCatalog.DEFAULT_INDEX_FILE_NAME);
+
+    byte[] modelId;
+    try (VoiceModelCatalog catalog = voicevox.openVoiceModelCatalog(modelDir)) {
+      Truth.assertThat(catalog.getScannedCount()).isEqualTo(1);
+      Truth.assertThat(catalog.getEntries()).hasSize(1);
+      modelId = catalog.getEntries().get(0).getModelId();
+    }
+    Truth.assertThat(Files.exists(indexFile)).isTrue();
+    log.debug("✓ 索引ファイルが作成されました: {}", indexFile);
+
+    try (VoiceModelCatalog catalog = voicevox.openVoiceModelCatalog(modelDir);
+        VoiceModelFile expected = voicevox.useVoiceModelFile(vvmPath)) {
+      Truth.assertThat(catalog.getScannedCount()).isEqualTo(0);
+      VoiceModelCatalog.Entry entry = catalog.getEntries().get(0);
+      Truth.assertThat(entry.getModelId()).isEqualTo(modelId);
+      Truth.assertThat(entry.getSpeakers()).isEqualTo(expected.getSpeakers());
+      Truth.assertThat(entry.isOpen()).isFalse();
+      log.debug("✓ 変更のないファイルは開かずに索引から読み込まれました");
+
+      int styleId = entry.getSpeakers().get(0).getStyles().get(0).getId();
+      Truth.assertThat(catalog.findByStyle(styleId)).isSameInstanceAs(entry);
+      VoiceModelFile file = catalog.openForStyle(styleId);
+      Truth.assertThat(file.getModelId()).isEqualTo(modelId);
+      Truth.assertThat(catalog.openForStyle(styleId)).isSameInstanceAs(file);
+      Truth.assertThat(entry.isOpen()).isTrue();
+      log.debug("✓ スタイルの要求時にファイルが開かれました: {}", styleId);
+    }
+  }
+
+  @Test
+  void testChangedAndRemovedFilesAreDetected() throws Exception {
+    log.debug("=== VoiceModelCatalog 変更検出のテスト開始 ===");
+    Path model = modelDir.resolve("0.vvm");
+    Files.copy(vvmPath, model);
+    try (VoiceModelCatalog catalog = voicevox.openVoiceModelCatalog(modelDir)) {
+      Truth.assertThat(catalog.getScannedCount()).isEqualTo(1);
+    }
+
+    Files.setLastModifiedTime(model, FileTime.fromMillis(
+        Files.getLastModifiedTime(model).toMillis() + 60_000));
+    try (VoiceModelCatalog catalog = voicevox.openVoiceModelCatalog(modelDir)) {
+      Truth.assertThat(catalog.getScannedCount()).isEqualTo(1);
+      for (Speaker speaker : catalog.getStyleIndex().getSpeakers()) {
+        Truth.assertThat(speaker.getStyles()).isNotEmpty();
+      }
+    }
+    log.debug("✓ 更新日時の変わったファイルが読み直されました");
+
+    Files.delete(model);
+    try (VoiceModelCatalog catalog = voicevox.openVoiceModelCatalog(modelDir)) {
+      Truth.assertThat(catalog.getEntries()).isEmpty();
+      Truth.assertThat(catalog.getStyleIndex().size()).isEqualTo(0);
+    }
+    log.debug("✓ 削除されたファイルがカタログから除外されました");
+  }
+}
@@ -0,0 +1,78 @@
+package org.braid.society.secret.voicevox4j;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.truth.Truth;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.api.OpenJTalkDictionary;
+import org.braid.society.secret.voicevox4j.api.SynthesizerPool;
+import org.braid.society.secret.voicevox4j.api.VoiceModelFile;
+import org.braid.society.secret.voicevox4j.api.VoiceModelResidency;
+import org.junit.jupiter.api.Test;
+
+/**
+ * VoiceModelResidencyクラスのテストクラス。
+ */
+@Slf4j
+public class VoiceModelResidencyTest {
+
+  private static final Pattern STYLE_ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+  private final Path dictPath = Paths.get("src/main/resources/voicevox_core/dict/open_jtalk_dic_utf_8-1.11").toAbsolutePath();
+  private final Path firstVvmPath = Paths.get("src/main/resources/voicevox_core/models/vvms/0.vvm").toAbsolutePath();
+  private final Path secondVvmPath = Paths.get("src/main/resources/voicevox_core/models/vvms/1.vvm").toAbsolutePath();
+  private final Voicevox voicevox = new Voicevox(Path.of("src/main/resources/voicevox_core").toAbsolutePath());
+
+  @Test
+  void testLoadOnDemandAndEvictLeastRecentlyUsed() throws Exception {
+    log.debug("=== VoiceModelResidency 読み込みとアンロードのテスト開始 ===");
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile first = voicevox.useVoiceModelFile(firstVvmPath);
+        VoiceModelFile second = voicevox.useVoiceModelFile(secondVvmPath);
+        SynthesizerPool pool = voicevox.createSynthesizerPool(dictionary, 2)) {
+      VoiceModelResidency residency = new VoiceModelResidency(pool, Long.MAX_VALUE, 1);
+      residency.register(first, Files.size(firstVvmPath));
+      residency.register(second, Files.size(secondVvmPath));
+      int firstStyle = firstStyleOf(first);
+      int secondStyle = firstStyleOf(second);
+      Truth.assertThat(residency.isResident(firstStyle)).isFalse();
+      Truth.assertThat(residency.getResidentModelCount()).isEqualTo(0);
+
+      Truth.assertThat(residency.tts("こんにちは", firstStyle)).isNotEmpty();
+      Truth.assertThat(residency.isResident(firstStyle)).isTrue();
+      Truth.assertThat(residency.getLoadCount()).isEqualTo(1);
+      Truth.assertThat(residency.getResidentBytes()).isEqualTo(Files.size(firstVvmPath));
+      log.debug("✓ 最初の使用時に音声モデルが読み込まれました");
+
+      // 2つ目を使うと、上限を超えるため1つ目がアンロードされる
+      Truth.assertThat(residency.tts("こんにちは", secondStyle)).isNotEmpty();
+      Truth.assertThat(residency.isResident(secondStyle)).isTrue();
+      Truth.assertThat(residency.isResident(firstStyle)).isFalse();
+      Truth.assertThat(residency.getUnloadCount()).isEqualTo(1);
+      Truth.assertThat(residency.getResidentModelCount()).isEqualTo(1);
+      Truth.assertThat(residency.getAverageLoadLatency()).isGreaterThan(Duration.ZERO);
+      log.debug("✓ 最も長く使われていない音声モデルがアンロードされました（平均読み込み時間: {}）",
+          residency.getAverageLoadLatency());
+
+      // 使用中の音声モデルはアンロードされない
+      residency.withStyle(firstStyle, synthesizer -> {
+        Truth.assertThat(synthesizer.isLoadedVoiceModel(first.getModelId())).isTrue();
+        return null;
+      });
+      Truth.assertThat(residency.getLoadCount()).isEqualTo(3);
+      assertThrows(IllegalArgumentException.class, () -> residency.tts("こんにちは", Integer.MAX_VALUE));
+    }
+  }
+
+  private static int firstStyleOf(VoiceModelFile model) {
+    Matcher matcher = STYLE_ID.matcher(model.getMetasJson());
+    Truth.assertThat(matcher.find()).isTrue();
+    return Integer.parseInt(matcher.group(1));
+  }
+}
@@ -0,0 +1,78 @@
+package org.braid.society.secret.voicevox4j;
+
+import com.google.common.truth.Truth;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.VoicevoxBootstrap.Phase;
+import org.braid.society.secret.voicevox4j.api.PreloadProfile;
+import org.braid.society.secret.voicevox4j.api.VoiceModelFile;
+import org.braid.society.secret.voicevox4j.exception.VoicevoxException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * VoicevoxBootstrapクラスとPreloadProfileクラスのテストクラス。
+ */
+@Slf4j
+public class VoicevoxBootstrapTest {
+
+  private final Path libPath = Path.of("src/main/resources/voicevox_core").toAbsolutePath();
+  private final Path dictPath = Paths.get("src/main/resources/voicevox_core/dict/open_jtalk_dic_utf_8-1.11").toAbsolutePath();
+  private final Path vvmDir = Paths.get("src/main/resources/voicevox_core/models/vvms").toAbsolutePath();
+
+  @Test
+  void testProfileFromJson() {
+    log.debug("=== PreloadProfile JSON解析のテスト開始 ===");
+    PreloadProfile profile = PreloadProfile.fromJson("""
+        {"eager": ["0.vvm"], "lazy": ["1.vvm", "2.vvm"], "memoryBudget": 1073741824, "maxResidentModels": 2}""",
+        vvmDir);
+    Truth.assertThat(profile.getEagerModels()).containsExactly(vvmDir.resolve("0.vvm"));
+    Truth.assertThat(profile.getLazyModels()).containsExactly(vvmDir.resolve("1.vvm"), vvmDir.resolve("2.vvm")).inOrder();
+    Truth.assertThat(profile.getMemoryBudget()).isEqualTo(1L << 30);
+    Truth.assertThat(profile.getMaxResidentModels()).isEqualTo(2);
+    log.debug("✓ プロファイルが正しく解析されました");
+  }
+
+  @Test
+  void testStartLoadsEagerModelsAndRegistersLazyModels() throws Exception {
+    log.debug("=== VoicevoxBootstrap 起動のテスト開始 ===");
+    PreloadProfile profile = new PreloadProfile()
+        .addEager(vvmDir.resolve("0.vvm"))
+        .addLazy(vvmDir.resolve("1.vvm"));
+    try (VoicevoxEngine engine = new VoicevoxBootstrap(libPath, dictPath)
+        .setPoolSize(2)
+        .setProfile(profile)
+        .setWarmup(List.of("テスト"))
+        .start()) {
+      Truth.assertThat(engine.getPool().size()).isEqualTo(2);
+      Truth.assertThat(engine.isReady()).isTrue();
+      VoiceModelFile eager = engine.getEagerModels().get(0);
+      engine.getPool().withSynthesizer(synthesizer -> {
+        Truth.assertThat(synthesizer.isLoadedVoiceModel(eager.getModelId())).isTrue();
+        return null;
+      });
+      log.debug("✓ 即時読み込みの音声モデルがすべての合成器に読み込まれました");
+
+      int lazyStyle = engine.getLazyModels().get(0).getSpeakers().get(0).getStyles().get(0).getId();
+      Truth.assertThat(engine.getResidency().isResident(lazyStyle)).isFalse();
+      byte[] wav = engine.getResidency().tts("こんにちは", lazyStyle);
+      Truth.assertThat(wav.length).isGreaterThan(44);
+      Truth.assertThat(engine.getResidency().isResident(lazyStyle)).isTrue();
+      log.debug("✓ 遅延読み込みの音声モデルが使用時に読み込まれました");
+
+      Truth.assertThat(engine.getPhaseTimings().keySet()).containsExactlyElementsIn(Phase.values());
+      log.debug("✓ 起動時間: {} 手順ごと: {}", engine.getTotalTime(), engine.getPhaseTimings());
+    }
+  }
+
+  @Test
+  void testFailedStartReleasesResources() {
+    log.debug("=== VoicevoxBootstrap 起動失敗のテスト開始 ===");
+    PreloadProfile profile = new PreloadProfile().addEager(vvmDir.resolve("missing.vvm"));
+    Assertions.assertThrows(VoicevoxException.class,
+        () -> new VoicevoxBootstrap(libPath, dictPath).setProfile(profile).start());
+    log.debug("✓ 存在しない音声モデルで起動が失敗しました");
+  }
+}
@@ -0,0 +1,111 @@
+package org.braid.society.secret.voicevox4j;
+
+import com.google.common.truth.Truth;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.braid.society.secret.voicevox4j.api.OpenJTalkDictionary;
+import org.braid.society.secret.voicevox4j.api.Synthesizer;
+import org.braid.society.secret.voicevox4j.api.UserDict;
+import org.braid.society.secret.voicevox4j.api.VoiceModelFile;
+import org.braid.society.secret.voicevox4j.api.WavCache;
+import org.junit.jupiter.api.Test;
+
+/**
+ * WavCacheクラスのテストクラス。
+ */
+@Slf4j
+public class WavCacheTest {
+
+  private static final int TEST_STYLE_ID = 0;
+
+  private final Path dictPath = Paths.get("src/main/resources/voicevox_core/dict/open_jtalk_dic_utf_8-1.11").toAbsolutePath();
+  private final Path vvmPath = Paths.get("src/main/resources/voicevox_core/models/vvms/0.vvm").toAbsolutePath();
+  private final Voicevox voicevox = new Voicevox(Path.of("src/main/resources/voicevox_core").toAbsolutePath());
+
+  @Test
+  void testHitAndStreamFromCache() throws Exception {
+    log.debug("=== WavCache ヒットのテスト開始 ===");
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile model = voicevox.useVoiceModelFile(vvmPath);
+        Synthesizer synthesizer = voicevox.createSynthesizer(dictionary);
+        WavCache cache = new WavCache(16 * 1024 * 1024)) {
+      synthesizer.loadVoiceModel(model);
+      synthesizer.setWavCache(cache);
+
+      byte[] first = synthesizer.tts("こんにちは", TEST_STYLE_ID);
+      byte[] second = synthesizer.tts("こんにちは", TEST_STYLE_ID);
+      Truth.assertThat(second).isEqualTo(first);
+      Truth.assertThat(cache.getHitCount()).isEqualTo(1);
+      Truth.assertThat(cache.getMissCount()).isEqualTo(1);
+      Truth.assertThat(cache.getWeightedSize()).isEqualTo((long) first.length);
+      log.debug("✓ 2回目の合成はキャッシュから返されました: {} バイト", first.length);
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      Truth.assertThat(synthesizer.tts("こんにちは", TEST_STYLE_ID, out)).isEqualTo(first.length);
+      Truth.assertThat(out.toByteArray()).isEqualTo(first);
+      Truth.assertThat(cache.getHitCount()).isEqualTo(2);
+      log.debug("✓ キャッシュからストリームへ直接書き込まれました");
+
+      // AudioQueryからの合成はtts()とは別のエントリになる
+      String audioQuery = synthesizer.createAudioQuery("こんにちは", TEST_STYLE_ID);
+      synthesizer.synthesis(audioQuery, TEST_STYLE_ID);
+      Truth.assertThat(cache.size()).isEqualTo(2);
+      log.debug("✓ 合成の種類ごとにエントリが分かれています");
+    }
+  }
+
+  @Test
+  void testUserDictChangeMisses() throws Exception {
+    log.debug("=== WavCache ユーザー辞書変更のテスト開始 ===");
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile model = voicevox.useVoiceModelFile(vvmPath);
+        Synthesizer synthesizer = voicevox.createSynthesizer(dictionary);
+        UserDict userDict = voicevox.createUserDict();
+        WavCache cache = new WavCache(16 * 1024 * 1024)) {
+      synthesizer.loadVoiceModel(model);
+      synthesizer.setWavCache(cache);
+      UUID word = userDict.addWord("ボイボ", "ボイボ", 1);
+      dictionary.useUserDict(userDict);
+
+      byte[] before = synthesizer.tts("ボイボ", TEST_STYLE_ID);
+      Truth.assertThat(synthesizer.tts("ボイボ", TEST_STYLE_ID)).isEqualTo(before);
+      Truth.assertThat(cache.getHitCount()).isEqualTo(1);
+
+      userDict.updateWord(word, "ボイボ", "ボイスボックス", 3);
+      byte[] after = synthesizer.tts("ボイボ", TEST_STYLE_ID);
+      Truth.assertThat(cache.getHitCount()).isEqualTo(1);
+      Truth.assertThat(cache.getMissCount()).isEqualTo(2);
+      Truth.assertThat(after).isNotEqualTo(before);
+      log.debug("✓ 読みの変更後は以前の合成結果が使われませんでした");
+    }
+  }
+
+  @Test
+  void testEvictionAndClose() throws Exception {
+    log.debug("=== WavCache 容量制限のテスト開始 ===");
+    try (OpenJTalkDictionary dictionary = voicevox.initOpenJTalkDictionary(dictPath);
+        VoiceModelFile model = voicevox.useVoiceModelFile(vvmPath);
+        Synthesizer synthesizer = voicevox.createSynthesizer(dictionary)) {
+      synthesizer.loadVoiceModel(model);
+      byte[] sample = synthesizer.tts("これは0番目の文です。", TEST_STYLE_ID);
+      long maxBytes = sample.length * 3L;
+      WavCache cache = new WavCache(maxBytes);
+      synthesizer.setWavCache(cache);
+
+      for (int i = 0; i < 10; i++) {
+        synthesizer.tts("これは" + i + "番目の文です。", TEST_STYLE_ID);
+      }
+      Truth.assertThat(cache.getWeightedSize()).isAtMost(maxBytes);
+      Truth.assertThat(cache.getEvictionCount()).isGreaterThan(0L);
+      log.debug("✓ 容量を超えたエントリが追い出されました: {}件保持", cache.size());
+
+      cache.close();
+      Truth.assertThat(cache.size()).isEqualTo(0);
+      Truth.assertThat(synthesizer.tts("これは0番目の文です。", TEST_STYLE_ID)).isNotEmpty();
+      log.debug("✓ クローズ後もキャッシュなしで合成できました");
+    }
+  }
+}